@@ -0,0 +1,28 @@
+package net.thesilkminer.skl.interpreter.benchmark.skd;
+
+import org.openjdk.jmh.annotations.Param;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Reads and writes the databases shipped with the interpreter, used
+ * as a baseline for the {@link SyntheticSkdBenchmark synthetic} ones.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public class BaselineSkdBenchmark extends SkdBenchmark {
+
+	@Param({
+			"/assets/interpreterx/skdx/thesilkminer/parserex/v0_1/databases/Test.skd",
+			"/assets/skd_interpreter/examples/DatabaseExample.skd"
+	})
+	public String resource;
+
+	@Nonnull
+	@Override
+	protected String database() {
+		return SkdDatabases.resource(this.resource);
+	}
+}
@@ -0,0 +1,129 @@
+package net.thesilkminer.skl.interpreter.benchmark.skd;
+
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.implementation.skd.DatabaseFile;
+import net.thesilkminer.skl.interpreter.implementation.skd.SkdParser;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.NewSkdParser;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.ParserExV01;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Base class of the benchmarks that read and write a database with
+ * both the {@link SkdParser original parser} and the
+ * {@link NewSkdParser new one}.
+ *
+ * <p>Every benchmark is run both in throughput and in sample time
+ * mode, the latter reporting the latency percentiles (p99
+ * included). The Gradle {@code jmh} task also enables the
+ * {@code gc} profiler, which reports the allocation rate.</p>
+ *
+ * <p>The parsers use global state (the {@link ParserExV01} services
+ * are registered only when benchmarking the {@link NewSkdParser}),
+ * so benchmarks must always run in a forked JVM.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class SkdBenchmark {
+
+	/**
+	 * The parser to benchmark: either {@code SkdParser} or
+	 * {@code NewSkdParser}.
+	 *
+	 * @since 0.1
+	 */
+	@Param({"SkdParser", "NewSkdParser"})
+	public String parser;
+
+	private File input;
+	private File output;
+	private IDatabase database;
+
+	/**
+	 * Gets the database the benchmarks should run on.
+	 *
+	 * @return
+	 *      The database, in its textual form.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	protected abstract String database();
+
+	@Setup
+	public void setUp() throws IOException {
+		if (this.isNewParser()) {
+			new ParserExV01().init();
+		}
+
+		this.input = File.createTempFile("benchmark", ".skd");
+		this.output = File.createTempFile("benchmark-output", ".skd");
+		Files.write(this.input.toPath(), this.database().getBytes(StandardCharsets.UTF_8));
+
+		this.database = this.read();
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (!this.input.delete()) {
+			this.input.deleteOnExit();
+		}
+		if (!this.output.delete()) {
+			this.output.deleteOnExit();
+		}
+	}
+
+	@Benchmark
+	public IDatabase read() {
+		final ISkdParser parser = this.parser(DatabaseFile.of(this.input));
+		parser.init(false);
+		return parser.read();
+	}
+
+	@Benchmark
+	public boolean write() {
+		if (!this.parser(DatabaseFile.of(this.output)).write(this.database,
+				DatabaseFile.of(this.output))) {
+			throw new UncheckedIOException(new IOException("Unable to write " + this.output));
+		}
+		return true;
+	}
+
+	private boolean isNewParser() {
+		return "NewSkdParser".equals(this.parser);
+	}
+
+	@Nonnull
+	private ISkdParser parser(@Nonnull final IDatabaseHolder holder) {
+		return this.isNewParser() ? NewSkdParser.get(holder) : SkdParser.of(holder, false);
+	}
+}
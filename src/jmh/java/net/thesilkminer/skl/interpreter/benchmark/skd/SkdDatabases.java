@@ -0,0 +1,127 @@
+package net.thesilkminer.skl.interpreter.benchmark.skd;
+
+import com.google.common.io.CharStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nonnull;
+
+/**
+ * Provides the databases the SKD benchmarks run on.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class SkdDatabases {
+
+	private static final String HEADER = "<!DOCTYPE skd http://thesilkminer.net/sks/skd/default.skd>\n"
+			+ "<SKD version 0.2>\n\n";
+
+	private SkdDatabases() {
+	}
+
+	/**
+	 * Generates a synthetic database.
+	 *
+	 * <p>The database has {@code width} main tags. Every tag has
+	 * {@code width} children, down to {@code depth} levels: the
+	 * total amount of tags is thus the sum of all the powers of
+	 * {@code width} up to {@code depth}.</p>
+	 *
+	 * @param width
+	 *      The amount of main tags and of children of every tag.
+	 * @param depth
+	 *      The amount of levels, main tags included.
+	 * @param contentLines
+	 *      The lines of content of every leaf tag. Leaves with no
+	 *      content are void tags.
+	 * @param properties
+	 *      The amount of properties of every tag.
+	 * @return
+	 *      The database, in its textual form.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static String synthetic(final int width, final int depth, final int contentLines,
+	                        final int properties) {
+		final StringBuilder builder = new StringBuilder(HEADER);
+
+		for (int i = 0; i < width; ++i) {
+			tag(builder, "main", i, 0, width, depth, contentLines, properties);
+		}
+
+		return builder.toString();
+	}
+
+	private static void tag(@Nonnull final StringBuilder builder, @Nonnull final String name,
+	                        final int index, final int level, final int width, final int depth,
+	                        final int contentLines, final int properties) {
+		indent(builder, level);
+		builder.append('<').append(name);
+
+		for (int i = 0; i < properties; ++i) {
+			builder.append(" p").append(i).append("=\"value ").append(index).append('"');
+		}
+
+		final boolean leaf = level == depth - 1;
+
+		if (leaf && contentLines == 0) {
+			builder.append(" />\n");
+			return;
+		}
+
+		builder.append(">\n");
+
+		if (leaf) {
+			for (int i = 0; i < contentLines; ++i) {
+				indent(builder, level + 1);
+				builder.append("Line ").append(i).append(" of the content of tag ").append(index)
+						.append('\n');
+			}
+		} else {
+			for (int i = 0; i < width; ++i) {
+				tag(builder, "level" + (level + 1), i, level + 1, width, depth,
+						contentLines, properties);
+			}
+		}
+
+		indent(builder, level);
+		builder.append("</").append(name).append(">\n");
+	}
+
+	private static void indent(@Nonnull final StringBuilder builder, final int level) {
+		for (int i = 0; i < level; ++i) {
+			builder.append('\t');
+		}
+	}
+
+	/**
+	 * Reads one of the databases shipped with the interpreter.
+	 *
+	 * @param path
+	 *      The path of the database in the classpath.
+	 * @return
+	 *      The database, in its textual form.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static String resource(@Nonnull final String path) {
+		final InputStream in = SkdDatabases.class.getResourceAsStream(path);
+
+		if (in == null) {
+			throw new IllegalArgumentException("Database " + path + " not found");
+		}
+
+		try (final InputStreamReader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+			return CharStreams.toString(reader);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package net.thesilkminer.skl.interpreter.benchmark.skd;
+
+import org.openjdk.jmh.annotations.Param;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Reads and writes {@link SkdDatabases#synthetic(int, int, int, int) synthetic}
+ * databases of varying shape.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public class SyntheticSkdBenchmark extends SkdBenchmark {
+
+	@Param({"4", "16"})
+	public int width;
+
+	@Param({"1", "3"})
+	public int depth;
+
+	@Param({"0", "16"})
+	public int contentLines;
+
+	@Param({"0", "8"})
+	public int properties;
+
+	@Nonnull
+	@Override
+	protected String database() {
+		return SkdDatabases.synthetic(this.width, this.depth, this.contentLines, this.properties);
+	}
+}
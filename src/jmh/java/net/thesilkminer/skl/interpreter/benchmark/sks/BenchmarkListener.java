@@ -0,0 +1,70 @@
+package net.thesilkminer.skl.interpreter.benchmark.sks;
+
+import net.thesilkminer.skl.interpreter.api.sks.holder.IScriptHolder;
+import net.thesilkminer.skl.interpreter.api.sks.listener.IScriptListener;
+import net.thesilkminer.skl.interpreter.api.sks.listener.Result;
+import net.thesilkminer.skl.interpreter.api.sks.parser.ISksParser;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Listener of the benchmark scripts.
+ *
+ * <p>It only counts the lines it gets, so that the benchmarks measure
+ * the parser and not e.g. the Java compiler.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class BenchmarkListener implements IScriptListener {
+
+	/**
+	 * The language of the benchmark scripts.
+	 *
+	 * @since 0.1
+	 */
+	static final String LANGUAGE = "benchmark";
+
+	private long lines;
+
+	@Override
+	public String listenerFor() {
+		return LANGUAGE;
+	}
+
+	@Override
+	public boolean needsInit() {
+		return false;
+	}
+
+	@Override
+	public boolean hasAlreadyInit() {
+		return true;
+	}
+
+	@Override
+	public void init(final ISksParser parser, final IScriptHolder scriptFile) {
+	}
+
+	@Override
+	public void runScript(final List<String> lines) {
+		this.lines += lines.size();
+	}
+
+	@Override
+	public Result result() {
+		return Result.SUCCESSFUL;
+	}
+
+	@Override
+	public Optional<List<String>> toLog() {
+		return Optional.empty();
+	}
+
+	@Override
+	public String toString() {
+		return "BenchmarkListener{lines=" + this.lines + "}";
+	}
+}
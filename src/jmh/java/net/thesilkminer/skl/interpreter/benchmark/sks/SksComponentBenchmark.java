@@ -0,0 +1,131 @@
+package net.thesilkminer.skl.interpreter.benchmark.sks;
+
+import net.thesilkminer.skl.interpreter.api.sks.language.ComponentArguments;
+import net.thesilkminer.skl.interpreter.api.sks.language.components.ILanguageComponent;
+import net.thesilkminer.skl.interpreter.implementation.sks.ScriptFile;
+import net.thesilkminer.skl.interpreter.implementation.sks.SksParser;
+import net.thesilkminer.skl.interpreter.implementation.sks.components.decisionals.EndIfDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.sks.components.decisionals.IfDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.sks.components.declaration.ScriptDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.sks.components.language.LanguageDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.sks.components.markers.ScriptEndDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.sks.components.markers.ScriptStartDeclaration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the single steps of the {@link SksParser} that run for
+ * every directive or every script, reporting the time spent on every
+ * line.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(SksScripts.LINES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SksComponentBenchmark {
+
+	private static final String[] DIRECTIVES = {
+		"<#language \"" + BenchmarkListener.LANGUAGE + "\">",
+		"<#script \"Benchmark\" visibility public>",
+		"<#ifdef \"" + SksScripts.PROPERTY + "=true\" type javaProperty>",
+		"<#endif>",
+		"<#start script>",
+		"<#end script>",
+	};
+
+	private SksParser parser;
+	private ILanguageComponent[] components;
+	private String[] lines;
+	private String[] commands;
+	private String[][] args;
+	private List<String> body;
+
+	@Setup
+	public void setUp() {
+		SksScripts.install();
+
+		this.parser = SksParser.of(ScriptFile.of(
+				new File(System.getProperty("java.io.tmpdir"), "benchmark.sks")), false);
+		SksParserHooks.parseString(this.parser, DIRECTIVES[0]);
+
+		final ILanguageComponent[] components = {
+			new LanguageDeclaration(),
+			new ScriptDeclaration(),
+			new IfDeclaration(),
+			new EndIfDeclaration(),
+			new ScriptStartDeclaration(),
+			new ScriptEndDeclaration(),
+		};
+
+		this.components = new ILanguageComponent[SksScripts.LINES];
+		this.lines = new String[SksScripts.LINES];
+		this.commands = new String[SksScripts.LINES];
+		this.args = new String[SksScripts.LINES][];
+
+		// Split just like SksParser#parseString does
+		for (int i = 0; i < SksScripts.LINES; ++i) {
+			final String line = DIRECTIVES[i % DIRECTIVES.length];
+			final String[] parts = line.substring(2, line.length() - 1).split(Pattern.quote(" "));
+
+			this.components[i] = components[i % components.length];
+			this.lines[i] = line;
+			this.commands[i] = parts[0];
+			this.args[i] = new String[parts.length - 1];
+			System.arraycopy(parts, 1, this.args[i], 0, parts.length - 1);
+		}
+
+		this.body = SksScripts.body();
+	}
+
+	/**
+	 * Binds the arguments of every directive through
+	 * {@link ComponentArguments} and lets its component parse it.
+	 */
+	@Benchmark
+	public int bind() {
+		int applied = 0;
+
+		for (int i = 0; i < SksScripts.LINES; ++i) {
+			if (!SksParserHooks.canApply(this.parser, this.components[i], this.commands[i],
+					this.args[i])) {
+				continue;
+			}
+			SksParserHooks.tryParseString(this.parser, this.components[i], this.lines[i],
+					ComponentArguments.of(), this.args[i]);
+			++applied;
+		}
+
+		return applied;
+	}
+
+	/**
+	 * Sends a script body to the listener.
+	 */
+	@Benchmark
+	public SksParser dispatch() {
+		SksParserHooks.sendToListeners(this.parser, this.body);
+		return this.parser;
+	}
+}
@@ -0,0 +1,102 @@
+package net.thesilkminer.skl.interpreter.benchmark.sks;
+
+import net.thesilkminer.skl.interpreter.implementation.sks.ScriptFile;
+import net.thesilkminer.skl.interpreter.implementation.sks.SksParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses {@link SksScripts#generate(String) generated} scripts with
+ * the {@link SksParser}, reporting the time spent on every line.
+ *
+ * <p>Scripts are sent to a {@link BenchmarkListener} which does not
+ * compile them, so no time is spent in {@code javac}.</p>
+ *
+ * <p>The parser uses global state (the listener is registered once
+ * per JVM), so benchmarks must always run in a forked JVM.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(SksScripts.LINES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SksParserBenchmark {
+
+	/**
+	 * The shape of the script: either {@code directives},
+	 * {@code skipped} or {@code body}.
+	 *
+	 * @since 0.1
+	 */
+	@Param({"directives", "skipped", "body"})
+	public String shape;
+
+	private File input;
+	private List<String> lines;
+
+	@Setup
+	public void setUp() throws IOException {
+		SksScripts.install();
+
+		this.lines = SksScripts.generate(this.shape);
+		this.input = File.createTempFile("benchmark", ".sks");
+		Files.write(this.input.toPath(), this.lines, StandardCharsets.UTF_8);
+	}
+
+	@TearDown
+	public void tearDown() {
+		if (!this.input.delete()) {
+			this.input.deleteOnExit();
+		}
+	}
+
+	/**
+	 * Reads and parses the whole script, then sends it to the
+	 * listener.
+	 */
+	@Benchmark
+	public SksParser parse() {
+		final SksParser parser = SksParser.of(ScriptFile.of(this.input), false);
+		parser.initParser(false);
+		parser.parse();
+		return parser;
+	}
+
+	/**
+	 * Recognizes and applies the directives of the script, without
+	 * reading it and without sending it to the listener.
+	 */
+	@Benchmark
+	public SksParser parseString() {
+		final SksParser parser = SksParser.of(ScriptFile.of(this.input), false);
+		for (final String line : this.lines) {
+			SksParserHooks.parseString(parser, line);
+		}
+		return parser;
+	}
+}
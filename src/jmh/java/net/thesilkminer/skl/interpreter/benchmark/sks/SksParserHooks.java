@@ -0,0 +1,141 @@
+package net.thesilkminer.skl.interpreter.benchmark.sks;
+
+import com.google.common.base.Throwables;
+
+import net.thesilkminer.skl.interpreter.api.sks.language.ComponentArguments;
+import net.thesilkminer.skl.interpreter.api.sks.language.components.ILanguageComponent;
+import net.thesilkminer.skl.interpreter.implementation.sks.SksParser;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Calls the single steps of the {@link SksParser}, which are private,
+ * so that they can be measured on their own.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class SksParserHooks {
+
+	private static final MethodHandle PARSE_STRING = find("parseString", String.class);
+	private static final MethodHandle CAN_APPLY = find("canApply", ILanguageComponent.class,
+			String.class, String[].class);
+	private static final MethodHandle TRY_PARSE_STRING = find("tryParseString",
+			ILanguageComponent.class, String.class, ComponentArguments.class, String[].class);
+	private static final MethodHandle SEND_TO_LISTENERS = find("sendToListeners", List.class);
+
+	private SksParserHooks() {
+	}
+
+	@Nonnull
+	private static MethodHandle find(@Nonnull final String name, @Nonnull final Class<?>... types) {
+		try {
+			final Method method = SksParser.class.getDeclaredMethod(name, types);
+			method.setAccessible(true);
+			return MethodHandles.lookup().unreflect(method);
+		} catch (final ReflectiveOperationException exception) {
+			throw new IllegalStateException("SksParser#" + name + " not found", exception);
+		}
+	}
+
+	/**
+	 * Parses a line: recognizes the directive, if any, and applies it.
+	 *
+	 * @param parser
+	 *      The parser.
+	 * @param line
+	 *      The line.
+	 * @return
+	 *      If the line was a directive or it was skipped.
+	 *
+	 * @since 0.1
+	 */
+	static boolean parseString(@Nonnull final SksParser parser, @Nonnull final String line) {
+		try {
+			return (boolean) PARSE_STRING.invokeExact(parser, line);
+		} catch (final Throwable throwable) {
+			throw Throwables.propagate(throwable);
+		}
+	}
+
+	/**
+	 * Binds the arguments of a directive to the ones of the given
+	 * component, to check if the component can parse it.
+	 *
+	 * @param parser
+	 *      The parser.
+	 * @param component
+	 *      The component.
+	 * @param command
+	 *      The command of the directive.
+	 * @param args
+	 *      The arguments of the directive.
+	 * @return
+	 *      If the component can parse the directive.
+	 *
+	 * @since 0.1
+	 */
+	static boolean canApply(@Nonnull final SksParser parser,
+	                        @Nonnull final ILanguageComponent component,
+	                        @Nonnull final String command, @Nonnull final String[] args) {
+		try {
+			return (boolean) CAN_APPLY.invokeExact(parser, component, command, args);
+		} catch (final Throwable throwable) {
+			throw Throwables.propagate(throwable);
+		}
+	}
+
+	/**
+	 * Binds the arguments of a directive and lets the component parse
+	 * it. Must be called right after {@link #canApply(SksParser,
+	 * ILanguageComponent, String, String[]) canApply}.
+	 *
+	 * @param parser
+	 *      The parser.
+	 * @param component
+	 *      The component.
+	 * @param line
+	 *      The directive.
+	 * @param arguments
+	 *      The arguments to bind.
+	 * @param args
+	 *      The arguments of the directive.
+	 *
+	 * @since 0.1
+	 */
+	static void tryParseString(@Nonnull final SksParser parser,
+	                           @Nonnull final ILanguageComponent component,
+	                           @Nonnull final String line,
+	                           @Nonnull final ComponentArguments arguments,
+	                           @Nonnull final String[] args) {
+		try {
+			TRY_PARSE_STRING.invokeExact(parser, component, line, arguments, args);
+		} catch (final Throwable throwable) {
+			throw Throwables.propagate(throwable);
+		}
+	}
+
+	/**
+	 * Sends the script to the listeners.
+	 *
+	 * @param parser
+	 *      The parser, which must already know the language.
+	 * @param lines
+	 *      The lines of the script.
+	 *
+	 * @since 0.1
+	 */
+	static void sendToListeners(@Nonnull final SksParser parser,
+	                            @Nonnull final List<String> lines) {
+		try {
+			SEND_TO_LISTENERS.invokeExact(parser, lines);
+		} catch (final Throwable throwable) {
+			throw Throwables.propagate(throwable);
+		}
+	}
+}
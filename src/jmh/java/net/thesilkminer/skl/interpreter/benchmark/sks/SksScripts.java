@@ -0,0 +1,140 @@
+package net.thesilkminer.skl.interpreter.benchmark.sks;
+
+import com.google.common.collect.Lists;
+
+import net.thesilkminer.skl.interpreter.implementation.sks.SksParser;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Provides the scripts the SKS benchmarks run on.
+ *
+ * <p>All scripts have exactly {@link #LINES} lines, so that the
+ * benchmarks can report the time spent on every line.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class SksScripts {
+
+	/**
+	 * The amount of lines of every script.
+	 *
+	 * @since 0.1
+	 */
+	static final int LINES = 1024;
+
+	/**
+	 * The system property tested by the {@code ifdef} directives:
+	 * it is always {@code true}, so regions whose condition is
+	 * {@code false} are skipped.
+	 *
+	 * @since 0.1
+	 */
+	static final String PROPERTY = "skl.sks.benchmark";
+
+	private static final String LANGUAGE = "<#language \"" + BenchmarkListener.LANGUAGE + "\">";
+	private static final String SCRIPT = "<#script \"Benchmark\" visibility public>";
+	private static final String START = "<#start script>";
+	private static final String END = "<#end script>";
+	private static final String IF_TRUE = "<#ifdef \"" + PROPERTY + "=true\" type javaProperty>";
+	private static final String IF_FALSE = "<#ifdef \"" + PROPERTY + "=false\" type javaProperty>";
+	private static final String END_IF = "<#endif>";
+
+	private SksScripts() {
+	}
+
+	/**
+	 * Sets up the global state the scripts need: the {@link #PROPERTY}
+	 * and a {@link BenchmarkListener listener} for their language,
+	 * which does not compile them.
+	 *
+	 * @since 0.1
+	 */
+	static void install() {
+		System.setProperty(PROPERTY, "true");
+		SksParser.listener(new BenchmarkListener());
+	}
+
+	/**
+	 * Generates a script.
+	 *
+	 * <p>The available shapes are:</p>
+	 *
+	 * <ul>
+	 *     <li>{@code directives}: the script is made almost only of
+	 *     {@code ifdef} and {@code endif} directives, whose condition
+	 *     is always {@code true};</li>
+	 *     <li>{@code skipped}: almost all the lines of the script are
+	 *     in an {@code ifdef} region whose condition is {@code false};</li>
+	 *     <li>{@code body}: almost all the lines of the script are
+	 *     sent to the listener.</li>
+	 * </ul>
+	 *
+	 * @param shape
+	 *      The shape of the script.
+	 * @return
+	 *      The lines of the script.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static List<String> generate(@Nonnull final String shape) {
+		final List<String> lines = Lists.newArrayListWithCapacity(LINES);
+		lines.add(LANGUAGE);
+		lines.add(SCRIPT);
+
+		switch (shape) {
+			case "directives":
+				while (lines.size() + 2 <= LINES - 3) {
+					lines.add(IF_TRUE);
+					lines.add(END_IF);
+				}
+				break;
+			case "skipped":
+				lines.add(IF_FALSE);
+				while (lines.size() < LINES - 4) {
+					lines.add(body(lines.size()));
+				}
+				lines.add(END_IF);
+				break;
+			case "body":
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown shape " + shape);
+		}
+
+		lines.add(START);
+		while (lines.size() < LINES - 1) {
+			lines.add(body(lines.size()));
+		}
+		lines.add(END);
+
+		return lines;
+	}
+
+	/**
+	 * Generates the lines of a script body, as a listener would get
+	 * them.
+	 *
+	 * @return
+	 *      The lines of the body.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static List<String> body() {
+		final List<String> lines = Lists.newArrayListWithCapacity(LINES);
+		while (lines.size() < LINES) {
+			lines.add(body(lines.size()));
+		}
+		return lines;
+	}
+
+	@Nonnull
+	private static String body(final int index) {
+		return "\t\tSystem.out.println(\"Line " + index + " of the benchmark script\");";
+	}
+}
@@ -2,6 +2,8 @@ package net.thesilkminer.skl.interpreter.api.skd.holder;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
@@ -90,4 +92,57 @@ public interface IDatabaseHolder {
 	default Optional<BufferedWriter> writerStream() {
 		return Optional.empty();
 	}
+
+	/**
+	 * Gets if the current database holder holds a database encoded
+	 * in the binary SKD format (usually {@code .skdb} files),
+	 * instead of the textual one.
+	 *
+	 * <p>Binary holders must be read through {@link #byteStream()}
+	 * and written through {@link #byteWriterStream()}.</p>
+	 *
+	 * @return
+	 *      If the holder contains a binary database.
+	 *
+	 * @since 0.2.1
+	 */
+	default boolean binary() {
+		return false;
+	}
+
+	/**
+	 * Obtains an {@link InputStream} that can be used to read this
+	 * holder's raw contents.
+	 *
+	 * <p>By default, holders do not support raw access to their
+	 * contents, so this method throws an exception.</p>
+	 *
+	 * @return
+	 *      A valid and {@link Nonnull not null} input stream.
+	 * @throws UnsupportedOperationException
+	 *      If the holder does not support raw access.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	default InputStream byteStream() {
+		throw new UnsupportedOperationException("Raw access not supported by " + this);
+	}
+
+	/**
+	 * Gets an {@link OutputStream} used to write raw contents on
+	 * this database holder.
+	 *
+	 * <p>The same rules of {@link #writerStream()} apply.</p>
+	 *
+	 * @return
+	 *      An {@link Optional} containing a valid output stream,
+	 *      or empty if not applicable.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	default Optional<OutputStream> byteWriterStream() {
+		return Optional.empty();
+	}
 }
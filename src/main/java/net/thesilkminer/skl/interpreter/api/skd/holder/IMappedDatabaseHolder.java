@@ -0,0 +1,96 @@
+package net.thesilkminer.skl.interpreter.api.skd.holder;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Marks the specified database holder as backed by a memory
+ * mapped region, instead of by a plain stream.
+ *
+ * <p>Parsers that know about this interface should prefer
+ * {@link #charView()} or {@link #window(long)} over
+ * {@link #readerStream()}, which is only provided for
+ * compatibility.</p>
+ *
+ * <p>Since a single mapping cannot exceed {@link Integer#MAX_VALUE}
+ * bytes, the contents are exposed as a series of sliding
+ * windows, each one of at most {@link #windowSize()} bytes.</p>
+ *
+ * @since 0.2.1
+ */
+public interface IMappedDatabaseHolder extends IDatabaseHolder {
+
+	/**
+	 * Gets the size, in bytes, of this holder's contents.
+	 *
+	 * @return
+	 *      The size of the contents.
+	 *
+	 * @since 0.2.1
+	 */
+	long size();
+
+	/**
+	 * Gets the maximum size of a single window.
+	 *
+	 * @return
+	 *      The maximum size of a window, in bytes.
+	 *
+	 * @since 0.2.1
+	 */
+	int windowSize();
+
+	/**
+	 * Gets the charset used to decode this holder's contents.
+	 *
+	 * @return
+	 *      The charset.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	Charset charset();
+
+	/**
+	 * Maps a read-only window of the contents, starting at the
+	 * given {@code position}.
+	 *
+	 * <p>The returned buffer's position is {@code 0} and its
+	 * limit is the minimum between {@link #windowSize()} and the
+	 * remaining bytes.</p>
+	 *
+	 * @param position
+	 *      The absolute position the window should start at.
+	 * @return
+	 *      A read-only byte buffer.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	ByteBuffer window(final long position);
+
+	/**
+	 * Gets a {@link Reader} that decodes the mapped contents
+	 * directly, moving the window when needed.
+	 *
+	 * <p>The reader is not buffered: it is meant to be used with
+	 * bulk reads.</p>
+	 *
+	 * @return
+	 *      A new reader over the mapped contents.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	Reader charView();
+
+	@Nonnull
+	@Override
+	default BufferedReader readerStream() {
+		return new BufferedReader(this.charView());
+	}
+}
@@ -2,6 +2,7 @@ package net.thesilkminer.skl.interpreter.api.skd.logging;
 
 import org.jetbrains.annotations.NonNls;
 
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 
 /**
@@ -81,6 +82,54 @@ public interface ISkdLogger {
 	 */
 	void fine(@Nonnull final String msg);
 
+	/**
+	 * Logs an info message, building it only if info messages are
+	 * actually logged.
+	 *
+	 * @param msg
+	 *      The supplier of the message to log.
+	 *
+	 * @implNote
+	 *      The default implementation always builds the message.
+	 *
+	 * @since 0.2.1
+	 */
+	default void info(@Nonnull final Supplier<String> msg) {
+		this.info(msg.get());
+	}
+
+	/**
+	 * Logs a warning message, building it only if warning messages
+	 * are actually logged.
+	 *
+	 * @param msg
+	 *      The supplier of the message to log.
+	 *
+	 * @implNote
+	 *      The default implementation always builds the message.
+	 *
+	 * @since 0.2.1
+	 */
+	default void warn(@Nonnull final Supplier<String> msg) {
+		this.warn(msg.get());
+	}
+
+	/**
+	 * Logs a fine message, building it only if fine messages are
+	 * actually logged.
+	 *
+	 * @param msg
+	 *      The supplier of the message to log.
+	 *
+	 * @implNote
+	 *      The default implementation always builds the message.
+	 *
+	 * @since 0.2.1
+	 */
+	default void fine(@Nonnull final Supplier<String> msg) {
+		this.fine(msg.get());
+	}
+
 	/**
 	 * Prints a stacktrace, along with a message.
 	 *
@@ -125,4 +174,25 @@ public interface ISkdLogger {
 			this.fine(msg);
 		}
 	}
+
+	/**
+	 * Prints a debug message, if the option is turned on, building it
+	 * only if it is actually logged.
+	 *
+	 * @param msg
+	 *      The supplier of the message to print.
+	 *
+	 * @implNote
+	 *      The default implementation behaves like {@link #debug(String)},
+	 *      but calls the {@link Supplier} overloads.
+	 *
+	 * @since 0.2.1
+	 */
+	default void debug(@Nonnull final Supplier<String> msg) {
+		if (DEBUG_ON.equals(System.getProperty(DEBUG_PROPERTY))) {
+			this.info(msg);
+		} else {
+			this.fine(msg);
+		}
+	}
 }
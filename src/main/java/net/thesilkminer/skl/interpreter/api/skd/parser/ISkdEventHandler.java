@@ -0,0 +1,162 @@
+package net.thesilkminer.skl.interpreter.api.skd.parser;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Represents a push-based consumer of the events found while
+ * parsing a database.
+ *
+ * <p>Differently from {@link ISkdParser#read()}, parsers driving
+ * an event handler do not need to build the whole
+ * {@link net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase database}
+ * in memory: every event is sent as soon as the corresponding
+ * line has been read, so that a whole database can be processed
+ * in a single pass.</p>
+ *
+ * <p>Every callback is a no-op by default, so implementations
+ * only need to override the ones they are interested in.</p>
+ *
+ * <p>Arguments passed to the callbacks (the properties view and
+ * the content characters in particular) are only valid for the
+ * duration of the call: implementations must copy them if they
+ * need to keep them around.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+public interface ISkdEventHandler {
+
+	/**
+	 * Represents a read-only view of the properties of a tag.
+	 *
+	 * @since 0.2.1
+	 */
+	interface IProperties {
+
+		/**
+		 * Gets the amount of properties.
+		 *
+		 * @return
+		 *      The amount of properties.
+		 *
+		 * @since 0.2.1
+		 */
+		int size();
+
+		/**
+		 * Gets the name of the property at the given index.
+		 *
+		 * @param index
+		 *      The index of the property.
+		 * @return
+		 *      The name of the property.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		String name(final int index);
+
+		/**
+		 * Gets the value of the property at the given index.
+		 *
+		 * @param index
+		 *      The index of the property.
+		 * @return
+		 *      The value of the property, or an empty string if the
+		 *      property has no value.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		String value(final int index);
+	}
+
+	/**
+	 * Called before any other event.
+	 *
+	 * @since 0.2.1
+	 */
+	default void startDocument() {
+	}
+
+	/**
+	 * Called when a declaration is found.
+	 *
+	 * @param name
+	 *      The name of the declaration, in upper case (e.g.
+	 *      {@code DOCTYPE} or {@code SKD}).
+	 * @param value
+	 *      The value of the declaration (e.g. the doc type URL or
+	 *      the version).
+	 *
+	 * @since 0.2.1
+	 */
+	default void declaration(@Nonnull final String name, @Nonnull final String value) {
+	}
+
+	/**
+	 * Called when a tag is opened.
+	 *
+	 * <p>Void tags are notified through this method too, with
+	 * {@code voidTag} set to {@code true}, and are immediately
+	 * followed by the corresponding {@link #endTag(String)}
+	 * call.</p>
+	 *
+	 * @param name
+	 *      The name of the tag.
+	 * @param properties
+	 *      The properties of the tag.
+	 * @param voidTag
+	 *      Whether the tag is a void tag.
+	 *
+	 * @since 0.2.1
+	 */
+	default void startTag(@Nonnull final String name, @Nonnull final IProperties properties,
+	                      final boolean voidTag) {
+	}
+
+	/**
+	 * Called when a line of content is found for the currently
+	 * open tag.
+	 *
+	 * @param chars
+	 *      The buffer holding the content.
+	 * @param start
+	 *      The start of the content in the buffer.
+	 * @param length
+	 *      The length of the content.
+	 *
+	 * @since 0.2.1
+	 */
+	default void content(@Nonnull final char[] chars, final int start, final int length) {
+	}
+
+	/**
+	 * Called when a tag is closed.
+	 *
+	 * @param name
+	 *      The name of the tag.
+	 *
+	 * @since 0.2.1
+	 */
+	default void endTag(@Nonnull final String name) {
+	}
+
+	/**
+	 * Called when a blank line is found.
+	 *
+	 * @since 0.2.1
+	 */
+	default void blankLine() {
+	}
+
+	/**
+	 * Called after every other event, once the whole database
+	 * has been read.
+	 *
+	 * @since 0.2.1
+	 */
+	default void endDocument() {
+	}
+}
@@ -6,6 +6,7 @@ import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
 import org.jetbrains.annotations.NonNls;
 
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -74,6 +75,84 @@ public interface ISkdParser {
 	@Nonnull
 	IDatabase read();
 
+	/**
+	 * Reads the file, sending every token found to the given
+	 * {@code handler} instead of creating an in-memory
+	 * representation of the content.
+	 *
+	 * <p>By default, this method will {@link #read() read} the
+	 * whole database and then replay its contents to the handler.
+	 * Parsers that are able to stream the file should override
+	 * this method.</p>
+	 *
+	 * @param handler
+	 * 		The handler that will receive the events.
+	 *
+	 * @since 0.2.1
+	 */
+	default void read(@Nonnull final ISkdEventHandler handler) {
+		SkdEventReplay.replay(this.read(), handler);
+	}
+
+	/**
+	 * Reads the file and creates an in-memory representation
+	 * of the content, using the given {@code pool} to parse
+	 * independent parts of the file in parallel.
+	 *
+	 * <p>The returned database must be the same one that would
+	 * have been returned by {@link #read()}.</p>
+	 *
+	 * <p>By default, this method simply calls {@link #read()}.
+	 * Parsers that are able to split the file should override
+	 * this method.</p>
+	 *
+	 * @param pool
+	 * 		The pool to use.
+	 * @return
+	 * 		The in-memory representation of the database file.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	default IDatabase readParallel(@Nonnull final ForkJoinPool pool) {
+		return this.read();
+	}
+
+	/**
+	 * Reads the file and creates an in-memory representation
+	 * of the content, parsing independent parts of the file in
+	 * parallel on the {@link ForkJoinPool#commonPool() common pool}.
+	 *
+	 * @return
+	 * 		The in-memory representation of the database file.
+	 *
+	 * @see #readParallel(ForkJoinPool)
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	default IDatabase readParallel() {
+		return this.readParallel(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Gets the statistics of the last successful parse.
+	 *
+	 * <p>By default, parsers do not collect any statistics, so this
+	 * method returns an empty {@link Optional}. Parsers that do collect
+	 * them should also record them in the
+	 * {@link ParseStatsRegistry#global() global registry}.</p>
+	 *
+	 * @return
+	 * 		The statistics of the last parse, if any.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	default Optional<ParseStats> lastStats() {
+		return Optional.empty();
+	}
+
 	/**
 	 * Writes the database back to the file specified when
 	 * initializing the parser.
@@ -0,0 +1,420 @@
+package net.thesilkminer.skl.interpreter.api.skd.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Statistics about a single parse of a database.
+ *
+ * <p>Parsers which collect them expose the ones of their last parse
+ * through {@link ISkdParser#lastStats()} and usually also record them
+ * in the {@link ParseStatsRegistry#global() global registry}.</p>
+ *
+ * <p>Phase timings are summed over all the threads which took part
+ * in the parse, so for parallel parses their sum may be greater than
+ * the {@link #totalNanos() total time}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+public final class ParseStats {
+
+	/**
+	 * The phases of a parse.
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.2.1
+	 */
+	public enum Phase {
+		/**
+		 * Reading the database holder's contents.
+		 *
+		 * @since 0.2.1
+		 */
+		READ,
+		/**
+		 * Splitting lines into tokens and events.
+		 *
+		 * @since 0.2.1
+		 */
+		TOKENIZE,
+		/**
+		 * Building tags, properties and the database out of the
+		 * events, acceptance and callbacks excluded.
+		 *
+		 * @since 0.2.1
+		 */
+		BUILD,
+		/**
+		 * Running the acceptance services.
+		 *
+		 * @since 0.2.1
+		 */
+		ACCEPT,
+		/**
+		 * Running the tag, property and database callbacks.
+		 *
+		 * @since 0.2.1
+		 */
+		CALLBACKS
+	}
+
+	private static final Phase[] PHASES = Phase.values();
+
+	private final String parser;
+	private final long lines;
+	private final long tags;
+	private final long voidTags;
+	private final long properties;
+	private final long contentChars;
+	private final Map<Class<?>, Long> acceptanceHits;
+	private final long[] phaseNanos;
+	private final long totalNanos;
+
+	private ParseStats(@Nonnull final String parser, @Nonnull final Collector collector,
+	                   final long totalNanos) {
+		this.parser = parser;
+		this.lines = collector.lines;
+		this.tags = collector.tags;
+		this.voidTags = collector.voidTags;
+		this.properties = collector.properties;
+		this.contentChars = collector.contentChars;
+		this.acceptanceHits = ImmutableMap.copyOf(collector.acceptanceHits);
+		this.phaseNanos = collector.phaseNanos.clone();
+		this.totalNanos = totalNanos;
+	}
+
+	/**
+	 * Creates a new, empty, collector.
+	 *
+	 * @return
+	 *      A new collector.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static Collector collector() {
+		return new Collector();
+	}
+
+	/**
+	 * Gets the name of the parser which performed the parse.
+	 *
+	 * @return
+	 *      The name of the parser.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public String parser() {
+		return this.parser;
+	}
+
+	/**
+	 * Gets the amount of lines read.
+	 *
+	 * @return
+	 *      The amount of lines.
+	 *
+	 * @since 0.2.1
+	 */
+	public long lines() {
+		return this.lines;
+	}
+
+	/**
+	 * Gets the amount of tags read, void tags included.
+	 *
+	 * @return
+	 *      The amount of tags.
+	 *
+	 * @since 0.2.1
+	 */
+	public long tags() {
+		return this.tags;
+	}
+
+	/**
+	 * Gets the amount of void tags read.
+	 *
+	 * @return
+	 *      The amount of void tags.
+	 *
+	 * @since 0.2.1
+	 */
+	public long voidTags() {
+		return this.voidTags;
+	}
+
+	/**
+	 * Gets the amount of properties read.
+	 *
+	 * @return
+	 *      The amount of properties.
+	 *
+	 * @since 0.2.1
+	 */
+	public long properties() {
+		return this.properties;
+	}
+
+	/**
+	 * Gets the length of all the lines of content read, in
+	 * characters.
+	 *
+	 * @return
+	 *      The length of the content.
+	 *
+	 * @since 0.2.1
+	 */
+	public long contentChars() {
+		return this.contentChars;
+	}
+
+	/**
+	 * Gets how many objects have been replaced by the acceptance
+	 * services, by class of the replacement.
+	 *
+	 * @return
+	 *      An immutable view of the acceptance hits.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Map<Class<?>, Long> acceptanceHits() {
+		return this.acceptanceHits;
+	}
+
+	/**
+	 * Gets the time spent in the given phase.
+	 *
+	 * @param phase
+	 *      The phase.
+	 * @return
+	 *      The time, in nanoseconds.
+	 *
+	 * @since 0.2.1
+	 */
+	public long nanos(@Nonnull final Phase phase) {
+		return this.phaseNanos[phase.ordinal()];
+	}
+
+	/**
+	 * Gets the time the whole parse took.
+	 *
+	 * @return
+	 *      The time, in nanoseconds.
+	 *
+	 * @since 0.2.1
+	 */
+	public long totalNanos() {
+		return this.totalNanos;
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("ParseStats{parser=").append(this.parser)
+				.append(", lines=").append(this.lines)
+				.append(", tags=").append(this.tags)
+				.append(", voidTags=").append(this.voidTags)
+				.append(", properties=").append(this.properties)
+				.append(", contentChars=").append(this.contentChars)
+				.append(", acceptanceHits={");
+
+		boolean first = true;
+		for (final Map.Entry<Class<?>, Long> hit : this.acceptanceHits.entrySet()) {
+			if (!first) {
+				builder.append(", ");
+			}
+			builder.append(hit.getKey().getSimpleName()).append('=').append(hit.getValue());
+			first = false;
+		}
+
+		builder.append('}');
+
+		for (final Phase phase : PHASES) {
+			builder.append(", ").append(phase.name().toLowerCase(Locale.ENGLISH))
+					.append("Micros=")
+					.append(TimeUnit.NANOSECONDS.toMicros(this.nanos(phase)));
+		}
+
+		return builder.append(", totalMicros=").append(TimeUnit.NANOSECONDS.toMicros(
+				this.totalNanos)).append('}').toString();
+	}
+
+	/**
+	 * Collects the statistics of a parse while it is running.
+	 *
+	 * <p>Collectors are not thread safe: parsers that work on multiple
+	 * threads should use a collector per thread and
+	 * {@link #merge(Collector) merge} them.</p>
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.2.1
+	 */
+	public static final class Collector {
+
+		private long lines;
+		private long tags;
+		private long voidTags;
+		private long properties;
+		private long contentChars;
+		private final Map<Class<?>, Long> acceptanceHits;
+		private final long[] phaseNanos;
+
+		private Collector() {
+			this.acceptanceHits = Maps.newHashMap();
+			this.phaseNanos = new long[PHASES.length];
+		}
+
+		/**
+		 * Records lines read.
+		 *
+		 * @param count
+		 *      The amount of lines.
+		 *
+		 * @since 0.2.1
+		 */
+		public void lines(final long count) {
+			this.lines += count;
+		}
+
+		/**
+		 * Records a tag read.
+		 *
+		 * @param voidTag
+		 *      Whether the tag is a void tag.
+		 * @param properties
+		 *      The amount of properties of the tag.
+		 *
+		 * @since 0.2.1
+		 */
+		public void tag(final boolean voidTag, final int properties) {
+			++this.tags;
+			if (voidTag) {
+				++this.voidTags;
+			}
+			this.properties += properties;
+		}
+
+		/**
+		 * Records a line of content read.
+		 *
+		 * @param length
+		 *      The length of the line, in characters.
+		 *
+		 * @since 0.2.1
+		 */
+		public void content(final int length) {
+			this.contentChars += length;
+		}
+
+		/**
+		 * Records an object replaced by an acceptance service.
+		 *
+		 * @param replacement
+		 *      The class of the replacement.
+		 *
+		 * @since 0.2.1
+		 */
+		public void accepted(@Nonnull final Class<?> replacement) {
+			this.acceptanceHits.merge(replacement, 1L, Long::sum);
+		}
+
+		/**
+		 * Records time spent in the given phase.
+		 *
+		 * <p>The time may be negative, to move time already recorded
+		 * to another phase.</p>
+		 *
+		 * @param phase
+		 *      The phase.
+		 * @param nanos
+		 *      The time, in nanoseconds.
+		 *
+		 * @since 0.2.1
+		 */
+		public void time(@Nonnull final Phase phase, final long nanos) {
+			this.phaseNanos[phase.ordinal()] += nanos;
+		}
+
+		/**
+		 * Gets the time recorded so far for the given phase.
+		 *
+		 * @param phase
+		 *      The phase.
+		 * @return
+		 *      The time, in nanoseconds.
+		 *
+		 * @since 0.2.1
+		 */
+		public long nanos(@Nonnull final Phase phase) {
+			return this.phaseNanos[phase.ordinal()];
+		}
+
+		/**
+		 * Adds everything recorded by the given collector to this
+		 * one.
+		 *
+		 * @param other
+		 *      The other collector.
+		 * @return
+		 *      This collector, for chaining.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		public Collector merge(@Nonnull final Collector other) {
+			Preconditions.checkArgument(other != this, "Unable to merge a collector with itself");
+			this.lines += other.lines;
+			this.tags += other.tags;
+			this.voidTags += other.voidTags;
+			this.properties += other.properties;
+			this.contentChars += other.contentChars;
+			other.acceptanceHits.forEach((key, value) ->
+					this.acceptanceHits.merge(key, value, Long::sum));
+			for (int i = 0; i < this.phaseNanos.length; ++i) {
+				this.phaseNanos[i] += other.phaseNanos[i];
+			}
+			return this;
+		}
+
+		/**
+		 * Builds the statistics collected so far.
+		 *
+		 * @param parser
+		 *      The name of the parser which performed the parse.
+		 * @param totalNanos
+		 *      The time the whole parse took, in nanoseconds.
+		 * @return
+		 *      The statistics.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		public ParseStats build(@Nonnull final String parser, final long totalNanos) {
+			return new ParseStats(Preconditions.checkNotNull(parser), this, totalNanos);
+		}
+
+		@Nonnull
+		@Override
+		public String toString() {
+			return "Collector{lines=" + this.lines + ", tags=" + this.tags
+					+ ", phaseNanos=" + Arrays.toString(this.phaseNanos) + "}";
+		}
+	}
+}
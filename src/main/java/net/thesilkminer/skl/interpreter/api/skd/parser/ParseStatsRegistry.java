@@ -0,0 +1,431 @@
+package net.thesilkminer.skl.interpreter.api.skd.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * Aggregates the {@link ParseStats statistics} of many parses.
+ *
+ * <p>Every counter is the sum of the corresponding value over all the
+ * parses recorded since the registry was created or last
+ * {@link #reset() reset}. The duration of the parses and the time
+ * spent on every line are also kept in {@link Histogram histograms},
+ * so that throughput can be graphed over time.</p>
+ *
+ * <p>Registries are thread safe and recording a parse never blocks.
+ * Values read while parses are being recorded may not belong to the
+ * same instant.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+public final class ParseStatsRegistry {
+
+	/**
+	 * A histogram of non-negative values, with a bucket for every
+	 * power of two.
+	 *
+	 * <p>Bucket {@code 0} holds the value {@code 0}, while bucket
+	 * {@code i} holds the values between {@code 2^(i - 1)} and
+	 * {@code 2^i - 1}.</p>
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.2.1
+	 */
+	public static final class Histogram {
+
+		/**
+		 * The amount of buckets of every histogram.
+		 *
+		 * @since 0.2.1
+		 */
+		public static final int BUCKETS = Long.SIZE;
+
+		private final AtomicLongArray buckets;
+		private final LongAdder count;
+		private final LongAdder sum;
+
+		private Histogram() {
+			this.buckets = new AtomicLongArray(BUCKETS);
+			this.count = new LongAdder();
+			this.sum = new LongAdder();
+		}
+
+		private void record(final long value) {
+			final long clamped = Math.max(0, value);
+			this.buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(clamped));
+			this.count.increment();
+			this.sum.add(clamped);
+		}
+
+		private void reset() {
+			for (int i = 0; i < BUCKETS; ++i) {
+				this.buckets.set(i, 0);
+			}
+			this.count.reset();
+			this.sum.reset();
+		}
+
+		/**
+		 * Gets the amount of values recorded.
+		 *
+		 * @return
+		 *      The amount of values.
+		 *
+		 * @since 0.2.1
+		 */
+		public long count() {
+			return this.count.sum();
+		}
+
+		/**
+		 * Gets the sum of the values recorded.
+		 *
+		 * @return
+		 *      The sum of the values.
+		 *
+		 * @since 0.2.1
+		 */
+		public long sum() {
+			return this.sum.sum();
+		}
+
+		/**
+		 * Gets the amount of values recorded in the given bucket.
+		 *
+		 * @param bucket
+		 *      The bucket, between {@code 0} and {@link #BUCKETS}
+		 *      (excluded).
+		 * @return
+		 *      The amount of values.
+		 *
+		 * @since 0.2.1
+		 */
+		public long bucket(final int bucket) {
+			return this.buckets.get(Preconditions.checkElementIndex(bucket, BUCKETS));
+		}
+
+		/**
+		 * Gets the greatest value the given bucket can hold.
+		 *
+		 * @param bucket
+		 *      The bucket, between {@code 0} and {@link #BUCKETS}
+		 *      (excluded).
+		 * @return
+		 *      The greatest value of the bucket.
+		 *
+		 * @since 0.2.1
+		 */
+		@Contract(pure = true)
+		public static long upperBound(final int bucket) {
+			Preconditions.checkElementIndex(bucket, BUCKETS);
+			return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+		}
+
+		/**
+		 * Gets an estimate of the given percentile of the values
+		 * recorded.
+		 *
+		 * <p>The estimate is the {@link #upperBound(int) upper bound}
+		 * of the bucket the percentile falls in, so it is never lower
+		 * than the actual value and at most twice as high.</p>
+		 *
+		 * @param percentile
+		 *      The percentile, between {@code 0} and {@code 100}.
+		 * @return
+		 *      The estimate, or {@code 0} if no value was recorded.
+		 *
+		 * @since 0.2.1
+		 */
+		public long percentile(final double percentile) {
+			Preconditions.checkArgument(percentile >= 0 && percentile <= 100,
+					"Percentile must be between 0 and 100");
+
+			final long[] snapshot = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; ++i) {
+				snapshot[i] = this.buckets.get(i);
+				total += snapshot[i];
+			}
+
+			if (total == 0) {
+				return 0;
+			}
+
+			final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; ++i) {
+				seen += snapshot[i];
+				if (seen >= rank) {
+					return upperBound(i);
+				}
+			}
+
+			return Long.MAX_VALUE;
+		}
+	}
+
+	private static final ParseStats.Phase[] PHASES = ParseStats.Phase.values();
+	private static final ParseStatsRegistry GLOBAL = new ParseStatsRegistry();
+
+	private final LongAdder parses;
+	private final LongAdder lines;
+	private final LongAdder tags;
+	private final LongAdder voidTags;
+	private final LongAdder properties;
+	private final LongAdder contentChars;
+	private final LongAdder totalNanos;
+	private final LongAdder[] phaseNanos;
+	private final ConcurrentMap<Class<?>, LongAdder> acceptanceHits;
+	private final Histogram durations;
+	private final Histogram nanosPerLine;
+
+	/**
+	 * Creates a new, empty, registry.
+	 *
+	 * <p>Most callers should use the {@link #global() global}
+	 * registry instead.</p>
+	 *
+	 * @since 0.2.1
+	 */
+	public ParseStatsRegistry() {
+		this.parses = new LongAdder();
+		this.lines = new LongAdder();
+		this.tags = new LongAdder();
+		this.voidTags = new LongAdder();
+		this.properties = new LongAdder();
+		this.contentChars = new LongAdder();
+		this.totalNanos = new LongAdder();
+		this.phaseNanos = new LongAdder[PHASES.length];
+		for (int i = 0; i < this.phaseNanos.length; ++i) {
+			this.phaseNanos[i] = new LongAdder();
+		}
+		this.acceptanceHits = new ConcurrentHashMap<>();
+		this.durations = new Histogram();
+		this.nanosPerLine = new Histogram();
+	}
+
+	/**
+	 * Gets the registry every parse is recorded in by default.
+	 *
+	 * @return
+	 *      The global registry.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static ParseStatsRegistry global() {
+		return GLOBAL;
+	}
+
+	/**
+	 * Records the statistics of a parse.
+	 *
+	 * @param stats
+	 *      The statistics.
+	 *
+	 * @since 0.2.1
+	 */
+	public void record(@Nonnull final ParseStats stats) {
+		Preconditions.checkNotNull(stats);
+
+		this.parses.increment();
+		this.lines.add(stats.lines());
+		this.tags.add(stats.tags());
+		this.voidTags.add(stats.voidTags());
+		this.properties.add(stats.properties());
+		this.contentChars.add(stats.contentChars());
+		this.totalNanos.add(stats.totalNanos());
+
+		for (final ParseStats.Phase phase : PHASES) {
+			this.phaseNanos[phase.ordinal()].add(stats.nanos(phase));
+		}
+
+		for (final Map.Entry<Class<?>, Long> hit : stats.acceptanceHits().entrySet()) {
+			this.acceptanceHits.computeIfAbsent(hit.getKey(), key -> new LongAdder())
+					.add(hit.getValue());
+		}
+
+		this.durations.record(stats.totalNanos());
+
+		if (stats.lines() > 0) {
+			this.nanosPerLine.record(stats.totalNanos() / stats.lines());
+		}
+	}
+
+	/**
+	 * Gets the amount of parses recorded.
+	 *
+	 * @return
+	 *      The amount of parses.
+	 *
+	 * @since 0.2.1
+	 */
+	public long parses() {
+		return this.parses.sum();
+	}
+
+	/**
+	 * Gets the amount of lines read.
+	 *
+	 * @return
+	 *      The amount of lines.
+	 *
+	 * @since 0.2.1
+	 */
+	public long lines() {
+		return this.lines.sum();
+	}
+
+	/**
+	 * Gets the amount of tags read, void tags included.
+	 *
+	 * @return
+	 *      The amount of tags.
+	 *
+	 * @since 0.2.1
+	 */
+	public long tags() {
+		return this.tags.sum();
+	}
+
+	/**
+	 * Gets the amount of void tags read.
+	 *
+	 * @return
+	 *      The amount of void tags.
+	 *
+	 * @since 0.2.1
+	 */
+	public long voidTags() {
+		return this.voidTags.sum();
+	}
+
+	/**
+	 * Gets the amount of properties read.
+	 *
+	 * @return
+	 *      The amount of properties.
+	 *
+	 * @since 0.2.1
+	 */
+	public long properties() {
+		return this.properties.sum();
+	}
+
+	/**
+	 * Gets the length of all the content read, in characters.
+	 *
+	 * @return
+	 *      The length of the content.
+	 *
+	 * @since 0.2.1
+	 */
+	public long contentChars() {
+		return this.contentChars.sum();
+	}
+
+	/**
+	 * Gets the time all the parses took.
+	 *
+	 * @return
+	 *      The time, in nanoseconds.
+	 *
+	 * @since 0.2.1
+	 */
+	public long totalNanos() {
+		return this.totalNanos.sum();
+	}
+
+	/**
+	 * Gets the time spent in the given phase by all the parses.
+	 *
+	 * @param phase
+	 *      The phase.
+	 * @return
+	 *      The time, in nanoseconds.
+	 *
+	 * @since 0.2.1
+	 */
+	public long nanos(@Nonnull final ParseStats.Phase phase) {
+		return this.phaseNanos[phase.ordinal()].sum();
+	}
+
+	/**
+	 * Gets how many objects have been replaced by the acceptance
+	 * services, by class of the replacement.
+	 *
+	 * @return
+	 *      An immutable snapshot of the acceptance hits.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Map<Class<?>, Long> acceptanceHits() {
+		final ImmutableMap.Builder<Class<?>, Long> builder = ImmutableMap.builder();
+		this.acceptanceHits.forEach((key, value) -> builder.put(key, value.sum()));
+		return builder.build();
+	}
+
+	/**
+	 * Gets the histogram of the duration of the parses.
+	 *
+	 * @return
+	 *      The histogram, in nanoseconds.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Histogram durations() {
+		return this.durations;
+	}
+
+	/**
+	 * Gets the histogram of the average time every parse spent on a
+	 * single line.
+	 *
+	 * <p>Parses which read no line are not recorded.</p>
+	 *
+	 * @return
+	 *      The histogram, in nanoseconds.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Histogram nanosPerLine() {
+		return this.nanosPerLine;
+	}
+
+	/**
+	 * Resets every counter and histogram.
+	 *
+	 * @since 0.2.1
+	 */
+	public void reset() {
+		this.parses.reset();
+		this.lines.reset();
+		this.tags.reset();
+		this.voidTags.reset();
+		this.properties.reset();
+		this.contentChars.reset();
+		this.totalNanos.reset();
+		for (final LongAdder adder : this.phaseNanos) {
+			adder.reset();
+		}
+		this.acceptanceHits.clear();
+		this.durations.reset();
+		this.nanosPerLine.reset();
+	}
+}
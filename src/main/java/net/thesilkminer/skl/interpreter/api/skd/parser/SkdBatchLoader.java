@@ -0,0 +1,383 @@
+package net.thesilkminer.skl.interpreter.api.skd.parser;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NonNls;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Loads many databases at once, parsing them concurrently.
+ *
+ * <p>Every file is parsed on its own through the current
+ * {@link SkdApi#api() service}, just like calling
+ * {@code SkdApi.get().api().parser(holder).read()} for each of them,
+ * but the parses run on a bounded executor. The wall-clock time of a
+ * batch thus depends on the amount of threads rather than on the
+ * amount of files.</p>
+ *
+ * <p>A file which fails to parse does not abort the batch: its
+ * future completes exceptionally and the failure is reported in the
+ * {@link Result result} of the batch, along with every database which
+ * was loaded successfully.</p>
+ *
+ * <pre>
+ *     try (final SkdBatchLoader loader = SkdBatchLoader.create(4)) {
+ *         final SkdBatchLoader.Result result = loader.load(directory).all().join();
+ *         result.failures().forEach((path, failure) -&gt; ...);
+ *     }
+ * </pre>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+public final class SkdBatchLoader implements AutoCloseable {
+
+	/**
+	 * The databases which are being loaded by a single call to one of
+	 * the {@code load} methods.
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.2.1
+	 */
+	public static final class Batch {
+
+		private final Map<Path, CompletableFuture<IDatabase>> futures;
+
+		private Batch(@Nonnull final Map<Path, CompletableFuture<IDatabase>> futures) {
+			this.futures = futures;
+		}
+
+		/**
+		 * Gets the future of every file in the batch.
+		 *
+		 * @return
+		 *      An immutable map from every file to the future of its
+		 *      database, in the order the files were submitted.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		public Map<Path, CompletableFuture<IDatabase>> futures() {
+			return this.futures;
+		}
+
+		/**
+		 * Gets the future of the given file.
+		 *
+		 * @param path
+		 *      The file.
+		 * @return
+		 *      The future of its database, or {@code null} if the file
+		 *      is not part of the batch.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nullable
+		public CompletableFuture<IDatabase> future(@Nonnull final Path path) {
+			return this.futures.get(path);
+		}
+
+		/**
+		 * Gets a future which completes once every file in the batch
+		 * has been loaded or has failed.
+		 *
+		 * <p>The returned future never completes exceptionally because
+		 * of a file failing to load.</p>
+		 *
+		 * @return
+		 *      The future of the result of the batch.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		public CompletableFuture<Result> all() {
+			final CompletableFuture<?>[] all = this.futures.values()
+					.toArray(new CompletableFuture<?>[this.futures.size()]);
+			return CompletableFuture.allOf(all).handle((ignored, failure) -> this.result());
+		}
+
+		@Nonnull
+		private Result result() {
+			final ImmutableMap.Builder<Path, IDatabase> databases = ImmutableMap.builder();
+			final ImmutableMap.Builder<Path, Throwable> failures = ImmutableMap.builder();
+
+			this.futures.forEach((path, future) -> {
+				try {
+					databases.put(path, future.join());
+				} catch (final CompletionException exception) {
+					failures.put(path, exception.getCause() == null
+							? exception : exception.getCause());
+				}
+			});
+
+			return new Result(databases.build(), failures.build());
+		}
+	}
+
+	/**
+	 * The outcome of a whole batch.
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.2.1
+	 */
+	public static final class Result {
+
+		private final Map<Path, IDatabase> databases;
+		private final Map<Path, Throwable> failures;
+
+		private Result(@Nonnull final Map<Path, IDatabase> databases,
+		               @Nonnull final Map<Path, Throwable> failures) {
+			this.databases = databases;
+			this.failures = failures;
+		}
+
+		/**
+		 * Gets the databases which were loaded successfully.
+		 *
+		 * @return
+		 *      An immutable map from every file to its database.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		public Map<Path, IDatabase> databases() {
+			return this.databases;
+		}
+
+		/**
+		 * Gets the files which failed to load.
+		 *
+		 * @return
+		 *      An immutable map from every file to the reason it
+		 *      failed to load.
+		 *
+		 * @since 0.2.1
+		 */
+		@Nonnull
+		public Map<Path, Throwable> failures() {
+			return this.failures;
+		}
+
+		/**
+		 * Gets whether every file was loaded successfully.
+		 *
+		 * @return
+		 *      If no file failed to load.
+		 *
+		 * @since 0.2.1
+		 */
+		public boolean successful() {
+			return this.failures.isEmpty();
+		}
+
+		@Nonnull
+		@Override
+		public String toString() {
+			return "Result{databases=" + this.databases.size()
+					+ ", failures=" + this.failures.keySet() + "}";
+		}
+	}
+
+	@NonNls private static final String DEFAULT_GLOB = "*.skd";
+
+	private final Executor executor;
+	private final ExecutorService owned;
+
+	private SkdBatchLoader(@Nonnull final Executor executor,
+	                       @Nullable final ExecutorService owned) {
+		this.executor = executor;
+		this.owned = owned;
+	}
+
+	/**
+	 * Creates a new loader which parses at most {@code parallelism}
+	 * files at once, on threads of its own.
+	 *
+	 * <p>The threads are daemon threads and are stopped when the
+	 * loader is {@link #close() closed}.</p>
+	 *
+	 * @param parallelism
+	 *      The maximum amount of files parsed at once.
+	 * @return
+	 *      A new loader.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public static SkdBatchLoader create(final int parallelism) {
+		Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive");
+		final ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+				new ThreadFactoryBuilder().setNameFormat("skd-batch-%d").setDaemon(true).build());
+		return new SkdBatchLoader(executor, executor);
+	}
+
+	/**
+	 * Creates a new loader which parses a file at once for every
+	 * available processor.
+	 *
+	 * @return
+	 *      A new loader.
+	 *
+	 * @see #create(int)
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public static SkdBatchLoader create() {
+		return create(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new loader which parses files on the given
+	 * {@code executor}.
+	 *
+	 * <p>The amount of files parsed at once is bounded by the
+	 * executor. Closing the loader does not shut the executor
+	 * down.</p>
+	 *
+	 * @param executor
+	 *      The executor.
+	 * @return
+	 *      A new loader.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract("null -> fail")
+	@Nonnull
+	public static SkdBatchLoader using(@Nonnull final Executor executor) {
+		return new SkdBatchLoader(Preconditions.checkNotNull(executor), null);
+	}
+
+	/**
+	 * Loads every {@code .skd} file directly inside the given
+	 * directory.
+	 *
+	 * @param directory
+	 *      The directory.
+	 * @return
+	 *      The batch.
+	 *
+	 * @throws UncheckedIOException
+	 *      If the directory can not be listed.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Batch load(@Nonnull final Path directory) {
+		return this.load(directory, DEFAULT_GLOB);
+	}
+
+	/**
+	 * Loads every file inside the given directory whose path,
+	 * relative to the directory, matches the given {@code glob}.
+	 *
+	 * <p>Subdirectories are only visited if the glob can match files
+	 * inside them, e.g. {@code **}{@code /*.skd}.</p>
+	 *
+	 * @param directory
+	 *      The directory.
+	 * @param glob
+	 *      The glob, in the syntax of
+	 *      {@link java.nio.file.FileSystem#getPathMatcher(String)}.
+	 * @return
+	 *      The batch.
+	 *
+	 * @throws UncheckedIOException
+	 *      If the directory can not be listed.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Batch load(@Nonnull final Path directory, @Nonnull final String glob) {
+		Preconditions.checkArgument(Files.isDirectory(directory), "%s is not a directory",
+				directory);
+		final PathMatcher matcher = directory.getFileSystem().getPathMatcher("glob:" + glob);
+		final int depth = glob.contains("**") || glob.contains("/") ? Integer.MAX_VALUE : 1;
+
+		final List<Path> files;
+		try (final Stream<Path> paths = Files.walk(directory, depth)) {
+			files = paths.filter(Files::isRegularFile)
+					.filter(it -> matcher.matches(directory.relativize(it)))
+					.sorted()
+					.collect(Collectors.toList());
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		return this.load(files);
+	}
+
+	/**
+	 * Loads the given files.
+	 *
+	 * @param files
+	 *      The files. Duplicates are only loaded once.
+	 * @return
+	 *      The batch.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Batch load(@Nonnull final Collection<? extends Path> files) {
+		final Map<Path, CompletableFuture<IDatabase>> futures = Maps.newLinkedHashMap();
+
+		for (final Path file : ImmutableList.copyOf(files)) {
+			futures.computeIfAbsent(file,
+					it -> CompletableFuture.supplyAsync(() -> read(it), this.executor));
+		}
+
+		SkdApi.get().api().logger().info(() -> "Loading " + futures.size() + " databases");
+
+		return new Batch(ImmutableMap.copyOf(futures));
+	}
+
+	@Nonnull
+	private static IDatabase read(@Nonnull final Path file) {
+		final IDatabaseHolder holder = SkdApi.get().api().databaseHolder(file);
+		return SkdApi.get().api().parser(holder).read();
+	}
+
+	/**
+	 * Stops the threads of this loader, if it created them.
+	 *
+	 * <p>Files which have already been submitted are still loaded,
+	 * but the loader can not be used anymore.</p>
+	 *
+	 * @since 0.2.1
+	 */
+	@Override
+	public void close() {
+		if (this.owned != null) {
+			this.owned.shutdown();
+		}
+	}
+}
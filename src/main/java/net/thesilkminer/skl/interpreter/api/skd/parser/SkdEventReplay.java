@@ -0,0 +1,96 @@
+package net.thesilkminer.skl.interpreter.api.skd.parser;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Replays an already built {@link IDatabase database} to an
+ * {@link ISkdEventHandler}.
+ *
+ * <p>Used by the default implementation of
+ * {@link ISkdParser#read(ISkdEventHandler)}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+final class SkdEventReplay {
+
+	private SkdEventReplay() {
+	}
+
+	static void replay(@Nonnull final IDatabase database,
+	                   @Nonnull final ISkdEventHandler handler) {
+		handler.startDocument();
+		handler.declaration("DOCTYPE", database.docType().getDocType());
+		handler.declaration("SKD", database.version().version());
+
+		for (final ISkdTag tag : database.structure().mainTags()) {
+			if (tag == null) {
+				handler.blankLine();
+				continue;
+			}
+			replay(tag, handler);
+		}
+
+		handler.endDocument();
+	}
+
+	private static void replay(@Nonnull final ISkdTag tag,
+	                           @Nonnull final ISkdEventHandler handler) {
+		handler.startTag(tag.getName(), new Properties(tag), tag.isVoidElement());
+
+		if (tag.getContent().isPresent()) {
+			for (final String line : tag.getContent().get().split("\\n")) {
+				handler.content(line.toCharArray(), 0, line.length());
+			}
+		}
+
+		tag.getChildren().forEach(it -> replay(it, handler));
+
+		handler.endTag(tag.getName());
+	}
+
+	private static final class Properties implements ISkdEventHandler.IProperties {
+
+		private final List<ISkdProperty> properties;
+
+		private Properties(@Nonnull final ISkdTag tag) {
+			List<ISkdProperty> properties;
+			try {
+				properties = tag.getProperties();
+			} catch (final UnsupportedOperationException exception) {
+				// Some tags do not expose their properties
+				properties = Collections.emptyList();
+			}
+			this.properties = properties;
+		}
+
+		@Override
+		public int size() {
+			return this.properties.size();
+		}
+
+		@Nonnull
+		@Override
+		public String name(final int index) {
+			return this.properties.get(index).getName();
+		}
+
+		@Nonnull
+		@Override
+		public String value(final int index) {
+			try {
+				return this.properties.get(index).getValue().orElse("");
+			} catch (final UnsupportedOperationException exception) {
+				// Markers have no value
+				return "";
+			}
+		}
+	}
+}
@@ -0,0 +1,253 @@
+package net.thesilkminer.skl.interpreter.api.skd.parser;
+
+import com.google.common.base.Preconditions;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Streams a {@link IDatabase database} to a {@link Writer} in the
+ * textual SKD format, walking the tree only once.
+ *
+ * <p>Every element of the database writes itself through the
+ * {@code write(SkdWriter)} method (see, e.g.,
+ * {@link IDatabase#write(SkdWriter)}), using this class to emit text
+ * and line breaks. The writer keeps track of the current nesting
+ * level, so that every line break is automatically followed by the
+ * right amount of tabs: elements only need to care about their own
+ * lines.</p>
+ *
+ * <p>The output is the same one produced by the {@code toString()}
+ * methods of the default implementations.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+public final class SkdWriter implements Flushable {
+
+	private final Writer out;
+	private char[] indentation;
+	private int depth;
+
+	private SkdWriter(@Nonnull final Writer out) {
+		this.out = Preconditions.checkNotNull(out);
+		this.indentation = new char[16];
+		Arrays.fill(this.indentation, '\t');
+		this.depth = 0;
+	}
+
+	/**
+	 * Gets a new SKD writer that writes to the given {@code out}.
+	 *
+	 * <p>The writer does not buffer its output: callers should
+	 * supply a buffered writer.</p>
+	 *
+	 * @param out
+	 *      The writer to send the output to.
+	 * @return
+	 *      A new SKD writer.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static SkdWriter of(@Nonnull final Writer out) {
+		return new SkdWriter(out);
+	}
+
+	/**
+	 * Writes the given {@code database} and flushes the output.
+	 *
+	 * @param database
+	 *      The database to write.
+	 *
+	 * @since 0.2.1
+	 */
+	public void write(@Nonnull final IDatabase database) {
+		database.write(this);
+		this.flush();
+	}
+
+	/**
+	 * Appends the given {@code string} as is.
+	 *
+	 * <p>The string must not contain line breaks: use
+	 * {@link #raw(String)} or {@link #lines(String)} instead.</p>
+	 *
+	 * @param string
+	 *      The string to append.
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter append(@Nonnull final String string) {
+		try {
+			this.out.write(string);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return this;
+	}
+
+	/**
+	 * Appends the given {@code character}.
+	 *
+	 * @param character
+	 *      The character to append.
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter append(final char character) {
+		try {
+			this.out.write(character);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return this;
+	}
+
+	/**
+	 * Starts a new line, indented to the current nesting level.
+	 *
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter newLine() {
+		try {
+			this.out.write('\n');
+			this.out.write(this.indentation, 0, this.depth);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return this;
+	}
+
+	/**
+	 * Increases the nesting level by one.
+	 *
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter indent() {
+		if (++this.depth > this.indentation.length) {
+			this.indentation = Arrays.copyOf(this.indentation, this.indentation.length * 2);
+			Arrays.fill(this.indentation, this.depth - 1, this.indentation.length, '\t');
+		}
+		return this;
+	}
+
+	/**
+	 * Decreases the nesting level by one.
+	 *
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter dedent() {
+		Preconditions.checkState(this.depth > 0, "Nesting level already at 0");
+		--this.depth;
+		return this;
+	}
+
+	/**
+	 * Appends the given {@code text}, replacing every line break
+	 * with a {@link #newLine() new line}.
+	 *
+	 * @param text
+	 *      The text to append.
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter raw(@Nonnull final String text) {
+		int start = 0;
+		int end;
+
+		while ((end = text.indexOf('\n', start)) >= 0) {
+			this.append(text, start, end).newLine();
+			start = end + 1;
+		}
+
+		return this.append(text, start, text.length());
+	}
+
+	/**
+	 * Appends every line of the given {@code text}, each one
+	 * preceded by a {@link #newLine() new line}.
+	 *
+	 * <p>Lines are split the same way {@code text.split("\\n")}
+	 * would split them: trailing empty lines are dropped.</p>
+	 *
+	 * @param text
+	 *      The text to append.
+	 * @return
+	 *      This writer, for chaining.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public SkdWriter lines(@Nonnull final String text) {
+		int limit = text.length();
+
+		while (limit > 0 && text.charAt(limit - 1) == '\n') {
+			--limit;
+		}
+
+		if (limit == 0 && !text.isEmpty()) {
+			return this;
+		}
+
+		int start = 0;
+		int end;
+
+		while ((end = text.indexOf('\n', start)) >= 0 && end < limit) {
+			this.newLine().append(text, start, end);
+			start = end + 1;
+		}
+
+		return this.newLine().append(text, start, limit);
+	}
+
+	@Nonnull
+	private SkdWriter append(@Nonnull final String text, final int start, final int end) {
+		try {
+			this.out.write(text, start, end - start);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return this;
+	}
+
+	@Override
+	public void flush() {
+		try {
+			this.out.flush();
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package net.thesilkminer.skl.interpreter.api.skd.service;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 import org.jetbrains.annotations.Contract;
@@ -13,6 +14,13 @@ import javax.annotation.Nonnull;
  * Manages the various services, handling the
  * loading and substitution of the various services.
  *
+ * <p>The manager is safe for concurrent use. Services are kept in an
+ * immutable map which is replaced whenever a service is provided, so
+ * {@link #get(Class) looking up} a service never blocks and always
+ * sees either the old or the new service. Providing services is
+ * serialized, so that a service is never initialized or finalized
+ * by two threads at once.</p>
+ *
  * @author TheSilkMiner
  *
  * @since 0.2.1
@@ -21,10 +29,10 @@ public final class ServiceManager {
 
 	private static final ServiceManager INSTANCE = new ServiceManager();
 
-	private final Map<Class<?>, ISkdService> services;
+	private volatile Map<Class<?>, ISkdService> services;
 
 	private ServiceManager() {
-		this.services = Maps.newHashMap();
+		this.services = ImmutableMap.of();
 	}
 
 	/**
@@ -68,7 +76,8 @@ public final class ServiceManager {
 	 *
 	 * @since 0.2.1
 	 */
-	public void provide(@Nonnull final Class<?> clazz, @Nonnull final ISkdService service) {
+	public synchronized void provide(@Nonnull final Class<?> clazz,
+	                                 @Nonnull final ISkdService service) {
 		Preconditions.checkNotNull(clazz, "Class must not be null");
 		Preconditions.checkNotNull(service, "Service must not be null");
 		final ISkdService old = this.services.get(clazz);
@@ -105,6 +114,8 @@ public final class ServiceManager {
 			throw new RuntimeException("Unable to set default service");
 		}
 
-		this.services.put(clazz, service);
+		final Map<Class<?>, ISkdService> services = Maps.newLinkedHashMap(this.services);
+		services.put(clazz, service);
+		this.services = ImmutableMap.copyOf(services);
 	}
 }
@@ -1,5 +1,6 @@
 package net.thesilkminer.skl.interpreter.api.skd.structure;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
 
@@ -119,4 +120,21 @@ public interface IDatabase extends IAcceptable<IDatabase> {
 	 * @since 0.2
 	 */
 	void structure(@Nonnull final IStructure structure);
+
+	/**
+	 * Writes this database to the given {@code writer}.
+	 *
+	 * <p>By default, the {@link #toString() string representation}
+	 * of this database is written. Implementations should override this
+	 * method to stream their contents instead of building them in
+	 * memory first.</p>
+	 *
+	 * @param writer
+	 *      The writer.
+	 *
+	 * @since 0.2.1
+	 */
+	default void write(@Nonnull final SkdWriter writer) {
+		writer.raw(this.toString());
+	}
 }
@@ -2,6 +2,7 @@ package net.thesilkminer.skl.interpreter.api.skd.structure;
 
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a property in the SKD language specifications.
@@ -34,6 +35,20 @@ public interface ISkdProperty extends IAcceptable<ISkdProperty> {
 	@Nonnull
 	Optional<String> getValue();
 
+	/**
+	 * Gets the property value, without wrapping it in an
+	 * {@link Optional}.
+	 *
+	 * @return
+	 * 		The property's value, or {@code null} if it has none.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nullable
+	default String peekValue() {
+		return this.getValue().orElse(null);
+	}
+
 	/**
 	 * Sets the value of the property.
 	 *
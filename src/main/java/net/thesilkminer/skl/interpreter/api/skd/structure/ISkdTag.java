@@ -1,8 +1,11 @@
 package net.thesilkminer.skl.interpreter.api.skd.structure;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
+
 import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Represents a tag inside the SKD language specification.
@@ -67,6 +70,52 @@ public interface ISkdTag extends IAcceptable<ISkdTag> {
 	@Nonnull
 	List<ISkdProperty> getProperties();
 
+	/**
+	 * Gets the property of this tag with the given name.
+	 *
+	 * <p>Implementations are encouraged to look the name up
+	 * without scanning all the properties: the default
+	 * implementation does not.</p>
+	 *
+	 * @param name
+	 * 		The property's name.
+	 * @return
+	 * 		The first property with the given name, or {@code null}
+	 * 		if there is none.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nullable
+	default ISkdProperty getProperty(@Nonnull final String name) {
+		for (final ISkdProperty property : this.getProperties()) {
+			if (name.equals(property.getName())) {
+				return property;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the value of the property of this tag with the given
+	 * name.
+	 *
+	 * @param name
+	 * 		The property's name.
+	 * @return
+	 * 		The value of the first property with the given name, or
+	 * 		{@code null} if there is no such property or it has no
+	 * 		value.
+	 *
+	 * @see #getProperty(String)
+	 *
+	 * @since 0.2.1
+	 */
+	@Nullable
+	default String getPropertyValue(@Nonnull final String name) {
+		final ISkdProperty property = this.getProperty(name);
+		return property == null ? null : property.peekValue();
+	}
+
 	/**
 	 * Adds a child tag to this tag.
 	 *
@@ -218,4 +267,21 @@ public interface ISkdTag extends IAcceptable<ISkdTag> {
 	 * @since 0.2.1
 	 */
 	boolean closed();
+
+	/**
+	 * Writes this tag to the given {@code writer}.
+	 *
+	 * <p>By default, the {@link #toString() string representation}
+	 * of this tag is written. Implementations should override this
+	 * method to stream their contents instead of building them in
+	 * memory first.</p>
+	 *
+	 * @param writer
+	 *      The writer.
+	 *
+	 * @since 0.2.1
+	 */
+	default void write(@Nonnull final SkdWriter writer) {
+		writer.raw(this.toString());
+	}
 }
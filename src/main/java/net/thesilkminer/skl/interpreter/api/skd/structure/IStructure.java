@@ -1,5 +1,6 @@
 package net.thesilkminer.skl.interpreter.api.skd.structure;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
 
 import java.util.List;
@@ -105,4 +106,21 @@ public interface IStructure extends IAcceptable<IStructure> {
 	default int nonNullSize() {
 		return this.mainTags().size();
 	}
+
+	/**
+	 * Writes this structure to the given {@code writer}.
+	 *
+	 * <p>By default, the {@link #toString() string representation}
+	 * of this structure is written. Implementations should override this
+	 * method to stream their contents instead of building them in
+	 * memory first.</p>
+	 *
+	 * @param writer
+	 *      The writer.
+	 *
+	 * @since 0.2.1
+	 */
+	default void write(@Nonnull final SkdWriter writer) {
+		writer.raw(this.toString());
+	}
 }
@@ -1,6 +1,7 @@
 package net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
 
@@ -8,30 +9,53 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Holds all the various valid doctype declarations.
  *
+ * <p>The register is created the first time it is requested and is
+ * safe for concurrent use: providers can be added while other
+ * threads are looking them up.</p>
+ *
+ * <p>Providers are indexed by the {@link #normalize(String)
+ * normalized} form of their URL, and the provider of every doctype
+ * is remembered once it is looked up. URLs are only ever compared as
+ * strings: differently from {@link URL#equals(Object)}, looking up a
+ * provider never resolves host names.</p>
+ *
  * @author TheSilkMiner
  *
  * @since 0.2
  */
 public final class DocTypes {
 
+	private static final class Holder {
+		private static final DocTypes SINGLETON = new DocTypes();
+	}
+
+	private static final int MAX_RESOLVED = 1024;
+
 	private final List<IDocTypeProvider> providers;
-	private static DocTypes singleton;
+	private final ConcurrentMap<String, IDocTypeProvider> index;
+	private volatile ConcurrentMap<String, Optional<IDocTypeProvider>> resolved;
 
 	private DocTypes() {
-		this.providers = Lists.newArrayList();
+		this.providers = Lists.newCopyOnWriteArrayList();
+		this.index = Maps.newConcurrentMap();
+		this.resolved = Maps.newConcurrentMap();
 
 		try {
 			Class<?> clazz = Class.forName("net.thesilkminer.skl.interpreter."
 					      + "implementation.skd.structure.providers.doctype."
 					      + "DefaultProvider");
-			this.providers.add((IDocTypeProvider) clazz.getConstructor().newInstance());
+			this.register((IDocTypeProvider) clazz.getConstructor().newInstance());
 		} catch (final ReflectiveOperationException ex) {
 			SkdApi.get().api().logger().severe("Implementation unavailable");
 			ex.printStackTrace();
@@ -49,11 +73,7 @@ public final class DocTypes {
 	@Contract(value = "-> !null", pure = true)
 	@NotNull
 	public static DocTypes get() {
-		if (singleton == null) {
-			singleton = new DocTypes();
-		}
-
-		return singleton;
+		return Holder.SINGLETON;
 	}
 
 	/**
@@ -68,7 +88,79 @@ public final class DocTypes {
 	 * 		If the provider has been added successfully.
 	 */
 	public boolean addProvider(@Nullable final IDocTypeProvider provider) {
-		return this.validate(provider) && this.providers.add(provider);
+		return this.validate(provider) && this.register(provider);
+	}
+
+	private synchronized boolean register(@NotNull final IDocTypeProvider provider) {
+		this.providers.add(provider);
+		final String key = normalize(provider.docTypeUrl().toExternalForm());
+		if (key != null) {
+			// The first provider for a URL wins, as it always did
+			this.index.putIfAbsent(key, provider);
+		}
+		// Lookups which started before this registration keep filling the old map
+		this.resolved = Maps.newConcurrentMap();
+		return true;
+	}
+
+	/**
+	 * Normalizes the given URL, so that equivalent URLs are equal
+	 * strings.
+	 *
+	 * <p>The scheme and the host are lower-cased, the default port of
+	 * {@code http} and {@code https} is removed, as are the dot
+	 * segments of the path. Host names are never resolved.</p>
+	 *
+	 * @param url
+	 * 		The URL.
+	 * @return
+	 * 		The normalized URL, or {@code null} if it is not a valid
+	 * 		absolute URI.
+	 *
+	 * @since 0.2
+	 */
+	@Contract(pure = true)
+	@Nullable
+	public static String normalize(@NotNull final String url) {
+		final URI uri;
+		try {
+			uri = new URI(url.trim()).normalize();
+		} catch (final URISyntaxException ex) {
+			return null;
+		}
+
+		if (uri.getScheme() == null) {
+			return null;
+		}
+
+		final String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+
+		if (uri.isOpaque() || uri.getRawAuthority() == null || uri.getHost() == null) {
+			return scheme + ':' + uri.getRawSchemeSpecificPart()
+					+ (uri.getRawFragment() == null ? "" : '#' + uri.getRawFragment());
+		}
+
+		final int port = uri.getPort();
+		final boolean defaultPort = port == -1
+				|| ("http".equals(scheme) && port == 80)
+				|| ("https".equals(scheme) && port == 443);
+
+		final StringBuilder builder = new StringBuilder(scheme).append("://");
+		if (uri.getRawUserInfo() != null) {
+			builder.append(uri.getRawUserInfo()).append('@');
+		}
+		builder.append(uri.getHost().toLowerCase(Locale.ROOT));
+		if (!defaultPort) {
+			builder.append(':').append(port);
+		}
+		builder.append(uri.getRawPath() == null ? "" : uri.getRawPath());
+		if (uri.getRawQuery() != null) {
+			builder.append('?').append(uri.getRawQuery());
+		}
+		if (uri.getRawFragment() != null) {
+			builder.append('#').append(uri.getRawFragment());
+		}
+		return builder.toString();
 	}
 
 	@Contract(value = "null -> false; !null -> _", pure = true)
@@ -108,17 +200,55 @@ public final class DocTypes {
 	@NotNull
 	public Optional<IDocTypeProvider> getProviderFor(@NotNull final
 	                                                     IDocTypeDeclaration declaration) {
-		for (final IDocTypeProvider provider : this.providers) {
-			try {
-				if (provider.docTypeUrl().equals(declaration.getStyleSheet())
-						      && this.isProviderValid(provider)) {
-					return Optional.of(provider);
-				}
-			} catch (final MalformedURLException ex) {
-				ex.printStackTrace();
-			}
+		return this.getProviderFor(declaration.getDocType());
+	}
+
+	/**
+	 * Gets the provider for the specified doctype.
+	 *
+	 * <p>The result is remembered, so that declarations with the
+	 * same doctype are resolved only once.</p>
+	 *
+	 * @param docType
+	 * 		The doctype, i.e. the URL of its style sheet.
+	 * @return
+	 * 		The provider for the doctype or
+	 * 		{@link Optional#empty()} if none is
+	 *    	available.
+	 *
+	 * @since 0.2
+	 */
+	@NotNull
+	public Optional<IDocTypeProvider> getProviderFor(@NotNull final String docType) {
+		final ConcurrentMap<String, Optional<IDocTypeProvider>> resolved = this.resolved;
+		final Optional<IDocTypeProvider> cached = resolved.get(docType);
+		if (cached != null) {
+			return cached;
 		}
 
-		return Optional.empty();
+		final String key = normalize(docType);
+		final Optional<IDocTypeProvider> provider =
+				Optional.ofNullable(key == null ? null : this.index.get(key));
+
+		if (resolved.size() < MAX_RESOLVED) {
+			resolved.putIfAbsent(docType, provider);
+		}
+
+		return provider;
+	}
+
+	/**
+	 * Gets whether there is a valid provider for the specified
+	 * doctype.
+	 *
+	 * @param docType
+	 * 		The doctype.
+	 * @return
+	 * 		If the doctype is valid.
+	 *
+	 * @since 0.2
+	 */
+	public boolean isValid(@NotNull final String docType) {
+		return this.getProviderFor(docType).isPresent();
 	}
 }
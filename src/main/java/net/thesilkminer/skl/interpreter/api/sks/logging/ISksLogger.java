@@ -1,5 +1,6 @@
 package net.thesilkminer.skl.interpreter.api.sks.logging;
 
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 
 @SuppressWarnings("unused")
@@ -76,4 +77,52 @@ public interface ISksLogger {
 	 * @since 0.1
 	 */
 	void stacktrace(final Throwable throwable);
+
+	/**
+	 * Logs an info message, building it only if info messages
+	 * are actually logged.
+	 *
+	 * <p>The default implementation always builds the message.</p>
+	 *
+	 * @param msg
+	 * 		The supplier of the message to log.
+	 *
+	 * @since 0.2
+	 */
+	default void info(@Nonnull final Supplier<String> msg) {
+
+		this.info(msg.get());
+	}
+
+	/**
+	 * Logs a warning message, building it only if warning messages
+	 * are actually logged.
+	 *
+	 * <p>The default implementation always builds the message.</p>
+	 *
+	 * @param msg
+	 * 		The supplier of the message to log.
+	 *
+	 * @since 0.2
+	 */
+	default void warn(@Nonnull final Supplier<String> msg) {
+
+		this.warn(msg.get());
+	}
+
+	/**
+	 * Logs a fine message, building it only if fine messages
+	 * are actually logged.
+	 *
+	 * <p>The default implementation always builds the message.</p>
+	 *
+	 * @param msg
+	 * 		The supplier of the message to log.
+	 *
+	 * @since 0.2
+	 */
+	default void fine(@Nonnull final Supplier<String> msg) {
+
+		this.fine(msg.get());
+	}
 }
@@ -0,0 +1,55 @@
+package net.thesilkminer.skl.interpreter.implementation.jfr;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Receives the events emitted through {@link InterpreterEvents}.
+ *
+ * <p>Every event is started by the method without arguments, which
+ * returns an opaque handle, and completed by the method with the
+ * same name which takes that handle back. Handles can be
+ * {@code null}, if the event is not recorded.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+interface EventSink {
+
+	@Nullable
+	Object skdParse();
+
+	void skdParse(@Nonnull final Object event, @Nonnull final String parser,
+	              @Nonnull final String holder, final long lines, final long tags,
+	              final long contentChars);
+
+	@Nullable
+	Object acceptance();
+
+	void acceptance(@Nonnull final Object event, @Nonnull final Class<?> type,
+	                @Nullable final Class<?> accepted);
+
+	@Nullable
+	Object callback();
+
+	void callback(@Nonnull final Object event, @Nonnull final String kind);
+
+	@Nullable
+	Object sksDirective();
+
+	void sksDirective(@Nonnull final Object event, @Nullable final String script,
+	                  @Nonnull final String directive);
+
+	@Nullable
+	Object javaCompilation();
+
+	void javaCompilation(@Nonnull final Object event, @Nonnull final String className,
+	                     final boolean successful);
+
+	@Nullable
+	Object scriptExecution();
+
+	void scriptExecution(@Nonnull final Object event, @Nonnull final String className,
+	                     final boolean successful);
+}
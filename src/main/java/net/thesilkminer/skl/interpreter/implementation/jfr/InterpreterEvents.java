@@ -0,0 +1,294 @@
+package net.thesilkminer.skl.interpreter.implementation.jfr;
+
+import net.thesilkminer.skl.interpreter.implementation.logging.LogBackends;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NonNls;
+
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Emits the interpreter's own Java Flight Recorder events.
+ *
+ * <p>Events are emitted only if {@value #PROPERTY} is set to
+ * {@code true} when this class is loaded and the running JVM ships
+ * with Flight Recorder. Otherwise, none of the classes which depend
+ * on Flight Recorder is ever loaded and every method of this class
+ * does nothing, so that the calls are removed by the JIT.</p>
+ *
+ * <p>Every event is started by a {@code begin} method, which returns
+ * an opaque handle, and completed by the corresponding {@code end}
+ * method. The handle must be passed back as is, even if it is
+ * {@code null}:</p>
+ *
+ * <pre>
+ *     final Object event = InterpreterEvents.beginCallback();
+ *     // ...
+ *     InterpreterEvents.endCallback(event, "tag");
+ * </pre>
+ *
+ * <p>Events which are not completed, e.g. because an exception was
+ * thrown, are simply not recorded.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+public final class InterpreterEvents {
+
+	/**
+	 * The property which enables the events.
+	 *
+	 * @since 0.2
+	 */
+	@NonNls public static final String PROPERTY = "net.thesilkminer.skl.interpreter.jfr";
+
+	@NonNls private static final String SOURCE = "InterpreterEvents";
+	@NonNls private static final String SINK = "net.thesilkminer.skl.interpreter.implementation"
+			+ ".jfr.JfrEventSink";
+
+	@Nullable private static final EventSink EVENTS = sink();
+
+	private InterpreterEvents() {
+	}
+
+	@Nullable
+	private static EventSink sink() {
+		if (!Boolean.getBoolean(PROPERTY)) {
+			return null;
+		}
+
+		try {
+			Class.forName("jdk.jfr.Event");
+		} catch (final ClassNotFoundException exception) {
+			LogBackends.get().publish(Level.WARNING, SOURCE,
+					"Flight Recorder is not available: no event will be emitted");
+			return null;
+		}
+
+		try {
+			return (EventSink) Class.forName(SINK).getDeclaredConstructor().newInstance();
+		} catch (final ReflectiveOperationException | LinkageError exception) {
+			LogBackends.get().publish(Level.WARNING, SOURCE,
+					"Unable to register the Flight Recorder events: " + exception);
+			return null;
+		}
+	}
+
+	/**
+	 * Gets whether the events are emitted.
+	 *
+	 * @return
+	 *      If the events are emitted.
+	 *
+	 * @since 0.2
+	 */
+	@Contract(pure = true)
+	public static boolean enabled() {
+		return EVENTS != null;
+	}
+
+	/**
+	 * Starts the event of the parse of an SKD database.
+	 *
+	 * @return
+	 *      The handle of the event.
+	 *
+	 * @since 0.2
+	 */
+	@Nullable
+	public static Object beginSkdParse() {
+		return EVENTS == null ? null : EVENTS.skdParse();
+	}
+
+	/**
+	 * Completes the event of the parse of an SKD database.
+	 *
+	 * @param event
+	 *      The handle of the event.
+	 * @param parser
+	 *      The name of the parser.
+	 * @param holder
+	 *      A description of the database holder.
+	 * @param lines
+	 *      The amount of lines read.
+	 * @param tags
+	 *      The amount of tags read.
+	 * @param contentChars
+	 *      The length of the content read, in characters.
+	 *
+	 * @since 0.2
+	 */
+	public static void endSkdParse(@Nullable final Object event, @Nonnull final String parser,
+	                               @Nonnull final String holder, final long lines,
+	                               final long tags, final long contentChars) {
+		if (EVENTS != null && event != null) {
+			EVENTS.skdParse(event, parser, holder, lines, tags, contentChars);
+		}
+	}
+
+	/**
+	 * Starts the event of a run of an acceptance service.
+	 *
+	 * @return
+	 *      The handle of the event.
+	 *
+	 * @since 0.2
+	 */
+	@Nullable
+	public static Object beginAcceptance() {
+		return EVENTS == null ? null : EVENTS.acceptance();
+	}
+
+	/**
+	 * Completes the event of a run of an acceptance service.
+	 *
+	 * @param event
+	 *      The handle of the event.
+	 * @param type
+	 *      The class the service is registered for.
+	 * @param accepted
+	 *      The class of the accepted instance, or {@code null} if the
+	 *      service did not accept the object.
+	 *
+	 * @since 0.2
+	 */
+	public static void endAcceptance(@Nullable final Object event, @Nonnull final Class<?> type,
+	                                 @Nullable final Class<?> accepted) {
+		if (EVENTS != null && event != null) {
+			EVENTS.acceptance(event, type, accepted);
+		}
+	}
+
+	/**
+	 * Starts the event of a callback.
+	 *
+	 * @return
+	 *      The handle of the event.
+	 *
+	 * @since 0.2
+	 */
+	@Nullable
+	public static Object beginCallback() {
+		return EVENTS == null ? null : EVENTS.callback();
+	}
+
+	/**
+	 * Completes the event of a callback.
+	 *
+	 * @param event
+	 *      The handle of the event.
+	 * @param kind
+	 *      The kind of the callback, e.g. {@code tag}.
+	 *
+	 * @since 0.2
+	 */
+	public static void endCallback(@Nullable final Object event, @Nonnull final String kind) {
+		if (EVENTS != null && event != null) {
+			EVENTS.callback(event, kind);
+		}
+	}
+
+	/**
+	 * Starts the event of the processing of an SKS directive.
+	 *
+	 * @return
+	 *      The handle of the event.
+	 *
+	 * @since 0.2
+	 */
+	@Nullable
+	public static Object beginSksDirective() {
+		return EVENTS == null ? null : EVENTS.sksDirective();
+	}
+
+	/**
+	 * Completes the event of the processing of an SKS directive.
+	 *
+	 * @param event
+	 *      The handle of the event.
+	 * @param script
+	 *      The name of the script, if it has been declared.
+	 * @param directive
+	 *      The directive.
+	 *
+	 * @since 0.2
+	 */
+	public static void endSksDirective(@Nullable final Object event,
+	                                   @Nullable final String script,
+	                                   @Nonnull final String directive) {
+		if (EVENTS != null && event != null) {
+			EVENTS.sksDirective(event, script, directive);
+		}
+	}
+
+	/**
+	 * Starts the event of the compilation of a Java script.
+	 *
+	 * @return
+	 *      The handle of the event.
+	 *
+	 * @since 0.2
+	 */
+	@Nullable
+	public static Object beginJavaCompilation() {
+		return EVENTS == null ? null : EVENTS.javaCompilation();
+	}
+
+	/**
+	 * Completes the event of the compilation of a Java script.
+	 *
+	 * @param event
+	 *      The handle of the event.
+	 * @param className
+	 *      The name of the compiled class.
+	 * @param successful
+	 *      Whether the compilation succeeded.
+	 *
+	 * @since 0.2
+	 */
+	public static void endJavaCompilation(@Nullable final Object event,
+	                                      @Nonnull final String className,
+	                                      final boolean successful) {
+		if (EVENTS != null && event != null) {
+			EVENTS.javaCompilation(event, className, successful);
+		}
+	}
+
+	/**
+	 * Starts the event of the execution of the {@code main} method
+	 * of a script.
+	 *
+	 * @return
+	 *      The handle of the event.
+	 *
+	 * @since 0.2
+	 */
+	@Nullable
+	public static Object beginScriptExecution() {
+		return EVENTS == null ? null : EVENTS.scriptExecution();
+	}
+
+	/**
+	 * Completes the event of the execution of the {@code main}
+	 * method of a script.
+	 *
+	 * @param event
+	 *      The handle of the event.
+	 * @param className
+	 *      The name of the class whose method was executed.
+	 * @param successful
+	 *      Whether the method returned normally.
+	 *
+	 * @since 0.2
+	 */
+	public static void endScriptExecution(@Nullable final Object event,
+	                                      @Nonnull final String className,
+	                                      final boolean successful) {
+		if (EVENTS != null && event != null) {
+			EVENTS.scriptExecution(event, className, successful);
+		}
+	}
+}
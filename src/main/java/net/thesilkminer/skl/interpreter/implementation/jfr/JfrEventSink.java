@@ -0,0 +1,248 @@
+package net.thesilkminer.skl.interpreter.implementation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Records the interpreter's events through Java Flight Recorder.
+ *
+ * <p>This is the only class, along with its events, which depends on
+ * Flight Recorder: it is loaded by {@link InterpreterEvents} only
+ * when the events are enabled, so that the interpreter keeps running
+ * on JVMs which do not ship with it.</p>
+ *
+ * <p>Events are only instantiated if they are enabled in the current
+ * recording, and are committed only if they exceed the threshold set
+ * by it. Acceptance and callback events, which are very frequent, do
+ * not record stack traces.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+final class JfrEventSink implements EventSink {
+
+	@Name("net.thesilkminer.skl.SkdParse")
+	@Label("SKD Parse")
+	@Description("The parse of an SKD database")
+	@Category({"SKL", "SKD"})
+	static final class SkdParseEvent extends Event {
+
+		@Label("Parser")
+		String parser;
+
+		@Label("Database Holder")
+		String holder;
+
+		@Label("Lines")
+		long lines;
+
+		@Label("Tags")
+		long tags;
+
+		@Label("Content")
+		@Description("The length of the content read, in characters")
+		long contentChars;
+	}
+
+	@Name("net.thesilkminer.skl.SkdAcceptance")
+	@Label("SKD Acceptance")
+	@Description("A run of an acceptance service on a parsed token")
+	@Category({"SKL", "SKD"})
+	@StackTrace(false)
+	static final class AcceptanceEvent extends Event {
+
+		@Label("Type")
+		Class<?> type;
+
+		@Label("Accepted As")
+		Class<?> accepted;
+	}
+
+	@Name("net.thesilkminer.skl.SkdCallback")
+	@Label("SKD Callback")
+	@Description("A run of the callbacks on a parsed token")
+	@Category({"SKL", "SKD"})
+	@StackTrace(false)
+	static final class CallbackEvent extends Event {
+
+		@Label("Kind")
+		String kind;
+	}
+
+	@Name("net.thesilkminer.skl.SksDirective")
+	@Label("SKS Directive")
+	@Description("The processing of a directive of an SKS script")
+	@Category({"SKL", "SKS"})
+	static final class SksDirectiveEvent extends Event {
+
+		@Label("Script")
+		String script;
+
+		@Label("Directive")
+		String directive;
+	}
+
+	@Name("net.thesilkminer.skl.JavaCompilation")
+	@Label("Java Script Compilation")
+	@Description("The compilation of the Java code of an SKS script")
+	@Category({"SKL", "SKS"})
+	static final class JavaCompilationEvent extends Event {
+
+		@Label("Class Name")
+		String className;
+
+		@Label("Successful")
+		boolean successful;
+	}
+
+	@Name("net.thesilkminer.skl.ScriptExecution")
+	@Label("Script Execution")
+	@Description("The execution of the main method of an SKS script")
+	@Category({"SKL", "SKS"})
+	static final class ScriptExecutionEvent extends Event {
+
+		@Label("Class Name")
+		String className;
+
+		@Label("Successful")
+		boolean successful;
+	}
+
+	JfrEventSink() {
+		// Makes the events show up in the recording settings before they are first emitted
+		FlightRecorder.register(SkdParseEvent.class);
+		FlightRecorder.register(AcceptanceEvent.class);
+		FlightRecorder.register(CallbackEvent.class);
+		FlightRecorder.register(SksDirectiveEvent.class);
+		FlightRecorder.register(JavaCompilationEvent.class);
+		FlightRecorder.register(ScriptExecutionEvent.class);
+	}
+
+	@Nullable
+	private static <T extends Event> T begin(@Nonnull final T event) {
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	@Nullable
+	@Override
+	public Object skdParse() {
+		return begin(new SkdParseEvent());
+	}
+
+	@Override
+	public void skdParse(@Nonnull final Object event, @Nonnull final String parser,
+	                     @Nonnull final String holder, final long lines, final long tags,
+	                     final long contentChars) {
+		final SkdParseEvent parse = (SkdParseEvent) event;
+		parse.end();
+		if (parse.shouldCommit()) {
+			parse.parser = parser;
+			parse.holder = holder;
+			parse.lines = lines;
+			parse.tags = tags;
+			parse.contentChars = contentChars;
+			parse.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object acceptance() {
+		return begin(new AcceptanceEvent());
+	}
+
+	@Override
+	public void acceptance(@Nonnull final Object event, @Nonnull final Class<?> type,
+	                       @Nullable final Class<?> accepted) {
+		final AcceptanceEvent acceptance = (AcceptanceEvent) event;
+		acceptance.end();
+		if (acceptance.shouldCommit()) {
+			acceptance.type = type;
+			acceptance.accepted = accepted;
+			acceptance.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object callback() {
+		return begin(new CallbackEvent());
+	}
+
+	@Override
+	public void callback(@Nonnull final Object event, @Nonnull final String kind) {
+		final CallbackEvent callback = (CallbackEvent) event;
+		callback.end();
+		if (callback.shouldCommit()) {
+			callback.kind = kind;
+			callback.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object sksDirective() {
+		return begin(new SksDirectiveEvent());
+	}
+
+	@Override
+	public void sksDirective(@Nonnull final Object event, @Nullable final String script,
+	                         @Nonnull final String directive) {
+		final SksDirectiveEvent sksDirective = (SksDirectiveEvent) event;
+		sksDirective.end();
+		if (sksDirective.shouldCommit()) {
+			sksDirective.script = script;
+			sksDirective.directive = directive;
+			sksDirective.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object javaCompilation() {
+		return begin(new JavaCompilationEvent());
+	}
+
+	@Override
+	public void javaCompilation(@Nonnull final Object event, @Nonnull final String className,
+	                            final boolean successful) {
+		final JavaCompilationEvent compilation = (JavaCompilationEvent) event;
+		compilation.end();
+		if (compilation.shouldCommit()) {
+			compilation.className = className;
+			compilation.successful = successful;
+			compilation.commit();
+		}
+	}
+
+	@Nullable
+	@Override
+	public Object scriptExecution() {
+		return begin(new ScriptExecutionEvent());
+	}
+
+	@Override
+	public void scriptExecution(@Nonnull final Object event, @Nonnull final String className,
+	                            final boolean successful) {
+		final ScriptExecutionEvent execution = (ScriptExecutionEvent) event;
+		execution.end();
+		if (execution.shouldCommit()) {
+			execution.className = className;
+			execution.successful = successful;
+			execution.commit();
+		}
+	}
+}
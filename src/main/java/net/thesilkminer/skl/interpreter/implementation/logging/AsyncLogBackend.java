@@ -0,0 +1,180 @@
+package net.thesilkminer.skl.interpreter.implementation.logging;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+
+/**
+ * Backend which hands messages to a background thread through a
+ * bounded ring buffer.
+ *
+ * <p>Publishing a message only records it: the background thread
+ * formats all the messages available in the buffer and writes them
+ * with a single call per stream, warnings and errors to
+ * {@link System#err} and everything else to {@link System#out}.
+ * When the buffer is full, publishers wait for the background thread
+ * to catch up, so no message is lost.</p>
+ *
+ * <p>Pending messages are written when the JVM shuts down.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+public final class AsyncLogBackend implements LogBackend {
+
+	private static final class Entry {
+
+		private final Level level;
+		private final long millis;
+		private final String source;
+		private final String message;
+
+		private Entry(@Nonnull final Level level, final long millis,
+		              @Nonnull final String source, final String message) {
+			this.level = level;
+			this.millis = millis;
+			this.source = source;
+			this.message = message;
+		}
+	}
+
+	private static final int BATCH_SIZE = 512;
+	private static final long SHUTDOWN_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+
+	private final BlockingQueue<Entry> buffer;
+	private final AtomicLong published;
+	private final Object lock;
+	private long written; // Guarded by lock
+
+	// Only used by the background thread
+	private final LogFormatter formatter;
+	private final StringBuilder out;
+	private final StringBuilder err;
+
+	/**
+	 * Creates a new asynchronous backend and starts its background
+	 * thread.
+	 *
+	 * @param capacity
+	 *      The amount of messages the buffer can hold.
+	 *
+	 * @since 0.2
+	 */
+	public AsyncLogBackend(final int capacity) {
+		Preconditions.checkArgument(capacity > 0, "Capacity must be positive");
+		this.buffer = new ArrayBlockingQueue<>(capacity);
+		this.published = new AtomicLong();
+		this.lock = new Object();
+		this.written = 0;
+		this.formatter = new LogFormatter();
+		this.out = new StringBuilder();
+		this.err = new StringBuilder();
+
+		final Thread thread = new Thread(this::drain, "SKL Logging");
+		thread.setDaemon(true);
+		thread.start();
+
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> this.flush(SHUTDOWN_TIMEOUT),
+				"SKL Logging Shutdown"));
+	}
+
+	@Override
+	public void publish(@Nonnull final Level level, @Nonnull final String source,
+	                    final String message) {
+		final Entry entry = new Entry(level, System.currentTimeMillis(), source, message);
+
+		// Counted before being enqueued, so that written never gets ahead of published
+		this.published.incrementAndGet();
+
+		if (!this.buffer.offer(entry)) {
+			try {
+				this.buffer.put(entry);
+			} catch (final InterruptedException exception) {
+				// Drop the message rather than swallow the interruption
+				this.published.decrementAndGet();
+				synchronized (this.lock) {
+					this.lock.notifyAll();
+				}
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void flush() {
+		this.flush(0);
+	}
+
+	private void flush(final long timeout) {
+		final long target = this.published.get();
+		final long deadline = System.currentTimeMillis() + timeout;
+
+		synchronized (this.lock) {
+			// Dropped messages are never written, so they must not be waited for
+			while (this.written < Math.min(target, this.published.get())) {
+				final long wait = timeout == 0 ? 0 : deadline - System.currentTimeMillis();
+				if (timeout != 0 && wait <= 0) {
+					return;
+				}
+				try {
+					this.lock.wait(wait);
+				} catch (final InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void drain() {
+		final List<Entry> batch = Lists.newArrayListWithCapacity(BATCH_SIZE);
+
+		while (true) {
+			try {
+				batch.add(this.buffer.take());
+			} catch (final InterruptedException exception) {
+				return;
+			}
+			this.buffer.drainTo(batch, BATCH_SIZE - 1);
+
+			try {
+				this.write(batch);
+			} catch (final RuntimeException exception) {
+				// The background thread must survive broken streams
+				exception.printStackTrace();
+			}
+
+			synchronized (this.lock) {
+				this.written += batch.size();
+				this.lock.notifyAll();
+			}
+			batch.clear();
+		}
+	}
+
+	private void write(@Nonnull final List<Entry> batch) {
+		this.out.setLength(0);
+		this.err.setLength(0);
+
+		for (final Entry entry : batch) {
+			final StringBuilder builder = entry.level.intValue() >= Level.WARNING.intValue()
+					? this.err : this.out;
+			this.formatter.format(builder, entry.level, entry.millis, entry.source, entry.message);
+		}
+
+		if (this.out.length() > 0) {
+			StreamLogBackend.write(System.out, this.out);
+		}
+		if (this.err.length() > 0) {
+			StreamLogBackend.write(System.err, this.err);
+		}
+	}
+}
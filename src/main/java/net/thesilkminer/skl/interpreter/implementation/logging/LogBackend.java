@@ -0,0 +1,44 @@
+package net.thesilkminer.skl.interpreter.implementation.logging;
+
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the messages logged by the interpreter's loggers.
+ *
+ * <p>Loggers decide whether a message should be logged before
+ * handing it to the backend: backends are only responsible for
+ * formatting and writing it.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+public interface LogBackend {
+
+	/**
+	 * Publishes a message.
+	 *
+	 * <p>Messages may be written asynchronously, but the ones published
+	 * by the same thread must be written in the order they have been
+	 * published.</p>
+	 *
+	 * @param level
+	 *      The level of the message.
+	 * @param source
+	 *      The name of the logger which logged the message.
+	 * @param message
+	 *      The message.
+	 *
+	 * @since 0.2
+	 */
+	void publish(@Nonnull final Level level, @Nonnull final String source, final String message);
+
+	/**
+	 * Waits until all the messages published so far have been
+	 * written.
+	 *
+	 * @since 0.2
+	 */
+	void flush();
+}
@@ -0,0 +1,131 @@
+package net.thesilkminer.skl.interpreter.implementation.logging;
+
+import com.google.common.base.Preconditions;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NonNls;
+
+import java.util.Locale;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+
+/**
+ * Holds the {@link LogBackend} and the level shared by all the
+ * interpreter's loggers.
+ *
+ * <p>Both are decided once, when this class is loaded:</p>
+ *
+ * <ul>
+ *     <li>{@value #BACKEND_PROPERTY} selects the backend: either
+ *     {@code async} (the default) or {@code stream};</li>
+ *     <li>{@value #BUFFER_PROPERTY} sets the amount of messages the
+ *     {@code async} backend can buffer (8192 by default);</li>
+ *     <li>{@value #LEVEL_PROPERTY} sets the lowest level of the
+ *     messages which are logged ({@code INFO} by default).</li>
+ * </ul>
+ *
+ * <p>The backend can then be replaced through {@link #set(LogBackend)}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+public final class LogBackends {
+
+	/**
+	 * The property which selects the backend.
+	 *
+	 * @since 0.2
+	 */
+	@NonNls public static final String BACKEND_PROPERTY =
+			"net.thesilkminer.skl.interpreter.logging.backend";
+
+	/**
+	 * The property which sets the capacity of the asynchronous
+	 * backend's buffer.
+	 *
+	 * @since 0.2
+	 */
+	@NonNls public static final String BUFFER_PROPERTY =
+			"net.thesilkminer.skl.interpreter.logging.buffer";
+
+	/**
+	 * The property which sets the lowest level of the messages which
+	 * are logged.
+	 *
+	 * @since 0.2
+	 */
+	@NonNls public static final String LEVEL_PROPERTY =
+			"net.thesilkminer.skl.interpreter.logging.level";
+
+	private static final Level LEVEL = level(System.getProperty(LEVEL_PROPERTY));
+	private static volatile LogBackend backend = backend(System.getProperty(BACKEND_PROPERTY));
+
+	private LogBackends() {
+	}
+
+	@Nonnull
+	private static Level level(final String property) {
+		if (property == null) {
+			return Level.INFO;
+		}
+		try {
+			return Level.parse(property.toUpperCase(Locale.ENGLISH));
+		} catch (final IllegalArgumentException exception) {
+			return Level.INFO;
+		}
+	}
+
+	@Nonnull
+	private static LogBackend backend(final String property) {
+		if ("stream".equals(property)) {
+			return new StreamLogBackend();
+		}
+		return new AsyncLogBackend(Integer.getInteger(BUFFER_PROPERTY, 8192));
+	}
+
+	/**
+	 * Gets the backend all messages are published to.
+	 *
+	 * @return
+	 *      The backend.
+	 *
+	 * @since 0.2
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static LogBackend get() {
+		return backend;
+	}
+
+	/**
+	 * Replaces the backend all messages are published to.
+	 *
+	 * <p>Messages already published to the previous backend are
+	 * {@link LogBackend#flush() flushed} first.</p>
+	 *
+	 * @param backend
+	 *      The new backend.
+	 *
+	 * @since 0.2
+	 */
+	public static synchronized void set(@Nonnull final LogBackend backend) {
+		Preconditions.checkNotNull(backend);
+		LogBackends.backend.flush();
+		LogBackends.backend = backend;
+	}
+
+	/**
+	 * Gets the lowest level of the messages which are logged.
+	 *
+	 * @return
+	 *      The level.
+	 *
+	 * @since 0.2
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static Level level() {
+		return LEVEL;
+	}
+}
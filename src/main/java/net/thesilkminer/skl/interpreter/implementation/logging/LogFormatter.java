@@ -0,0 +1,66 @@
+package net.thesilkminer.skl.interpreter.implementation.logging;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+
+/**
+ * Formats log messages as
+ * {@code dd/MM/yyyy hh:mm:ss [source] [LEVEL] message}.
+ *
+ * <p>The date is formatted at most once per second. Formatters are
+ * not thread safe.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+final class LogFormatter {
+
+	private static final DateTimeFormatter DATE_FORMAT =
+			DateTimeFormatter.ofPattern("dd/MM/yyyy hh:mm:ss");
+
+	private final ZoneId zone;
+	private long second;
+	private String date;
+
+	LogFormatter() {
+		this.zone = ZoneId.systemDefault();
+		this.second = Long.MIN_VALUE;
+		this.date = null;
+	}
+
+	/**
+	 * Appends a formatted message, new line included, to the given
+	 * builder.
+	 *
+	 * @param builder
+	 *      The builder.
+	 * @param level
+	 *      The level of the message.
+	 * @param millis
+	 *      The time the message has been published at.
+	 * @param source
+	 *      The name of the logger which logged the message.
+	 * @param message
+	 *      The message.
+	 *
+	 * @since 0.2
+	 */
+	void format(@Nonnull final StringBuilder builder, @Nonnull final Level level,
+	            final long millis, @Nonnull final String source, final String message) {
+		final long second = millis / 1000;
+
+		if (second != this.second) {
+			this.date = DATE_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis),
+					this.zone));
+			this.second = second;
+		}
+
+		builder.append(this.date).append(" [").append(source).append("] [")
+				.append(level.getName()).append("] ").append(message).append('\n');
+	}
+}
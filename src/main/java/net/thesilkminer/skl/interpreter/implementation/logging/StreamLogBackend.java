@@ -0,0 +1,61 @@
+package net.thesilkminer.skl.interpreter.implementation.logging;
+
+import java.io.PrintStream;
+import java.util.logging.Level;
+import javax.annotation.Nonnull;
+
+/**
+ * Backend which writes every message as soon as it is published,
+ * warnings and errors to {@link System#err} and everything else to
+ * {@link System#out}.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2
+ */
+public final class StreamLogBackend implements LogBackend {
+
+	private final LogFormatter formatter;
+	private final StringBuilder builder;
+
+	/**
+	 * Creates a new stream backend.
+	 *
+	 * @since 0.2
+	 */
+	public StreamLogBackend() {
+		this.formatter = new LogFormatter();
+		this.builder = new StringBuilder();
+	}
+
+	@Override
+	public synchronized void publish(@Nonnull final Level level, @Nonnull final String source,
+	                                 final String message) {
+		this.builder.setLength(0);
+		this.formatter.format(this.builder, level, System.currentTimeMillis(), source, message);
+		write(level.intValue() >= Level.WARNING.intValue() ? System.err : System.out,
+				this.builder);
+	}
+
+	@Override
+	public void flush() {
+		// Messages are never buffered
+	}
+
+	/**
+	 * Writes the given text in a single call, so that it is not
+	 * interleaved with other writes to the same stream.
+	 *
+	 * @param stream
+	 *      The stream.
+	 * @param text
+	 *      The text.
+	 *
+	 * @since 0.2
+	 */
+	static void write(@Nonnull final PrintStream stream, @Nonnull final CharSequence text) {
+		final byte[] bytes = text.toString().getBytes();
+		stream.write(bytes, 0, bytes.length);
+		stream.flush();
+	}
+}
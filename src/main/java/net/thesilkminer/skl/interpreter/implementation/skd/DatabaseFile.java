@@ -10,10 +10,14 @@ import org.jetbrains.annotations.Contract;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 
@@ -175,4 +179,33 @@ public class DatabaseFile extends File implements IDatabaseHolder {
 		}
 		return Optional.of(out);
 	}
+
+	@Override
+	public boolean binary() {
+		return this.getFileExtension().equalsIgnoreCase("skdb");
+	}
+
+	@Nonnull
+	@Override
+	public InputStream byteStream() {
+		try {
+			return new FileInputStream(this);
+		} catch (final FileNotFoundException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Optional<OutputStream> byteWriterStream() {
+		final OutputStream out;
+		try {
+			out = new FileOutputStream(this);
+		} catch (final IOException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+		return Optional.of(out);
+	}
 }
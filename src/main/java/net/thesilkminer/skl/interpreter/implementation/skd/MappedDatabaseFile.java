@@ -0,0 +1,490 @@
+package net.thesilkminer.skl.interpreter.implementation.skd;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+
+import net.thesilkminer.skl.interpreter.api.skd.holder.IMappedDatabaseHolder;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+/**
+ * This class is used to represent a database file that gets
+ * memory mapped instead of read through a stream.
+ *
+ * <p>Differently from {@link DatabaseFile}, the contents are
+ * not read through the {@code FileReader} stack: they are mapped
+ * with {@link FileChannel#map(FileChannel.MapMode, long, long)} and
+ * decoded on demand straight into the caller's buffer, so that
+ * big databases can be scanned without intermediate copies.</p>
+ *
+ * <p>Files bigger than a single mapping are handled through sliding
+ * windows of at most {@link #DEFAULT_WINDOW_SIZE} bytes.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+@SuppressWarnings("WeakerAccess")
+public class MappedDatabaseFile implements IMappedDatabaseHolder {
+
+	/**
+	 * Represents the default size of a mapped window (1 GB).
+	 *
+	 * @since 0.2.1
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+	// The longest multi-byte sequence of the charsets we know of (e.g. UTF-8) is 4 bytes long
+	private static final int MIN_WINDOW_SIZE = 4;
+
+	private final Path path;
+	private final Charset charset;
+	private final int windowSize;
+	private final String fileName;
+	private final String fileExtension;
+
+	private MappedDatabaseFile(@Nonnull final Path path, @Nonnull final Charset charset,
+	                           final int windowSize) {
+		this.path = Preconditions.checkNotNull(path).toAbsolutePath();
+		this.charset = Preconditions.checkNotNull(charset);
+		// A smaller window could never hold a character which crosses its boundary
+		Preconditions.checkArgument(windowSize >= minWindowSize(charset),
+				"Window size must be at least %s bytes for %s", minWindowSize(charset), charset);
+		this.windowSize = windowSize;
+
+		final String name = this.path.getFileName().toString();
+		final int indexOfDot = name.lastIndexOf('.');
+		this.fileName = indexOfDot > -1 ? name.substring(0, indexOfDot) : name;
+		this.fileExtension = indexOfDot > -1 ? name.substring(indexOfDot + 1) : "";
+	}
+
+	/**
+	 * Obtains a new mapped database file for the given {@code path}.
+	 *
+	 * <p>The platform default charset is used, as with
+	 * {@link DatabaseFile}.</p>
+	 *
+	 * @param path
+	 *      The path of the file.
+	 * @return
+	 *      A new instance of <code>MappedDatabaseFile</code>.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static IMappedDatabaseHolder of(@Nonnull final Path path) {
+		return of(path, Charset.defaultCharset());
+	}
+
+	/**
+	 * Obtains a new mapped database file for the given {@code file}.
+	 *
+	 * @param file
+	 *      The file.
+	 * @return
+	 *      A new instance of <code>MappedDatabaseFile</code>.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static IMappedDatabaseHolder of(@Nonnull final File file) {
+		return of(file.toPath());
+	}
+
+	/**
+	 * Obtains a new mapped database file for the given {@code path},
+	 * decoded with the given {@code charset}.
+	 *
+	 * @param path
+	 *      The path of the file.
+	 * @param charset
+	 *      The charset of the file.
+	 * @return
+	 *      A new instance of <code>MappedDatabaseFile</code>.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static IMappedDatabaseHolder of(@Nonnull final Path path,
+	                                       @Nonnull final Charset charset) {
+		return of(path, charset, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Obtains a new mapped database file for the given {@code path},
+	 * decoded with the given {@code charset} and mapped in windows of
+	 * at most {@code windowSize} bytes.
+	 *
+	 * @param path
+	 *      The path of the file.
+	 * @param charset
+	 *      The charset of the file.
+	 * @param windowSize
+	 *      The maximum size of a single mapped window. It must be able
+	 *      to hold the longest encoded character of the charset, and
+	 *      at least 4 bytes.
+	 * @return
+	 *      A new instance of <code>MappedDatabaseFile</code>.
+	 *
+	 * @throws IllegalArgumentException
+	 *      If the window size is too small.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static IMappedDatabaseHolder of(@Nonnull final Path path,
+	                                       @Nonnull final Charset charset,
+	                                       final int windowSize) {
+		return new MappedDatabaseFile(path, charset, windowSize);
+	}
+
+	@Contract(pure = true)
+	private static int minWindowSize(@Nonnull final Charset charset) {
+		if (!charset.canEncode()) {
+			return MIN_WINDOW_SIZE;
+		}
+		final double maxBytesPerChar = charset.newEncoder().maxBytesPerChar();
+		return Math.max(MIN_WINDOW_SIZE, (int) Math.ceil(maxBytesPerChar));
+	}
+
+	/**
+	 * Gets the path of this file.
+	 *
+	 * @return
+	 *      The absolute path of the file.
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public Path getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Gets the file extension.
+	 *
+	 * @return
+	 *      The file's extension.
+	 *
+	 * @see DatabaseFile#getFileExtension()
+	 *
+	 * @since 0.2.1
+	 */
+	@Nonnull
+	public String getFileExtension() {
+		return this.fileExtension;
+	}
+
+	@Override
+	public boolean writable() {
+		return true;
+	}
+
+	@Nonnull
+	@Override
+	public Optional<String> name() {
+		return Optional.of(this.fileName);
+	}
+
+	@Override
+	public boolean canBeAcceptedByDefault() {
+		return this.getFileExtension().equalsIgnoreCase("skd");
+	}
+
+	@Override
+	public long size() {
+		try {
+			return Files.size(this.path);
+		} catch (final IOException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+	}
+
+	@Override
+	public int windowSize() {
+		return this.windowSize;
+	}
+
+	@Nonnull
+	@Override
+	public Charset charset() {
+		return this.charset;
+	}
+
+	@Nonnull
+	@Override
+	public ByteBuffer window(final long position) {
+		try (final FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			Preconditions.checkArgument(position >= 0 && position <= size,
+					"Position %s out of bounds (size %s)", position, size);
+			final long length = Math.min(this.windowSize, size - position);
+			// The mapping stays valid even after the channel gets closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		} catch (final IOException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Reader charView() {
+		return new MappedReader(this);
+	}
+
+	@Nonnull
+	@Override
+	public Optional<BufferedWriter> writerStream() {
+		final BufferedWriter out;
+		try {
+			out = Files.newBufferedWriter(this.path, this.charset);
+		} catch (final IOException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+		return Optional.of(out);
+	}
+
+	@Override
+	public boolean binary() {
+		return this.getFileExtension().equalsIgnoreCase("skdb");
+	}
+
+	@Nonnull
+	@Override
+	public InputStream byteStream() {
+		try {
+			return Files.newInputStream(this.path);
+		} catch (final IOException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+	}
+
+	@Nonnull
+	@Override
+	public Optional<OutputStream> byteWriterStream() {
+		final OutputStream out;
+		try {
+			out = Files.newOutputStream(this.path);
+		} catch (final IOException exception) {
+			Throwables.propagate(exception);
+			throw new RuntimeException(); //Dead code, but ok
+		}
+		return Optional.of(out);
+	}
+
+	@Override
+	public boolean equals(final Object o) {
+		return this == o || o instanceof MappedDatabaseFile
+				&& this.path.equals(((MappedDatabaseFile) o).path);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.path.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.path.toString();
+	}
+
+	/**
+	 * Decodes the mapped windows of a {@link MappedDatabaseFile}
+	 * straight into the caller's buffer.
+	 *
+	 * <p>Pure ASCII runs are copied byte by byte, skipping the
+	 * decoder entirely, as long as the charset is ASCII
+	 * compatible.</p>
+	 *
+	 * @since 0.2.1
+	 */
+	private static final class MappedReader extends Reader {
+
+		private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+		private final MappedDatabaseFile file;
+		private final CharsetDecoder decoder;
+		private final boolean asciiCompatible;
+		private final long size;
+		private ByteBuffer window;
+		private long windowStart;
+		private boolean flushed;
+		private char pending;
+		private boolean hasPending;
+
+		private MappedReader(@Nonnull final MappedDatabaseFile file) {
+			this.file = file;
+			this.decoder = file.charset().newDecoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			this.asciiCompatible = file.charset().equals(StandardCharsets.UTF_8)
+					|| file.charset().equals(StandardCharsets.US_ASCII)
+					|| file.charset().equals(StandardCharsets.ISO_8859_1);
+			this.size = file.size();
+			this.window = null;
+			this.windowStart = 0;
+			this.flushed = false;
+			this.pending = 0;
+			this.hasPending = false;
+		}
+
+		@Override
+		public int read(@Nonnull final char[] cbuf, final int off, final int len)
+				throws IOException {
+			Preconditions.checkPositionIndexes(off, off + len, cbuf.length);
+
+			if (len == 0) {
+				return 0;
+			}
+
+			int read = 0;
+
+			if (this.hasPending) {
+				cbuf[off] = this.pending;
+				this.hasPending = false;
+				++read;
+			}
+
+			while (read < len) {
+				if (!this.ensureWindow()) {
+					read += this.flush(cbuf, off + read, len - read);
+					break;
+				}
+
+				final ByteBuffer window = this.window;
+
+				if (this.asciiCompatible) {
+					int position = window.position();
+					final int limit = window.limit();
+
+					while (read < len && position < limit) {
+						final byte b = window.get(position);
+						if (b < 0) {
+							break;
+						}
+						cbuf[off + read] = (char) b;
+						++read;
+						++position;
+					}
+
+					window.position(position);
+
+					if (read == len || !window.hasRemaining()) {
+						continue;
+					}
+				}
+
+				final boolean last = this.windowStart + window.limit() >= this.size;
+				final CharBuffer out = CharBuffer.wrap(cbuf, off + read, len - read);
+				final CoderResult result = this.decoder.decode(window, out, last);
+				read = out.position() - off;
+
+				if (result.isOverflow()) {
+					if (read == 0) {
+						// Not enough space for a surrogate pair: keep the low one aside
+						read = this.decodePair(cbuf, off, last);
+					}
+					break;
+				}
+
+				if (window.hasRemaining() && !last) {
+					// A multi-byte sequence crosses the window boundary
+					this.map(this.windowStart + window.position());
+				}
+			}
+
+			return read == 0 ? -1 : read;
+		}
+
+		private int decodePair(@Nonnull final char[] cbuf, final int off, final boolean last) {
+			final CharBuffer pair = CharBuffer.allocate(2);
+			this.decoder.decode(this.window, pair, last);
+			pair.flip();
+
+			if (!pair.hasRemaining()) {
+				return 0;
+			}
+
+			cbuf[off] = pair.get();
+
+			if (pair.hasRemaining()) {
+				this.pending = pair.get();
+				this.hasPending = true;
+			}
+
+			return 1;
+		}
+
+		private boolean ensureWindow() {
+			if (this.window != null && this.window.hasRemaining()) {
+				return true;
+			}
+
+			final long next = this.window == null
+					? 0
+					: this.windowStart + this.window.position();
+
+			if (next >= this.size) {
+				return false;
+			}
+
+			this.map(next);
+			return true;
+		}
+
+		private void map(final long position) {
+			this.window = this.file.window(position);
+			this.windowStart = position;
+		}
+
+		private int flush(@Nonnull final char[] cbuf, final int off, final int len) {
+			if (this.flushed) {
+				return 0;
+			}
+
+			final CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+			// The decoder must be told the input ended before flushing
+			this.decoder.decode(EMPTY, out, true);
+			final CoderResult result = this.decoder.flush(out);
+
+			if (result.isUnderflow()) {
+				this.flushed = true;
+			}
+
+			return out.position() - off;
+		}
+
+		@Override
+		public void close() {
+			this.window = null;
+		}
+	}
+}
@@ -1,94 +1,37 @@
 package net.thesilkminer.skl.interpreter.implementation.skd;
 
 import net.thesilkminer.skl.interpreter.api.skd.logging.ISkdLogger;
+import net.thesilkminer.skl.interpreter.implementation.logging.LogBackends;
 
 import org.jetbrains.annotations.Contract;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.logging.ErrorManager;
-import java.util.logging.Formatter;
-import java.util.logging.Handler;
+import java.util.function.Supplier;
 import java.util.logging.Level;
-import java.util.logging.LogRecord;
-import java.util.logging.Logger;
 
 import javax.annotation.Nonnull;
 
 /**
  * Logger used by the SKD environment.
  *
+ * <p>Messages are published to the shared {@link LogBackends backend}.
+ * Whether a message is logged is decided before building or publishing
+ * it, based on the level and debug option read at startup.</p>
+ *
  * @author TheSilkMiner
  *
  * @since 0.2
  */
 public class SkdLogger implements ISkdLogger {
 
-	private class LogOutputHandler extends Handler {
-
-		private class LogFormatter extends Formatter {
-
-			private final DateFormat dateFormat =
-					      new SimpleDateFormat("dd/MM/yyyy hh:mm:ss");
-
-			@Override
-			public String format(final LogRecord record) {
-				final StringBuilder builder = new StringBuilder();
-
-				builder.append(dateFormat.format(new Date(record.getMillis())));
-				builder.append(" [");
-
-				final String sourceClassName = record.getSourceClassName();
-
-				builder.append(sourceClassName.substring(sourceClassName
-						      .lastIndexOf('.') + 1));
-				builder.append("] [");
-				builder.append(record.getLevel());
-				builder.append("] ");
-				builder.append(this.formatMessage(record));
-				builder.append("\n");
-
-
-				return builder.toString();
-			}
-		}
-
-		@Override
-		public void publish(final LogRecord record) {
-			if (this.getFormatter() == null) {
-				this.setFormatter(new LogFormatter());
-			}
-
-			try {
-				final String message = this.getFormatter().format(record);
-
-				if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
-					System.err.write(message.getBytes());
-				} else {
-					System.out.write(message.getBytes());
-				}
-			} catch (final Exception exception) {
-
-				this.reportError(null, exception, ErrorManager.FORMAT_FAILURE);
-			}
-
-		}
-
-		@Override
-		public void close() throws SecurityException {}
-
-		@Override
-		public void flush() {}
-	}
-
+	private static final String SOURCE = "SkdLogger";
 	private static final ISkdLogger SINGLETON = new SkdLogger();
 
-	private final Logger logger = Logger.getLogger("SKD Parser");
+	private final int level;
+	private final boolean debug;
 
 	private SkdLogger() {
-		this.logger.setUseParentHandlers(false);
-		this.logger.addHandler(new LogOutputHandler());
+		this.level = LogBackends.level().intValue();
+		this.debug = DEBUG_ON.equals(System.getProperty(DEBUG_PROPERTY));
 	}
 
 	/**
@@ -105,24 +48,65 @@ public class SkdLogger implements ISkdLogger {
 		return SINGLETON;
 	}
 
+	private boolean isLoggable(@Nonnull final Level level) {
+		return level.intValue() >= this.level;
+	}
+
+	private void log(@Nonnull final Level level, @Nonnull final String msg) {
+		if (this.isLoggable(level)) {
+			LogBackends.get().publish(level, SOURCE, msg);
+		}
+	}
+
+	private void log(@Nonnull final Level level, @Nonnull final Supplier<String> msg) {
+		if (this.isLoggable(level)) {
+			LogBackends.get().publish(level, SOURCE, msg.get());
+		}
+	}
+
 	@Override
 	public void info(@Nonnull final String msg) {
-		this.logger.log(Level.INFO, msg);
+		this.log(Level.INFO, msg);
+	}
+
+	@Override
+	public void info(@Nonnull final Supplier<String> msg) {
+		this.log(Level.INFO, msg);
 	}
 
 	@Override
 	public void warn(@Nonnull final String msg) {
-		this.logger.log(Level.WARNING, msg);
+		this.log(Level.WARNING, msg);
+	}
+
+	@Override
+	public void warn(@Nonnull final Supplier<String> msg) {
+		this.log(Level.WARNING, msg);
 	}
 
 	@Override
 	public void error(@Nonnull final String msg) {
-		this.logger.log(Level.SEVERE, msg);
+		this.log(Level.SEVERE, msg);
 	}
 
 	@Override
 	public void fine(@Nonnull final String msg) {
-		this.logger.log(Level.FINE, msg);
+		this.log(Level.FINE, msg);
+	}
+
+	@Override
+	public void fine(@Nonnull final Supplier<String> msg) {
+		this.log(Level.FINE, msg);
+	}
+
+	@Override
+	public void debug(@Nonnull final String msg) {
+		this.log(this.debug ? Level.INFO : Level.FINE, msg);
+	}
+
+	@Override
+	public void debug(@Nonnull final Supplier<String> msg) {
+		this.log(this.debug ? Level.INFO : Level.FINE, msg);
 	}
 
 	@Override
@@ -1,6 +1,8 @@
 package net.thesilkminer.skl.interpreter.implementation.skd;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -8,6 +10,7 @@ import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
 import net.thesilkminer.skl.interpreter.api.skd.exceptions.IllegalDatabaseSyntaxException;
 import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
 import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
@@ -47,7 +50,8 @@ import javax.annotation.Nonnull;
  */
 public class SkdParser implements ISkdParser {
 
-	private static final Map<IDatabaseHolder, SkdParser> MAP = Maps.newHashMap();
+	private static final Cache<IDatabaseHolder, SkdParser> MAP =
+			CacheBuilder.newBuilder().maximumSize(64).build();
 
 	// Mainly done due to avoid hacks and direct registrations.
 	private static final List<Class<? extends IDeclaration>> DECLARATIONS =
@@ -100,22 +104,34 @@ public class SkdParser implements ISkdParser {
 	@Contract(pure = true)
 	@Nonnull
 	public static ISkdParser of(@Nonnull final IDatabaseHolder file) {
+		return of(file, true);
+	}
 
-		Preconditions.checkNotNull(file, "IDatabaseHolder must not be null");
-
-		if (MAP.containsKey(file) && MAP.get(file) != null) {
+	/**
+	 * Creates a new Parser for the specified database file.
+	 *
+	 * @param file
+	 * 		The IDatabaseHolder you need to create the parser for.
+	 * @param cached
+	 * 		If the parser already created for the file should be
+	 * 		returned, if available. Every parser can read its file
+	 * 		only once.
+	 * @return
+	 * 		A new SkdParser, or the cached one.
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static ISkdParser of(@Nonnull final IDatabaseHolder file, final boolean cached) {
 
-			return MAP.get(file);
-		}
+		Preconditions.checkNotNull(file, "IDatabaseHolder must not be null");
 
-		if (MAP.containsKey(file)) {
+		if (cached) {
 
-			MAP.remove(file);
+			// Threads asking for the same holder at once must get the same parser
+			return MAP.asMap().computeIfAbsent(file, SkdParser::new);
 		}
 
-		final SkdParser parser = new SkdParser(file);
-		MAP.put(file, parser);
-		return parser;
+		return new SkdParser(file);
 	}
 
 	private static void declaration(final Class<? extends IDeclaration> declaration,
@@ -532,11 +548,9 @@ public class SkdParser implements ISkdParser {
 	}
 
 	private void write(final IDatabase database, final DatabaseFile file) throws IOException {
-		// Yeah, well.
-		// Just a toString() call.
-		// LOL
 		final PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(file)));
-		out.println(database.toString());
+		SkdWriter.of(out).write(database);
+		out.println();
 		out.close();
 	}
 
@@ -2,6 +2,7 @@ package net.thesilkminer.skl.interpreter.implementation.skd.structure;
 
 import com.google.common.base.Preconditions;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
@@ -116,6 +117,16 @@ public class Database implements IDatabase {
 		this.struct = structure;
 	}
 
+	@Override
+	public void write(@Nonnull final SkdWriter writer) {
+		writer.raw(this.docType().toString())
+				.newLine()
+				.raw(this.version().toString())
+				.newLine()
+				.newLine();
+		this.structure().write(writer);
+	}
+
 	@Nonnull
 	@Override
 	public String toString() {
@@ -0,0 +1,256 @@
+package net.thesilkminer.skl.interpreter.implementation.skd.structure;
+
+import com.google.common.base.Preconditions;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Stores the properties of a tag, in the order they were added, and
+ * indexes them by name.
+ *
+ * <p>Tags with few properties keep them in a plain array, which is
+ * scanned to look a name up: that is as fast as hashing for a handful
+ * of entries and costs no memory. Once a tag has more than
+ * {@value #THRESHOLD} properties, an open-addressing table from every
+ * name to the position of its first property is built as well, so
+ * that {@link #get(String)}, {@link #contains(Object)} and
+ * {@link #remove(Object)} do not depend on the amount of properties
+ * anymore.</p>
+ *
+ * <p>The store is a {@link java.util.List} of its own, so it can be
+ * handed out where tags used to expose their backing list. It does
+ * not accept {@code null} properties.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.2.1
+ */
+public final class PropertyStore extends AbstractList<ISkdProperty> implements RandomAccess {
+
+	/**
+	 * The amount of properties above which the name index is built.
+	 *
+	 * @since 0.2.1
+	 */
+	public static final int THRESHOLD = 8;
+
+	private static final ISkdProperty[] EMPTY = new ISkdProperty[0];
+
+	private ISkdProperty[] properties;
+	private int size;
+	// Position of the first property with every name, plus one: zero marks a free slot
+	private int[] index;
+
+	/**
+	 * Creates a new empty store.
+	 *
+	 * @since 0.2.1
+	 */
+	public PropertyStore() {
+		this.properties = EMPTY;
+		this.size = 0;
+		this.index = null;
+	}
+
+	/**
+	 * Gets the first property with the given name.
+	 *
+	 * @param name
+	 *      The name of the property.
+	 * @return
+	 *      The property, or {@code null} if there is none.
+	 *
+	 * @since 0.2.1
+	 */
+	@Contract("null -> fail")
+	@Nullable
+	public ISkdProperty get(@Nonnull final String name) {
+		final int position = this.indexOfName(Preconditions.checkNotNull(name));
+		return position < 0 ? null : this.properties[position];
+	}
+
+	/**
+	 * Gets the position of the first property with the given name.
+	 *
+	 * @param name
+	 *      The name of the property.
+	 * @return
+	 *      The position of the property, or {@code -1} if there is
+	 *      none.
+	 *
+	 * @since 0.2.1
+	 */
+	public int indexOfName(@Nonnull final String name) {
+		if (this.index == null) {
+			for (int i = 0; i < this.size; ++i) {
+				if (sameName(this.properties[i].getName(), name)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		final int mask = this.index.length - 1;
+
+		for (int slot = hash(name) & mask; this.index[slot] != 0; slot = (slot + 1) & mask) {
+			final int position = this.index[slot] - 1;
+			if (sameName(this.properties[position].getName(), name)) {
+				return position;
+			}
+		}
+
+		return -1;
+	}
+
+	@Override
+	public ISkdProperty get(final int index) {
+		Preconditions.checkElementIndex(index, this.size);
+		return this.properties[index];
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public ISkdProperty set(final int index, @Nonnull final ISkdProperty property) {
+		Preconditions.checkElementIndex(index, this.size);
+		Preconditions.checkNotNull(property);
+
+		final ISkdProperty previous = this.properties[index];
+		this.properties[index] = property;
+
+		if (this.index != null && !sameName(previous.getName(), property.getName())) {
+			this.reindex();
+		}
+
+		return previous;
+	}
+
+	@Override
+	public void add(final int index, @Nonnull final ISkdProperty property) {
+		Preconditions.checkPositionIndex(index, this.size);
+		Preconditions.checkNotNull(property);
+
+		if (this.size == this.properties.length) {
+			this.properties = Arrays.copyOf(this.properties, Math.max(4, this.size * 2));
+		}
+
+		System.arraycopy(this.properties, index, this.properties, index + 1, this.size - index);
+		this.properties[index] = property;
+		++this.size;
+		++this.modCount;
+
+		if (this.index == null) {
+			if (this.size > THRESHOLD) {
+				this.reindex();
+			}
+		} else if (index != this.size - 1 || this.size * 2 > this.index.length) {
+			// Inserting in the middle moves every following position
+			this.reindex();
+		} else {
+			this.index(index);
+		}
+	}
+
+	@Override
+	public ISkdProperty remove(final int index) {
+		Preconditions.checkElementIndex(index, this.size);
+
+		final ISkdProperty previous = this.properties[index];
+		System.arraycopy(this.properties, index + 1, this.properties, index,
+				this.size - index - 1);
+		this.properties[--this.size] = null;
+		++this.modCount;
+
+		if (this.index != null) {
+			this.reindex();
+		}
+
+		return previous;
+	}
+
+	@Override
+	public int indexOf(@Nullable final Object o) {
+		if (!(o instanceof ISkdProperty)) {
+			return -1;
+		}
+
+		// Equal properties have equal names, so nothing before the first one can match
+		final int first = this.indexOfName(((ISkdProperty) o).getName());
+
+		if (first >= 0) {
+			for (int i = first; i < this.size; ++i) {
+				if (o.equals(this.properties[i])) {
+					return i;
+				}
+			}
+		}
+
+		return -1;
+	}
+
+	@Override
+	public boolean contains(@Nullable final Object o) {
+		return this.indexOf(o) >= 0;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(this.properties, 0, this.size, null);
+		this.size = 0;
+		this.index = null;
+		++this.modCount;
+	}
+
+	private void reindex() {
+		if (this.size <= THRESHOLD) {
+			this.index = null;
+			return;
+		}
+
+		// At least twice as many slots as properties, so that probes stay short
+		this.index = new int[Integer.highestOneBit(this.size * 4 - 1)];
+
+		for (int i = 0; i < this.size; ++i) {
+			this.index(i);
+		}
+	}
+
+	private void index(final int position) {
+		final String name = this.properties[position].getName();
+		final int mask = this.index.length - 1;
+		int slot = hash(name) & mask;
+
+		while (this.index[slot] != 0) {
+			if (sameName(this.properties[this.index[slot] - 1].getName(), name)) {
+				// Only the first property with every name is indexed
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		this.index[slot] = position + 1;
+	}
+
+	@Contract(pure = true)
+	private static int hash(@Nonnull final String name) {
+		final int hash = name.hashCode();
+		return hash ^ (hash >>> 16);
+	}
+
+	@Contract(pure = true)
+	private static boolean sameName(@Nonnull final String a, @Nonnull final String b) {
+		// Names are usually canonical, so the identity check is often enough
+		return a == b || a.equals(b);
+	}
+}
@@ -86,6 +86,12 @@ public class SkdProperty implements ISkdProperty {
 		return Optional.ofNullable(this.value);
 	}
 
+	@Nullable
+	@Override
+	public String peekValue() {
+		return this.value;
+	}
+
 	@Override
 	public void setValue(@Nonnull final String value) {
 		Preconditions.checkNotNull(value,
@@ -3,6 +3,7 @@ package net.thesilkminer.skl.interpreter.implementation.skd.structure;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
 
@@ -27,7 +28,7 @@ public class SkdTag implements ISkdTag {
 	private String content;
 	private boolean voidElement;
 	private final List<ISkdTag> children;
-	private final List<ISkdProperty> properties;
+	private final PropertyStore properties;
 	private boolean closed;
 
 	private SkdTag(@Nonnull final String name) {
@@ -35,7 +36,7 @@ public class SkdTag implements ISkdTag {
 		this.name = name;
 		this.content = null;
 		this.children = Lists.newArrayList();
-		this.properties = Lists.newArrayList();
+		this.properties = new PropertyStore();
 	}
 
 	/**
@@ -81,6 +82,12 @@ public class SkdTag implements ISkdTag {
 		return this.properties;
 	}
 
+	@Nullable
+	@Override
+	public ISkdProperty getProperty(@Nonnull final String name) {
+		return this.properties.get(name);
+	}
+
 	@Override
 	public void addChildTag(@Nonnull final ISkdTag tag) {
 		Preconditions.checkState(!this.closed(), "Tag closed");
@@ -187,6 +194,44 @@ public class SkdTag implements ISkdTag {
 		);
 	}
 
+	@Override
+	public void write(@Nonnull final SkdWriter writer) {
+		writer.append('<').append(this.name);
+
+		for (final ISkdProperty prop : this.properties) {
+			writer.append(' ').append(prop.toString());
+		}
+
+		if (this.voidElement) {
+			writer.append(" />");
+			return;
+		}
+
+		writer.append('>');
+		writer.indent();
+
+		for (final ISkdTag tag : this.children) {
+			writer.newLine();
+			tag.write(writer);
+		}
+
+		writer.dedent();
+
+		if (!this.children.isEmpty()) {
+			writer.newLine();
+		}
+
+		if (this.content != null) {
+			writer.indent().lines(this.content).dedent().newLine();
+		}
+
+		if (this.children.isEmpty() && this.content == null) {
+			writer.newLine();
+		}
+
+		writer.append("</").append(this.name).append('>');
+	}
+
 	@Nonnull
 	@Override
 	public String toString() {
@@ -3,6 +3,7 @@ package net.thesilkminer.skl.interpreter.implementation.skd.structure;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
@@ -89,6 +90,14 @@ public class Structure implements IStructure {
 		declaration.apply(this.mainTags());
 	}
 
+	@Override
+	public void write(@Nonnull final SkdWriter writer) {
+		for (final ISkdTag tag : this.mainTags()) {
+			tag.write(writer);
+			writer.newLine();
+		}
+	}
+
 	@Nonnull
 	@Override
 	public String toString() {
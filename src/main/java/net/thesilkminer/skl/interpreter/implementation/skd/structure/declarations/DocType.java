@@ -7,7 +7,6 @@ import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.I
 
 import org.jetbrains.annotations.Contract;
 
-import java.util.Optional;
 import javax.annotation.Nonnull;
 
 /**
@@ -89,8 +88,8 @@ public class DocType implements IDocTypeDeclaration {
 
 	@Override
 	public boolean validate() {
-		final Optional<IDocTypeProvider> provider = DocTypes.get().getProviderFor(this);
-		return provider.isPresent() && DocTypes.get().isProviderValid(provider.get());
+		// Memoized, and never resolves the host of the style sheet
+		return DocTypes.get().isValid(this.getDocType());
 	}
 
 	@Nonnull
@@ -1,98 +1,32 @@
 package net.thesilkminer.skl.interpreter.implementation.sks;
 
 import net.thesilkminer.skl.interpreter.api.sks.logging.ISksLogger;
+import net.thesilkminer.skl.interpreter.implementation.logging.LogBackends;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.logging.ErrorManager;
-import java.util.logging.Formatter;
-import java.util.logging.Handler;
+import java.util.function.Supplier;
 import java.util.logging.Level;
-import java.util.logging.LogRecord;
-import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 
 /**
  * Logger class used by the SKS parser.
  *
+ * <p>Messages are published to the shared {@link LogBackends backend},
+ * if their level is at least the one read at startup.</p>
+ *
  * @author TheSilkMiner
  *
  * @since 0.1
  */
 public class SksLogger implements ISksLogger {
 
-	private class LogOutputHandler extends Handler {
-
-		private class LogFormatter extends Formatter {
-
-			private final DateFormat dateFormat =
-					      new SimpleDateFormat("dd/MM/yyyy hh:mm:ss");
-
-			@Override
-			public String format(final LogRecord record) {
-
-				final StringBuilder builder = new StringBuilder();
-
-				builder.append(dateFormat.format(new Date(record.getMillis())));
-				builder.append(" [");
-
-				final String sourceClassName = record.getSourceClassName();
-
-				builder.append(sourceClassName.substring(sourceClassName
-						      .lastIndexOf('.') + 1));
-				builder.append("] [");
-				builder.append(record.getLevel());
-				builder.append("] ");
-				builder.append(this.formatMessage(record));
-				builder.append("\n");
-
-
-				return builder.toString();
-			}
-		}
-
-		@Override
-		public void publish(final LogRecord record) {
-
-			if (this.getFormatter() == null) {
-
-				this.setFormatter(new LogFormatter());
-			}
-
-			try {
-
-				final String message = this.getFormatter().format(record);
-
-				if (record.getLevel().intValue() >= Level.WARNING.intValue()) {
-
-					System.err.write(message.getBytes());
-				} else {
-
-					System.out.write(message.getBytes());
-				}
-			} catch (final Exception exception) {
-
-				this.reportError(null, exception, ErrorManager.FORMAT_FAILURE);
-			}
-
-		}
-
-		@Override
-		public void close() throws SecurityException {}
-
-		@Override
-		public void flush() {}
-	}
-
+	private static final String SOURCE = "SksLogger";
 	private static final SksLogger SINGLETON = new SksLogger();
 
-	private final Logger logger = Logger.getLogger("SKS Parser");
+	private final int level;
 
 	private SksLogger() {
 
-		this.logger.setUseParentHandlers(false);
-		this.logger.addHandler(new LogOutputHandler());
+		this.level = LogBackends.level().intValue();
 	}
 
 	/**
@@ -110,7 +44,18 @@ public class SksLogger implements ISksLogger {
 
 	private void log(Level level, String msg) {
 
-		logger.log(level, msg);
+		if (level.intValue() >= this.level) {
+
+			LogBackends.get().publish(level, SOURCE, msg);
+		}
+	}
+
+	private void log(Level level, Supplier<String> msg) {
+
+		if (level.intValue() >= this.level) {
+
+			LogBackends.get().publish(level, SOURCE, msg.get());
+		}
 	}
 
 	@Override
@@ -119,12 +64,24 @@ public class SksLogger implements ISksLogger {
 		this.log(Level.INFO, msg);
 	}
 
+	@Override
+	public void info(@Nonnull Supplier<String> msg) {
+
+		this.log(Level.INFO, msg);
+	}
+
 	@Override
 	public void warn(String msg) {
 
 		this.log(Level.WARNING, msg);
 	}
 
+	@Override
+	public void warn(@Nonnull Supplier<String> msg) {
+
+		this.log(Level.WARNING, msg);
+	}
+
 	@Override
 	public void error(String msg) {
 
@@ -143,6 +100,12 @@ public class SksLogger implements ISksLogger {
 		this.log(Level.FINE, msg);
 	}
 
+	@Override
+	public void fine(@Nonnull Supplier<String> msg) {
+
+		this.log(Level.FINE, msg);
+	}
+
 	@Override
 	public void stacktrace(@Nonnull String msg, Throwable throwable) {
 
@@ -13,6 +13,7 @@ import net.thesilkminer.skl.interpreter.api.sks.listener.IScriptListener;
 import net.thesilkminer.skl.interpreter.api.sks.listener.ISubsequentListener;
 import net.thesilkminer.skl.interpreter.api.sks.listener.Result;
 import net.thesilkminer.skl.interpreter.api.sks.parser.ISksParser;
+import net.thesilkminer.skl.interpreter.implementation.jfr.InterpreterEvents;
 import net.thesilkminer.skl.interpreter.implementation.sks.components.decisionals.EndIfDeclaration;
 import net.thesilkminer.skl.interpreter.implementation.sks.components.decisionals.IfDeclaration;
 import net.thesilkminer.skl.interpreter.implementation.sks.components.declaration.ScriptDeclaration;
@@ -191,8 +192,30 @@ public final class SksParser implements ISksParser {
 	 */
 	public static SksParser of(@Nonnull IScriptHolder file) {
 
+		return of(file, true);
+	}
+
+	/**
+	 * Creates a new Parser for the specified script file.
+	 *
+	 * @param file
+	 * 		The IScriptHolder you need to create the parser for.
+	 * @param cached
+	 * 		If the parser already created for the file should be
+	 * 		returned, if available. Every parser can parse its file
+	 * 		only once.
+	 * @return
+	 * 		A new SksParser, or the cached one.
+	 */
+	public static SksParser of(@Nonnull IScriptHolder file, final boolean cached) {
+
 		Preconditions.checkNotNull(file, "IScriptHolder must not be null");
 
+		if (!cached) {
+
+			return new SksParser(file);
+		}
+
 		if (MAP.containsKey(file) && MAP.get(file) != null) {
 
 			return MAP.get(file);
@@ -396,8 +419,9 @@ public final class SksParser implements ISksParser {
 		System.arraycopy(parts, 1, args, 0, parts.length - 1);
 
 		SksLogger.logger().info("Found script command");
-		SksLogger.logger().info("  Command: " + cmd);
+		SksLogger.logger().info(() -> "  Command: " + cmd);
 
+		final Object event = InterpreterEvents.beginSksDirective();
 		final ComponentArguments arguments = ComponentArguments.of();
 		boolean flag = false;
 
@@ -439,6 +463,7 @@ public final class SksParser implements ISksParser {
 
 		if (flag) {
 
+			InterpreterEvents.endSksDirective(event, this.getScriptName(), cmd);
 			return true;
 		}
 
@@ -8,6 +8,7 @@ import net.thesilkminer.skl.interpreter.api.sks.holder.IScriptHolder;
 import net.thesilkminer.skl.interpreter.api.sks.listener.IScriptListener;
 import net.thesilkminer.skl.interpreter.api.sks.listener.Result;
 import net.thesilkminer.skl.interpreter.api.sks.parser.ISksParser;
+import net.thesilkminer.skl.interpreter.implementation.jfr.InterpreterEvents;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -236,7 +237,9 @@ public class JavaMainListener implements IScriptListener {
 		final JavaCompiler.CompilationTask task = compiler.getTask(
 				      null, efm, null, null, null, compilationUnits);
 
+		final Object compilation = InterpreterEvents.beginJavaCompilation();
 		final boolean result = task.call();
+		InterpreterEvents.endJavaCompilation(compilation, this.className, result);
 
 		if (!result) {
 
@@ -252,7 +255,18 @@ public class JavaMainListener implements IScriptListener {
 			compiledClass = classLoader.loadClass(className);
 			final Method main = compiledClass.getMethod("main", String[].class);
 			main.setAccessible(true);
-			main.invoke(null, (Object[]) new String[1]);
+
+			final Object execution = InterpreterEvents.beginScriptExecution();
+			boolean successful = false;
+
+			try {
+
+				main.invoke(null, (Object[]) new String[1]);
+				successful = true;
+			} finally {
+
+				InterpreterEvents.endScriptExecution(execution, this.className, successful);
+			}
 
 		} catch (final ClassNotFoundException ex) {
 
@@ -0,0 +1,55 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+/**
+ * Holds the constants shared by the {@link BinarySkdWriter} and
+ * the {@link BinarySkdParser}.
+ *
+ * <p>A binary database is laid out as follows:</p>
+ *
+ * <pre>
+ *     magic          "SKDB"
+ *     version        byte
+ *     doctype        string
+ *     skd version    string
+ *     symbols        varint count, string...
+ *     database kind  byte
+ *     main tags      varint count, entry...
+ * </pre>
+ *
+ * <p>Every entry starts with a kind byte. Blank lines only have
+ * the kind; every other entry is followed by the length, in bytes,
+ * of the rest of its subtree, as a big endian 4-byte integer, and
+ * by the index of its name in the symbol table. The length allows
+ * readers to skip whole subtrees without decoding them.</p>
+ *
+ * <p>Strings are stored as their UTF-8 length, as a varint,
+ * followed by the UTF-8 bytes.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class BinarySkdFormat {
+
+	static final byte[] MAGIC = {'S', 'K', 'D', 'B'};
+	static final byte VERSION = 1;
+
+	static final byte DATABASE_GENERIC = 0;
+	static final byte DATABASE_SINGLETON = 1;
+
+	static final byte ENTRY_BLANK = 0;
+	static final byte ENTRY_TAG = 1;
+	static final byte ENTRY_LIST = 2;
+	static final byte ENTRY_PAIR = 3;
+	static final byte ENTRY_VALUE = 4;
+
+	static final byte FLAG_VOID = 1;
+	static final byte FLAG_CONTENT = 1 << 1;
+
+	static final byte PROPERTY_EMPTY = 0;
+	static final byte PROPERTY_VALUE = 1;
+	static final byte PROPERTY_MARKER = 2;
+
+	private BinarySkdFormat() {
+	}
+}
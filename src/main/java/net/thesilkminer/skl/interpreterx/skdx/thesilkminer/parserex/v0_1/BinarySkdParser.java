@@ -0,0 +1,441 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IMappedDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.ParserEx;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.SingletonDatabase;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.MarkerProperty;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.ListTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.PairTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.ValueTag;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads databases encoded in the binary SKD format by the
+ * {@link BinarySkdWriter}.
+ *
+ * <p>This parser is used for every database holder that reports
+ * itself as {@link IDatabaseHolder#binary() binary}. Since there is
+ * no text to tokenize, typed tags are rebuilt directly; only plain
+ * tags and properties go through the acceptance services, exactly
+ * as they would when read from text.</p>
+ *
+ * <p>Every main tag is prefixed by the length of its subtree, so
+ * that {@link #readMainTag(String)} can skip straight to the tag
+ * it is looking for.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class BinarySkdParser implements ISkdParser {
+
+	private final IDatabaseHolder currentDatabaseHolder;
+	private boolean init;
+	private ByteBuffer in;
+	private String[] symbols;
+	private IDocTypeDeclaration docType;
+	private IDatabaseVersionDeclaration version;
+
+	private BinarySkdParser(@Nonnull final IDatabaseHolder databaseHolder) {
+		this.currentDatabaseHolder = databaseHolder;
+		this.init = false;
+		this.in = null;
+		this.symbols = null;
+		this.docType = null;
+		this.version = null;
+	}
+
+	/**
+	 * Gets a new binary SKD parser for the specified {@code databaseHolder}.
+	 *
+	 * @param databaseHolder
+	 *      The database holder the parser is for.
+	 * @return
+	 *      A new instance of an {@link ISkdParser}.
+	 *
+	 * @since 0.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static BinarySkdParser get(@Nonnull final IDatabaseHolder databaseHolder) {
+		return new BinarySkdParser(databaseHolder);
+	}
+
+	@Override
+	public void init(final boolean force) {
+		if (this.init()) {
+			throw new RuntimeException("Parser already initialized");
+		}
+
+		if (!this.databaseHolder().binary() && !force) {
+			throw new RuntimeException("Invalid database holder type");
+		}
+
+		SkdApi.get().api().logger().info(String.format(
+				"Initializing parser %s version %s for database holder %s (%s)",
+				this.getClass().getSimpleName(),
+				ParserEx.currentVersion(),
+				this.databaseHolder().toString(),
+				this.databaseHolder().getClass().getSimpleName()
+		));
+
+		if (force && !this.databaseHolder().binary()) {
+			SkdApi.get().api().logger().warn("This initialization has been forced");
+			SkdApi.get().api().logger().warn("This may not go well...");
+		}
+
+		final long start = System.currentTimeMillis();
+
+		try {
+			this.in = open(this.databaseHolder());
+			this.header();
+		} catch (final RuntimeException exception) {
+			throw NewSkdParser.syntaxError(exception);
+		}
+
+		this.init = true;
+
+		final long stop = System.currentTimeMillis();
+
+		SkdApi.get().api().logger().info("Initialization completed");
+		SkdApi.get().api().logger().info(String.format(
+				"It took %d milliseconds to complete",
+				stop - start
+		));
+	}
+
+	@Nonnull
+	private static ByteBuffer open(@Nonnull final IDatabaseHolder holder) {
+		if (holder instanceof IMappedDatabaseHolder) {
+			final IMappedDatabaseHolder mapped = (IMappedDatabaseHolder) holder;
+			if (mapped.size() <= mapped.windowSize()) {
+				return mapped.window(0);
+			}
+		}
+
+		try (final InputStream stream = holder.byteStream()) {
+			return ByteBuffer.wrap(ByteStreams.toByteArray(stream));
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private void header() {
+		for (final byte b : BinarySkdFormat.MAGIC) {
+			if (this.in.get() != b) {
+				throw new RuntimeException("Not a binary SKD database");
+			}
+		}
+
+		final byte formatVersion = this.in.get();
+		if (formatVersion != BinarySkdFormat.VERSION) {
+			throw new RuntimeException("Unsupported binary SKD version " + formatVersion);
+		}
+
+		this.docType = SkdApi.get().api().doctype(this.string());
+		this.version = SkdApi.get().api().version(this.string());
+		this.symbols = new String[this.varint()];
+
+		for (int i = 0; i < this.symbols.length; ++i) {
+			this.symbols[i] = this.string();
+		}
+	}
+
+	@Override
+	public boolean init() {
+		return this.init;
+	}
+
+	@Override
+	public boolean hasThrownError() {
+		return false;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabase read() {
+		if (!this.init()) {
+			this.init(false); // Better than manual initialization
+		}
+
+		try {
+			final long start = System.currentTimeMillis();
+
+			SkdApi.get().api().logger().info("Reading binary database");
+
+			final ByteBuffer in = this.in;
+			final byte kind = in.get();
+			final List<ISkdTag> mainTags = Lists.newArrayList();
+
+			for (int i = this.varint(); i > 0; --i) {
+				mainTags.add(this.entry());
+			}
+
+			final IDatabase db = this.database(kind, mainTags);
+
+			final long stop = System.currentTimeMillis();
+
+			SkdApi.get().api().logger().info("Parse completed");
+			SkdApi.get().api().logger().info(String.format(
+					"It took %d milliseconds to complete",
+					stop - start
+			));
+
+			return db;
+		} catch (final RuntimeException exception) {
+			throw NewSkdParser.syntaxError(exception);
+		}
+	}
+
+	/**
+	 * Reads only the first main tag with the given {@code name},
+	 * skipping every other main tag without decoding it.
+	 *
+	 * <p>Just like {@link #read()}, the database can only be
+	 * consumed once.</p>
+	 *
+	 * @param name
+	 *      The name of the main tag.
+	 * @return
+	 *      The tag, or {@link Optional#empty()} if the database has
+	 *      no main tag with that name.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public Optional<ISkdTag> readMainTag(@Nonnull final String name) {
+		if (!this.init()) {
+			this.init(false); // Better than manual initialization
+		}
+
+		try {
+			final ByteBuffer in = this.in;
+			in.get(); // Database kind
+
+			for (int i = this.varint(); i > 0; --i) {
+				final int kind = in.get();
+
+				if (kind == BinarySkdFormat.ENTRY_BLANK) {
+					continue;
+				}
+
+				final int length = in.getInt();
+				final int start = in.position();
+
+				if (this.symbols[this.varint()].equals(name)) {
+					in.position(start);
+					return Optional.of(this.tag(kind));
+				}
+
+				in.position(start + length);
+			}
+
+			return Optional.empty();
+		} catch (final RuntimeException exception) {
+			throw NewSkdParser.syntaxError(exception);
+		}
+	}
+
+	@Nonnull
+	private IDatabase database(final byte kind, @Nonnull final List<ISkdTag> mainTags) {
+		if (kind == BinarySkdFormat.DATABASE_SINGLETON) {
+			final SingletonDatabase database = new SingletonDatabase();
+			database.mainTag(mainTags.get(0));
+			database.version(this.version);
+			database.docType(this.docType);
+			return database;
+		}
+
+		IDatabase db = SkdApi.get().api().database(this.docType, this.version,
+				SkdApi.get().api().structure(mainTags));
+		db = SkdApi.get().api().databaseCallback(db);
+
+		return SkdTreeBuilder.tryAccept(IDatabase.class, db).orElse(db);
+	}
+
+	@Nullable
+	private ISkdTag entry() {
+		final int kind = this.in.get();
+
+		if (kind == BinarySkdFormat.ENTRY_BLANK) {
+			return null;
+		}
+
+		this.in.getInt(); // Subtree length, only needed when skipping
+		return this.tag(kind);
+	}
+
+	@Nonnull
+	private ISkdTag tag(final int kind) {
+		final String name = this.symbols[this.varint()];
+
+		switch (kind) {
+			case BinarySkdFormat.ENTRY_PAIR: {
+				final PairTag tag = new PairTag(name, this.string(), this.string());
+				tag.close();
+				return tag;
+			}
+			case BinarySkdFormat.ENTRY_VALUE: {
+				final ValueTag tag = new ValueTag(name, this.string());
+				tag.close();
+				return tag;
+			}
+			case BinarySkdFormat.ENTRY_LIST: {
+				final ListTag tag = new ListTag(name, this.symbols[this.varint()]);
+				this.properties(tag);
+				this.children(tag);
+				tag.close();
+				return tag;
+			}
+			case BinarySkdFormat.ENTRY_TAG:
+				return this.plainTag(name);
+			default:
+				throw new RuntimeException("Invalid entry kind " + kind);
+		}
+	}
+
+	@Nonnull
+	private ISkdTag plainTag(@Nonnull final String name) {
+		final ISkdTag tag = SkdApi.get().api().tag(name);
+		final byte flags = this.in.get();
+
+		this.properties(tag);
+
+		if ((flags & BinarySkdFormat.FLAG_VOID) != 0) {
+			tag.setVoidElement();
+		}
+
+		if ((flags & BinarySkdFormat.FLAG_CONTENT) != 0) {
+			tag.setContent(this.string());
+		}
+
+		SkdApi.get().api().tagCallback(tag);
+		this.children(tag);
+		tag.close();
+
+		final ISkdTag accepted = SkdTreeBuilder.tryAccept(ISkdTag.class, tag).orElse(tag);
+
+		if (!accepted.closed()) {
+			accepted.close();
+		}
+
+		return accepted;
+	}
+
+	private void properties(@Nonnull final ISkdTag tag) {
+		for (int i = this.varint(); i > 0; --i) {
+			final String name = this.symbols[this.varint()];
+			final byte kind = this.in.get();
+
+			if (kind == BinarySkdFormat.PROPERTY_MARKER) {
+				tag.addProperty(new MarkerProperty(name));
+				continue;
+			}
+
+			final ISkdProperty property = SkdApi.get().api().property(name,
+					kind == BinarySkdFormat.PROPERTY_VALUE ? this.string() : "");
+
+			if (kind == BinarySkdFormat.PROPERTY_EMPTY) {
+				property.removeValue();
+			}
+
+			SkdApi.get().api().propertyCallback(property);
+			tag.addProperty(SkdTreeBuilder.tryAccept(ISkdProperty.class, property)
+					.orElse(property));
+		}
+	}
+
+	private void children(@Nonnull final ISkdTag tag) {
+		for (int i = this.varint(); i > 0; --i) {
+			final ISkdTag child = this.entry();
+
+			if (child == null) {
+				throw new RuntimeException("Blank lines are only allowed between main tags");
+			}
+
+			tag.addChildTag(child);
+		}
+	}
+
+	private int varint() {
+		int value = 0;
+
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final byte b = this.in.get();
+			value |= (b & 0x7F) << shift;
+
+			if (b >= 0) {
+				return value;
+			}
+		}
+
+		throw new RuntimeException("Malformed varint");
+	}
+
+	@Nonnull
+	private String string() {
+		final int length = this.varint();
+
+		if (length > this.in.remaining()) {
+			throw new BufferUnderflowException();
+		}
+
+		final String string;
+
+		if (this.in.hasArray()) {
+			string = new String(this.in.array(), this.in.arrayOffset() + this.in.position(),
+					length, StandardCharsets.UTF_8);
+			this.in.position(this.in.position() + length);
+		} else {
+			final byte[] bytes = new byte[length];
+			this.in.get(bytes);
+			string = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		return string;
+	}
+
+	@Override
+	public boolean write(@Nonnull final IDatabase database,
+	                     @Nonnull final IDatabaseHolder holder) {
+		if (!holder.binary()) {
+			return NewSkdParser.get(holder).write(database, holder);
+		}
+		return BinarySkdWriter.write(database, holder);
+	}
+
+	@Nonnull
+	@Override
+	public Optional<String> getDatabaseName() {
+		return this.databaseHolder().name();
+	}
+
+	@Nonnull
+	@Override
+	public IDatabaseHolder databaseHolder() {
+		return this.currentDatabaseHolder;
+	}
+}
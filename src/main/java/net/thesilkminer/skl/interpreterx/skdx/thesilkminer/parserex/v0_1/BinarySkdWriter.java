@@ -0,0 +1,317 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.SingletonDatabase;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.MarkerProperty;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.AbstractTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.LazyTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.ListTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.PairTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.ValueTag;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Encodes a database in the binary SKD format.
+ *
+ * <p>See {@link BinarySkdFormat} for the layout of the encoded
+ * database. ParserEx typed tags (lists, pairs and values) and marker
+ * properties are encoded as such, so that they can be rebuilt
+ * directly by the {@link BinarySkdParser} without going through the
+ * acceptance services again.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class BinarySkdWriter {
+
+	private final Map<String, Integer> symbols;
+	private final List<String> symbolTable;
+	private final Sink body;
+
+	private BinarySkdWriter() {
+		this.symbols = Maps.newHashMap();
+		this.symbolTable = Lists.newArrayList();
+		this.body = new Sink();
+	}
+
+	/**
+	 * Encodes the given {@code database} to the given {@code out}
+	 * stream.
+	 *
+	 * <p>The stream is not closed.</p>
+	 *
+	 * @param database
+	 *      The database to encode.
+	 * @param out
+	 *      The stream to write the database to.
+	 *
+	 * @since 0.1
+	 */
+	public static void write(@Nonnull final IDatabase database, @Nonnull final OutputStream out) {
+		final BinarySkdWriter writer = new BinarySkdWriter();
+		writer.database(database);
+
+		final Sink header = new Sink();
+		header.putBytes(BinarySkdFormat.MAGIC);
+		header.put(BinarySkdFormat.VERSION);
+		header.putString(database.docType().getDocType());
+		header.putString(database.version().version());
+		header.putVarint(writer.symbolTable.size());
+		writer.symbolTable.forEach(header::putString);
+
+		try {
+			header.writeTo(out);
+			writer.body.writeTo(out);
+			out.flush();
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	static boolean write(@Nonnull final IDatabase database, @Nonnull final IDatabaseHolder holder) {
+		if (!holder.writable()) {
+			return false;
+		}
+
+		SkdApi.get().api().logger().info(String.format(
+				"Writing binary database %s (%s) to database holder %s (%s)",
+				holder.name().orElse("ERROR: ~NullPointerException~"),
+				database.getClass().getSimpleName(),
+				holder.toString(),
+				holder.getClass().getSimpleName()
+		));
+
+		final long start = System.currentTimeMillis();
+
+		final Optional<OutputStream> optionallyOut = holder.byteWriterStream();
+
+		if (!optionallyOut.isPresent()) {
+			throw new RuntimeException("Implementation says it is writable "
+					+ "but doesn't provide a valid byte stream.");
+		}
+
+		try (final OutputStream out = optionallyOut.get()) {
+			write(database, out);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+
+		final long stop = System.currentTimeMillis();
+
+		SkdApi.get().api().logger().info("Write completed");
+		SkdApi.get().api().logger().info(String.format(
+				"It took %d milliseconds to complete",
+				stop - start
+		));
+
+		return true;
+	}
+
+	private void database(@Nonnull final IDatabase database) {
+		final List<ISkdTag> mainTags;
+
+		if (database instanceof SingletonDatabase) {
+			// The structure of singleton databases is not accessible
+			this.body.put(BinarySkdFormat.DATABASE_SINGLETON);
+			mainTags = Collections.singletonList(((SingletonDatabase) database).mainTag());
+		} else {
+			this.body.put(BinarySkdFormat.DATABASE_GENERIC);
+			mainTags = database.structure().mainTags();
+		}
+
+		this.body.putVarint(mainTags.size());
+		mainTags.forEach(this::entry);
+	}
+
+	private void entry(@Nullable final ISkdTag entry) {
+		if (entry == null) {
+			this.body.put(BinarySkdFormat.ENTRY_BLANK);
+			return;
+		}
+
+		final ISkdTag tag = LazyTag.resolve(entry);
+		final byte kind = kind(tag);
+		this.body.put(kind);
+		final int length = this.body.reserveInt();
+		this.body.putVarint(this.symbol(tag.getName()));
+
+		switch (kind) {
+			case BinarySkdFormat.ENTRY_PAIR:
+				this.body.putString(((PairTag) tag).getLeft());
+				this.body.putString(((PairTag) tag).getRight());
+				break;
+			case BinarySkdFormat.ENTRY_VALUE:
+				this.body.putString(((ValueTag) tag).getValue());
+				break;
+			case BinarySkdFormat.ENTRY_LIST:
+				this.body.putVarint(this.symbol(((ListTag) tag).getChildTagsName()));
+				this.properties(tag);
+				this.children(tag);
+				break;
+			default:
+				final Optional<String> content = AbstractTag.contentOf(tag);
+				this.body.put((byte) ((tag.isVoidElement() ? BinarySkdFormat.FLAG_VOID : 0)
+						| (content.isPresent() ? BinarySkdFormat.FLAG_CONTENT : 0)));
+				this.properties(tag);
+				if (content.isPresent()) {
+					this.body.putString(content.get());
+				}
+				this.children(tag);
+		}
+
+		this.body.patchInt(length, this.body.size() - length - Integer.BYTES);
+	}
+
+	private static byte kind(@Nonnull final ISkdTag tag) {
+		if (tag instanceof ListTag) {
+			return BinarySkdFormat.ENTRY_LIST;
+		}
+		if (tag instanceof PairTag) {
+			return BinarySkdFormat.ENTRY_PAIR;
+		}
+		if (tag instanceof ValueTag) {
+			return BinarySkdFormat.ENTRY_VALUE;
+		}
+		return BinarySkdFormat.ENTRY_TAG;
+	}
+
+	private void properties(@Nonnull final ISkdTag tag) {
+		List<ISkdProperty> properties;
+		try {
+			properties = tag.getProperties();
+		} catch (final UnsupportedOperationException exception) {
+			// Some tags do not expose their properties
+			properties = Collections.emptyList();
+		}
+
+		this.body.putVarint(properties.size());
+
+		for (final ISkdProperty property : properties) {
+			this.body.putVarint(this.symbol(property.getName()));
+
+			if (property instanceof MarkerProperty) {
+				this.body.put(BinarySkdFormat.PROPERTY_MARKER);
+				continue;
+			}
+
+			final Optional<String> value = property.getValue();
+
+			if (value.isPresent()) {
+				this.body.put(BinarySkdFormat.PROPERTY_VALUE);
+				this.body.putString(value.get());
+			} else {
+				this.body.put(BinarySkdFormat.PROPERTY_EMPTY);
+			}
+		}
+	}
+
+	private void children(@Nonnull final ISkdTag tag) {
+		final List<ISkdTag> children = tag.getChildren();
+		this.body.putVarint(children.size());
+		children.forEach(this::entry);
+	}
+
+	private int symbol(@Nonnull final String name) {
+		final Integer id = this.symbols.get(name);
+
+		if (id != null) {
+			return id;
+		}
+
+		this.symbols.put(name, this.symbolTable.size());
+		this.symbolTable.add(name);
+		return this.symbolTable.size() - 1;
+	}
+
+	/**
+	 * A growable byte array that allows already written integers
+	 * to be patched afterwards.
+	 *
+	 * @since 0.1
+	 */
+	private static final class Sink {
+
+		private byte[] bytes;
+		private int size;
+
+		private Sink() {
+			this.bytes = new byte[8192];
+			this.size = 0;
+		}
+
+		private int size() {
+			return this.size;
+		}
+
+		private void ensure(final int more) {
+			if (this.size + more > this.bytes.length) {
+				this.bytes = Arrays.copyOf(this.bytes,
+						Math.max(this.bytes.length * 2, this.size + more));
+			}
+		}
+
+		private void put(final byte b) {
+			this.ensure(1);
+			this.bytes[this.size++] = b;
+		}
+
+		private void putBytes(@Nonnull final byte[] b) {
+			this.ensure(b.length);
+			System.arraycopy(b, 0, this.bytes, this.size, b.length);
+			this.size += b.length;
+		}
+
+		private void putVarint(final int value) {
+			int remaining = value;
+			this.ensure(5);
+			while ((remaining & ~0x7F) != 0) {
+				this.bytes[this.size++] = (byte) ((remaining & 0x7F) | 0x80);
+				remaining >>>= 7;
+			}
+			this.bytes[this.size++] = (byte) remaining;
+		}
+
+		private void putString(@Nonnull final String string) {
+			final byte[] utf = string.getBytes(StandardCharsets.UTF_8);
+			this.putVarint(utf.length);
+			this.putBytes(utf);
+		}
+
+		private int reserveInt() {
+			this.ensure(Integer.BYTES);
+			final int position = this.size;
+			this.size += Integer.BYTES;
+			return position;
+		}
+
+		private void patchInt(final int position, final int value) {
+			this.bytes[position] = (byte) (value >>> 24);
+			this.bytes[position + 1] = (byte) (value >>> 16);
+			this.bytes[position + 2] = (byte) (value >>> 8);
+			this.bytes[position + 3] = (byte) value;
+		}
+
+		private void writeTo(@Nonnull final OutputStream out) throws IOException {
+			out.write(this.bytes, 0, this.size);
+		}
+	}
+}
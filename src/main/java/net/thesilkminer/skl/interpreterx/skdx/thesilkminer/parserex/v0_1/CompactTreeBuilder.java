@@ -0,0 +1,88 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.collect.Maps;
+
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdEventHandler;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ParseStats;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.IDeclaration;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.compact.CompactStructure;
+
+import java.util.Map;
+import javax.annotation.Nonnull;
+
+/**
+ * Builds a database backed by a {@link CompactStructure} out of the
+ * events sent by the {@link NewSkdParser}.
+ *
+ * <p>Differently from the {@link SkdTreeBuilder}, no tag nor
+ * property object is created, so no acceptance is performed on
+ * them. The database itself is still accepted.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class CompactTreeBuilder implements ISkdEventHandler {
+
+	private final CompactStructure.Builder structure;
+	private final Map<String, IDeclaration> declarations;
+	private final ParseStats.Collector stats;
+
+	CompactTreeBuilder(@Nonnull final ParseStats.Collector stats) {
+		this.structure = CompactStructure.builder();
+		this.declarations = Maps.newHashMap();
+		this.stats = stats;
+	}
+
+	@Override
+	public void declaration(@Nonnull final String name, @Nonnull final String value) {
+		SkdTreeBuilder.declaration(this.declarations, name, value);
+	}
+
+	@Override
+	public void startTag(@Nonnull final String name, @Nonnull final IProperties properties,
+	                     final boolean voidTag) {
+		this.structure.open(name);
+
+		for (int i = 0; i < properties.size(); ++i) {
+			final String key = properties.name(i);
+			if (key.isEmpty()) {
+				throw new RuntimeException("Impossible to set property with empty key");
+			}
+			this.structure.property(key, properties.value(i));
+		}
+
+		if (voidTag) {
+			this.structure.markVoid();
+		}
+	}
+
+	@Override
+	public void content(@Nonnull final char[] chars, final int start, final int length) {
+		this.structure.content(chars, start, length);
+	}
+
+	@Override
+	public void endTag(@Nonnull final String name) {
+		this.structure.close();
+	}
+
+	@Override
+	public void blankLine() {
+		this.structure.blankLine();
+	}
+
+	/**
+	 * Builds the database out of the events received so far.
+	 *
+	 * @return
+	 *      The database, already accepted.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	IDatabase database() {
+		return SkdTreeBuilder.database(this.declarations, this.structure.build(), this.stats);
+	}
+}
@@ -0,0 +1,348 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ParseStats;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
+import net.thesilkminer.skl.interpreter.implementation.jfr.InterpreterEvents;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.ParserEx;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+
+/**
+ * A parser that can be asked to {@link #read() read} the same
+ * database holder over and over, re-parsing only what changed.
+ *
+ * <p>The parser remembers the boundaries of the top-level blocks
+ * found during the last parse (see {@link NewSkdParser#readParallel()}),
+ * together with a checksum of every block. When the database is
+ * read again, only the blocks whose contents do not match any of the
+ * previous ones are tokenized: the subtrees of the others are reused
+ * as they are. Blocks are matched by contents, not by position, so
+ * that inserting or moving a block does not invalidate the
+ * following ones.</p>
+ *
+ * <p>The resulting tags are spliced into the same
+ * {@link IStructure} returned by the previous parse, which is then
+ * wrapped into a new database. This means that the tags of unchanged
+ * blocks are the same instances across reads, and that they must be
+ * treated as read-only by the callers.</p>
+ *
+ * <p>If a read fails, the state of the last successful parse is
+ * kept untouched.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class IncrementalSkdParser implements ISkdParser {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private final IDatabaseHolder currentDatabaseHolder;
+	private boolean init;
+	private IStructure structure;
+	private List<Block> blocks;
+	private int reusedBlocks;
+	private int reparsedBlocks;
+	private ParseStats stats;
+
+	private IncrementalSkdParser(@Nonnull final IDatabaseHolder databaseHolder) {
+		this.currentDatabaseHolder = databaseHolder;
+		this.init = false;
+		this.structure = null;
+		this.blocks = Lists.newArrayList();
+		this.reusedBlocks = 0;
+		this.reparsedBlocks = 0;
+		this.stats = null;
+	}
+
+	/**
+	 * Gets a new incremental parser for the specified {@code databaseHolder}.
+	 *
+	 * @param databaseHolder
+	 *      The database holder the parser is for.
+	 * @return
+	 *      A new instance of an {@link IncrementalSkdParser}.
+	 *
+	 * @since 0.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static IncrementalSkdParser get(@Nonnull final IDatabaseHolder databaseHolder) {
+		return new IncrementalSkdParser(databaseHolder);
+	}
+
+	@Override
+	public void init(final boolean force) {
+		if (this.init()) {
+			throw new RuntimeException("Parser already initialized");
+		}
+
+		if (!this.databaseHolder().canBeAcceptedByDefault() && !force) {
+			throw new RuntimeException("Invalid database holder type");
+		}
+
+		SkdApi.get().api().logger().info(String.format(
+				"Initializing parser %s version %s for database holder %s (%s)",
+				this.getClass().getSimpleName(),
+				ParserEx.currentVersion(),
+				this.databaseHolder().toString(),
+				this.databaseHolder().getClass().getSimpleName()
+		));
+
+		if (force && !this.databaseHolder().canBeAcceptedByDefault()) {
+			SkdApi.get().api().logger().warn("This initialization has been forced");
+			SkdApi.get().api().logger().warn("This may not go well...");
+		}
+
+		this.init = true;
+
+		SkdApi.get().api().logger().info("Initialization completed");
+	}
+
+	@Override
+	public boolean init() {
+		return this.init;
+	}
+
+	@Override
+	public boolean hasThrownError() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Differently from the other parsers, this method can be
+	 * called multiple times: every call reads the database holder
+	 * again and re-parses only the top-level blocks that changed
+	 * since the previous call.</p>
+	 *
+	 * <p>Only the blocks which are re-parsed are counted in the
+	 * {@link #lastStats() statistics} of the read.</p>
+	 *
+	 * @return
+	 *      {@inheritDoc}
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	@Override
+	public IDatabase read() {
+		if (!this.init()) {
+			this.init(false); // Better than manual initialization
+		}
+
+		try {
+			final Object event = InterpreterEvents.beginSkdParse();
+			final long start = System.nanoTime();
+			final ParseStats.Collector stats = ParseStats.collector();
+
+			SkdApi.get().api().logger().info("Reading database incrementally");
+
+			final CharBuffer contents;
+			try (final Reader in = NewSkdParser.open(this.databaseHolder())) {
+				contents = NewSkdParser.readFully(in, stats);
+			} catch (final IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+
+			final char[] chars = contents.array();
+			final int[] offsets = NewSkdParser.scanBlocks(chars, contents.limit());
+			final Map<Long, Deque<Block>> previous = this.previousBlocks();
+			final List<Block> current = Lists.newArrayListWithCapacity(offsets.length - 1);
+			int reused = 0;
+
+			for (int i = 0; i < offsets.length - 1; ++i) {
+				final int blockStart = offsets[i];
+				final int length = offsets[i + 1] - blockStart;
+				final long checksum = checksum(chars, blockStart, length);
+				final Block old = this.match(previous, checksum, length);
+
+				if (old != null) {
+					current.add(old);
+					++reused;
+					continue;
+				}
+
+				final SkdTreeBuilder builder = new SkdTreeBuilder(false, stats);
+				NewSkdParser.stream(SkdReader.of(chars, blockStart, length), builder, stats);
+				current.add(new Block(checksum, length, builder));
+			}
+
+			final IDatabase db = this.splice(current, stats);
+
+			this.blocks = current;
+			this.reusedBlocks = reused;
+			this.reparsedBlocks = current.size() - reused;
+
+			SkdApi.get().api().logger().info(String.format(
+					"Reused %d blocks, re-parsed %d blocks",
+					this.reusedBlocks,
+					this.reparsedBlocks
+			));
+
+			this.stats = NewSkdParser.complete(this, stats, start, event);
+
+			return db;
+		} catch (final RuntimeException exception) {
+			throw NewSkdParser.syntaxError(exception);
+		}
+	}
+
+	@Nonnull
+	private Map<Long, Deque<Block>> previousBlocks() {
+		final Map<Long, Deque<Block>> previous = Maps.newHashMap();
+
+		for (final Block block : this.blocks) {
+			previous.computeIfAbsent(block.checksum, key -> Lists.newLinkedList())
+					.addLast(block);
+		}
+
+		return previous;
+	}
+
+	private Block match(@Nonnull final Map<Long, Deque<Block>> previous,
+	                    final long checksum, final int length) {
+		final Deque<Block> candidates = previous.get(checksum);
+
+		if (candidates == null) {
+			return null;
+		}
+
+		for (final Iterator<Block> it = candidates.iterator(); it.hasNext(); ) {
+			final Block candidate = it.next();
+			if (candidate.length == length) {
+				// Every subtree can end up in the structure only once
+				it.remove();
+				return candidate;
+			}
+		}
+
+		return null;
+	}
+
+	@Nonnull
+	private IDatabase splice(@Nonnull final List<Block> current,
+	                         @Nonnull final ParseStats.Collector stats) {
+		final IStructure structure = this.structure == null
+				? SkdApi.get().api().structure(Lists.newArrayList())
+				: this.structure;
+		final List<ISkdTag> previous = Lists.newArrayList(structure.mainTags());
+
+		// Callbacks and acceptance see the shared structure, so it has to be filled beforehand
+		structure.mainTags().clear();
+
+		try {
+			final SkdTreeBuilder builder = new SkdTreeBuilder(structure, false, stats);
+			current.forEach(block -> builder.append(block.builder));
+			final IDatabase db = builder.database();
+			this.structure = structure;
+			return db;
+		} catch (final RuntimeException exception) {
+			structure.mainTags().clear();
+			structure.mainTags().addAll(previous);
+			throw exception;
+		}
+	}
+
+	private static long checksum(@Nonnull final char[] chars, final int start, final int length) {
+		long hash = FNV_OFFSET_BASIS;
+
+		for (int i = start; i < start + length; ++i) {
+			hash = (hash ^ chars[i]) * FNV_PRIME;
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Gets the amount of top-level blocks whose subtrees have been
+	 * reused during the last {@link #read()}.
+	 *
+	 * @return
+	 *      The amount of reused blocks.
+	 *
+	 * @since 0.1
+	 */
+	public int reusedBlocks() {
+		return this.reusedBlocks;
+	}
+
+	/**
+	 * Gets the amount of top-level blocks that had to be parsed
+	 * again during the last {@link #read()}.
+	 *
+	 * <p>The first read always re-parses every block.</p>
+	 *
+	 * @return
+	 *      The amount of re-parsed blocks.
+	 *
+	 * @since 0.1
+	 */
+	public int reparsedBlocks() {
+		return this.reparsedBlocks;
+	}
+
+	@Nonnull
+	@Override
+	public Optional<ParseStats> lastStats() {
+		return Optional.ofNullable(this.stats);
+	}
+
+	@Override
+	public boolean write(@Nonnull final IDatabase database,
+	                     @Nonnull final IDatabaseHolder holder) {
+		return NewSkdParser.get(this.databaseHolder()).write(database, holder);
+	}
+
+	@Nonnull
+	@Override
+	public Optional<String> getDatabaseName() {
+		return this.databaseHolder().name();
+	}
+
+	@Nonnull
+	@Override
+	public IDatabaseHolder databaseHolder() {
+		return this.currentDatabaseHolder;
+	}
+
+	/**
+	 * Holds the result of the parse of a single top-level block.
+	 *
+	 * @since 0.1
+	 */
+	private static final class Block {
+
+		private final long checksum;
+		private final int length;
+		private final SkdTreeBuilder builder;
+
+		private Block(final long checksum, final int length,
+		              @Nonnull final SkdTreeBuilder builder) {
+			this.checksum = checksum;
+			this.length = length;
+			this.builder = builder;
+		}
+	}
+}
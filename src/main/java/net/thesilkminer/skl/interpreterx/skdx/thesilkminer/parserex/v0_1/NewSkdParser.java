@@ -1,37 +1,44 @@
 package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Multimap;
 
 import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
 import net.thesilkminer.skl.interpreter.api.skd.exceptions.IllegalDatabaseSyntaxException;
 import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IMappedDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdEventHandler;
 import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ParseStats;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ParseStatsRegistry;
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
-import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
-import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
-import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.IDeclaration;
-import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
-import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.jfr.InterpreterEvents;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.ParserEx;
-import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.AcceptanceService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.CompactStructureService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.LazyTag;
 
-import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.Contract;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
+import java.nio.CharBuffer;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Locale;
-import java.util.Map;
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * An improved version of the
@@ -46,18 +53,104 @@ import javax.annotation.Nonnull;
  * <p>New implementations and/or services should refer to this
  * class by default.</p>
  *
+ * <p>Every parse collects {@link ParseStats statistics}, which are
+ * exposed through {@link #lastStats()} and recorded in the
+ * {@link ParseStatsRegistry#global() global registry}. The tags
+ * inside {@link Feature#DEFERRED_SUBTREES deferred subtrees} are not
+ * counted, as they are parsed after the parse completes.</p>
+ *
  * @author TheSilkMiner
  *
  * @since 0.1
  */
 public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 
+	/**
+	 * Optional behaviours of the parser.
+	 *
+	 * <p>Every feature is disabled by default, unless the system
+	 * property
+	 * {@code net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.parser.<name>}
+	 * is set to {@code true}. Features can also be toggled on a single
+	 * parser through {@link #enable(Feature)} and
+	 * {@link #disable(Feature)}.</p>
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.1
+	 */
+	public enum Feature {
+		/**
+		 * The content of the tags is left in the source and built only
+		 * when it is first requested.
+		 *
+		 * <p>The whole database is read in memory and kept alive as
+		 * long as one of its tags is. This is not supported by
+		 * {@link CompactStructureService compact structures}, which
+		 * already store all contents in a single buffer.</p>
+		 *
+		 * @see net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.LazyContent
+		 *
+		 * @since 0.1
+		 */
+		LAZY_CONTENT("lazyContent"),
+		/**
+		 * Only the main tags are parsed while reading: the subtree of
+		 * every main tag is parsed and accepted the first time the tag
+		 * is accessed.
+		 *
+		 * <p>Reading only looks at the indentation of the lines inside
+		 * the main tags, so syntax errors in a subtree are thrown when
+		 * it is accessed. The whole database is read in memory and kept
+		 * alive until all subtrees have been parsed.</p>
+		 *
+		 * <p>Just like {@link #LAZY_CONTENT}, this is not supported by
+		 * compact structures. Databases are always read sequentially,
+		 * as that is already as fast as scanning for the main tags.</p>
+		 *
+		 * @see net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.LazyTag
+		 *
+		 * @since 0.1
+		 */
+		DEFERRED_SUBTREES("deferredSubtrees"),
+		/**
+		 * Tags and properties are accepted only once the whole tree
+		 * has been read, in a single bottom-up pass which accepts
+		 * them in place.
+		 *
+		 * <p>Independent subtrees are accepted in parallel, on the
+		 * common pool or on the pool given to
+		 * {@link #readParallel(ForkJoinPool)}. Callbacks are still
+		 * run while reading, so they receive tags and properties
+		 * which have not been accepted yet.</p>
+		 *
+		 * <p>This has no effect on compact structures, which are not
+		 * accepted, and on {@link #DEFERRED_SUBTREES deferred
+		 * subtrees}, which are accepted when they are parsed.</p>
+		 *
+		 * @since 0.1
+		 */
+		DEFERRED_ACCEPTANCE("deferredAcceptance");
+
+		private final String property;
+
+		Feature(@Nonnull final String name) {
+			this.property = "net.thesilkminer.skl.interpreterx."
+					+ "skdx.thesilkminer.parserex.v0_1.parser."
+					+ name;
+		}
+
+		private boolean enabledByDefault() {
+			return "true".equals(System.getProperty(this.property, "false"));
+		}
+	}
+
 	/**
 	 * Whether we should use more detailed error messages for our exceptions.
 	 *
 	 * @since 0.1
 	 */
-	private static final boolean DEBUG_EXCEPTIONS = true;
+	static final boolean DEBUG_EXCEPTIONS = true;
 
 	/**
 	 * Represents the amount of hours spent trying to write this parser.
@@ -78,41 +171,36 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 	@SuppressWarnings("unused")
 	private static final int HOURS_SPENT_ON_ACCEPTANCE = 19;
 
-	private static final Map<IDatabaseHolder, ISkdParser> CACHE = Maps.newHashMap();
-	private static final String TAG_START = "<";
-	private static final String TAG_END = ">";
-	private static final String END_MARKER = "/";
-	private static final String DECLARATION_MARKER = "!";
-	private static final String DECLARATION_START = TAG_START + DECLARATION_MARKER;
-	private static final String DECLARATION_END = TAG_END;
-	private static final String VOID_TAG_END = END_MARKER + TAG_END;
-	private static final String CLOSING_TAG_START = TAG_START + END_MARKER;
-
-	private final Map<Integer, ISkdTag> lastTagOnLevel;
+	/**
+	 * Parsers are cached only by holder, so the cache is bounded to avoid
+	 * keeping every parser ever created alive. Use the database cache
+	 * service to cache the parsed databases instead.
+	 */
+	private static final Cache<IDatabaseHolder, ISkdParser> CACHE =
+			CacheBuilder.newBuilder().maximumSize(64).build();
+	private static final int MIN_PARALLEL_BLOCK_SIZE = 16 * 1024;
+
 	private final IDatabaseHolder currentDatabaseHolder;
 	@SuppressWarnings({"unused", "FieldCanBeLocal"})
 	private final Multimap<Class<?>, Class<?>> types;
-	private final Map<String, IDeclaration> declarations;
+	private final Set<Feature> features;
 	private boolean init;
-	private BufferedReader in;
-	private int indentCount;
-	private IDatabase db;
-	private IDocTypeDeclaration docType;
-	private IDatabaseVersionDeclaration version;
-	private IStructure structure;
+	private Reader in;
+	private volatile ParseStats stats;
 
 	private NewSkdParser(@Nonnull final IDatabaseHolder databaseHolder) {
-		this.lastTagOnLevel = Maps.newHashMap();
 		this.currentDatabaseHolder = databaseHolder;
 		this.types = SkdApi.get().api().additionalTypes();
-		this.declarations = Maps.newHashMap();
+		this.features = EnumSet.noneOf(Feature.class);
 		this.init = false;
 		this.in = null;
-		this.indentCount = 0;
-		this.db = null;
-		this.docType = null;
-		this.version = null;
-		this.structure = null;
+		this.stats = null;
+
+		for (final Feature feature : Feature.values()) {
+			if (feature.enabledByDefault()) {
+				this.features.add(feature);
+			}
+		}
 	}
 
 	/**
@@ -152,17 +240,59 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 	@Nonnull
 	public static ISkdParser get(@Nonnull final IDatabaseHolder databaseHolder,
 	                             final boolean cached) {
-		if (cached && CACHE.containsKey(databaseHolder)) {
-			return CACHE.get(databaseHolder);
+		if (cached) {
+			// Threads asking for the same holder at once must get the same parser
+			return CACHE.asMap().computeIfAbsent(databaseHolder, NewSkdParser::new);
 		}
 
-		final ISkdParser $this = new NewSkdParser(databaseHolder);
+		return new NewSkdParser(databaseHolder);
+	}
 
-		if (cached) {
-			CACHE.put(databaseHolder, $this);
-		}
+	/**
+	 * Enables the given {@code feature} on this parser.
+	 *
+	 * @param feature
+	 *      The feature.
+	 * @return
+	 *      This parser, for chaining.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public NewSkdParser enable(@Nonnull final Feature feature) {
+		this.features.add(Preconditions.checkNotNull(feature));
+		return this;
+	}
+
+	/**
+	 * Disables the given {@code feature} on this parser.
+	 *
+	 * @param feature
+	 *      The feature.
+	 * @return
+	 *      This parser, for chaining.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public NewSkdParser disable(@Nonnull final Feature feature) {
+		this.features.remove(Preconditions.checkNotNull(feature));
+		return this;
+	}
 
-		return $this;
+	/**
+	 * Gets whether the given {@code feature} is enabled on this
+	 * parser.
+	 *
+	 * @param feature
+	 *      The feature.
+	 * @return
+	 *      If the feature is enabled.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isEnabled(@Nonnull final Feature feature) {
+		return this.features.contains(Preconditions.checkNotNull(feature));
 	}
 
 	@Override
@@ -190,8 +320,7 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 
 		final long start = System.currentTimeMillis();
 
-		this.in = this.databaseHolder().readerStream();
-		this.structure = SkdApi.get().api().structure(Lists.newArrayList());
+		this.in = open(this.databaseHolder());
 		this.init = true;
 
 		final long stop = System.currentTimeMillis();
@@ -203,6 +332,15 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 		));
 	}
 
+	@Nonnull
+	static Reader open(@Nonnull final IDatabaseHolder holder) {
+		if (holder instanceof IMappedDatabaseHolder) {
+			// Skip the BufferedReader: the lexer already reads in bulk
+			return ((IMappedDatabaseHolder) holder).charView();
+		}
+		return holder.readerStream();
+	}
+
 	@Override
 	public boolean init() {
 		return this.init;
@@ -221,484 +359,504 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 		}
 
 		try {
-			final long start = System.currentTimeMillis();
+			final Object event = InterpreterEvents.beginSkdParse();
+			final long start = System.nanoTime();
+			final ParseStats.Collector stats = ParseStats.collector();
 
 			SkdApi.get().api().logger().info("Reading database");
 
-			this.in.lines().forEach(this::parse);
+			final IDatabase db;
+
+			if (CompactStructureService.enabled()) {
+				final CompactTreeBuilder builder = new CompactTreeBuilder(stats);
+				this.stream(builder, stats);
+				db = builder.database();
+			} else if (this.isEnabled(Feature.DEFERRED_SUBTREES)) {
+				db = this.readDeferred(stats);
+			} else if (this.isEnabled(Feature.LAZY_CONTENT)) {
+				// Lazy contents point into the source, so it must stay untouched
+				final CharBuffer contents = readFully(this.in, stats);
+				final SkdTreeBuilder builder = new SkdTreeBuilder(true, stats)
+						.deferAcceptance(this.acceptancePool(ForkJoinPool.commonPool()));
+				stream(SkdReader.of(contents.array(), 0, contents.limit()), builder, stats);
+				db = builder.database();
+			} else {
+				final SkdTreeBuilder builder = new SkdTreeBuilder(false, stats)
+						.deferAcceptance(this.acceptancePool(ForkJoinPool.commonPool()));
+				this.stream(builder, stats);
+				db = builder.database();
+			}
 
-			this.docType = (IDocTypeDeclaration) this.declarations.get("DOCTYPE");
-			this.version = (IDatabaseVersionDeclaration) this.declarations.get("SKD");
+			this.stats = complete(this, stats, start, event);
 
-			this.db = SkdApi.get().api().database(this.docType,
-					this.version,
-					this.structure);
-			this.db = SkdApi.get().api().databaseCallback(this.db);
+			return db;
+		} catch (final RuntimeException exception) {
+			throw syntaxError(exception);
+		}
+	}
 
-			this.db = this.tryAccept(IDatabase.class, this.db).orElse(this.db);
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>This parser never builds the database tree when reading
+	 * through an event handler: events are sent while the lines
+	 * are read, so only the names of the currently open tags are
+	 * kept in memory.</p>
+	 *
+	 * @param handler
+	 *      {@inheritDoc}
+	 *
+	 * @since 0.1
+	 */
+	@Override
+	public void read(@Nonnull final ISkdEventHandler handler) {
+		if (!this.init()) {
+			this.init(false); // Better than manual initialization
+		}
 
-			final long stop = System.currentTimeMillis();
+		try {
+			final Object event = InterpreterEvents.beginSkdParse();
+			final long start = System.nanoTime();
+			final ParseStats.Collector stats = ParseStats.collector();
 
-			SkdApi.get().api().logger().info("Parse completed");
-			SkdApi.get().api().logger().info(String.format(
-					"It took %d milliseconds to complete",
-					stop - start
-			));
+			SkdApi.get().api().logger().info("Streaming database");
 
-			return this.db;
+			this.stream(handler, stats);
+
+			this.stats = complete(this, stats, start, event);
 		} catch (final RuntimeException exception) {
-			final IllegalDatabaseSyntaxException toThrow
-					= new IllegalDatabaseSyntaxException();
-			toThrow.initCause(exception);
-			try {
-				Class<?> clazzEx = toThrow.getClass();
-				while (!clazzEx.equals(Throwable.class)) {
-					clazzEx = clazzEx.getSuperclass();
-				}
-				final Field detailMessage = clazzEx.getDeclaredField(
-						"detailMessage"
-				);
-				detailMessage.setAccessible(true);
-				detailMessage.set(toThrow,
-						"Unable to parse database: syntax error"
-				);
-				detailMessage.setAccessible(false);
-			} catch (final ReflectiveOperationException ignored) {
-				// Ignore
-			}
-			throw toThrow;
+			throw syntaxError(exception);
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>Every line at indentation level 0 starts a new, independent,
+	 * top-level tag: the whole file is read in memory, scanned for
+	 * those lines and split in blocks, which are then parsed on the
+	 * given {@code pool}. The results are finally stitched back
+	 * together in order, blank lines included.</p>
+	 *
+	 * <p>The time spent in every phase is summed over all the blocks,
+	 * so it may be greater than the time the whole parse took.</p>
+	 *
+	 * @param pool
+	 *      {@inheritDoc}
+	 * @return
+	 *      {@inheritDoc}
+	 *
+	 * @since 0.1
+	 */
 	@Nonnull
-	@SuppressWarnings("unchecked")
-	private <T> Optional<T> tryAccept(@Nonnull final Class<T> clazz,
-	                                  @Nonnull final T toAccept) {
-		SkdApi.get().api().logger().debug("Attempting to accept last parsed token");
-		final AcceptanceService<T> service = (AcceptanceService<T>)
-				SkdApi.get().serviceManager().get(clazz)
-						.orElseThrow(() -> this.throwExForService(clazz));
-		if (service.canAccept(toAccept)) {
-			SkdApi.get().api().logger().debug("Accepted token "
-					+ toAccept.toString().replace("\n", "").replace("\t", ""));
-			SkdApi.get().api().logger().debug("Token original class: "
-					+ toAccept.getClass().getName());
-			final T of = service.accept(toAccept);
-			SkdApi.get().api().logger().debug("New token class: "
-					+ of.getClass().getName());
-			return Optional.of(of);
-		}
-		SkdApi.get().api().logger().debug("Keeping original token class ("
-				+ toAccept.getClass().getName() + ")");
-		return Optional.empty();
-	}
+	@Override
+	public IDatabase readParallel(@Nonnull final ForkJoinPool pool) {
+		if (CompactStructureService.enabled() || this.isEnabled(Feature.DEFERRED_SUBTREES)) {
+			// Compact structures and deferred subtrees are built in a single pass
+			return this.read();
+		}
 
-	@Nonnull
-	private RuntimeException throwExForService(final Class<?> clazz) {
-		final RuntimeException it = new RuntimeException();
-		if (DEBUG_EXCEPTIONS) {
-			try {
-				Class<?> clazzEx = it.getClass();
-				while (!clazzEx.equals(Throwable.class)) {
-					clazzEx = clazzEx.getSuperclass();
-				}
-				final Field detailMessage = clazzEx.getDeclaredField(
-						"detailMessage"
-				);
-				detailMessage.setAccessible(true);
-				detailMessage.set(it,
-					String.format(
-						"Unable to find service for specified class %s",
-					clazz)
-				);
-				detailMessage.setAccessible(false);
-			} catch (final ReflectiveOperationException ignored) {
-				Throwable cause = ignored;
-				while (cause.getCause() != null) {
-					cause = cause.getCause();
-				}
-				cause.initCause(it);
-				throw new RuntimeException(ignored);
-			}
+		if (!this.init()) {
+			this.init(false); // Better than manual initialization
 		}
-		return it;
-	}
 
-	private void parse(final String line) {
-		SkdApi.get().api().logger().info("Currently parsing line " + line);
+		try {
+			final Object event = InterpreterEvents.beginSkdParse();
+			final long start = System.nanoTime();
+			final ParseStats.Collector stats = ParseStats.collector();
 
-		this.indentCount = 0;
-		this.countIndent(line);
+			SkdApi.get().api().logger().info("Reading database in parallel");
 
-		String realLine = line;
-		while (realLine.startsWith("\t")) {
-			realLine = realLine.substring("\t".length());
-		}
+			final CharBuffer contents = readFully(this.in, stats);
+			final long scan = System.nanoTime();
+			final int[] blocks = scanBlocks(contents.array(), contents.limit());
+			stats.time(ParseStats.Phase.TOKENIZE, System.nanoTime() - scan);
+			final int threshold = Math.max(MIN_PARALLEL_BLOCK_SIZE,
+					contents.limit() / (pool.getParallelism() * 4));
 
-		if (realLine.startsWith(DECLARATION_START)) {
-			SkdApi.get().api().logger().debug("Found declaration " + realLine);
-			this.parseDeclaration(realLine);
-			return;
-		}
+			SkdApi.get().api().logger().info(String.format(
+					"Found %d top-level blocks", blocks.length - 1
+			));
 
-		if (realLine.startsWith("<SKD")) {
-			// Legacy support
-			// FIXME Remove in 0.3
-			SkdApi.get().api().logger().fine("Found version " + realLine);
-			SkdApi.get().api().logger().fine("Redirecting to declaration");
-			SkdApi.get().api().logger().debug("Found declaration " + realLine);
-			this.parseVersionBridge(realLine);
-			return;
-		}
+			final SkdTreeBuilder builder = pool.invoke(new BlockTask(contents.array(),
+					blocks, 0, blocks.length - 1, threshold,
+					this.isEnabled(Feature.LAZY_CONTENT), this.acceptancePool(pool)));
+			final IDatabase db = builder.database();
 
-		if (realLine.startsWith(TAG_START)) {
-			SkdApi.get().api().logger().debug("Found tag " + realLine);
-			this.parseTag(realLine);
-			return;
-		}
+			this.stats = complete(this, stats.merge(builder.stats()), start, event);
 
-		if (realLine.isEmpty()) {
-			this.structure.mainTags().add(null);
-			return;
+			return db;
+		} catch (final RuntimeException exception) {
+			throw syntaxError(exception);
 		}
+	}
 
-		SkdApi.get().api().logger().debug("Found tag content " + realLine);
-		this.parseContent(realLine);
+	@Nullable
+	private ForkJoinPool acceptancePool(@Nonnull final ForkJoinPool pool) {
+		return this.isEnabled(Feature.DEFERRED_ACCEPTANCE) ? pool : null;
 	}
 
-	private void countIndent(final String line) {
-		for (final char c : line.toCharArray()) {
-			if (c == '\t') {
-				++this.indentCount;
+	@Nonnull
+	private IDatabase readDeferred(@Nonnull final ParseStats.Collector stats) {
+		final CharBuffer contents = readFully(this.in, stats);
+		final char[] chars = contents.array();
+		final boolean lazyContent = this.isEnabled(Feature.LAZY_CONTENT);
+		final SkdTreeBuilder builder = new SkdTreeBuilder(lazyContent, stats);
+		final SkdReader reader = SkdReader.of(chars, 0, contents.limit());
+		final long scan = System.nanoTime();
+		long build = 0;
+
+		while (reader.hasNext()) {
+			reader.next();
+
+			if (reader.getEventType() != SkdReader.EventType.START_TAG || reader.isVoidTag()) {
+				final long dispatch = System.nanoTime();
+				dispatch(reader, builder, stats);
+				build += System.nanoTime() - dispatch;
 				continue;
 			}
-			break;
-		}
-	}
 
-	private void parseDeclaration(final String line) {
-		final String declaration = line.substring(DECLARATION_START.length(),
-				line.length() - DECLARATION_END.length());
-		final String name = declaration.contains(" ")
-				? declaration.substring(0, declaration.indexOf(' '))
-				: declaration;
+			final String name = reader.getTagName();
+			final int start = reader.lineStart();
+			// Skipping moves the reader to the end tag, which has no properties
+			final int properties = reader.getPropertyCount();
+			reader.skipSubtree();
+			final int end = reader.lineEnd();
 
-		switch (name.toUpperCase(Locale.ENGLISH)) {
-			case "DOCTYPE":
-				SkdApi.get().api().logger().debug("Found doctype " + line);
-				this.parseDocType(declaration);
-				break;
-			case "SKD":
-				SkdApi.get().api().logger().debug("Found version " + line);
-				this.parseVersion(declaration);
-				break;
-			default:
-				throw new RuntimeException("Unrecognized declaration "
-						+ declaration);
+			builder.deferred(reader.skippedBlankLines(), new LazyTag(name,
+					() -> parseDeferred(chars, start, end - start, lazyContent)));
+			stats.tag(false, properties);
 		}
-	}
 
-	private void parseDocType(final String declarationLine) {
-		final String[] array = declarationLine.split(" ");
-		if (array.length != 3) {
-			throw new RuntimeException("Invalid doctype declaration");
-		}
+		stats.lines(reader.getLineNumber());
+		stats.time(ParseStats.Phase.TOKENIZE, System.nanoTime() - scan - build);
+		stats.time(ParseStats.Phase.BUILD, build);
 
-		final String style = Arrays.stream(array)
-				.filter(it -> !it.equalsIgnoreCase("skd"))
-				.filter(it -> !it.equalsIgnoreCase("DOCTYPE"))
-				.findFirst()
-				.orElseThrow(RuntimeException::new);
-
-		this.declarations.put("DOCTYPE", SkdApi.get().api().doctype(style));
+		return builder.database();
 	}
 
-	private void parseVersion(final String declarationLine) {
-		final String[] array = declarationLine.split(" ");
-		if (array.length != 3) {
-			throw new RuntimeException("Invalid version declaration");
+	@Nonnull
+	private static ISkdTag parseDeferred(@Nonnull final char[] chars, final int start,
+	                                     final int length, final boolean lazyContent) {
+		try {
+			final SkdTreeBuilder builder = new SkdTreeBuilder(lazyContent);
+			stream(SkdReader.of(chars, start, length), builder);
+			return builder.mainTag();
+		} catch (final RuntimeException exception) {
+			throw syntaxError(exception);
 		}
-
-		final String version = Arrays.stream(array)
-				.filter(it -> !it.equalsIgnoreCase("version"))
-				.filter(it -> !it.equalsIgnoreCase("SKD"))
-				.findFirst()
-				.orElseThrow(RuntimeException::new);
-
-		this.declarations.put("SKD", SkdApi.get().api().version(version));
 	}
 
-	// LEGACY SUPPORT!
-	// REMOVE IN LATER VERSIONS!
-	private void parseVersionBridge(final String line) {
-		this.parseDeclaration(line.replace("<SKD", "<!SKD"));
-	}
-
-	private void parseTag(final String line) {
-		if (line.endsWith(VOID_TAG_END)) {
-			SkdApi.get().api().logger().debug("Found void tag " + line);
-			this.parseVoidTag(line);
-			return;
-		}
-
-		if (line.startsWith(CLOSING_TAG_START)) {
-			SkdApi.get().api().logger().debug("Found closing tag " + line);
-			this.parseClosingTag(line);
-			return;
-		}
-
-		SkdApi.get().api().logger().debug("Found opening tag " + line);
-		this.parseOpeningTag(line);
+	@Nonnull
+	static CharBuffer readFully(@Nonnull final Reader in,
+	                            @Nonnull final ParseStats.Collector stats) {
+		final long start = System.nanoTime();
+		final CharBuffer contents = readFully(in);
+		stats.time(ParseStats.Phase.READ, System.nanoTime() - start);
+		return contents;
 	}
 
-	private void parseContent(final String line) {
-		final ISkdTag tag = this.lastTagOnLevel.get(this.indentCount - 1);
-		final String content = tag.getContent().orElse("");
-		String newCont = content + (content.isEmpty() ? "" : "\n") + line;
-
-		while (newCont.startsWith("\t")) {
-			newCont = newCont.substring(1);
-		}
+	@Nonnull
+	static CharBuffer readFully(@Nonnull final Reader in) {
+		char[] buffer = new char[8192];
+		int length = 0;
 
-		if (newCont.isEmpty()) {
-			return;
+		try {
+			int read;
+			while ((read = in.read(buffer, length, buffer.length - length)) >= 0) {
+				length += read;
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+				}
+			}
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
 		}
 
-		tag.setContent(newCont);
-		SkdApi.get().api().tagCallback(tag);
+		return CharBuffer.wrap(buffer, 0, length);
 	}
 
-	private void parseVoidTag(final String line) {
-		final String tagLine = line.substring(TAG_START.length(),
-				line.length() - VOID_TAG_END.length());
-		final String tagName = tagLine.substring(0, tagLine.indexOf(" "));
-		String propLine = line.substring(tagName.length() + TAG_START.length());
-
-		while (propLine.startsWith(" ")) {
-			propLine = propLine.substring(1);
-		}
-
-		if (propLine.endsWith(VOID_TAG_END)) {
-			propLine = propLine.substring(0, propLine.length() - VOID_TAG_END.length());
-		}
+	/**
+	 * Scans the given buffer for the start of top-level blocks.
+	 *
+	 * <p>A block starts at every line that is not indented, not
+	 * blank and not a closing tag. Trailing blank lines belong to
+	 * the previous block, so that null markers keep their position
+	 * when blocks are stitched back together.</p>
+	 *
+	 * @return
+	 *      The offsets of the blocks, always starting with
+	 *      {@code 0} and ending with {@code length}.
+	 */
+	@Nonnull
+	static int[] scanBlocks(@Nonnull final char[] chars, final int length) {
+		int[] blocks = new int[64];
+		int count = 1; // blocks[0] = 0
+		int position = 0;
 
-		if (propLine.endsWith(TAG_END)) {
-			propLine = propLine.substring(0, propLine.length() - TAG_END.length());
-		}
+		while (position < length) {
+			final int lineStart = position;
 
-		ISkdTag tag = SkdApi.get().api().tag(tagName);
+			while (position < length && chars[position] != '\n' && chars[position] != '\r') {
+				++position;
+			}
 
-		this.parseProperties(propLine).stream().forEach(tag::addProperty);
+			if (position < length && chars[position] == '\r'
+					&& position + 1 < length && chars[position + 1] == '\n') {
+				++position;
+			}
+			++position;
 
-		tag.setVoidElement();
-		tag.close();
+			if (lineStart == 0) {
+				continue;
+			}
 
-		SkdApi.get().api().tagCallback(tag);
-		tag = this.tryAccept(ISkdTag.class, tag).orElse(tag);
+			final char first = chars[lineStart];
 
-		if (this.indentCount == 0) {
-			this.structure.mainTags().add(tag);
-			return;
-		}
+			if (first == '\t' || first == '\n' || first == '\r') {
+				continue;
+			}
 
-		final int indent = this.indentCount - 1;
-		ISkdTag parent = this.lastTagOnLevel.get(indent);
+			if (first == '<' && lineStart + 1 < length && chars[lineStart + 1] == '/') {
+				continue;
+			}
 
-		if (parent == null) {
-			throw new RuntimeException("No parent tag found: invalid indentation");
-		}
+			if (count + 1 >= blocks.length) {
+				blocks = Arrays.copyOf(blocks, blocks.length * 2);
+			}
 
-		if (parent.closed()) {
-			throw new RuntimeException("Parent tag already closed");
+			blocks[count++] = lineStart;
 		}
 
-		parent.addChildTag(tag);
-
-		SkdApi.get().api().tagCallback(parent);
-
-		this.lastTagOnLevel.put(indent, parent);
+		blocks[count++] = length;
+		return Arrays.copyOf(blocks, count);
 	}
 
-	private void parseClosingTag(final String line) {
-		if (line.contains(" ")) {
-			throw new RuntimeException("Spaces not allowed in closing tags");
-		}
-
-		if (this.lastTagOnLevel.get(this.indentCount) == null) {
-			throw new RuntimeException("Tag closed without being opened");
-		}
-
-		final String name = line.substring(CLOSING_TAG_START.length(),
-				line.length() - TAG_END.length());
-		final ISkdTag original = this.lastTagOnLevel.get(this.indentCount);
-
-		if (!name.equals(original.getName())) {
-			throw new RuntimeException("Tag closed without being opened");
-		}
-
-		original.close();
-		this.tryAccept(ISkdTag.class, original).orElse(original);
-
-		if (this.indentCount == 0) {
-			this.structure.mainTags().add(original);
-		}
+	@Nonnull
+	static IllegalDatabaseSyntaxException syntaxError(@Nonnull final RuntimeException exception) {
+		final IllegalDatabaseSyntaxException toThrow
+				= new IllegalDatabaseSyntaxException();
+		toThrow.initCause(exception);
+		try {
+			Class<?> clazzEx = toThrow.getClass();
+			while (!clazzEx.equals(Throwable.class)) {
+				clazzEx = clazzEx.getSuperclass();
+			}
+			final Field detailMessage = clazzEx.getDeclaredField(
+					"detailMessage"
+			);
+			detailMessage.setAccessible(true);
+			detailMessage.set(toThrow,
+					"Unable to parse database: syntax error"
+			);
+			detailMessage.setAccessible(false);
+		} catch (final ReflectiveOperationException ignored) {
+			// Ignore
+		}
+		return toThrow;
 	}
 
-	private void parseOpeningTag(final String line) {
-		final String tagLine = line.substring(TAG_START.length(),
-				line.length() - TAG_END.length());
-		final String tagName = tagLine.contains(" ")
-				? tagLine.substring(0, tagLine.indexOf(' '))
-				: tagLine;
-		String propLine = line.substring(tagName.length()
-				+ TAG_START.length() + TAG_END.length());
-
-		while (propLine.startsWith(" ")) {
-			propLine = propLine.substring(1);
-		}
-
-		if (propLine.endsWith(TAG_END)) {
-			propLine = propLine.substring(0, propLine.length() - TAG_END.length());
-		}
-
-		ISkdTag tag = SkdApi.get().api().tag(tagName);
-
-		this.parseProperties(propLine).stream().forEach(tag::addProperty);
-
-		SkdApi.get().api().tagCallback(tag);
-
-		this.lastTagOnLevel.put(this.indentCount, tag);
-
-		if (this.indentCount == 0) {
-			return;
+	/**
+	 * Gets a {@link SkdReader pull cursor} over this parser's database
+	 * holder.
+	 *
+	 * <p>The parser is initialized if needed. Just like
+	 * {@link #read()}, the database holder's contents can only be
+	 * consumed once.</p>
+	 *
+	 * @return
+	 *      A new reader over the database.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public SkdReader reader() {
+		if (!this.init()) {
+			this.init(false); // Better than manual initialization
 		}
 
-		final int indent = this.indentCount - 1;
-		ISkdTag parent = this.lastTagOnLevel.get(indent);
+		return SkdReader.of(this.in);
+	}
 
-		if (parent == null) {
-			throw new RuntimeException("No parent tag found: invalid indentation");
-		}
+	private void stream(@Nonnull final ISkdEventHandler handler,
+	                    @Nonnull final ParseStats.Collector stats) {
+		stream(SkdReader.of(this.in), handler, stats);
+	}
 
-		if (parent.closed()) {
-			throw new RuntimeException("Parent tag already closed");
+	static void stream(@Nonnull final SkdReader reader,
+	                   @Nonnull final ISkdEventHandler handler) {
+		while (reader.hasNext()) {
+			reader.next();
+			dispatch(reader, handler, null);
 		}
+	}
 
-		parent.addChildTag(tag);
-
-		SkdApi.get().api().tagCallback(parent);
-
-		this.lastTagOnLevel.put(indent, parent);
+	/**
+	 * Sends all the events of the given {@code reader} to the given
+	 * {@code handler}, recording them in the given {@code stats}.
+	 *
+	 * <p>The time spent in the handler is recorded as part of the
+	 * build phase: handlers which also record their callbacks and
+	 * acceptance in {@code stats} must do so in the same collector, so
+	 * that they can be subtracted once the parse
+	 * {@link #complete(ISkdParser, ParseStats.Collector, long, Object) completes}.</p>
+	 */
+	static void stream(@Nonnull final SkdReader reader,
+	                   @Nonnull final ISkdEventHandler handler,
+	                   @Nonnull final ParseStats.Collector stats) {
+		final long read = reader.readNanos();
+		long tokenize = 0;
+		long build = 0;
+		long start = System.nanoTime();
+
+		while (reader.hasNext()) {
+			reader.next();
+			final long tokenized = System.nanoTime();
+			dispatch(reader, handler, stats);
+			final long built = System.nanoTime();
+			tokenize += tokenized - start;
+			build += built - tokenized;
+			start = built;
+		}
+
+		final long waited = reader.readNanos() - read;
+
+		stats.lines(reader.getLineNumber());
+		stats.time(ParseStats.Phase.READ, waited);
+		stats.time(ParseStats.Phase.TOKENIZE, tokenize + System.nanoTime() - start - waited);
+		stats.time(ParseStats.Phase.BUILD, build);
 	}
 
-	private Collection<ISkdProperty> parseProperties(final String propLine) {
-		final List<String> strings = this.getAsList(propLine);
+	/**
+	 * Completes the statistics of a parse which started at the given
+	 * time, recording them in the global registry along with the
+	 * given {@link InterpreterEvents#beginSkdParse() event}.
+	 *
+	 * @return
+	 *      The statistics.
+	 */
+	@Nonnull
+	static ParseStats complete(@Nonnull final ISkdParser parser,
+	                           @Nonnull final ParseStats.Collector stats, final long start,
+	                           @Nullable final Object event) {
+		final long total = System.nanoTime() - start;
 
-		if (strings.isEmpty()) {
-			return Lists.newArrayList();
-		}
+		stats.time(ParseStats.Phase.BUILD, -(stats.nanos(ParseStats.Phase.ACCEPT)
+				+ stats.nanos(ParseStats.Phase.CALLBACKS)));
 
-		final List<Pair<String, String>> pairs = Lists.newArrayList();
+		final ParseStats result = stats.build(parser.getClass().getSimpleName(), total);
+		ParseStatsRegistry.global().record(result);
 
-		if (strings.size() % 2 == 1) { //Odd size
-			throw new RuntimeException("Invalid property specifications");
+		if (event != null) {
+			InterpreterEvents.endSkdParse(event, result.parser(),
+					parser.databaseHolder().toString(), result.lines(), result.tags(),
+					result.contentChars());
 		}
 
-		for (int i = 0; i < strings.size(); ++i) {
-			final String key = strings.get(i);
-			++i;
-			final String value = strings.get(i);
-
-			pairs.add(Pair.of(key, value));
-		}
+		SkdApi.get().api().logger().info("Parse completed");
+		SkdApi.get().api().logger().info(String.format(
+				"It took %d milliseconds to complete",
+				TimeUnit.NANOSECONDS.toMillis(total)
+		));
+		SkdApi.get().api().logger().fine(result::toString);
 
-		final List<ISkdProperty> props = Lists.newArrayList();
-		pairs.stream()
-				.filter(this::isValidPair)
-				.map(this::parseProperty)
-				.forEach(props::add);
-		return props;
+		return result;
 	}
 
-	private List<String> getAsList(final String propLine) {
-		final List<String> propertiesRaw = Lists.newArrayList();
-		String word = "";
-		boolean inQuotes = false;
-
-		for (final char c : propLine.toCharArray()) {
-			if (inQuotes) {
-				if (c == '"') {
-					inQuotes = false;
+	/**
+	 * Sends the event the given {@code reader} is positioned on to
+	 * the given {@code handler}, counting it in the given
+	 * {@code stats}, if any.
+	 */
+	private static void dispatch(@Nonnull final SkdReader reader,
+	                             @Nonnull final ISkdEventHandler handler,
+	                             @Nullable final ParseStats.Collector stats) {
+		switch (reader.getEventType()) {
+			case START_DOCUMENT:
+				handler.startDocument();
+				break;
+			case DECLARATION:
+				handler.declaration(reader.getDeclarationName(),
+						reader.getDeclarationValue());
+				break;
+			case START_TAG:
+				if (stats != null) {
+					stats.tag(reader.isVoidTag(), reader.getPropertyCount());
 				}
-				word += c;
-				continue;
-			}
-			if (c == '"') {
-				inQuotes = true;
-				continue;
-			}
-			if (c == ' ' || c == '=') {
-				propertiesRaw.add(word);
-				word = "";
-				continue;
-			}
-			word += c;
-		}
-
-		if (!word.isEmpty()) {
-			propertiesRaw.add(word);
+				handler.startTag(reader.getTagName(), reader.getProperties(),
+						reader.isVoidTag());
+				break;
+			case CONTENT:
+				if (stats != null) {
+					stats.content(reader.getContentLength());
+				}
+				handler.content(reader.getContentChars(), reader.getContentStart(),
+						reader.getContentLength());
+				break;
+			case END_TAG:
+				handler.endTag(reader.getTagName());
+				break;
+			case BLANK_LINE:
+				handler.blankLine();
+				break;
+			case END_DOCUMENT:
+			default:
+				handler.endDocument();
 		}
-
-		final List<String> properties = Lists.newArrayList();
-
-		propertiesRaw.stream()
-				.forEach(element -> {
-					if (element.startsWith("\"")) {
-						element = element.substring(1);
-					}
-					if (element.endsWith("\"")) {
-						element = element.substring(0,
-								element.length() - 1);
-					}
-					properties.add(element);
-				});
-
-		return properties;
-	}
-
-	@Contract(value = "null -> false; !null -> _")
-	private boolean isValidPair(final Pair<String, String> pair) {
-		return pair != null
-				&& pair.getLeft() != null
-				&& pair.getRight() != null
-				&& !pair.getLeft().isEmpty();
 	}
 
-	private ISkdProperty parseProperty(final Pair<String, String> property) {
-		SkdApi.get().api().logger().debug("Found property " + property);
-		final String key = property.getLeft();
-		final String value = property.getRight();
-		if (key == null) {
-			throw new RuntimeException("Impossible to set property with \"null\" key");
-		}
-		if (value == null) {
-			// Just for 1 CHARACTER!!! #RageQuit
-			throw new RuntimeException(
-					"Impossible to set property with \"null\" value");
-		}
-		if (key.isEmpty()) {
-			throw new RuntimeException("Impossible to set property with empty key");
-		}
-
-		final ISkdProperty prop = SkdApi.get().api().property(key, value);
+	/**
+	 * Parses a contiguous range of top-level blocks.
+	 *
+	 * @since 0.1
+	 */
+	private static final class BlockTask extends RecursiveTask<SkdTreeBuilder> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final char[] chars;
+		private final int[] blocks;
+		private final int from;
+		private final int to;
+		private final int threshold;
+		private final boolean lazyContent;
+		private final ForkJoinPool acceptancePool;
+
+		private BlockTask(@Nonnull final char[] chars, @Nonnull final int[] blocks,
+		                  final int from, final int to, final int threshold,
+		                  final boolean lazyContent, @Nullable final ForkJoinPool acceptancePool) {
+			this.chars = chars;
+			this.blocks = blocks;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+			this.lazyContent = lazyContent;
+			this.acceptancePool = acceptancePool;
+		}
+
+		@Nonnull
+		@Override
+		protected SkdTreeBuilder compute() {
+			final int start = this.blocks[this.from];
+			final int end = this.blocks[this.to];
+
+			if (this.to - this.from == 1 || end - start <= this.threshold) {
+				final SkdTreeBuilder builder = new SkdTreeBuilder(this.lazyContent)
+						.deferAcceptance(this.acceptancePool);
+				stream(SkdReader.of(this.chars, start, end - start), builder, builder.stats());
+				return builder;
+			}
 
-		if (value.isEmpty()) {
-			prop.removeValue();
+			final int middle = (this.from + this.to) >>> 1;
+			final BlockTask left = new BlockTask(this.chars, this.blocks, this.from, middle,
+					this.threshold, this.lazyContent, this.acceptancePool);
+			left.fork();
+			final SkdTreeBuilder right = new BlockTask(this.chars, this.blocks, middle, this.to,
+					this.threshold, this.lazyContent, this.acceptancePool).compute();
+			final SkdTreeBuilder joined = left.join();
+			joined.stats().merge(right.stats());
+			return joined.append(right);
 		}
-
-		SkdApi.get().api().propertyCallback(prop);
-
-		return this.tryAccept(ISkdProperty.class, prop).orElse(prop);
 	}
 
 	@Override
@@ -708,6 +866,10 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 			return false;
 		}
 
+		if (holder.binary()) {
+			return BinarySkdWriter.write(database, holder);
+		}
+
 		SkdApi.get().api().logger().info(String.format(
 				"Writing database %s (%s) to database holder %s (%s)",
 				this.getDatabaseName().orElse("ERROR: ~NullPointerException~"),
@@ -725,13 +887,11 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 					+ "but doesn't provide a valid writer stream.");
 		}
 
-		final BufferedWriter unwrappedOut = optionallyOut.get();
-		// Let's wrap it into a PrintWriter for ease of use
-		final PrintWriter out = new PrintWriter(unwrappedOut);
-		//TODO Not "toString" dependent version?
-		out.print(database.toString()); //Maybe "println"?
-		out.flush();
-		out.close();
+		try (final BufferedWriter out = optionallyOut.get()) {
+			SkdWriter.of(out).write(database);
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
 
 		final long stop = System.currentTimeMillis();
 
@@ -744,6 +904,12 @@ public class NewSkdParser implements ISkdParser { //TODO Better exceptions
 		return true;
 	}
 
+	@Nonnull
+	@Override
+	public Optional<ParseStats> lastStats() {
+		return Optional.ofNullable(this.stats);
+	}
+
 	@Nonnull
 	@Override
 	public Optional<String> getDatabaseName() {
@@ -8,11 +8,14 @@ import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
 import net.thesilkminer.skl.interpreterx.base.interfaces.INeedsInit;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.ParserEx;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.CompactStructureService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.DatabaseCacheService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.DatabaseHolderGetterService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.ParserExService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance.DatabaseAcceptanceService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance.PropertiesAcceptanceService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance.TagAcceptanceService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.compact.CompactStructure;
 
 /**
  * Main class of version 0.1 of ParserExV01.
@@ -30,6 +33,8 @@ public class ParserExV01 extends ParserEx implements INeedsInit {
 		this.provide(ISkdTag.class, new TagAcceptanceService());
 		this.provide(ISkdProperty.class, new PropertiesAcceptanceService());
 		this.provide(IDatabase.class, new DatabaseAcceptanceService());
+		this.provide(DatabaseCacheService.class, new DatabaseCacheService());
+		this.provide(CompactStructure.class, new CompactStructureService());
 	}
 
 	private void provide(final Class<?> clazz, final ISkdService service) {
@@ -0,0 +1,858 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.base.Preconditions;
+
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdEventHandler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+
+/**
+ * Represents the lexer stage used by the {@link NewSkdParser}.
+ *
+ * <p>The lexer reads the underlying {@link Reader} in bulk into
+ * a single, shared {@code char} buffer and walks every line only
+ * once with a cursor. Every token is exposed as a set of ranges
+ * into {@link #buffer() the buffer}, so that no intermediate
+ * {@link String} has to be created: callers should build strings
+ * only when they actually need them, through
+ * {@link #text(int, int)}.</p>
+ *
+ * <p>Every range is only valid until the next call to
+ * {@link #next()}. The same holds for the lexer itself when used
+ * as the {@link ISkdEventHandler.IProperties properties} of the
+ * current tag: pairs with an empty key are already skipped.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class SkdLexer implements ISkdEventHandler.IProperties {
+
+	/**
+	 * Represents the type of the line the lexer is currently
+	 * positioned on.
+	 *
+	 * @since 0.1
+	 */
+	public enum TokenType {
+		/**
+		 * A declaration, like {@code <!DOCTYPE ...>} or the legacy
+		 * {@code <SKD ...>} one.
+		 *
+		 * <p>The declaration body (e.g. {@code DOCTYPE skd ...}) is
+		 * available in the name range.</p>
+		 */
+		DECLARATION,
+		/**
+		 * An opening tag, with eventual properties.
+		 */
+		OPENING_TAG,
+		/**
+		 * A closing tag.
+		 */
+		CLOSING_TAG,
+		/**
+		 * A void tag (i.e. a tag ending with {@code />}), with
+		 * eventual properties.
+		 */
+		VOID_TAG,
+		/**
+		 * A line of content of the tag on the previous indentation
+		 * level.
+		 */
+		CONTENT,
+		/**
+		 * An empty line or a line made only of tabs.
+		 */
+		BLANK
+	}
+
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	private static final char TAB = '\t';
+	private static final char SPACE = ' ';
+	private static final char QUOTE = '"';
+	private static final char EQUALS = '=';
+	private static final char TAG_START = '<';
+	private static final char TAG_END = '>';
+	private static final char END_MARKER = '/';
+	private static final char DECLARATION_MARKER = '!';
+	private static final String LEGACY_DECLARATION = "SKD";
+	private static final int WORD_SIZE = 3;
+
+	private final Reader in;
+	private char[] buffer;
+	private int limit;
+	private int position;
+	private boolean eof;
+
+	private int lineNumber;
+	private int lineStart;
+	private int lineEnd;
+	private int skippedBlankLines;
+	private TokenType type;
+	private int indent;
+	private int nameStart;
+	private int nameEnd;
+	private boolean legacy;
+	private int[] words;
+	private int wordCount;
+	private long readNanos;
+
+	private SkdLexer(@Nonnull final Reader in) {
+		this.in = Preconditions.checkNotNull(in);
+		this.buffer = new char[DEFAULT_BUFFER_SIZE];
+		this.limit = 0;
+		this.position = 0;
+		this.eof = false;
+		this.lineNumber = 0;
+		this.words = new int[WORD_SIZE * 8];
+		this.wordCount = 0;
+	}
+
+	private SkdLexer(@Nonnull final char[] buffer, final int offset, final int length) {
+		Preconditions.checkPositionIndexes(offset, offset + length, buffer.length);
+		this.in = null;
+		this.buffer = buffer;
+		this.limit = offset + length;
+		this.position = offset;
+		this.eof = true;
+		this.lineNumber = 0;
+		this.words = new int[WORD_SIZE * 8];
+		this.wordCount = 0;
+	}
+
+	/**
+	 * Creates a new lexer that reads from the given {@link Reader}.
+	 *
+	 * <p>The reader is not buffered any further: the lexer already
+	 * reads in bulk.</p>
+	 *
+	 * @param in
+	 *      The reader to read from.
+	 * @return
+	 *      A new lexer instance.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static SkdLexer of(@Nonnull final Reader in) {
+		return new SkdLexer(in);
+	}
+
+	/**
+	 * Creates a new lexer that works directly on the given range
+	 * of an already filled buffer.
+	 *
+	 * <p>The buffer is never modified nor copied, so the same
+	 * buffer can be shared by multiple lexers, even on different
+	 * threads.</p>
+	 *
+	 * @param buffer
+	 *      The buffer holding the contents.
+	 * @param offset
+	 *      The start of the range.
+	 * @param length
+	 *      The length of the range.
+	 * @return
+	 *      A new lexer instance.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static SkdLexer of(@Nonnull final char[] buffer, final int offset, final int length) {
+		return new SkdLexer(buffer, offset, length);
+	}
+
+	/**
+	 * Moves the cursor to the next line and tokenizes it.
+	 *
+	 * @return
+	 *      {@code true} if a new line is available, {@code false}
+	 *      if the end of the input has been reached.
+	 *
+	 * @throws RuntimeException
+	 *      If the line is not syntactically valid.
+	 *
+	 * @since 0.1
+	 */
+	public boolean next() {
+		if (!this.nextLine()) {
+			this.type = null;
+			return false;
+		}
+
+		++this.lineNumber;
+		this.tokenize();
+		return true;
+	}
+
+	/**
+	 * Moves the cursor to the next non-blank line whose indentation
+	 * level is at most {@code maxIndent} and tokenizes it.
+	 *
+	 * <p>Lines that are skipped are not tokenized at all: only their
+	 * leading tabs are looked at. The amount of skipped blank lines
+	 * is {@link #skippedBlankLines() recorded}.</p>
+	 *
+	 * @param maxIndent
+	 *      The maximum indentation level of the line to stop at.
+	 * @return
+	 *      {@code true} if such a line is available, {@code false}
+	 *      if the end of the input has been reached.
+	 *
+	 * @throws RuntimeException
+	 *      If the line is not syntactically valid.
+	 *
+	 * @since 0.1
+	 */
+	public boolean skipTo(final int maxIndent) {
+		this.skippedBlankLines = 0;
+
+		while (this.nextLine()) {
+			++this.lineNumber;
+
+			int cursor = this.lineStart;
+
+			while (cursor < this.lineEnd && this.buffer[cursor] == TAB) {
+				++cursor;
+			}
+
+			if (cursor == this.lineEnd) {
+				++this.skippedBlankLines;
+				continue;
+			}
+
+			if (cursor - this.lineStart > maxIndent) {
+				continue;
+			}
+
+			this.tokenize();
+			return true;
+		}
+
+		this.type = null;
+		return false;
+	}
+
+	private boolean nextLine() {
+		int scan = this.position;
+
+		while (true) {
+			for (; scan < this.limit; ++scan) {
+				final char c = this.buffer[scan];
+
+				if (c != '\n' && c != '\r') {
+					continue;
+				}
+
+				if (c == '\r' && scan + 1 >= this.limit && !this.eof) {
+					// We need to know if a \n follows
+					break;
+				}
+
+				this.lineStart = this.position;
+				this.lineEnd = scan;
+				this.position = scan + 1;
+
+				if (c == '\r' && this.position < this.limit
+						&& this.buffer[this.position] == '\n') {
+					++this.position;
+				}
+
+				return true;
+			}
+
+			if (this.eof) {
+				if (this.position >= this.limit) {
+					return false;
+				}
+
+				this.lineStart = this.position;
+				this.lineEnd = this.limit;
+				this.position = this.limit;
+				return true;
+			}
+
+			scan -= this.position;
+			this.fill();
+		}
+	}
+
+	private void fill() {
+		if (this.position > 0) {
+			System.arraycopy(this.buffer, this.position, this.buffer, 0,
+					this.limit - this.position);
+			this.limit -= this.position;
+			this.position = 0;
+		}
+
+		if (this.limit == this.buffer.length) {
+			this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+		}
+
+		final long start = System.nanoTime();
+
+		try {
+			final int read = this.in.read(this.buffer, this.limit,
+					this.buffer.length - this.limit);
+
+			this.readNanos += System.nanoTime() - start;
+
+			if (read < 0) {
+				this.eof = true;
+				return;
+			}
+
+			this.limit += read;
+		} catch (final IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private void tokenize() {
+		final char[] buf = this.buffer;
+		final int end = this.lineEnd;
+		int cursor = this.lineStart;
+
+		while (cursor < end && buf[cursor] == TAB) {
+			++cursor;
+		}
+
+		this.indent = cursor - this.lineStart;
+		this.legacy = false;
+		this.wordCount = 0;
+		this.nameStart = cursor;
+		this.nameEnd = end;
+
+		if (cursor == end) {
+			this.type = TokenType.BLANK;
+			return;
+		}
+
+		if (buf[cursor] != TAG_START) {
+			this.type = TokenType.CONTENT;
+			return;
+		}
+
+		if (cursor + 1 < end && buf[cursor + 1] == DECLARATION_MARKER) {
+			this.type = TokenType.DECLARATION;
+			this.nameStart = cursor + 2;
+			this.nameEnd = Math.max(this.nameStart, end - 1);
+			return;
+		}
+
+		if (this.regionMatches(cursor + 1, LEGACY_DECLARATION)) {
+			// Legacy support
+			// FIXME Remove in 0.3
+			this.type = TokenType.DECLARATION;
+			this.legacy = true;
+			this.nameStart = cursor + 1;
+			this.nameEnd = Math.max(this.nameStart, end - 1);
+			return;
+		}
+
+		if (end - cursor >= 2 && buf[end - 2] == END_MARKER && buf[end - 1] == TAG_END) {
+			this.tokenizeVoidTag(cursor, end);
+			return;
+		}
+
+		if (end - cursor < 2) {
+			throw new RuntimeException("Invalid tag");
+		}
+
+		if (buf[cursor + 1] == END_MARKER) {
+			this.tokenizeClosingTag(cursor, end);
+			return;
+		}
+
+		this.tokenizeOpeningTag(cursor, end);
+	}
+
+	private void tokenizeVoidTag(final int cursor, final int end) {
+		final char[] buf = this.buffer;
+		final int bodyEnd = end - 2;
+
+		this.type = TokenType.VOID_TAG;
+		this.nameStart = cursor + 1;
+		this.nameEnd = this.indexOf(SPACE, this.nameStart, bodyEnd);
+
+		if (this.nameEnd < 0) {
+			throw new RuntimeException("Invalid void tag: no space found");
+		}
+
+		int propertiesStart = this.nameEnd;
+		while (propertiesStart < end && buf[propertiesStart] == SPACE) {
+			++propertiesStart;
+		}
+
+		int propertiesEnd = end;
+		if (propertiesEnd - propertiesStart >= 2
+				&& buf[propertiesEnd - 2] == END_MARKER
+				&& buf[propertiesEnd - 1] == TAG_END) {
+			propertiesEnd -= 2;
+		}
+		if (propertiesEnd > propertiesStart && buf[propertiesEnd - 1] == TAG_END) {
+			--propertiesEnd;
+		}
+
+		this.tokenizeProperties(propertiesStart, propertiesEnd);
+	}
+
+	private void tokenizeClosingTag(final int cursor, final int end) {
+		if (this.indexOf(SPACE, cursor, end) >= 0) {
+			throw new RuntimeException("Spaces not allowed in closing tags");
+		}
+
+		if (end - cursor < 3) {
+			throw new RuntimeException("Invalid closing tag");
+		}
+
+		this.type = TokenType.CLOSING_TAG;
+		this.nameStart = cursor + 2;
+		this.nameEnd = end - 1;
+	}
+
+	private void tokenizeOpeningTag(final int cursor, final int end) {
+		final char[] buf = this.buffer;
+		final int bodyEnd = end - 1;
+
+		this.type = TokenType.OPENING_TAG;
+		this.nameStart = cursor + 1;
+
+		final int space = this.indexOf(SPACE, this.nameStart, bodyEnd);
+		this.nameEnd = space < 0 ? bodyEnd : space;
+
+		// The character right after the name is skipped, whatever it is
+		int propertiesStart = Math.min(this.nameEnd + 1, end);
+		while (propertiesStart < end && buf[propertiesStart] == SPACE) {
+			++propertiesStart;
+		}
+
+		int propertiesEnd = end;
+		if (propertiesEnd > propertiesStart && buf[propertiesEnd - 1] == TAG_END) {
+			--propertiesEnd;
+		}
+
+		this.tokenizeProperties(propertiesStart, propertiesEnd);
+	}
+
+	private void tokenizeProperties(final int start, final int end) {
+		final char[] buf = this.buffer;
+		int wordStart = start;
+		boolean inQuotes = false;
+		boolean dirty = false;
+
+		for (int i = start; i < end; ++i) {
+			final char c = buf[i];
+
+			if (inQuotes) {
+				if (c == QUOTE) {
+					inQuotes = false;
+				}
+				continue;
+			}
+
+			if (c == QUOTE) {
+				inQuotes = true;
+				if (i == wordStart) {
+					// The opening quote is not part of the word
+					++wordStart;
+				} else {
+					dirty = true;
+				}
+				continue;
+			}
+
+			if (c == SPACE || c == EQUALS) {
+				this.addWord(wordStart, i, dirty);
+				wordStart = i + 1;
+				dirty = false;
+			}
+		}
+
+		if (wordStart < end) {
+			this.addWord(wordStart, end, dirty);
+		}
+
+		if (this.wordCount % 2 == 1) { //Odd size
+			throw new RuntimeException("Invalid property specifications");
+		}
+
+		this.removeEmptyKeys();
+	}
+
+	private void removeEmptyKeys() {
+		int kept = 0;
+
+		for (int pair = 0; pair < this.wordCount / 2; ++pair) {
+			if (this.isWordEmpty(pair * 2)) {
+				continue;
+			}
+
+			if (kept != pair) {
+				System.arraycopy(this.words, pair * 2 * WORD_SIZE,
+						this.words, kept * 2 * WORD_SIZE, 2 * WORD_SIZE);
+			}
+
+			++kept;
+		}
+
+		this.wordCount = kept * 2;
+	}
+
+	private boolean isWordEmpty(final int word) {
+		final int index = word * WORD_SIZE;
+		final int length = this.words[index + 1] - this.words[index];
+
+		if (this.words[index + 2] != 0) {
+			return this.word(word).isEmpty();
+		}
+
+		return length == 0
+				|| length == 1 && this.buffer[this.words[index]] == QUOTE;
+	}
+
+	private void addWord(final int start, final int end, final boolean dirty) {
+		if ((this.wordCount + 1) * WORD_SIZE > this.words.length) {
+			this.words = Arrays.copyOf(this.words, this.words.length * 2);
+		}
+
+		final int index = this.wordCount * WORD_SIZE;
+		this.words[index] = start;
+		this.words[index + 1] = end;
+		this.words[index + 2] = dirty ? 1 : 0;
+		++this.wordCount;
+	}
+
+	@Nonnull
+	private String word(final int word) {
+		return this.word(word, false);
+	}
+
+	@Nonnull
+	private String word(final int word, final boolean intern) {
+		final int index = word * WORD_SIZE;
+		final int start = this.words[index];
+		final int end = this.words[index + 1];
+
+		if (this.words[index + 2] == 0) {
+			// Fast path: the opening quote, if any, has already been skipped
+			int wordStart = start;
+			int wordEnd = end;
+			if (wordEnd > wordStart && this.buffer[wordStart] == QUOTE) {
+				++wordStart;
+			}
+			if (wordEnd > wordStart && this.buffer[wordEnd - 1] == QUOTE) {
+				--wordEnd;
+			}
+			if (intern) {
+				return Symbols.canonical(this.buffer, wordStart, wordEnd);
+			}
+			return this.text(wordStart, wordEnd);
+		}
+
+		// Slow path: opening quotes in the middle of the word are dropped
+		final StringBuilder builder = new StringBuilder(end - start);
+		boolean inQuotes = false;
+		for (int i = start; i < end; ++i) {
+			final char c = this.buffer[i];
+			if (c == QUOTE && !inQuotes) {
+				inQuotes = true;
+				continue;
+			}
+			if (c == QUOTE) {
+				inQuotes = false;
+			}
+			builder.append(c);
+		}
+
+		String element = builder.toString();
+		if (element.startsWith("\"")) {
+			element = element.substring(1);
+		}
+		if (element.endsWith("\"")) {
+			element = element.substring(0, element.length() - 1);
+		}
+		return intern ? Symbols.canonical(element) : element;
+	}
+
+	private int indexOf(final char c, final int start, final int end) {
+		for (int i = start; i < end; ++i) {
+			if (this.buffer[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private boolean regionMatches(final int offset, @Nonnull final String string) {
+		if (offset + string.length() > this.lineEnd) {
+			return false;
+		}
+
+		for (int i = 0; i < string.length(); ++i) {
+			if (this.buffer[offset + i] != string.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets the buffer all the ranges returned by this lexer point
+	 * into.
+	 *
+	 * @return
+	 *      The shared buffer. It must not be modified.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public char[] buffer() {
+		return this.buffer;
+	}
+
+	/**
+	 * Creates a {@link String} out of the given buffer range.
+	 *
+	 * @param start
+	 *      The start of the range, inclusive.
+	 * @param end
+	 *      The end of the range, exclusive.
+	 * @return
+	 *      A new string.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String text(final int start, final int end) {
+		return new String(this.buffer, start, end - start);
+	}
+
+	/**
+	 * Gets the type of the current line.
+	 *
+	 * @return
+	 *      The current line type.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public TokenType type() {
+		return Preconditions.checkNotNull(this.type, "No current token");
+	}
+
+	/**
+	 * Gets the number of the current line, starting from 1.
+	 *
+	 * @return
+	 *      The current line number.
+	 *
+	 * @since 0.1
+	 */
+	public int lineNumber() {
+		return this.lineNumber;
+	}
+
+	/**
+	 * Gets the time spent so far waiting for the underlying
+	 * {@link Reader}.
+	 *
+	 * <p>Always {@code 0} for lexers created over a
+	 * {@link #of(char[], int, int) buffer}.</p>
+	 *
+	 * @return
+	 *      The time, in nanoseconds.
+	 *
+	 * @since 0.1
+	 */
+	public long readNanos() {
+		return this.readNanos;
+	}
+
+	/**
+	 * Gets the indentation level (the amount of leading tabs)
+	 * of the current line.
+	 *
+	 * @return
+	 *      The indentation level.
+	 *
+	 * @since 0.1
+	 */
+	public int indent() {
+		return this.indent;
+	}
+
+	/**
+	 * Gets whether the current declaration uses the legacy
+	 * {@code <SKD ...>} syntax.
+	 *
+	 * @return
+	 *      If the declaration is a legacy one.
+	 *
+	 * @since 0.1
+	 */
+	public boolean legacy() {
+		return this.legacy;
+	}
+
+	/**
+	 * Gets the current line, without the line terminator, as a
+	 * {@link String}.
+	 *
+	 * @return
+	 *      The current line.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String line() {
+		return this.text(this.lineStart, this.lineEnd);
+	}
+
+	/**
+	 * Gets the number of blank lines skipped by the last call to
+	 * {@link #skipTo(int)}.
+	 *
+	 * @return
+	 *      The number of skipped blank lines.
+	 *
+	 * @since 0.1
+	 */
+	public int skippedBlankLines() {
+		return this.skippedBlankLines;
+	}
+
+	/**
+	 * Gets the start of the current line, tabs included.
+	 *
+	 * @return
+	 *      The start of the line.
+	 *
+	 * @since 0.1
+	 */
+	public int lineStart() {
+		return this.lineStart;
+	}
+
+	/**
+	 * Gets the start of the current line, tabs excluded.
+	 *
+	 * @return
+	 *      The start of the stripped line.
+	 *
+	 * @since 0.1
+	 */
+	public int strippedStart() {
+		return this.lineStart + this.indent;
+	}
+
+	/**
+	 * Gets the end of the current line, terminator excluded.
+	 *
+	 * @return
+	 *      The end of the line.
+	 *
+	 * @since 0.1
+	 */
+	public int lineEnd() {
+		return this.lineEnd;
+	}
+
+	/**
+	 * Gets the start of the name range.
+	 *
+	 * <p>For tags, this represents the tag's name; for declarations
+	 * it is the whole declaration body and for content it is the
+	 * content itself.</p>
+	 *
+	 * @return
+	 *      The start of the name range.
+	 *
+	 * @since 0.1
+	 */
+	public int nameStart() {
+		return this.nameStart;
+	}
+
+	/**
+	 * Gets the end of the name range.
+	 *
+	 * @return
+	 *      The end of the name range.
+	 *
+	 * @see #nameStart()
+	 *
+	 * @since 0.1
+	 */
+	public int nameEnd() {
+		return this.nameEnd;
+	}
+
+	/**
+	 * Gets the tag's name (or the declaration body) as a string.
+	 *
+	 * @return
+	 *      The name.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String name() {
+		return this.text(this.nameStart, this.nameEnd);
+	}
+
+	/**
+	 * Gets the {@link Symbols canonical} instance of the tag's name.
+	 *
+	 * <p>Differently from {@link #name()}, no string is created if
+	 * the name is already known.</p>
+	 *
+	 * @return
+	 *      The canonical name.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String canonicalName() {
+		return Symbols.canonical(this.buffer, this.nameStart, this.nameEnd);
+	}
+
+	/**
+	 * Gets whether the name range is equal to the given string.
+	 *
+	 * @param string
+	 *      The string to compare against.
+	 * @return
+	 *      If they are equal.
+	 *
+	 * @since 0.1
+	 */
+	public boolean nameEquals(@Nonnull final String string) {
+		return this.nameEnd - this.nameStart == string.length()
+				&& this.regionMatches(this.nameStart, string);
+	}
+
+	@Override
+	public int size() {
+		return this.wordCount / 2;
+	}
+
+	@Nonnull
+	@Override
+	public String name(final int index) {
+		// Property names are few and repeated: hand out the canonical instance
+		return this.word(index * 2, true);
+	}
+
+	@Nonnull
+	@Override
+	public String value(final int index) {
+		return this.word(index * 2 + 1);
+	}
+}
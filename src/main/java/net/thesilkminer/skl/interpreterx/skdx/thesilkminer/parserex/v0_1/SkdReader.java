@@ -0,0 +1,703 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdEventHandler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.annotation.Nonnull;
+
+/**
+ * Represents a pull cursor over an SKD database.
+ *
+ * <p>Differently from {@link ISkdEventHandler}, where the parser
+ * pushes every event to the handler, the reader allows the caller
+ * to request the next event only when needed and to
+ * {@link #skipSubtree() skip} whole subtrees without even looking
+ * at their contents. No
+ * {@link net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag tag}
+ * is ever created.</p>
+ *
+ * <p>The grammar is the same one understood by the
+ * {@link NewSkdParser}, declarations and the legacy {@code <SKD}
+ * version included.</p>
+ *
+ * <p>Usage example:</p>
+ *
+ * <pre>
+ *     final SkdReader reader = SkdReader.of(in);
+ *     while (reader.hasNext()) {
+ *         if (reader.next() == SkdReader.EventType.START_TAG
+ *                 &amp;&amp; !reader.getTagName().equals("interesting")) {
+ *             reader.skipSubtree();
+ *         }
+ *     }
+ * </pre>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class SkdReader implements Closeable {
+
+	/**
+	 * Represents the type of the event the reader is currently
+	 * positioned on.
+	 *
+	 * @since 0.1
+	 */
+	public enum EventType {
+		/**
+		 * The start of the database. Always the first event.
+		 */
+		START_DOCUMENT,
+		/**
+		 * A {@code DOCTYPE} or {@code SKD} declaration.
+		 */
+		DECLARATION,
+		/**
+		 * The opening of a tag. Void tags are always followed by
+		 * their {@link #END_TAG}.
+		 */
+		START_TAG,
+		/**
+		 * A line of content of the currently open tag.
+		 */
+		CONTENT,
+		/**
+		 * The closing of a tag.
+		 */
+		END_TAG,
+		/**
+		 * A blank line.
+		 */
+		BLANK_LINE,
+		/**
+		 * The end of the database. Always the last event.
+		 */
+		END_DOCUMENT
+	}
+
+	private final Reader in;
+	private final SkdLexer lexer;
+	private final List<String> openTags;
+	private EventType event;
+	private String tagName;
+	private boolean voidTag;
+	private boolean pendingEnd;
+	private String declarationName;
+	private String declarationValue;
+
+	private SkdReader(@Nonnull final Reader in) {
+		this(Preconditions.checkNotNull(in), SkdLexer.of(in));
+	}
+
+	private SkdReader(final Reader in, @Nonnull final SkdLexer lexer) {
+		this.in = in;
+		this.lexer = lexer;
+		this.openTags = Lists.newArrayList();
+		this.event = null;
+		this.tagName = null;
+		this.voidTag = false;
+		this.pendingEnd = false;
+		this.declarationName = null;
+		this.declarationValue = null;
+	}
+
+	/**
+	 * Creates a new reader over the given {@link Reader}.
+	 *
+	 * @param in
+	 *      The reader to read from.
+	 * @return
+	 *      A new reader, positioned before the
+	 *      {@link EventType#START_DOCUMENT} event.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static SkdReader of(@Nonnull final Reader in) {
+		return new SkdReader(in);
+	}
+
+	/**
+	 * Creates a new reader over the given range of an already
+	 * filled buffer.
+	 *
+	 * @param buffer
+	 *      The buffer holding the contents. It is never modified.
+	 * @param offset
+	 *      The start of the range.
+	 * @param length
+	 *      The length of the range.
+	 * @return
+	 *      A new reader, positioned before the
+	 *      {@link EventType#START_DOCUMENT} event.
+	 *
+	 * @see SkdLexer#of(char[], int, int)
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static SkdReader of(@Nonnull final char[] buffer, final int offset, final int length) {
+		return new SkdReader(null, SkdLexer.of(buffer, offset, length));
+	}
+
+	/**
+	 * Gets whether another event is available.
+	 *
+	 * @return
+	 *      {@code false} if the reader is positioned on the
+	 *      {@link EventType#END_DOCUMENT} event.
+	 *
+	 * @since 0.1
+	 */
+	public boolean hasNext() {
+		return this.event != EventType.END_DOCUMENT;
+	}
+
+	/**
+	 * Moves the cursor to the next event.
+	 *
+	 * @return
+	 *      The type of the new event.
+	 *
+	 * @throws IllegalStateException
+	 *      If no more events are available.
+	 * @throws RuntimeException
+	 *      If the database is not syntactically valid.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public EventType next() {
+		Preconditions.checkState(this.hasNext(), "No more events available");
+
+		if (this.event == null) {
+			this.event = EventType.START_DOCUMENT;
+			return this.event;
+		}
+
+		if (this.pendingEnd) {
+			this.pendingEnd = false;
+			this.event = EventType.END_TAG;
+			return this.event;
+		}
+
+		if (!this.lexer.next()) {
+			return this.endDocument();
+		}
+
+		return this.parse();
+	}
+
+	/**
+	 * Skips the whole subtree of the tag the reader is currently
+	 * positioned on, moving to its {@link EventType#END_TAG}.
+	 *
+	 * <p>The lines of the subtree are not tokenized: only their
+	 * indentation is looked at.</p>
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}.
+	 * @throws RuntimeException
+	 *      If the tag is never closed.
+	 *
+	 * @since 0.1
+	 */
+	public void skipSubtree() {
+		Preconditions.checkState(this.event == EventType.START_TAG,
+				"Subtrees can only be skipped from a START_TAG event");
+
+		if (this.pendingEnd) {
+			this.pendingEnd = false;
+			this.event = EventType.END_TAG;
+			return;
+		}
+
+		if (!this.lexer.skipTo(this.openTags.size() - 1)) {
+			throw new RuntimeException("Tag " + this.tagName + " not closed");
+		}
+
+		if (this.parse() != EventType.END_TAG) {
+			throw new RuntimeException("Tag " + this.tagName + " not closed");
+		}
+	}
+
+	/**
+	 * Gets the type of the current event.
+	 *
+	 * @return
+	 *      The type of the current event.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public EventType getEventType() {
+		return Preconditions.checkNotNull(this.event, "next() was never called");
+	}
+
+	/**
+	 * Gets the number of the line of the current event, starting
+	 * from 1.
+	 *
+	 * @return
+	 *      The current line number.
+	 *
+	 * @since 0.1
+	 */
+	public int getLineNumber() {
+		return this.lexer.lineNumber();
+	}
+
+	/**
+	 * Gets the name of the current tag.
+	 *
+	 * @return
+	 *      The name of the tag.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}
+	 *      or {@link EventType#END_TAG}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getTagName() {
+		this.checkEvent(EventType.START_TAG, EventType.END_TAG);
+		return this.tagName;
+	}
+
+	/**
+	 * Gets whether the current tag is a void tag.
+	 *
+	 * @return
+	 *      If the tag is a void tag.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}
+	 *      or {@link EventType#END_TAG}.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isVoidTag() {
+		this.checkEvent(EventType.START_TAG, EventType.END_TAG);
+		return this.voidTag;
+	}
+
+	/**
+	 * Gets the properties of the current tag.
+	 *
+	 * <p>The returned view is only valid until the next call to
+	 * {@link #next()}.</p>
+	 *
+	 * @return
+	 *      The properties of the tag.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public ISkdEventHandler.IProperties getProperties() {
+		this.checkEvent(EventType.START_TAG, EventType.START_TAG);
+		return this.lexer;
+	}
+
+	/**
+	 * Gets the amount of properties of the current tag.
+	 *
+	 * @return
+	 *      The amount of properties.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}.
+	 *
+	 * @since 0.1
+	 */
+	public int getPropertyCount() {
+		return this.getProperties().size();
+	}
+
+	/**
+	 * Gets the name of the {@code index}-th property of the
+	 * current tag.
+	 *
+	 * @param index
+	 *      The index of the property.
+	 * @return
+	 *      The name of the property.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getPropertyName(final int index) {
+		final ISkdEventHandler.IProperties properties = this.getProperties();
+		Preconditions.checkElementIndex(index, properties.size());
+		return properties.name(index);
+	}
+
+	/**
+	 * Gets the value of the {@code index}-th property of the
+	 * current tag.
+	 *
+	 * @param index
+	 *      The index of the property.
+	 * @return
+	 *      The value of the property, or an empty string if the
+	 *      property has no value.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#START_TAG}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getPropertyValue(final int index) {
+		final ISkdEventHandler.IProperties properties = this.getProperties();
+		Preconditions.checkElementIndex(index, properties.size());
+		return properties.value(index);
+	}
+
+	/**
+	 * Gets the name of the current declaration.
+	 *
+	 * @return
+	 *      The name of the declaration, either {@code DOCTYPE} or
+	 *      {@code SKD}.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#DECLARATION}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getDeclarationName() {
+		this.checkEvent(EventType.DECLARATION, EventType.DECLARATION);
+		return this.declarationName;
+	}
+
+	/**
+	 * Gets the value of the current declaration.
+	 *
+	 * @return
+	 *      The value of the declaration.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#DECLARATION}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getDeclarationValue() {
+		this.checkEvent(EventType.DECLARATION, EventType.DECLARATION);
+		return this.declarationValue;
+	}
+
+	/**
+	 * Gets the current line of content.
+	 *
+	 * @return
+	 *      The content, leading tabs excluded.
+	 *
+	 * @throws IllegalStateException
+	 *      If the current event is not {@link EventType#CONTENT}.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getContent() {
+		this.checkEvent(EventType.CONTENT, EventType.CONTENT);
+		return this.lexer.text(this.lexer.strippedStart(), this.lexer.lineEnd());
+	}
+
+	/**
+	 * Gets the buffer holding the current line of content.
+	 *
+	 * <p>The buffer must not be modified and is only valid until
+	 * the next call to {@link #next()}.</p>
+	 *
+	 * @return
+	 *      The buffer.
+	 *
+	 * @see #getContentStart()
+	 * @see #getContentLength()
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public char[] getContentChars() {
+		this.checkEvent(EventType.CONTENT, EventType.CONTENT);
+		return this.lexer.buffer();
+	}
+
+	/**
+	 * Gets the start of the current line of content in the
+	 * {@link #getContentChars() buffer}.
+	 *
+	 * @return
+	 *      The start of the content.
+	 *
+	 * @since 0.1
+	 */
+	public int getContentStart() {
+		this.checkEvent(EventType.CONTENT, EventType.CONTENT);
+		return this.lexer.strippedStart();
+	}
+
+	/**
+	 * Gets the length of the current line of content.
+	 *
+	 * @return
+	 *      The length of the content.
+	 *
+	 * @since 0.1
+	 */
+	public int getContentLength() {
+		this.checkEvent(EventType.CONTENT, EventType.CONTENT);
+		return this.lexer.lineEnd() - this.lexer.strippedStart();
+	}
+
+	/**
+	 * Gets the start of the current line in the buffer this reader
+	 * works on, indentation included.
+	 *
+	 * <p>Only meaningful for readers created over a
+	 * {@link #of(char[], int, int) buffer}.</p>
+	 *
+	 * @return
+	 *      The start of the current line.
+	 *
+	 * @since 0.1
+	 */
+	int lineStart() {
+		return this.lexer.lineStart();
+	}
+
+	/**
+	 * Gets the end of the current line in the buffer this reader
+	 * works on, terminator excluded.
+	 *
+	 * @return
+	 *      The end of the current line.
+	 *
+	 * @see #lineStart()
+	 *
+	 * @since 0.1
+	 */
+	int lineEnd() {
+		return this.lexer.lineEnd();
+	}
+
+	/**
+	 * Gets the number of blank lines inside the subtree skipped by
+	 * the last call to {@link #skipSubtree()}.
+	 *
+	 * @return
+	 *      The number of skipped blank lines.
+	 *
+	 * @since 0.1
+	 */
+	int skippedBlankLines() {
+		return this.lexer.skippedBlankLines();
+	}
+
+	/**
+	 * Gets the time spent so far waiting for the underlying
+	 * {@link Reader}.
+	 *
+	 * @return
+	 *      The time, in nanoseconds.
+	 *
+	 * @see SkdLexer#readNanos()
+	 *
+	 * @since 0.1
+	 */
+	long readNanos() {
+		return this.lexer.readNanos();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.in != null) {
+			this.in.close();
+		}
+	}
+
+	private void checkEvent(@Nonnull final EventType first, @Nonnull final EventType second) {
+		Preconditions.checkState(this.event == first || this.event == second,
+				"Invalid operation for event %s", this.event);
+	}
+
+	@Nonnull
+	private EventType endDocument() {
+		if (!this.openTags.isEmpty()) {
+			throw new RuntimeException("Tag " + this.openTags.get(this.openTags.size() - 1)
+					+ " not closed");
+		}
+
+		this.event = EventType.END_DOCUMENT;
+		return this.event;
+	}
+
+	@Nonnull
+	private EventType parse() {
+		final SkdLexer lexer = this.lexer;
+
+		SkdApi.get().api().logger().debug(() -> "Currently parsing line " + lexer.line());
+
+		switch (lexer.type()) {
+			case DECLARATION:
+				if (lexer.legacy()) {
+					// Legacy support
+					// FIXME Remove in 0.3
+					SkdApi.get().api().logger().fine(() -> "Found version " + lexer.name());
+					SkdApi.get().api().logger().fine("Redirecting to declaration");
+				}
+				SkdApi.get().api().logger().debug(() -> "Found declaration " + lexer.name());
+				this.parseDeclaration(lexer.name());
+				break;
+			case VOID_TAG:
+				SkdApi.get().api().logger().debug(() -> "Found void tag " + lexer.name());
+				this.parseVoidTag();
+				break;
+			case CLOSING_TAG:
+				SkdApi.get().api().logger().debug(() -> "Found closing tag " + lexer.name());
+				this.parseClosingTag();
+				break;
+			case OPENING_TAG:
+				SkdApi.get().api().logger().debug(() -> "Found opening tag " + lexer.name());
+				this.parseOpeningTag();
+				break;
+			case BLANK:
+				this.event = EventType.BLANK_LINE;
+				break;
+			case CONTENT:
+			default:
+				SkdApi.get().api().logger().debug("Found tag content");
+				this.parseContent();
+		}
+
+		return this.event;
+	}
+
+	private void parseDeclaration(final String declaration) {
+		final String name = declaration.contains(" ")
+				? declaration.substring(0, declaration.indexOf(' '))
+				: declaration;
+
+		switch (name.toUpperCase(Locale.ENGLISH)) {
+			case "DOCTYPE":
+				SkdApi.get().api().logger().debug(() -> "Found doctype " + declaration);
+				this.declarationName = "DOCTYPE";
+				this.declarationValue = this.parseDocType(declaration);
+				break;
+			case "SKD":
+				SkdApi.get().api().logger().debug(() -> "Found version " + declaration);
+				this.declarationName = "SKD";
+				this.declarationValue = this.parseVersion(declaration);
+				break;
+			default:
+				throw new RuntimeException("Unrecognized declaration "
+						+ declaration);
+		}
+
+		this.event = EventType.DECLARATION;
+	}
+
+	@Nonnull
+	private String parseDocType(final String declarationLine) {
+		final String[] array = declarationLine.split(" ");
+		if (array.length != 3) {
+			throw new RuntimeException("Invalid doctype declaration");
+		}
+
+		return Arrays.stream(array)
+				.filter(it -> !it.equalsIgnoreCase("skd"))
+				.filter(it -> !it.equalsIgnoreCase("DOCTYPE"))
+				.findFirst()
+				.orElseThrow(RuntimeException::new);
+	}
+
+	@Nonnull
+	private String parseVersion(final String declarationLine) {
+		final String[] array = declarationLine.split(" ");
+		if (array.length != 3) {
+			throw new RuntimeException("Invalid version declaration");
+		}
+
+		return Arrays.stream(array)
+				.filter(it -> !it.equalsIgnoreCase("version"))
+				.filter(it -> !it.equalsIgnoreCase("SKD"))
+				.findFirst()
+				.orElseThrow(RuntimeException::new);
+	}
+
+	private void parseContent() {
+		if (this.lexer.indent() == 0 || this.openTags.isEmpty()) {
+			throw new RuntimeException("Content found outside of a tag");
+		}
+
+		if (this.lexer.indent() != this.openTags.size()) {
+			throw new RuntimeException("Invalid content indentation");
+		}
+
+		this.event = EventType.CONTENT;
+	}
+
+	private void parseVoidTag() {
+		this.checkIndentation(this.lexer.indent());
+
+		this.tagName = this.lexer.canonicalName();
+		this.voidTag = true;
+		this.pendingEnd = true;
+		this.event = EventType.START_TAG;
+	}
+
+	private void parseClosingTag() {
+		final int indent = this.lexer.indent();
+
+		if (indent != this.openTags.size() - 1) {
+			throw new RuntimeException("Tag closed without being opened");
+		}
+
+		if (!this.lexer.nameEquals(this.openTags.get(indent))) {
+			throw new RuntimeException("Tag closed without being opened");
+		}
+
+		this.tagName = this.openTags.remove(indent);
+		this.voidTag = false;
+		this.event = EventType.END_TAG;
+	}
+
+	private void parseOpeningTag() {
+		this.checkIndentation(this.lexer.indent());
+
+		this.tagName = this.lexer.canonicalName();
+		this.voidTag = false;
+		this.openTags.add(this.tagName);
+		this.event = EventType.START_TAG;
+	}
+
+	private void checkIndentation(final int indent) {
+		if (indent > this.openTags.size()) {
+			throw new RuntimeException("No parent tag found: invalid indentation");
+		}
+
+		if (indent < this.openTags.size()) {
+			throw new RuntimeException("Tag " + this.openTags.get(this.openTags.size() - 1)
+					+ " not closed");
+		}
+	}
+}
@@ -0,0 +1,699 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdEventHandler;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ParseStats;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.IDeclaration;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.jfr.InterpreterEvents;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.AcceptanceService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.AbstractTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.LazyContent;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.LazyTag;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Builds the in-memory representation of a database out of the
+ * events sent by the {@link NewSkdParser}.
+ *
+ * <p>Tags are attached to their parent (or to the structure's
+ * main tags) only once they are closed, so that the instance
+ * returned by the acceptance services is the one that ends up
+ * in the tree.</p>
+ *
+ * <p>The content of a tag is collected while its lines are read
+ * and set only once the tag is closed. When the builder works on a
+ * source that stays untouched (e.g. a whole file read in memory),
+ * the content can also be left in the source and built only when
+ * it is requested: see {@link LazyContent}.</p>
+ *
+ * <p>Acceptance can also be {@link #deferAcceptance(ForkJoinPool)
+ * deferred} until the database is built: the whole tree is then
+ * accepted in place in a single bottom-up pass, whose independent
+ * subtrees are processed in parallel.</p>
+ *
+ * <p>The time spent in callbacks and acceptance services is recorded
+ * in the builder's {@link #stats() statistics}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class SkdTreeBuilder implements ISkdEventHandler {
+
+	/**
+	 * A tag that has not been closed yet, along with its content.
+	 */
+	private static final class OpenTag {
+
+		private final ISkdTag tag;
+		private StringBuilder content;
+		private LazyContent.Builder lazyContent;
+
+		private OpenTag(@Nonnull final ISkdTag tag) {
+			this.tag = tag;
+		}
+	}
+
+	/**
+	 * Accepts, in place, a range of sibling tags along with their
+	 * subtrees.
+	 *
+	 * <p>Ranges are split until they hold a single tag, whose children
+	 * are then accepted before the tag itself. Past
+	 * {@link #PARALLEL_DEPTH} levels, subtrees are accepted
+	 * sequentially, as they are usually too small to be worth a
+	 * task.</p>
+	 *
+	 * @since 0.1
+	 */
+	private static final class AcceptTask extends RecursiveTask<ParseStats.Collector> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ISkdTag parent;
+		private final List<ISkdTag> siblings;
+		private final int from;
+		private final int to;
+		private final int depth;
+
+		private AcceptTask(@Nullable final ISkdTag parent, @Nonnull final List<ISkdTag> siblings,
+		                   final int from, final int to, final int depth) {
+			this.parent = parent;
+			this.siblings = siblings;
+			this.from = from;
+			this.to = to;
+			this.depth = depth;
+		}
+
+		@Nonnull
+		@Override
+		protected ParseStats.Collector compute() {
+			final ParseStats.Collector stats = ParseStats.collector();
+
+			if (this.depth < PARALLEL_DEPTH && this.to - this.from > 1) {
+				final int middle = (this.from + this.to) >>> 1;
+				final AcceptTask left = new AcceptTask(this.parent, this.siblings, this.from,
+						middle, this.depth);
+				left.fork();
+				final ParseStats.Collector right = new AcceptTask(this.parent, this.siblings,
+						middle, this.to, this.depth).compute();
+				return left.join().merge(right);
+			}
+
+			if (this.depth < PARALLEL_DEPTH && this.to - this.from == 1
+					&& this.siblings.get(this.from) instanceof AbstractTag) {
+				final ISkdTag tag = this.siblings.get(this.from);
+				final List<ISkdTag> children = AbstractTag.childrenOf(tag);
+				stats.merge(new AcceptTask(tag, children, 0, children.size(), this.depth + 1)
+						.compute());
+				final long start = System.nanoTime();
+				this.replace(this.from, acceptNode(tag, stats));
+				stats.time(ParseStats.Phase.BUILD, System.nanoTime() - start);
+				return stats;
+			}
+
+			final long start = System.nanoTime();
+			for (int i = this.from; i < this.to; ++i) {
+				this.replace(i, acceptTree(this.siblings.get(i), stats));
+			}
+			stats.time(ParseStats.Phase.BUILD, System.nanoTime() - start);
+			return stats;
+		}
+
+		private void replace(final int index, @Nullable final ISkdTag tag) {
+			if (tag == this.siblings.get(index)) {
+				return;
+			}
+			if (this.parent == null) {
+				this.siblings.set(index, tag);
+			} else {
+				AbstractTag.replaceChild(this.parent, index, Preconditions.checkNotNull(tag));
+			}
+		}
+	}
+
+	/**
+	 * How many levels of the tree are accepted in parallel when
+	 * acceptance is {@link #deferAcceptance(ForkJoinPool) deferred}.
+	 */
+	private static final int PARALLEL_DEPTH = 3;
+
+	private final IStructure structure;
+	private final Map<String, IDeclaration> declarations;
+	private final List<OpenTag> openTags;
+	private final boolean lazyContent;
+	private final ParseStats.Collector stats;
+	private ForkJoinPool acceptancePool;
+
+	SkdTreeBuilder() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new builder.
+	 *
+	 * @param lazyContent
+	 *      Whether the content of the tags should be left in the
+	 *      source. If {@code true}, the buffers passed to
+	 *      {@link #content(char[], int, int)} must never be modified.
+	 *
+	 * @since 0.1
+	 */
+	SkdTreeBuilder(final boolean lazyContent) {
+		this(lazyContent, ParseStats.collector());
+	}
+
+	SkdTreeBuilder(final boolean lazyContent, @Nonnull final ParseStats.Collector stats) {
+		this(SkdApi.get().api().structure(Lists.newArrayList()), lazyContent, stats);
+	}
+
+	SkdTreeBuilder(@Nonnull final IStructure structure, final boolean lazyContent) {
+		this(structure, lazyContent, ParseStats.collector());
+	}
+
+	SkdTreeBuilder(@Nonnull final IStructure structure, final boolean lazyContent,
+	               @Nonnull final ParseStats.Collector stats) {
+		this.structure = structure;
+		this.declarations = Maps.newHashMap();
+		this.openTags = Lists.newArrayList();
+		this.lazyContent = lazyContent;
+		this.stats = stats;
+		this.acceptancePool = null;
+	}
+
+	/**
+	 * Defers the acceptance of tags and properties until the database
+	 * is {@link #database() built}.
+	 *
+	 * <p>Callbacks are still run while the tree is built, so they
+	 * receive tags and properties which have not been accepted yet.
+	 * The tree is then accepted in place, children before their
+	 * parents, on the given {@code pool}. Tags which do not extend
+	 * {@link AbstractTag} are accepted, but their children are not,
+	 * and {@link LazyTag}s are left untouched, as their subtrees are
+	 * accepted when they are parsed.</p>
+	 *
+	 * @param pool
+	 *      The pool to accept the tree on, or {@code null} to accept
+	 *      every token as soon as it is built.
+	 * @return
+	 *      This builder, for chaining.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	SkdTreeBuilder deferAcceptance(@Nullable final ForkJoinPool pool) {
+		this.acceptancePool = pool;
+		return this;
+	}
+
+	@Override
+	public void declaration(@Nonnull final String name, @Nonnull final String value) {
+		declaration(this.declarations, name, value);
+	}
+
+	static void declaration(@Nonnull final Map<String, IDeclaration> declarations,
+	                        @Nonnull final String name, @Nonnull final String value) {
+		switch (name) {
+			case "DOCTYPE":
+				declarations.put(name, SkdApi.get().api().doctype(value));
+				break;
+			case "SKD":
+				declarations.put(name, SkdApi.get().api().version(value));
+				break;
+			default:
+				throw new RuntimeException("Unrecognized declaration " + name);
+		}
+	}
+
+	@Override
+	public void startTag(@Nonnull final String name, @Nonnull final IProperties properties,
+	                     final boolean voidTag) {
+		final ISkdTag tag = SkdApi.get().api().tag(name);
+
+		for (int i = 0; i < properties.size(); ++i) {
+			tag.addProperty(this.parseProperty(properties.name(i), properties.value(i)));
+		}
+
+		if (voidTag) {
+			tag.setVoidElement();
+		} else {
+			this.tagCallback(tag);
+		}
+
+		this.openTags.add(new OpenTag(tag));
+	}
+
+	@Override
+	public void content(@Nonnull final char[] chars, final int start, final int length) {
+		final OpenTag open = this.currentTag();
+
+		if (this.lazyContent && open.tag instanceof AbstractTag) {
+			if (open.lazyContent == null) {
+				open.lazyContent = LazyContent.builder();
+			}
+			open.lazyContent.line(chars, start, length);
+			return;
+		}
+
+		if (open.content == null) {
+			int first = start;
+			while (first < start + length && chars[first] == '\t') {
+				++first;
+			}
+			if (first == start + length) {
+				return;
+			}
+			open.content = new StringBuilder(start + length - first).append(chars, first,
+					start + length - first);
+			return;
+		}
+
+		open.content.append('\n').append(chars, start, length);
+	}
+
+	@Override
+	public void endTag(@Nonnull final String name) {
+		final OpenTag open = this.openTags.remove(this.openTags.size() - 1);
+		final ISkdTag tag = open.tag;
+
+		if (this.setContent(open)) {
+			this.tagCallback(tag);
+		}
+
+		tag.close();
+
+		if (tag.isVoidElement()) {
+			this.tagCallback(tag);
+		}
+
+		final ISkdTag accepted = this.acceptancePool != null
+				? tag : tryAccept(ISkdTag.class, tag, this.stats).orElse(tag);
+
+		if (!accepted.closed()) {
+			accepted.close();
+		}
+
+		if (this.openTags.isEmpty()) {
+			this.structure.mainTags().add(accepted);
+			return;
+		}
+
+		final ISkdTag parent = this.currentTag().tag;
+		parent.addChildTag(accepted);
+		this.tagCallback(parent);
+	}
+
+	@Override
+	public void blankLine() {
+		this.structure.mainTags().add(null);
+	}
+
+	/**
+	 * Adds a main tag whose subtree is parsed later on.
+	 *
+	 * @param blankLines
+	 *      The number of blank lines inside the subtree, which are
+	 *      added before the tag as if it was parsed right away.
+	 * @param tag
+	 *      The tag.
+	 *
+	 * @since 0.1
+	 */
+	void deferred(final int blankLines, @Nonnull final LazyTag tag) {
+		if (!this.openTags.isEmpty()) {
+			throw new IllegalStateException("Only main tags can be deferred");
+		}
+
+		for (int i = 0; i < blankLines; ++i) {
+			this.structure.mainTags().add(null);
+		}
+
+		this.structure.mainTags().add(tag);
+	}
+
+	/**
+	 * Gets the only main tag built so far.
+	 *
+	 * @return
+	 *      The main tag, already accepted.
+	 *
+	 * @throws IllegalStateException
+	 *      If there is not exactly one main tag.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	ISkdTag mainTag() {
+		ISkdTag main = null;
+
+		for (final ISkdTag tag : this.structure.mainTags()) {
+			if (tag == null) {
+				continue;
+			}
+			if (main != null) {
+				throw new IllegalStateException("More than one main tag found");
+			}
+			main = tag;
+		}
+
+		if (main == null) {
+			throw new IllegalStateException("No main tag found");
+		}
+
+		return main;
+	}
+
+	/**
+	 * Appends everything built by the given {@code builder} to this
+	 * one, as if its events had been received right after the ones
+	 * received by this builder.
+	 *
+	 * <p>Statistics are not appended: callers which share a collector
+	 * between builders would otherwise count them twice.</p>
+	 *
+	 * @param builder
+	 *      The builder whose contents should be appended. It must
+	 *      not have any open tag.
+	 * @return
+	 *      This builder, for chaining.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	SkdTreeBuilder append(@Nonnull final SkdTreeBuilder builder) {
+		if (!this.openTags.isEmpty() || !builder.openTags.isEmpty()) {
+			throw new IllegalStateException("Unable to append builders with open tags");
+		}
+
+		this.structure.mainTags().addAll(builder.structure.mainTags());
+		this.declarations.putAll(builder.declarations);
+		return this;
+	}
+
+	/**
+	 * Builds the database out of the events received so far.
+	 *
+	 * @return
+	 *      The database, already accepted.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	IDatabase database() {
+		if (this.acceptancePool != null) {
+			final List<ISkdTag> mainTags = this.structure.mainTags();
+			this.stats.merge(this.acceptancePool.invoke(
+					new AcceptTask(null, mainTags, 0, mainTags.size(), 0)));
+		}
+
+		return database(this.declarations, this.structure, this.stats);
+	}
+
+	@Nullable
+	private static ISkdTag acceptTree(@Nullable final ISkdTag tag,
+	                                  @Nonnull final ParseStats.Collector stats) {
+		if (tag == null || tag instanceof LazyTag) {
+			return tag;
+		}
+
+		if (tag instanceof AbstractTag) {
+			final List<ISkdTag> children = AbstractTag.childrenOf(tag);
+			for (int i = 0; i < children.size(); ++i) {
+				final ISkdTag child = children.get(i);
+				final ISkdTag accepted = acceptTree(child, stats);
+				if (accepted != child) {
+					AbstractTag.replaceChild(tag, i, Preconditions.checkNotNull(accepted));
+				}
+			}
+		}
+
+		return acceptNode(tag, stats);
+	}
+
+	@Nullable
+	private static ISkdTag acceptNode(@Nullable final ISkdTag tag,
+	                                  @Nonnull final ParseStats.Collector stats) {
+		if (tag == null || tag instanceof LazyTag) {
+			return tag;
+		}
+
+		if (tag instanceof AbstractTag) {
+			final List<ISkdProperty> properties = AbstractTag.propertiesOf(tag);
+			for (int i = 0; i < properties.size(); ++i) {
+				final ISkdProperty property = properties.get(i);
+				if (property == null) {
+					continue;
+				}
+				final Optional<ISkdProperty> accepted =
+						tryAccept(ISkdProperty.class, property, stats);
+				if (accepted.isPresent()) {
+					AbstractTag.replaceProperty(tag, i, accepted.get());
+				}
+			}
+		}
+
+		final ISkdTag accepted = tryAccept(ISkdTag.class, tag, stats).orElse(tag);
+
+		if (!accepted.closed()) {
+			accepted.close();
+		}
+
+		return accepted;
+	}
+
+	/**
+	 * Gets the statistics recorded by this builder.
+	 *
+	 * @return
+	 *      The statistics.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	ParseStats.Collector stats() {
+		return this.stats;
+	}
+
+	@Nonnull
+	static IDatabase database(@Nonnull final Map<String, IDeclaration> declarations,
+	                          @Nonnull final IStructure structure,
+	                          @Nonnull final ParseStats.Collector stats) {
+		final IDocTypeDeclaration docType = (IDocTypeDeclaration) declarations.get("DOCTYPE");
+		final IDatabaseVersionDeclaration version =
+				(IDatabaseVersionDeclaration) declarations.get("SKD");
+
+		final long start = System.nanoTime();
+
+		IDatabase db = SkdApi.get().api().database(docType, version, structure);
+
+		final Object event = InterpreterEvents.beginCallback();
+		final long callbacks = System.nanoTime();
+		db = SkdApi.get().api().databaseCallback(db);
+		stats.time(ParseStats.Phase.CALLBACKS, System.nanoTime() - callbacks);
+		InterpreterEvents.endCallback(event, "database");
+
+		final IDatabase accepted = tryAccept(IDatabase.class, db, stats).orElse(db);
+		// Callbacks and acceptance are subtracted when the parse completes
+		stats.time(ParseStats.Phase.BUILD, System.nanoTime() - start);
+		return accepted;
+	}
+
+	private void tagCallback(@Nonnull final ISkdTag tag) {
+		final Object event = InterpreterEvents.beginCallback();
+		final long start = System.nanoTime();
+		SkdApi.get().api().tagCallback(tag);
+		this.stats.time(ParseStats.Phase.CALLBACKS, System.nanoTime() - start);
+		InterpreterEvents.endCallback(event, "tag");
+	}
+
+	private boolean setContent(@Nonnull final OpenTag open) {
+		if (open.content != null) {
+			open.tag.setContent(open.content.toString());
+			return true;
+		}
+
+		final LazyContent content = open.lazyContent == null ? null : open.lazyContent.build();
+
+		if (content != null) {
+			((AbstractTag) open.tag).setLazyContent(content);
+			return true;
+		}
+
+		return false;
+	}
+
+	@Nonnull
+	private OpenTag currentTag() {
+		if (this.openTags.isEmpty()) {
+			throw new RuntimeException("No open tag found");
+		}
+		return this.openTags.get(this.openTags.size() - 1);
+	}
+
+	private ISkdProperty parseProperty(final String key, final String value) {
+		SkdApi.get().api().logger().debug(() -> "Found property (" + key + "," + value + ")");
+		if (key == null) {
+			throw new RuntimeException("Impossible to set property with \"null\" key");
+		}
+		if (value == null) {
+			// Just for 1 CHARACTER!!! #RageQuit
+			throw new RuntimeException(
+					"Impossible to set property with \"null\" value");
+		}
+		if (key.isEmpty()) {
+			throw new RuntimeException("Impossible to set property with empty key");
+		}
+
+		final ISkdProperty prop = SkdApi.get().api().property(key, value);
+
+		if (value.isEmpty()) {
+			prop.removeValue();
+		}
+
+		final Object event = InterpreterEvents.beginCallback();
+		final long start = System.nanoTime();
+		SkdApi.get().api().propertyCallback(prop);
+		this.stats.time(ParseStats.Phase.CALLBACKS, System.nanoTime() - start);
+		InterpreterEvents.endCallback(event, "property");
+
+		if (this.acceptancePool != null) {
+			return prop;
+		}
+
+		return tryAccept(ISkdProperty.class, prop, this.stats).orElse(prop);
+	}
+
+	/**
+	 * Runs the acceptance service registered for the given
+	 * {@code clazz} on the given object.
+	 *
+	 * @param clazz
+	 *      The class the acceptance service is registered for.
+	 * @param toAccept
+	 *      The object to accept.
+	 * @return
+	 *      The accepted instance, if the service accepted it.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static <T> Optional<T> tryAccept(@Nonnull final Class<T> clazz,
+	                                  @Nonnull final T toAccept) {
+		return tryAccept(clazz, toAccept, null);
+	}
+
+	/**
+	 * Runs the acceptance service registered for the given
+	 * {@code clazz} on the given object, recording the time it took
+	 * and the class of the accepted instance in the given
+	 * {@code stats}.
+	 *
+	 * @param clazz
+	 *      The class the acceptance service is registered for.
+	 * @param toAccept
+	 *      The object to accept.
+	 * @param stats
+	 *      The statistics to record in, if any.
+	 * @return
+	 *      The accepted instance, if the service accepted it.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static <T> Optional<T> tryAccept(@Nonnull final Class<T> clazz,
+	                                  @Nonnull final T toAccept,
+	                                  @Nullable final ParseStats.Collector stats) {
+		if (stats == null) {
+			return accept(clazz, toAccept);
+		}
+
+		final long start = System.nanoTime();
+		final Optional<T> accepted = accept(clazz, toAccept);
+		stats.time(ParseStats.Phase.ACCEPT, System.nanoTime() - start);
+		accepted.ifPresent(it -> stats.accepted(it.getClass()));
+		return accepted;
+	}
+
+	@Nonnull
+	@SuppressWarnings("unchecked")
+	private static <T> Optional<T> accept(@Nonnull final Class<T> clazz,
+	                                      @Nonnull final T toAccept) {
+		SkdApi.get().api().logger().debug("Attempting to accept last parsed token");
+		final AcceptanceService<T> service = (AcceptanceService<T>)
+				SkdApi.get().serviceManager().get(clazz)
+						.orElseThrow(() -> throwExForService(clazz));
+		final Object event = InterpreterEvents.beginAcceptance();
+		final T of = service.tryAccept(toAccept);
+		InterpreterEvents.endAcceptance(event, clazz, of == null ? null : of.getClass());
+		if (of != null) {
+			SkdApi.get().api().logger().debug(() -> "Accepted token " + describe(toAccept));
+			SkdApi.get().api().logger().debug(() -> "Token original class: "
+					+ toAccept.getClass().getName());
+			SkdApi.get().api().logger().debug(() -> "New token class: "
+					+ of.getClass().getName());
+			return Optional.of(of);
+		}
+		SkdApi.get().api().logger().debug(() -> "Keeping original token class ("
+				+ toAccept.getClass().getName() + ")");
+		return Optional.empty();
+	}
+
+	@Nonnull
+	private static String describe(@Nonnull final Object token) {
+		if (token instanceof IDatabase) {
+			// Printing the whole database would parse all deferred subtrees
+			return "database " + token.getClass().getName();
+		}
+		return token.toString().replace("\n", "").replace("\t", "");
+	}
+
+	@Nonnull
+	private static RuntimeException throwExForService(final Class<?> clazz) {
+		final RuntimeException it = new RuntimeException();
+		if (NewSkdParser.DEBUG_EXCEPTIONS) {
+			try {
+				Class<?> clazzEx = it.getClass();
+				while (!clazzEx.equals(Throwable.class)) {
+					clazzEx = clazzEx.getSuperclass();
+				}
+				final Field detailMessage = clazzEx.getDeclaredField(
+						"detailMessage"
+				);
+				detailMessage.setAccessible(true);
+				detailMessage.set(it,
+					String.format(
+						"Unable to find service for specified class %s",
+					clazz)
+				);
+				detailMessage.setAccessible(false);
+			} catch (final ReflectiveOperationException ignored) {
+				Throwable cause = ignored;
+				while (cause.getCause() != null) {
+					cause = cause.getCause();
+				}
+				cause.initCause(it);
+				throw new RuntimeException(ignored);
+			}
+		}
+		return it;
+	}
+}
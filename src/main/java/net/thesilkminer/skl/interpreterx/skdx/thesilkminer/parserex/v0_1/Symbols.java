@@ -0,0 +1,390 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.base.Preconditions;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NonNls;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Global symbol table used to intern tag and property names.
+ *
+ * <p>Every name is mapped to a single canonical {@link String}
+ * instance and to a small integer id, which is stable for the whole
+ * lifetime of the process. Ids are assigned sequentially starting
+ * from {@code 0}, so they can be used as array indexes.</p>
+ *
+ * <p>Databases repeat the same few names over and over: interning
+ * them means that only one copy of each name is kept in memory and
+ * that names can be compared by id instead of character by
+ * character.</p>
+ *
+ * <p>Names are never removed from the table, so the amount of names
+ * it holds is capped (see {@link #CAPACITY_PROPERTY}): otherwise a
+ * long-lived process loading databases whose names are derived from
+ * their data would grow it without bound. Once the table is full,
+ * new names are not interned anymore and get {@link #NONE} as their
+ * id: they are kept as plain strings and must be compared with
+ * {@link #same(int, String, int, String)}.</p>
+ *
+ * <p>Lookups of names that are already known never lock nor
+ * allocate (not even when looking up a range of a {@code char}
+ * array), so the table can be used freely by parallel parses.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class Symbols {
+
+	/**
+	 * Open-addressing table: a slot holds {@code id + 1}, or
+	 * {@code 0} if it is empty.
+	 *
+	 * <p>The arrays are never shrunk nor rehashed in place: when the
+	 * table grows, a new instance is built and published, while
+	 * readers that still hold the old one can keep using it.</p>
+	 */
+	private static final class Table {
+
+		private final AtomicIntegerArray slots;
+		private final int mask;
+
+		private Table(final int capacity) {
+			this.slots = new AtomicIntegerArray(capacity);
+			this.mask = capacity - 1;
+		}
+	}
+
+	/**
+	 * Marker returned by {@link #find(String)} when a name was never
+	 * interned.
+	 *
+	 * @since 0.1
+	 */
+	public static final int NONE = -1;
+
+	/**
+	 * The property which sets the maximum amount of names the table
+	 * holds. Defaults to {@code 65536}.
+	 *
+	 * @since 0.1
+	 */
+	@NonNls public static final String CAPACITY_PROPERTY =
+			"net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.symbols.capacity";
+
+	private static final int CAPACITY = Math.max(0, Integer.getInteger(CAPACITY_PROPERTY, 65536));
+
+	private static final Object LOCK = new Object();
+
+	private static volatile Table table = new Table(1024);
+	private static volatile String[] names = new String[512];
+	private static volatile int[] hashes = new int[512];
+	private static volatile int size = 0; // Written under LOCK
+
+	private Symbols() {
+		throw new RuntimeException("Symbols cannot be instantiated");
+	}
+
+	/**
+	 * Interns the given {@code name}.
+	 *
+	 * @param name
+	 *      The name to intern.
+	 * @return
+	 *      The id of the name, or {@link #NONE} if the table is full.
+	 *
+	 * @since 0.1
+	 */
+	public static int intern(@Nonnull final String name) {
+		Preconditions.checkNotNull(name);
+		final int hash = hash(name);
+		final int id = lookup(table, name, hash);
+		// Once the table is full, unknown names do not need to take the lock
+		return id != NONE || isFull() ? id : insert(name, hash);
+	}
+
+	/**
+	 * Interns the name contained in the given range of
+	 * {@code buffer}.
+	 *
+	 * <p>If the name is already known, no {@link String} is
+	 * created.</p>
+	 *
+	 * @param buffer
+	 *      The buffer holding the name.
+	 * @param start
+	 *      The start of the name (inclusive).
+	 * @param end
+	 *      The end of the name (exclusive).
+	 * @return
+	 *      The id of the name, or {@link #NONE} if the table is full.
+	 *
+	 * @since 0.1
+	 */
+	public static int intern(@Nonnull final char[] buffer, final int start, final int end) {
+		Preconditions.checkPositionIndexes(start, end, buffer.length);
+		final int hash = hash(buffer, start, end);
+		final int id = lookup(table, buffer, start, end, hash);
+		return id != NONE || isFull() ? id : insert(new String(buffer, start, end - start), hash);
+	}
+
+	/**
+	 * Gets the id of the given {@code name}, without interning it.
+	 *
+	 * @param name
+	 *      The name to look up.
+	 * @return
+	 *      The id of the name, or {@link #NONE} if it was never
+	 *      interned.
+	 *
+	 * @since 0.1
+	 */
+	public static int find(@Nonnull final String name) {
+		return lookup(table, Preconditions.checkNotNull(name), hash(name));
+	}
+
+	/**
+	 * Gets the canonical instance of the name with the given
+	 * {@code id}.
+	 *
+	 * @param id
+	 *      The id of the name.
+	 * @return
+	 *      The canonical name.
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *      If no name has the given id.
+	 *
+	 * @since 0.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static String name(final int id) {
+		final String[] names = Symbols.names;
+		final String name = id >= 0 && id < names.length ? names[id] : null;
+
+		if (name == null) {
+			throw new IndexOutOfBoundsException("No symbol with id " + id);
+		}
+
+		return name;
+	}
+
+	/**
+	 * Gets the canonical instance of the given {@code name},
+	 * interning it if needed.
+	 *
+	 * @param name
+	 *      The name.
+	 * @return
+	 *      The canonical instance of the name, or {@code name} itself
+	 *      if the table is full.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static String canonical(@Nonnull final String name) {
+		final int id = intern(name);
+		return id == NONE ? name : name(id);
+	}
+
+	/**
+	 * Gets the canonical instance of the name contained in the given
+	 * range of {@code buffer}, interning it if needed.
+	 *
+	 * @param buffer
+	 *      The buffer holding the name.
+	 * @param start
+	 *      The start of the name (inclusive).
+	 * @param end
+	 *      The end of the name (exclusive).
+	 * @return
+	 *      The canonical instance of the name, or a new string if the
+	 *      table is full.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static String canonical(@Nonnull final char[] buffer, final int start, final int end) {
+		final int id = intern(buffer, start, end);
+		return id == NONE ? new String(buffer, start, end - start) : name(id);
+	}
+
+	/**
+	 * Gets whether two names are the same, given their ids.
+	 *
+	 * <p>Names with different ids are always different. Names which
+	 * were not interned both have {@link #NONE} as their id, so they
+	 * are compared character by character.</p>
+	 *
+	 * @param id
+	 *      The id of the first name.
+	 * @param name
+	 *      The first name. Only needed if {@code id} is {@link #NONE}.
+	 * @param otherId
+	 *      The id of the second name.
+	 * @param otherName
+	 *      The second name. Only needed if {@code otherId} is
+	 *      {@link #NONE}.
+	 * @return
+	 *      If the names are the same.
+	 *
+	 * @since 0.1
+	 */
+	@Contract(pure = true)
+	public static boolean same(final int id, @Nullable final String name, final int otherId,
+	                           @Nullable final String otherName) {
+		return id == otherId && (id != NONE || name != null && name.equals(otherName));
+	}
+
+	/**
+	 * Gets whether the table is full, so that no new name can be
+	 * interned anymore.
+	 *
+	 * @return
+	 *      If the table is full.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean isFull() {
+		return size >= CAPACITY;
+	}
+
+	/**
+	 * Gets the amount of interned names.
+	 *
+	 * @return
+	 *      The amount of interned names.
+	 *
+	 * @since 0.1
+	 */
+	public static int size() {
+		return size;
+	}
+
+	private static int insert(@Nonnull final String name, final int hash) {
+		synchronized (LOCK) {
+			final int existing = lookup(table, name, hash);
+
+			if (existing != NONE) {
+				return existing;
+			}
+
+			final int id = size;
+
+			if (id >= CAPACITY) {
+				return NONE;
+			}
+
+			if (id == names.length) {
+				hashes = Arrays.copyOf(hashes, id * 2);
+				names = Arrays.copyOf(names, id * 2);
+			}
+
+			// Name and hash must be visible before the slot is
+			hashes[id] = hash;
+			names[id] = name;
+			++size;
+
+			if (size * 2 > table.slots.length()) {
+				table = rehash(table.slots.length() * 2);
+			} else {
+				place(table, id, hash);
+			}
+
+			return id;
+		}
+	}
+
+	@Nonnull
+	private static Table rehash(final int capacity) {
+		final Table rehashed = new Table(capacity);
+
+		for (int id = 0; id < size; ++id) {
+			place(rehashed, id, hashes[id]);
+		}
+
+		return rehashed;
+	}
+
+	private static void place(@Nonnull final Table table, final int id, final int hash) {
+		int slot = hash & table.mask;
+
+		while (table.slots.get(slot) != 0) {
+			slot = (slot + 1) & table.mask;
+		}
+
+		table.slots.set(slot, id + 1);
+	}
+
+	private static int lookup(@Nonnull final Table table, @Nonnull final String name,
+	                          final int hash) {
+		int slot = hash & table.mask;
+		int entry;
+
+		while ((entry = table.slots.get(slot)) != 0) {
+			final int id = entry - 1;
+			if (Symbols.hashes[id] == hash && Symbols.names[id].equals(name)) {
+				return id;
+			}
+			slot = (slot + 1) & table.mask;
+		}
+
+		return NONE;
+	}
+
+	private static int lookup(@Nonnull final Table table, @Nonnull final char[] buffer,
+	                          final int start, final int end, final int hash) {
+		int slot = hash & table.mask;
+		int entry;
+
+		while ((entry = table.slots.get(slot)) != 0) {
+			final int id = entry - 1;
+			if (Symbols.hashes[id] == hash && matches(Symbols.names[id], buffer, start, end)) {
+				return id;
+			}
+			slot = (slot + 1) & table.mask;
+		}
+
+		return NONE;
+	}
+
+	private static boolean matches(@Nonnull final String name, @Nonnull final char[] buffer,
+	                               final int start, final int end) {
+		if (name.length() != end - start) {
+			return false;
+		}
+
+		for (int i = start; i < end; ++i) {
+			if (name.charAt(i - start) != buffer[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static int hash(@Nonnull final String name) {
+		return mix(name.hashCode());
+	}
+
+	private static int hash(@Nonnull final char[] buffer, final int start, final int end) {
+		// Same as String#hashCode, so that both lookups agree
+		int hash = 0;
+
+		for (int i = start; i < end; ++i) {
+			hash = 31 * hash + buffer[i];
+		}
+
+		return mix(hash);
+	}
+
+	private static int mix(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
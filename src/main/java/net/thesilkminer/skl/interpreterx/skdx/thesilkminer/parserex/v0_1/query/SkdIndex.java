@@ -0,0 +1,258 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.query;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.SingletonDatabase;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.AbstractProperty;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.AbstractTag;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Flattened view of all the tags of a database, used to run
+ * {@link SkdQuery queries}.
+ *
+ * <p>Tags are numbered in document order. The index always knows
+ * the parent of every tag and which tags have a given name, while
+ * the tags having a given property value are indexed lazily, the
+ * first time a query needs them.</p>
+ *
+ * <p>Indexes are built once per database and then reused by every
+ * query, until the database is garbage collected or the index is
+ * {@link #invalidate(IDatabase) invalidated}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class SkdIndex {
+
+	private static final int[] NONE = new int[0];
+
+	// Weak keys compare by identity, so equal databases do not share an index
+	private static final Cache<IDatabase, SkdIndex> INDEXES =
+			CacheBuilder.newBuilder().weakKeys().build();
+
+	private final ISkdTag[] tags;
+	private final int[] parents;
+	private final int[] nameIds;
+	private final Map<Integer, int[]> names;
+	private final ConcurrentMap<Integer, Map<String, int[]>> values;
+
+	private SkdIndex(@Nonnull final List<ISkdTag> main) {
+		final Builder builder = new Builder();
+
+		for (final ISkdTag tag : main) {
+			if (tag != null) {
+				builder.add(tag, -1);
+			}
+		}
+
+		this.tags = Arrays.copyOf(builder.tags, builder.size);
+		this.parents = Arrays.copyOf(builder.parents, builder.size);
+		this.nameIds = new int[builder.size];
+		for (int node = 0; node < builder.size; ++node) {
+			this.nameIds[node] = builder.nameIds[node];
+		}
+		this.names = group(builder.nameIds, builder.size);
+		this.values = Maps.newConcurrentMap();
+	}
+
+	/**
+	 * Collects tags in document order.
+	 */
+	private static final class Builder {
+
+		private ISkdTag[] tags = new ISkdTag[64];
+		private int[] parents = new int[64];
+		private Integer[] nameIds = new Integer[64];
+		private int size;
+
+		private void add(@Nonnull final ISkdTag tag, final int parent) {
+			if (this.size == this.tags.length) {
+				this.tags = Arrays.copyOf(this.tags, this.size * 2);
+				this.parents = Arrays.copyOf(this.parents, this.size * 2);
+				this.nameIds = Arrays.copyOf(this.nameIds, this.size * 2);
+			}
+
+			final int node = this.size++;
+			this.tags[node] = tag;
+			this.parents[node] = parent;
+			this.nameIds[node] = AbstractTag.nameId(tag);
+
+			for (final ISkdTag child : tag.getChildren()) {
+				this.add(child, node);
+			}
+		}
+	}
+
+	/**
+	 * Groups the nodes by key, keeping them in document order.
+	 */
+	@Nonnull
+	private static <K> Map<K, int[]> group(@Nonnull final K[] keys, final int size) {
+		final Map<K, int[]> groups = Maps.newHashMap();
+		final Map<K, Integer> counts = Maps.newHashMap();
+
+		for (int node = 0; node < size; ++node) {
+			final K key = keys[node];
+			if (key == null) {
+				continue;
+			}
+			final int count = counts.getOrDefault(key, 0);
+			int[] nodes = groups.get(key);
+			if (nodes == null || nodes.length == count) {
+				nodes = nodes == null ? new int[2] : Arrays.copyOf(nodes, count * 2);
+				groups.put(key, nodes);
+			}
+			nodes[count] = node;
+			counts.put(key, count + 1);
+		}
+
+		groups.replaceAll((key, nodes) -> Arrays.copyOf(nodes, counts.get(key)));
+		return groups;
+	}
+
+	/**
+	 * Gets the index of the given database, building it if needed.
+	 *
+	 * @param database
+	 *      The database.
+	 * @return
+	 *      The index.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	static SkdIndex of(@Nonnull final IDatabase database) {
+		try {
+			return INDEXES.get(database, () -> new SkdIndex(mainTags(database)));
+		} catch (final ExecutionException | UncheckedExecutionException exception) {
+			throw new RuntimeException("Unable to index database", exception.getCause());
+		}
+	}
+
+	/**
+	 * Drops the index of the given database, so that the next query
+	 * sees its current contents.
+	 *
+	 * @param database
+	 *      The database.
+	 *
+	 * @since 0.1
+	 */
+	static void invalidate(@Nonnull final IDatabase database) {
+		INDEXES.invalidate(database);
+	}
+
+	@Nonnull
+	private static List<ISkdTag> mainTags(@Nonnull final IDatabase database) {
+		if (database instanceof SingletonDatabase) {
+			// Singleton databases do not expose their structure
+			return Collections.singletonList(((SingletonDatabase) database).mainTag());
+		}
+		return database.structure().mainTags();
+	}
+
+	int size() {
+		return this.tags.length;
+	}
+
+	@Nonnull
+	ISkdTag tag(final int node) {
+		return this.tags[node];
+	}
+
+	int parent(final int node) {
+		return this.parents[node];
+	}
+
+	int nameId(final int node) {
+		return this.nameIds[node];
+	}
+
+	/**
+	 * Gets the tags with the given name, in document order.
+	 *
+	 * @param nameId
+	 *      The symbol id of the name.
+	 * @return
+	 *      The tags with the given name.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	int[] named(final int nameId) {
+		return this.names.getOrDefault(nameId, NONE);
+	}
+
+	/**
+	 * Gets the tags whose property with the given name has the given
+	 * value, in document order.
+	 *
+	 * @param propertyId
+	 *      The symbol id of the property's name.
+	 * @param value
+	 *      The value of the property.
+	 * @return
+	 *      The tags with the given property value.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	int[] valued(final int propertyId, @Nonnull final String value) {
+		return this.values.computeIfAbsent(propertyId, this::indexProperty)
+				.getOrDefault(value, NONE);
+	}
+
+	/**
+	 * Gets the value of the property with the given name of a tag.
+	 *
+	 * @param node
+	 *      The tag.
+	 * @param propertyId
+	 *      The symbol id of the property's name.
+	 * @param name
+	 *      The property's name. Only needed if {@code propertyId} is
+	 *      {@link Symbols#NONE}.
+	 * @return
+	 *      The value of the property, an empty string if the property
+	 *      has no value, or {@code null} if the tag has no such property.
+	 *
+	 * @since 0.1
+	 */
+	String value(final int node, final int propertyId, @Nullable final String name) {
+		for (final ISkdProperty property : AbstractTag.propertiesOf(this.tags[node])) {
+			if (Symbols.same(AbstractProperty.nameId(property), property.getName(),
+					propertyId, name)) {
+				return AbstractProperty.valueOf(property).orElse("");
+			}
+		}
+		return null;
+	}
+
+	@Nonnull
+	private Map<String, int[]> indexProperty(final int propertyId) {
+		final String[] values = new String[this.tags.length];
+
+		for (int node = 0; node < this.tags.length; ++node) {
+			values[node] = this.value(node, propertyId, null);
+		}
+
+		return group(values, values.length);
+	}
+}
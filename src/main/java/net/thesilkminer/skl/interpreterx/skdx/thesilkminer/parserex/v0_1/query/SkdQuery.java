@@ -0,0 +1,437 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.query;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A compiled path expression used to look up tags in a database.
+ *
+ * <p>A path is a list of steps separated by {@code /}. Every step
+ * matches a tag by name (or any tag, with {@code *}), optionally
+ * filtered by one or more predicates on its properties:</p>
+ *
+ * <ul>
+ *     <li>{@code main/child/tag} matches the {@code tag}s children of
+ *     a {@code child} tag, child of the {@code main} main tag;</li>
+ *     <li>{@code //listElement} matches the {@code listElement}s at
+ *     any depth ({@code //} can also be used between steps);</li>
+ *     <li>{@code tag[@id="3"]} matches the {@code tag}s whose
+ *     {@code id} property is {@code 3};</li>
+ *     <li>{@code tag[@id]} matches the {@code tag}s which have an
+ *     {@code id} property.</li>
+ * </ul>
+ *
+ * <p>Queries are compiled once and can then be run against any
+ * number of databases, from any thread. Every database is
+ * {@link SkdIndex indexed} the first time it is queried, and the
+ * index is reused by all the following queries: the database should
+ * not be modified afterwards, or the index should be
+ * {@link #invalidate(IDatabase) invalidated}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class SkdQuery {
+
+	// Distinct from Symbols.NONE, which marks names that are not interned
+	private static final int ANY = -2;
+
+	private enum Axis {
+		CHILD,
+		DESCENDANT
+	}
+
+	private static final class Predicate {
+
+		private volatile int property;
+		private final String unresolved;
+		private final String value;
+
+		private Predicate(@Nonnull final String property, @Nullable final String value) {
+			this.property = Symbols.find(property);
+			this.unresolved = this.property == Symbols.NONE ? property : null;
+			this.value = value;
+		}
+
+		private boolean resolve() {
+			if (this.property == Symbols.NONE) {
+				this.property = Symbols.find(this.unresolved);
+			}
+			return this.property != Symbols.NONE;
+		}
+
+		private boolean matches(@Nonnull final SkdIndex index, final int node) {
+			final String value = index.value(node, this.property, this.unresolved);
+			return value != null && (this.value == null || this.value.equals(value));
+		}
+	}
+
+	private static final class Step {
+
+		private final Axis axis;
+		private volatile int name;
+		private final String unresolved;
+		private final Predicate[] predicates;
+
+		private Step(@Nonnull final Axis axis, @Nullable final String name,
+		             @Nonnull final List<Predicate> predicates) {
+			this.axis = axis;
+			this.name = name == null ? ANY : Symbols.find(name);
+			this.unresolved = this.name == Symbols.NONE ? name : null;
+			this.predicates = predicates.toArray(new Predicate[predicates.size()]);
+		}
+
+		private boolean matches(@Nonnull final SkdIndex index, final int node) {
+			final int name = this.name;
+			if (name != ANY && !Symbols.same(name, this.unresolved,
+					index.nameId(node), index.tag(node).getName())) {
+				return false;
+			}
+			for (final Predicate predicate : this.predicates) {
+				if (!predicate.matches(index, node)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean resolve() {
+			if (this.name == Symbols.NONE) {
+				this.name = Symbols.find(this.unresolved);
+			}
+			boolean resolved = this.name != Symbols.NONE;
+			for (final Predicate predicate : this.predicates) {
+				resolved &= predicate.resolve();
+			}
+			return resolved;
+		}
+	}
+
+	private final String expression;
+	private final Step[] steps;
+	private volatile boolean resolved;
+	// Size of the symbol table when the unknown names were last looked up
+	private volatile int symbols;
+
+	private SkdQuery(@Nonnull final String expression, @Nonnull final List<Step> steps) {
+		this.expression = expression;
+		this.steps = steps.toArray(new Step[steps.size()]);
+		// The first run checks which names are still unknown
+		this.resolved = false;
+		this.symbols = -1;
+	}
+
+	/**
+	 * Compiles the given path {@code expression}.
+	 *
+	 * @param expression
+	 *      The path expression.
+	 * @return
+	 *      The compiled query.
+	 *
+	 * @throws IllegalArgumentException
+	 *      If the expression is not valid.
+	 *
+	 * @since 0.1
+	 */
+	@Contract("null -> fail")
+	@Nonnull
+	public static SkdQuery compile(@Nonnull final String expression) {
+		return new Parser(Preconditions.checkNotNull(expression)).parse();
+	}
+
+	/**
+	 * Drops the index of the given database, so that the following
+	 * queries see its current contents.
+	 *
+	 * @param database
+	 *      The database.
+	 *
+	 * @since 0.1
+	 */
+	public static void invalidate(@Nonnull final IDatabase database) {
+		SkdIndex.invalidate(Preconditions.checkNotNull(database));
+	}
+
+	/**
+	 * Gets all the tags of the given {@code database} matched by
+	 * this query, in document order.
+	 *
+	 * @param database
+	 *      The database.
+	 * @return
+	 *      The matching tags.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public List<ISkdTag> select(@Nonnull final IDatabase database) {
+		final SkdIndex index = SkdIndex.of(Preconditions.checkNotNull(database));
+		this.resolve();
+		final ImmutableList.Builder<ISkdTag> result = ImmutableList.builder();
+		final int[] candidates = this.candidates(index);
+		final int size = candidates == null ? index.size() : candidates.length;
+
+		for (int i = 0; i < size; ++i) {
+			final int node = candidates == null ? i : candidates[i];
+			if (this.matches(index, node)) {
+				result.add(index.tag(node));
+			}
+		}
+
+		return result.build();
+	}
+
+	/**
+	 * Gets the first tag of the given {@code database} matched by
+	 * this query, in document order.
+	 *
+	 * @param database
+	 *      The database.
+	 * @return
+	 *      The first matching tag, if any.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public Optional<ISkdTag> first(@Nonnull final IDatabase database) {
+		final SkdIndex index = SkdIndex.of(Preconditions.checkNotNull(database));
+		this.resolve();
+		final int[] candidates = this.candidates(index);
+		final int size = candidates == null ? index.size() : candidates.length;
+
+		for (int i = 0; i < size; ++i) {
+			final int node = candidates == null ? i : candidates[i];
+			if (this.matches(index, node)) {
+				return Optional.of(index.tag(node));
+			}
+		}
+
+		return Optional.empty();
+	}
+
+	/**
+	 * Looks up again the names which were not known when this query
+	 * was compiled, since indexing a database makes all its names
+	 * known. Nothing is looked up if no name was interned since the
+	 * last attempt.
+	 */
+	private void resolve() {
+		if (this.resolved) {
+			return;
+		}
+
+		final int symbols = Symbols.size();
+		if (symbols == this.symbols) {
+			return;
+		}
+
+		boolean resolved = true;
+		for (final Step step : this.steps) {
+			resolved &= step.resolve();
+		}
+
+		this.symbols = symbols;
+		this.resolved = resolved;
+	}
+
+	/**
+	 * Gets the smallest set of tags the last step could match, or
+	 * {@code null} if every tag has to be checked.
+	 */
+	@Nullable
+	private int[] candidates(@Nonnull final SkdIndex index) {
+		final Step last = this.steps[this.steps.length - 1];
+		int[] candidates = last.name == ANY ? null : index.named(last.name);
+
+		for (final Predicate predicate : last.predicates) {
+			if (predicate.property == Symbols.NONE) {
+				// Names are only left out of a full table: until then, no tag has this property
+				if (!Symbols.isFull()) {
+					return new int[0];
+				}
+				continue;
+			}
+			if (predicate.value == null) {
+				continue;
+			}
+			final int[] valued = index.valued(predicate.property, predicate.value);
+			if (candidates == null || valued.length < candidates.length) {
+				candidates = valued;
+			}
+		}
+
+		return candidates;
+	}
+
+	private boolean matches(@Nonnull final SkdIndex index, final int node) {
+		final int last = this.steps.length - 1;
+		return this.steps[last].matches(index, node) && this.matchesPath(index, last, node);
+	}
+
+	/**
+	 * Checks whether the ancestors of a tag matched by the given
+	 * step match the steps before it.
+	 */
+	private boolean matchesPath(@Nonnull final SkdIndex index, final int step, final int node) {
+		final Step current = this.steps[step];
+		final int parent = index.parent(node);
+
+		if (step == 0) {
+			return current.axis == Axis.DESCENDANT || parent < 0;
+		}
+
+		final Step previous = this.steps[step - 1];
+
+		if (current.axis == Axis.CHILD) {
+			return parent >= 0
+					&& previous.matches(index, parent)
+					&& this.matchesPath(index, step - 1, parent);
+		}
+
+		for (int ancestor = parent; ancestor >= 0; ancestor = index.parent(ancestor)) {
+			if (previous.matches(index, ancestor) && this.matchesPath(index, step - 1, ancestor)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+	/**
+	 * Parses path expressions.
+	 */
+	private static final class Parser {
+
+		private final String expression;
+		private int position;
+
+		private Parser(@Nonnull final String expression) {
+			this.expression = expression;
+			this.position = 0;
+		}
+
+		@Nonnull
+		private SkdQuery parse() {
+			final List<Step> steps = Lists.newArrayList();
+			Axis axis = Axis.CHILD;
+
+			if (this.consume('/')) {
+				axis = this.consume('/') ? Axis.DESCENDANT : Axis.CHILD;
+			}
+
+			while (true) {
+				steps.add(this.step(axis));
+
+				if (this.position == this.expression.length()) {
+					break;
+				}
+
+				this.expect('/');
+				axis = this.consume('/') ? Axis.DESCENDANT : Axis.CHILD;
+			}
+
+			return new SkdQuery(this.expression, steps);
+		}
+
+		@Nonnull
+		private Step step(@Nonnull final Axis axis) {
+			// Names are only looked up: queries must not grow the symbol table
+			final String name = this.consume('*') ? null : this.name();
+			final List<Predicate> predicates = Lists.newArrayList();
+
+			while (this.consume('[')) {
+				this.expect('@');
+				final String property = this.name();
+				final String value = this.consume('=') ? this.quoted() : null;
+				this.expect(']');
+				predicates.add(new Predicate(property, value));
+			}
+
+			return new Step(axis, name, predicates);
+		}
+
+		@Nonnull
+		private String name() {
+			final int start = this.position;
+
+			while (this.position < this.expression.length()) {
+				final char c = this.expression.charAt(this.position);
+				if (c == '/' || c == '[' || c == ']' || c == '=' || c == '@'
+						|| c == '"' || c == '\'' || Character.isWhitespace(c)) {
+					break;
+				}
+				++this.position;
+			}
+
+			if (start == this.position) {
+				throw this.error("Expected a name");
+			}
+
+			return this.expression.substring(start, this.position);
+		}
+
+		@Nonnull
+		private String quoted() {
+			if (this.position == this.expression.length()) {
+				throw this.error("Expected a quoted value");
+			}
+
+			final char quote = this.expression.charAt(this.position);
+
+			if (quote != '"' && quote != '\'') {
+				throw this.error("Expected a quoted value");
+			}
+
+			final int end = this.expression.indexOf(quote, this.position + 1);
+
+			if (end < 0) {
+				throw this.error("Unterminated value");
+			}
+
+			final String value = this.expression.substring(this.position + 1, end);
+			this.position = end + 1;
+			return value;
+		}
+
+		private boolean consume(final char c) {
+			if (this.position < this.expression.length()
+					&& this.expression.charAt(this.position) == c) {
+				++this.position;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(final char c) {
+			if (!this.consume(c)) {
+				throw this.error("Expected '" + c + "'");
+			}
+		}
+
+		@Nonnull
+		private IllegalArgumentException error(@Nonnull final String message) {
+			return new IllegalArgumentException(String.format("%s at position %d of query '%s'",
+					message, this.position, this.expression));
+		}
+	}
+}
@@ -35,6 +35,30 @@ public abstract class AcceptanceService<T> implements ISkdService {
 	@Nonnull
 	public abstract T accept(@Nonnull final T type);
 
+	/**
+	 * Accepts the given object, if possible.
+	 *
+	 * <p>Differently from calling {@link #canAccept(Object)} and
+	 * {@link #accept(Object)} in sequence, this method can be called
+	 * by many threads at once. Services which do not keep any state
+	 * between those two calls should override it, so that callers
+	 * do not have to synchronize on the service.</p>
+	 *
+	 * @param type
+	 *      The object to accept.
+	 * @return
+	 *      The accepted object, or {@code null} if the object can not
+	 *      be accepted.
+	 *
+	 * @since 0.1
+	 */
+	@Nullable
+	public T tryAccept(@Nonnull final T type) {
+		synchronized (this) {
+			return this.canAccept(type) ? this.accept(type) : null;
+		}
+	}
+
 	/* ======== BOILERPLATE CODE ======== */
 
 	@Override
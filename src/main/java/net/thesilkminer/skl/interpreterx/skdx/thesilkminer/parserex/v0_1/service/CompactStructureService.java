@@ -0,0 +1,165 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.logging.ISkdLogger;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.service.ISkdService;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.compact.CompactStructure;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Service used to switch the parser to {@link CompactStructure}s.
+ *
+ * <p>When the service is enabled, databases read by the parser are
+ * backed by a compact structure instead of a tree of tag objects.
+ * This trades tag and property acceptance for a much smaller memory
+ * footprint on huge databases.</p>
+ *
+ * <p>The service is disabled by default. It can be enabled through
+ * {@link #setCompact(boolean)} or by setting the
+ * {@code net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.compact}
+ * system property to {@code true}.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("ConstantConditions")
+public class CompactStructureService implements ISkdService {
+
+	private volatile boolean compact;
+
+	/**
+	 * Gets whether the parser should build compact structures.
+	 *
+	 * @return
+	 *      If the registered service is enabled. {@code false} if no
+	 *      service is registered.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean enabled() {
+		return SkdApi.get().serviceManager().get(CompactStructure.class)
+				.map(it -> ((CompactStructureService) it).isCompact())
+				.orElse(false);
+	}
+
+	@Override
+	public void init() {
+		this.compact = "true".equals(
+				System.getProperty("net.thesilkminer.skl.interpreterx."
+						+ "skdx.thesilkminer.parserex.v0_1.service."
+						+ "compact", "false")
+		);
+	}
+
+	/**
+	 * Gets whether this service is enabled.
+	 *
+	 * @return
+	 *      If this service is enabled.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isCompact() {
+		return this.compact;
+	}
+
+	/**
+	 * Enables or disables this service.
+	 *
+	 * @param compact
+	 *      Whether the parser should build compact structures.
+	 *
+	 * @since 0.1
+	 */
+	public void setCompact(final boolean compact) {
+		this.compact = compact;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p>The given tags are copied into a new
+	 * {@link CompactStructure}.</p>
+	 *
+	 * @param main
+	 *      {@inheritDoc}
+	 * @return
+	 *      {@inheritDoc}
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	@Override
+	public IStructure structure(@Nonnull final List<ISkdTag> main) {
+		return CompactStructure.of(main);
+	}
+
+	/* ======== BOILERPLATE ======== */
+
+	@Override
+	public void finalizeService() {
+
+	}
+
+	@Nonnull
+	@Override
+	public ISkdLogger logger() {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public ISkdParser parser(@Nonnull final IDatabaseHolder databaseHolder) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabaseHolder databaseHolder(@Nonnull final Object object) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabase database(@Nonnull final IDocTypeDeclaration type,
+	                          @Nonnull final IDatabaseVersionDeclaration version,
+	                          @Nonnull final IStructure structure) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDocTypeDeclaration doctype(@Nonnull final String type) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabaseVersionDeclaration version(@Nullable final String version) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public ISkdTag tag(@Nonnull final String name) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public ISkdProperty property(@Nonnull final String name, @Nonnull final Object value) {
+		return null;
+	}
+}
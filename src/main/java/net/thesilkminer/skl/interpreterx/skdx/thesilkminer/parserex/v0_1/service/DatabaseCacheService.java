@@ -0,0 +1,367 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.logging.ISkdLogger;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.service.ISkdService;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
+import net.thesilkminer.skl.interpreter.implementation.skd.MappedDatabaseFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Service used to cache the databases read from files, so that
+ * loading an unchanged database again does not parse it a
+ * second time.
+ *
+ * <p>Entries are keyed by the canonical path of the file, along
+ * with its last modification time, its length and a checksum of its
+ * contents: as soon as the file changes, the next
+ * {@link #load(IDatabaseHolder)} reads it again and drops the
+ * outdated entry.</p>
+ *
+ * <p>The cache is bounded by the total size of the cached files.
+ * The least recently used entries are evicted first. The bound
+ * (in kilobytes) can be set through the
+ * {@code net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.databaseCache.maxWeight}
+ * system property.</p>
+ *
+ * <p>The checksum requires reading the whole file on every load. It
+ * can be disabled by setting
+ * {@code net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.databaseCache.hash}
+ * to {@code false}, but then changes which keep the length of the file
+ * and its modification time (e.g. edits within the resolution of the
+ * file system's timestamps, or copies which preserve them, such as
+ * {@code cp -p}) go unnoticed, and the stale database is returned.</p>
+ *
+ * <p>Cached databases are shared between callers: they should be
+ * treated as read-only.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+@SuppressWarnings("ConstantConditions")
+public class DatabaseCacheService implements ISkdService {
+
+	private static final String PROPERTY_PREFIX = "net.thesilkminer.skl.interpreterx."
+			+ "skdx.thesilkminer.parserex.v0_1.service.databaseCache.";
+	private static final long DEFAULT_MAX_WEIGHT = 64 * 1024; // 64 MB
+
+	/**
+	 * Identifies a specific version of a database file.
+	 *
+	 * @since 0.1
+	 */
+	private static final class Key {
+
+		private final Path path;
+		private final long lastModified;
+		private final long length;
+		private final long checksum;
+
+		private Key(@Nonnull final Path path, final long lastModified, final long length,
+		            final long checksum) {
+			this.path = path;
+			this.lastModified = lastModified;
+			this.length = length;
+			this.checksum = checksum;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			final Key key = (Key) o;
+			return this.lastModified == key.lastModified
+					&& this.length == key.length
+					&& this.checksum == key.checksum
+					&& this.path.equals(key.path);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.path, this.lastModified, this.length, this.checksum);
+		}
+
+		@Override
+		public String toString() {
+			return this.path.toString();
+		}
+	}
+
+	private Cache<Key, IDatabase> cache;
+	private boolean hash;
+
+	/**
+	 * Gets the database cache service registered in the
+	 * {@link SkdApi#serviceManager() service manager}.
+	 *
+	 * @return
+	 *      The database cache service.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static DatabaseCacheService get() {
+		return (DatabaseCacheService) SkdApi.get().serviceManager()
+				.get(DatabaseCacheService.class)
+				.orElseThrow(() -> new IllegalStateException("Database cache service not provided"));
+	}
+
+	@Override
+	public void init() {
+		this.hash = !"false".equals(System.getProperty(PROPERTY_PREFIX + "hash", "true"));
+		// A single segment keeps the LRU order (and the weight bound) global
+		this.cache = CacheBuilder.newBuilder()
+				.concurrencyLevel(1)
+				.maximumWeight(Long.getLong(PROPERTY_PREFIX + "maxWeight", DEFAULT_MAX_WEIGHT))
+				.weigher(new Weigher<Key, IDatabase>() {
+					@Override
+					public int weigh(@Nonnull final Key key, @Nonnull final IDatabase value) {
+						return (int) Math.min(Integer.MAX_VALUE, Math.max(1, key.length >>> 10));
+					}
+				})
+				.recordStats()
+				.build();
+	}
+
+	@Override
+	public void finalizeService() {
+		if (this.cache != null) {
+			this.cache.invalidateAll();
+		}
+	}
+
+	/**
+	 * Loads the database held by the given {@code holder}, reusing
+	 * the cached one if the underlying file did not change.
+	 *
+	 * <p>Holders that are not backed by a file are never cached:
+	 * they are simply parsed.</p>
+	 *
+	 * @param holder
+	 *      The database holder.
+	 * @return
+	 *      The database.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public IDatabase load(@Nonnull final IDatabaseHolder holder) {
+		final Optional<Key> key = this.key(holder);
+
+		if (!key.isPresent()) {
+			SkdApi.get().api().logger().debug(() -> "Database holder " + holder
+					+ " can't be cached");
+			return parse(holder);
+		}
+
+		try {
+			return this.cache.get(key.get(), () -> {
+				// The file changed (or was never loaded): drop the outdated versions
+				this.cache.asMap().keySet().removeIf(it -> it.path.equals(key.get().path)
+						&& !it.equals(key.get()));
+				SkdApi.get().api().logger().debug(() -> "Database cache miss for " + key.get());
+				return parse(holder);
+			});
+		} catch (final ExecutionException | UncheckedExecutionException exception) {
+			Throwables.propagateIfPossible(exception.getCause());
+			throw new RuntimeException(exception.getCause());
+		}
+	}
+
+	/**
+	 * Drops every cached version of the database held by the given
+	 * {@code holder}.
+	 *
+	 * @param holder
+	 *      The database holder.
+	 *
+	 * @since 0.1
+	 */
+	public void invalidate(@Nonnull final IDatabaseHolder holder) {
+		final Optional<Path> path = path(holder);
+
+		if (path.isPresent()) {
+			this.cache.asMap().keySet().removeIf(it -> it.path.equals(path.get()));
+		}
+	}
+
+	/**
+	 * Drops every cached database.
+	 *
+	 * @since 0.1
+	 */
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	/**
+	 * Gets the amount of databases currently cached.
+	 *
+	 * @return
+	 *      The amount of cached databases.
+	 *
+	 * @since 0.1
+	 */
+	public long size() {
+		return this.cache.size();
+	}
+
+	/**
+	 * Gets the statistics of this cache (hits, misses, evictions and
+	 * load times).
+	 *
+	 * @return
+	 *      A snapshot of the statistics.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public CacheStats stats() {
+		return this.cache.stats();
+	}
+
+	@Nonnull
+	private static IDatabase parse(@Nonnull final IDatabaseHolder holder) {
+		return SkdApi.get().api().parser(holder).read();
+	}
+
+	@Nonnull
+	private Optional<Key> key(@Nonnull final IDatabaseHolder holder) {
+		final Optional<Path> path = path(holder);
+
+		if (!path.isPresent()) {
+			return Optional.empty();
+		}
+
+		try {
+			final Path file = path.get();
+			return Optional.of(new Key(file, Files.getLastModifiedTime(file).toMillis(),
+					Files.size(file), this.hash ? checksum(file) : 0L));
+		} catch (final IOException exception) {
+			// Let the parser report the error
+			return Optional.empty();
+		}
+	}
+
+	@Nonnull
+	private static Optional<Path> path(@Nonnull final IDatabaseHolder holder) {
+		final Path path;
+
+		if (holder instanceof File) {
+			path = ((File) holder).toPath();
+		} else if (holder instanceof MappedDatabaseFile) {
+			path = ((MappedDatabaseFile) holder).getPath();
+		} else {
+			return Optional.empty();
+		}
+
+		try {
+			return Optional.of(path.toRealPath());
+		} catch (final IOException exception) {
+			return Optional.empty();
+		}
+	}
+
+	private static long checksum(@Nonnull final Path file) throws IOException {
+		final CRC32 crc = new CRC32();
+		final byte[] buffer = new byte[8192];
+
+		try (final InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				crc.update(buffer, 0, read);
+			}
+		}
+
+		return crc.getValue();
+	}
+
+	/* ======== BOILERPLATE ======== */
+
+	@Nonnull
+	@Override
+	public ISkdLogger logger() {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public ISkdParser parser(@Nonnull final IDatabaseHolder databaseHolder) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabaseHolder databaseHolder(@Nonnull final Object object) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabase database(@Nonnull final IDocTypeDeclaration type,
+	                          @Nonnull final IDatabaseVersionDeclaration version,
+	                          @Nonnull final IStructure structure) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDocTypeDeclaration doctype(@Nonnull final String type) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IDatabaseVersionDeclaration version(@Nullable final String version) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public IStructure structure(@Nonnull final List<ISkdTag> main) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public ISkdTag tag(@Nonnull final String name) {
+		return null;
+	}
+
+	@Nonnull
+	@Override
+	public ISkdProperty property(@Nonnull final String name, @Nonnull final Object value) {
+		return null;
+	}
+}
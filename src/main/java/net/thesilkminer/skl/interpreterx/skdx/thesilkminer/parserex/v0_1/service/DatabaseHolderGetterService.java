@@ -11,10 +11,12 @@ import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.IDatabaseVersionDeclaration;
 import net.thesilkminer.skl.interpreter.implementation.skd.DatabaseFile;
+import net.thesilkminer.skl.interpreter.implementation.skd.MappedDatabaseFile;
 
 import org.jetbrains.annotations.Contract;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
@@ -33,6 +35,10 @@ public class DatabaseHolderGetterService implements ISkdService {
 	/**
 	 * Gets an {@link IDatabaseHolder} for the given {@code object}.
 	 *
+	 * <p>{@link File}s are read through a {@link DatabaseFile}, while
+	 * {@link Path}s are memory mapped through a
+	 * {@link MappedDatabaseFile}.</p>
+	 *
 	 * @param object
 	 *      The object.
 	 * @return
@@ -46,6 +52,9 @@ public class DatabaseHolderGetterService implements ISkdService {
 		if (object instanceof File) {
 			return Optional.of(this.getFromFile((File) object));
 		}
+		if (object instanceof Path) {
+			return Optional.of(this.getFromPath((Path) object));
+		}
 		return Optional.empty();
 	}
 
@@ -54,6 +63,11 @@ public class DatabaseHolderGetterService implements ISkdService {
 		return DatabaseFile.of(file);
 	}
 
+	@Contract(pure = true)
+	private IDatabaseHolder getFromPath(@Nonnull final Path path) {
+		return MappedDatabaseFile.of(path);
+	}
+
 	/* ======== BOILERPLATE ======== */
 
 	@Override
@@ -9,6 +9,7 @@ import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
 import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
 import net.thesilkminer.skl.interpreter.api.skd.logging.ISkdLogger;
 import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.service.ISkdService;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
@@ -19,6 +20,7 @@ import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.version.I
 import net.thesilkminer.skl.interpreter.implementation.skd.SkdLogger;
 import net.thesilkminer.skl.interpreter.implementation.skd.structure.declarations.DatabaseVersion;
 import net.thesilkminer.skl.interpreter.implementation.skd.structure.declarations.DocType;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.BinarySkdParser;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.NewSkdParser;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.AbstractDatabase;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.AbstractProperty;
@@ -118,6 +120,24 @@ public class ParserExService implements ISkdService {
 			return this.mainTags().stream().filter(Objects::nonNull).toArray().length;
 		}
 
+		@Override
+		public void write(@Nonnull final SkdWriter writer) {
+			boolean first = true;
+
+			for (final ISkdTag tag : this.mainTags()) {
+				if (tag == null) {
+					if (first) {
+						first = false;
+						continue;
+					}
+					writer.newLine();
+					continue;
+				}
+				tag.write(writer);
+				writer.newLine();
+			}
+		}
+
 		@Nonnull
 		@Override
 		public String toString() {
@@ -168,6 +188,9 @@ public class ParserExService implements ISkdService {
 	@Nonnull
 	@Override
 	public ISkdParser parser(@Nonnull final IDatabaseHolder databaseHolder) {
+		if (databaseHolder.binary()) {
+			return BinarySkdParser.get(databaseHolder);
+		}
 		return NewSkdParser.get(databaseHolder, this.cached);
 	}
 
@@ -1,12 +1,17 @@
 package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance;
 
+import com.google.common.collect.Lists;
+
 import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.AcceptanceService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.AbstractDatabase;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.DatabaseShape;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database.SingletonDatabase;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.TagShape;
 
-import java.util.Optional;
+import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Manages the acceptance of various databases.
@@ -17,17 +22,24 @@ import javax.annotation.Nonnull;
  */
 public class DatabaseAcceptanceService extends AcceptanceService<IDatabase> {
 
-	private Class<? extends AbstractDatabase> acceptDb;
+	private final ShapeDispatcher<IDatabase, DatabaseShape> dispatcher =
+			new ShapeDispatcher<>(DatabaseShape::of, AbstractDatabase::revision,
+					DatabaseAcceptanceService::candidates);
+	private ShapeDispatcher.Candidate<IDatabase, DatabaseShape> acceptDb;
+
+	@Nonnull
+	private static List<ShapeDispatcher.Candidate<IDatabase, DatabaseShape>> candidates() {
+		final List<ShapeDispatcher.Candidate<IDatabase, DatabaseShape>> candidates =
+				Lists.newArrayList();
+		AbstractDatabase.getPairs().forEach((clazz, pair) -> candidates.add(
+				new ShapeDispatcher.Candidate<>(clazz, AbstractDatabase.getShape(clazz),
+						pair.getKey()::canAccept, pair.getValue()::accept)));
+		return candidates;
+	}
 
 	@Override
 	public boolean canAccept(@Nonnull final IDatabase type) {
-		this.acceptDb = null;
-		AbstractDatabase.getPairs().entrySet().stream()
-				.forEach(it -> {
-					if (it.getValue().getKey().canAccept(type)) {
-						this.acceptDb = it.getKey();
-					}
-				});
+		this.acceptDb = this.dispatcher.route(type);
 		return this.acceptDb != null;
 	}
 
@@ -37,17 +49,21 @@ public class DatabaseAcceptanceService extends AcceptanceService<IDatabase> {
 		if (this.acceptDb == null) {
 			throw new RuntimeException();
 		}
-		final IDatabase ret = Optional.ofNullable(
-				AbstractDatabase.getPairs().get(this.acceptDb).getValue()
-						.accept(type)
-		).orElseThrow(RuntimeException::new);
+		final IDatabase ret = this.acceptDb.accept(type);
 		this.acceptDb = null;
 		return ret;
 	}
 
+	@Nullable
+	@Override
+	public IDatabase tryAccept(@Nonnull final IDatabase type) {
+		return this.dispatcher.accept(type);
+	}
+
 	@Override
 	public void init() {
 		AbstractDatabase.register(SingletonDatabase.class,
+			shape -> shape.mainTags() == TagShape.Count.ONE,
 			db -> db.structure().nonNullSize() == 1,
 			db -> {
 				final SingletonDatabase database = new SingletonDatabase();
@@ -1,12 +1,17 @@
 package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance;
 
+import com.google.common.collect.Lists;
+
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.AcceptanceService;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.AbstractProperty;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.MarkerProperty;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.PropertyShape;
 
+import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Manages the acceptance of various properties.
@@ -17,17 +22,24 @@ import javax.annotation.Nonnull;
  */
 public class PropertiesAcceptanceService extends AcceptanceService<ISkdProperty> {
 
-	private Class<? extends AbstractProperty> acceptProperties;
+	private final ShapeDispatcher<ISkdProperty, PropertyShape> dispatcher =
+			new ShapeDispatcher<>(PropertyShape::of, AbstractProperty::revision,
+					PropertiesAcceptanceService::candidates);
+	private ShapeDispatcher.Candidate<ISkdProperty, PropertyShape> acceptProperties;
+
+	@Nonnull
+	private static List<ShapeDispatcher.Candidate<ISkdProperty, PropertyShape>> candidates() {
+		final List<ShapeDispatcher.Candidate<ISkdProperty, PropertyShape>> candidates =
+				Lists.newArrayList();
+		AbstractProperty.getPairs().forEach((clazz, pair) -> candidates.add(
+				new ShapeDispatcher.Candidate<>(clazz, AbstractProperty.getShape(clazz),
+						pair.getKey()::canAccept, pair.getValue()::accept)));
+		return candidates;
+	}
 
 	@Override
 	public boolean canAccept(@Nonnull final ISkdProperty type) {
-		this.acceptProperties = null;
-		AbstractProperty.getPairs().entrySet().stream()
-				.forEach(it -> {
-					if (it.getValue().getKey().canAccept(type)) {
-						this.acceptProperties = it.getKey();
-					}
-				});
+		this.acceptProperties = this.dispatcher.route(type);
 		return this.acceptProperties != null;
 	}
 
@@ -37,17 +49,21 @@ public class PropertiesAcceptanceService extends AcceptanceService<ISkdProperty>
 		if (this.acceptProperties == null) {
 			throw new RuntimeException();
 		}
-		final ISkdProperty prop = Optional.ofNullable(
-				AbstractProperty.getPairs().get(this.acceptProperties)
-				.getValue().accept(type)
-		).orElseThrow(RuntimeException::new);
+		final ISkdProperty ret = this.acceptProperties.accept(type);
 		this.acceptProperties = null;
-		return prop;
+		return ret;
+	}
+
+	@Nullable
+	@Override
+	public ISkdProperty tryAccept(@Nonnull final ISkdProperty type) {
+		return this.dispatcher.accept(type);
 	}
 
 	@Override
 	public void init() {
-		AbstractProperty.register(MarkerProperty.class, it -> {
+		AbstractProperty.register(MarkerProperty.class, shape -> !shape.hasEmptyName()
+				&& !shape.hasValue(), it -> {
 			final String name = it.getName();
 			if (name.isEmpty()) {
 				return false;
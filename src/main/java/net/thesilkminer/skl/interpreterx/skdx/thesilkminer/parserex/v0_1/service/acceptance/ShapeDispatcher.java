@@ -0,0 +1,188 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Routes the objects an acceptance service is asked to accept to the
+ * handlers which may accept them, according to their shape.
+ *
+ * <p>The registered handlers are compiled into a table which, for
+ * every shape seen so far, holds the handlers whose shape predicate
+ * matches it. The table is rebuilt whenever the revision of the
+ * handlers changes, so handlers can still be registered at any
+ * time.</p>
+ *
+ * <p>Handlers are tried from the last registered one, so that the
+ * result is the same as running all of them and keeping the last
+ * one which can accept the object.</p>
+ *
+ * <p>Dispatchers are thread safe and never block.</p>
+ *
+ * @param <T>
+ *     The type of the objects to accept.
+ * @param <S>
+ *     The type of the shapes of the objects.
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+final class ShapeDispatcher<T, S> {
+
+	/**
+	 * A registered pair of handlers.
+	 *
+	 * @param <T>
+	 *     The type of the objects to accept.
+	 * @param <S>
+	 *     The type of the shapes of the objects.
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.1
+	 */
+	static final class Candidate<T, S> {
+
+		private final Class<?> type;
+		private final Predicate<? super S> shape;
+		private final Predicate<? super T> canAccept;
+		private final Function<? super T, ? extends T> accept;
+
+		Candidate(@Nonnull final Class<?> type, @Nonnull final Predicate<? super S> shape,
+		          @Nonnull final Predicate<? super T> canAccept,
+		          @Nonnull final Function<? super T, ? extends T> accept) {
+			this.type = Preconditions.checkNotNull(type);
+			this.shape = Preconditions.checkNotNull(shape);
+			this.canAccept = Preconditions.checkNotNull(canAccept);
+			this.accept = Preconditions.checkNotNull(accept);
+		}
+
+		@Nonnull
+		Class<?> type() {
+			return this.type;
+		}
+
+		@Nonnull
+		T accept(@Nonnull final T value) {
+			final T accepted = this.accept.apply(value);
+			if (accepted == null) {
+				throw new RuntimeException("Handler for " + this.type.getName()
+						+ " did not accept " + value);
+			}
+			return accepted;
+		}
+	}
+
+	private static final class Table<T, S> {
+
+		private final int revision;
+		private final List<Candidate<T, S>> candidates;
+		private final ConcurrentMap<S, List<Candidate<T, S>>> routes;
+
+		private Table(final int revision, @Nonnull final List<Candidate<T, S>> candidates) {
+			this.revision = revision;
+			this.candidates = ImmutableList.copyOf(candidates).reverse();
+			this.routes = Maps.newConcurrentMap();
+		}
+
+		@Nonnull
+		private List<Candidate<T, S>> routes(@Nonnull final S shape) {
+			final List<Candidate<T, S>> cached = this.routes.get(shape);
+			if (cached != null) {
+				return cached;
+			}
+
+			final ImmutableList.Builder<Candidate<T, S>> builder = ImmutableList.builder();
+			for (final Candidate<T, S> candidate : this.candidates) {
+				if (candidate.shape.test(shape)) {
+					builder.add(candidate);
+				}
+			}
+			final List<Candidate<T, S>> compiled = builder.build();
+
+			// Shapes are small, but an adversarial database could still create a lot of them
+			if (this.routes.size() < MAX_SHAPES) {
+				this.routes.putIfAbsent(shape, compiled);
+			}
+			return compiled;
+		}
+	}
+
+	private static final int MAX_SHAPES = 1024;
+
+	private final Function<? super T, ? extends S> shapeOf;
+	private final IntSupplier revision;
+	private final Supplier<? extends List<Candidate<T, S>>> candidates;
+	private volatile Table<T, S> table;
+
+	ShapeDispatcher(@Nonnull final Function<? super T, ? extends S> shapeOf,
+	                @Nonnull final IntSupplier revision,
+	                @Nonnull final Supplier<? extends List<Candidate<T, S>>> candidates) {
+		this.shapeOf = Preconditions.checkNotNull(shapeOf);
+		this.revision = Preconditions.checkNotNull(revision);
+		this.candidates = Preconditions.checkNotNull(candidates);
+	}
+
+	@Nonnull
+	private Table<T, S> table() {
+		// The revision must be read before the handlers, or a registration may go unnoticed
+		final int current = this.revision.getAsInt();
+		Table<T, S> table = this.table;
+		if (table == null || table.revision != current) {
+			table = new Table<>(current, this.candidates.get());
+			this.table = table;
+		}
+		return table;
+	}
+
+	/**
+	 * Gets the handlers which can accept the given object.
+	 *
+	 * @param value
+	 *      The object.
+	 * @return
+	 *      The handlers, or {@code null} if no handler can accept the
+	 *      object.
+	 *
+	 * @since 0.1
+	 */
+	@Nullable
+	Candidate<T, S> route(@Nonnull final T value) {
+		final List<Candidate<T, S>> routes = this.table().routes(this.shapeOf.apply(value));
+		for (int i = 0; i < routes.size(); ++i) {
+			final Candidate<T, S> candidate = routes.get(i);
+			if (candidate.canAccept.test(value)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Accepts the given object with the handlers which can accept it.
+	 *
+	 * @param value
+	 *      The object.
+	 * @return
+	 *      The accepted object, or {@code null} if no handler can
+	 *      accept it.
+	 *
+	 * @since 0.1
+	 */
+	@Nullable
+	T accept(@Nonnull final T value) {
+		final Candidate<T, S> candidate = this.route(value);
+		return candidate == null ? null : candidate.accept(value);
+	}
+}
@@ -1,16 +1,21 @@
 package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance;
 
+import com.google.common.collect.Lists;
+
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.AcceptanceService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.AbstractProperty;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.AbstractTag;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.ListTag;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.PairTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.TagShape;
 import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.ValueTag;
 
 import java.util.List;
-import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Manages the acceptance of various tags.
@@ -21,12 +26,34 @@ import javax.annotation.Nonnull;
  */
 public class TagAcceptanceService extends AcceptanceService<ISkdTag> {
 
-	private Class<? extends AbstractTag> acceptTagService;
+	private static final String LEFT_NAME = "left";
+	private static final String RIGHT_NAME = "right";
+	private static final String VALUE_NAME = "value";
+	private static final int LEFT = Symbols.intern(LEFT_NAME);
+	private static final int RIGHT = Symbols.intern(RIGHT_NAME);
+	private static final int VALUE = Symbols.intern(VALUE_NAME);
 
-	@Override
-	public boolean canAccept(@Nonnull final ISkdTag type) {
-		this.acceptTagService = null;
+	private final ShapeDispatcher<ISkdTag, TagShape> dispatcher =
+			new ShapeDispatcher<>(TagShape::of, AbstractTag::revision,
+					TagAcceptanceService::candidates);
+	private ShapeDispatcher.Candidate<ISkdTag, TagShape> acceptTagService;
 
+	@Nonnull
+	private static List<ShapeDispatcher.Candidate<ISkdTag, TagShape>> candidates() {
+		final List<ShapeDispatcher.Candidate<ISkdTag, TagShape>> candidates =
+				Lists.newArrayList();
+		AbstractTag.getPairs().forEach((clazz, pair) -> candidates.add(
+				new ShapeDispatcher.Candidate<>(clazz, AbstractTag.getShape(clazz),
+						pair.getKey()::canAccept, pair.getValue()::accept)));
+		return candidates;
+	}
+
+	private static boolean same(@Nonnull final ISkdProperty property, final int id,
+	                            @Nonnull final String name) {
+		return Symbols.same(AbstractProperty.nameId(property), property.getName(), id, name);
+	}
+
+	private static void checkClosed(@Nonnull final ISkdTag type) {
 		if (!type.closed()) {
 			throw new IllegalStateException(
 					new IllegalArgumentException(
@@ -37,13 +64,12 @@ public class TagAcceptanceService extends AcceptanceService<ISkdTag> {
 					)
 			);
 		}
+	}
 
-		AbstractTag.getPairs().entrySet().stream()
-				.forEach(it -> {
-					if (it.getValue().getKey().canAccept(type)) {
-						this.acceptTagService = it.getKey();
-					}
-				});
+	@Override
+	public boolean canAccept(@Nonnull final ISkdTag type) {
+		checkClosed(type);
+		this.acceptTagService = this.dispatcher.route(type);
 		return this.acceptTagService != null;
 	}
 
@@ -53,32 +79,41 @@ public class TagAcceptanceService extends AcceptanceService<ISkdTag> {
 		if (this.acceptTagService == null) {
 			throw new RuntimeException();
 		}
-		final ISkdTag ret = Optional.ofNullable(
-				AbstractTag.getPairs().get(this.acceptTagService).getValue()
-						.accept(type)
-		).orElseThrow(RuntimeException::new);
+		final ISkdTag ret = this.acceptTagService.accept(type);
 		this.acceptTagService = null;
 		return ret;
 	}
 
+	@Nullable
+	@Override
+	public ISkdTag tryAccept(@Nonnull final ISkdTag type) {
+		checkClosed(type);
+		return this.dispatcher.accept(type);
+	}
+
 	@Override
 	public void init() {
-		AbstractTag.register(ListTag.class, type -> {
-			if (type.getContent().isPresent()) {
+		AbstractTag.register(ListTag.class, shape -> !shape.hasContent()
+				&& shape.hasSameChildNames(), type -> {
+			if (AbstractTag.hasContent(type)) {
 				return false;
 			}
-			if (type.getChildren().isEmpty()) {
+			final List<ISkdTag> children = AbstractTag.childrenOf(type);
+			if (children.isEmpty()) {
 				return false;
 			}
-			if (type.getChildren().size() == 1) {
+			if (children.size() == 1) {
 				// Custom logic for single children tags
-				return type.getChildren().get(0).getName().equals(
-						type.getName().concat("s")
-				);
+				final ISkdTag child = children.get(0);
+				final String plural = type.getName().concat("s");
+				return Symbols.same(AbstractTag.nameId(child), child.getName(),
+						Symbols.find(plural), plural);
 			}
-			final String childNames = type.getChildren().get(0).getName();
-			for (final ISkdTag child : type.getChildren()) {
-				if (!child.getName().equals(childNames)) {
+			final ISkdTag first = children.get(0);
+			final int childNames = AbstractTag.nameId(first);
+			for (final ISkdTag child : children) {
+				if (!Symbols.same(AbstractTag.nameId(child), child.getName(),
+						childNames, first.getName())) {
 					return false;
 				}
 			}
@@ -92,14 +127,16 @@ public class TagAcceptanceService extends AcceptanceService<ISkdTag> {
 				return list;
 			});
 
-		AbstractTag.register(PairTag.class, type -> {
-			if (type.getContent().isPresent()) {
+		AbstractTag.register(PairTag.class, shape -> !shape.hasContent()
+				&& shape.children() == TagShape.Count.NONE
+				&& shape.hasProperties(LEFT, RIGHT), type -> {
+			if (AbstractTag.hasContent(type)) {
 				return false;
 			}
-			if (!type.getChildren().isEmpty()) {
+			if (!AbstractTag.childrenOf(type).isEmpty()) {
 				return false;
 			}
-			final List<ISkdProperty> properties = type.getProperties();
+			final List<ISkdProperty> properties = AbstractTag.propertiesOf(type);
 			if (properties.size() != 2) {
 				return false;
 			}
@@ -107,8 +144,8 @@ public class TagAcceptanceService extends AcceptanceService<ISkdTag> {
 			final ISkdProperty propertyRight = properties.get(1);
 			return propertyLeft != null
 					&& propertyRight != null
-					&& "left".equals(propertyLeft.getName())
-					&& "right".equals(propertyRight.getName());
+					&& same(propertyLeft, LEFT, LEFT_NAME)
+					&& same(propertyRight, RIGHT, RIGHT_NAME);
 		}, type -> {
 				final List<ISkdProperty> properties = type.getProperties();
 				final String leftValue = properties.get(0).getValue().orElse(null);
@@ -120,20 +157,22 @@ public class TagAcceptanceService extends AcceptanceService<ISkdTag> {
 			}
 		);
 
-		AbstractTag.register(ValueTag.class, type -> {
-			if (type.getContent().isPresent()) {
+		AbstractTag.register(ValueTag.class, shape -> !shape.hasContent()
+				&& shape.children() == TagShape.Count.NONE
+				&& shape.hasProperties(VALUE), type -> {
+			if (AbstractTag.hasContent(type)) {
 				return false;
 			}
-			if (!type.getChildren().isEmpty()) {
+			if (!AbstractTag.childrenOf(type).isEmpty()) {
 				return false;
 			}
-			final List<ISkdProperty> properties = type.getProperties();
+			final List<ISkdProperty> properties = AbstractTag.propertiesOf(type);
 			if (properties.size() != 1) {
 				return false;
 			}
 			final ISkdProperty property = properties.get(0);
 			return property != null
-					&& "value".equals(property.getName());
+					&& same(property, VALUE, VALUE_NAME);
 		}, type -> {
 				final List<ISkdProperty> properties = type.getProperties();
 				final String value = properties.get(0).getValue().orElse(null);
@@ -0,0 +1,969 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.compact;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.AbstractProperty;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.AbstractTag;
+
+import org.jetbrains.annotations.Contract;
+
+import java.io.StringWriter;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A read-only structure that stores the whole tag tree in flat
+ * primitive arrays instead of one object per tag.
+ *
+ * <p>Every tag is a node identified by its index. For each node,
+ * the structure stores the parent, the first child and the next
+ * sibling (forming a linked tree), the {@link Symbols symbol} id
+ * of its name, the range of its properties and the range of its
+ * content. Property names are stored as symbol ids, while property
+ * values and contents are stored as ranges of a single shared
+ * {@code char} pool. Names which do not fit in the symbol table are
+ * stored once per structure and given negative ids of their
+ * own.</p>
+ *
+ * <p>{@link ISkdTag} and {@link ISkdProperty} instances are thin
+ * views created on access: they hold only the structure and the
+ * node index, and are never retained. All of them are closed and
+ * cannot be modified.</p>
+ *
+ * <p>Since no tag object is ever built, tags and properties in a
+ * compact structure are never accepted: they are always exposed as
+ * plain tags and properties.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class CompactStructure implements IStructure {
+
+	/**
+	 * Builds a {@link CompactStructure} one node at a time, in
+	 * document order.
+	 *
+	 * <p>Tags must be {@link #open(String) opened}, given their
+	 * properties and content and finally {@link #close() closed},
+	 * exactly as they appear in the document.</p>
+	 *
+	 * @since 0.1
+	 */
+	public static final class Builder {
+
+		private static final byte VOID = 1;
+		// Ids of names which are not in the symbol table count down from here
+		private static final int LOCAL = Symbols.NONE - 1;
+
+		private int[] parent;
+		private int[] firstChild;
+		private int[] lastChild;
+		private int[] nextSibling;
+		private int[] name;
+		private int[] propStart;
+		private int[] contentStart;
+		private int[] contentEnd;
+		private byte[] flags;
+		private int nodes;
+
+		private int[] propName;
+		private int[] valueStart;
+		private int[] valueEnd;
+		private int properties;
+
+		private char[] pool;
+		private int poolSize;
+
+		private int[] roots;
+		private int rootCount;
+
+		private final Map<String, Integer> locals;
+
+		private int current;
+		private boolean built;
+
+		private Builder() {
+			this.parent = new int[64];
+			this.firstChild = new int[64];
+			this.lastChild = new int[64];
+			this.nextSibling = new int[64];
+			this.name = new int[64];
+			this.propStart = new int[65];
+			this.contentStart = new int[64];
+			this.contentEnd = new int[64];
+			this.flags = new byte[64];
+			this.propName = new int[64];
+			this.valueStart = new int[64];
+			this.valueEnd = new int[64];
+			this.pool = new char[1024];
+			this.roots = new int[16];
+			this.locals = Maps.newHashMap();
+			this.current = -1;
+		}
+
+		/**
+		 * Opens a new tag, as a child of the currently open one (or as
+		 * a main tag, if no tag is open).
+		 *
+		 * @param name
+		 *      The tag's name.
+		 * @return
+		 *      The index of the new node.
+		 *
+		 * @since 0.1
+		 */
+		public int open(@Nonnull final String name) {
+			this.checkNotBuilt();
+			final int nameId = this.symbol(Preconditions.checkNotNull(name));
+
+			if (this.nodes == this.name.length) {
+				this.growNodes();
+			}
+
+			final int node = this.nodes++;
+			this.parent[node] = this.current;
+			this.firstChild[node] = -1;
+			this.lastChild[node] = -1;
+			this.nextSibling[node] = -1;
+			this.name[node] = nameId;
+			this.propStart[node] = this.properties;
+			this.propStart[node + 1] = this.properties;
+			this.contentStart[node] = -1;
+			this.contentEnd[node] = -1;
+			this.flags[node] = 0;
+
+			if (this.current >= 0) {
+				final int last = this.lastChild[this.current];
+				if (last < 0) {
+					this.firstChild[this.current] = node;
+				} else {
+					this.nextSibling[last] = node;
+				}
+				this.lastChild[this.current] = node;
+			}
+
+			this.current = node;
+			return node;
+		}
+
+		/**
+		 * Adds a property to the tag that has just been opened.
+		 *
+		 * @param name
+		 *      The property's name.
+		 * @param value
+		 *      The value of the property. {@code null} or empty values
+		 *      mean that the property has no value.
+		 *
+		 * @since 0.1
+		 */
+		public void property(@Nonnull final String name, @Nullable final String value) {
+			this.checkNotBuilt();
+			Preconditions.checkNotNull(name);
+			Preconditions.checkState(this.current == this.nodes - 1
+					&& this.firstChild[this.current] < 0
+					&& this.contentStart[this.current] < 0,
+					"Properties must be added right after opening a tag");
+
+			if (this.properties == this.propName.length) {
+				this.propName = Arrays.copyOf(this.propName, this.properties * 2);
+				this.valueStart = Arrays.copyOf(this.valueStart, this.properties * 2);
+				this.valueEnd = Arrays.copyOf(this.valueEnd, this.properties * 2);
+			}
+
+			this.propName[this.properties] = this.symbol(name);
+
+			if (value == null || value.isEmpty()) {
+				this.valueStart[this.properties] = -1;
+				this.valueEnd[this.properties] = -1;
+			} else {
+				this.valueStart[this.properties] = this.poolSize;
+				this.appendToPool(value);
+				this.valueEnd[this.properties] = this.poolSize;
+			}
+
+			this.propStart[this.current + 1] = ++this.properties;
+		}
+
+		/**
+		 * Marks the currently open tag as a void tag.
+		 *
+		 * @since 0.1
+		 */
+		public void markVoid() {
+			this.checkOpen();
+			Preconditions.checkState(this.contentStart[this.current] < 0,
+					"There is already some content");
+			this.flags[this.current] |= VOID;
+		}
+
+		/**
+		 * Adds a line of content to the currently open tag.
+		 *
+		 * <p>Leading tabs of the first line are dropped and lines are
+		 * joined with a line break, the same way the default tree
+		 * builder does.</p>
+		 *
+		 * @param chars
+		 *      The buffer holding the line.
+		 * @param start
+		 *      The start of the line.
+		 * @param length
+		 *      The length of the line.
+		 *
+		 * @since 0.1
+		 */
+		public void content(@Nonnull final char[] chars, final int start, final int length) {
+			this.checkOpen();
+			final int node = this.current;
+
+			if (this.contentStart[node] < 0) {
+				int first = start;
+				while (first < start + length && chars[first] == '\t') {
+					++first;
+				}
+				if (first == start + length) {
+					return;
+				}
+				this.contentStart[node] = this.poolSize;
+				this.appendToPool(chars, first, start + length - first);
+				this.contentEnd[node] = this.poolSize;
+				return;
+			}
+
+			if (this.contentEnd[node] != this.poolSize) {
+				// Something else was written in between: move the content to the end
+				final int oldStart = this.contentStart[node];
+				final int oldLength = this.contentEnd[node] - oldStart;
+				this.contentStart[node] = this.poolSize;
+				this.appendToPool(this.pool, oldStart, oldLength);
+			}
+
+			this.appendToPool('\n');
+			this.appendToPool(chars, start, length);
+			this.contentEnd[node] = this.poolSize;
+		}
+
+		/**
+		 * Sets the content of the currently open tag, as is.
+		 *
+		 * @param content
+		 *      The content.
+		 *
+		 * @since 0.1
+		 */
+		public void content(@Nonnull final String content) {
+			this.checkOpen();
+			this.contentStart[this.current] = this.poolSize;
+			this.appendToPool(content);
+			this.contentEnd[this.current] = this.poolSize;
+		}
+
+		/**
+		 * Closes the currently open tag.
+		 *
+		 * @since 0.1
+		 */
+		public void close() {
+			this.checkOpen();
+			final int node = this.current;
+			this.current = this.parent[node];
+
+			if (this.current < 0) {
+				this.addRoot(node);
+			}
+		}
+
+		/**
+		 * Adds an empty line between the main tags.
+		 *
+		 * @since 0.1
+		 */
+		public void blankLine() {
+			this.checkNotBuilt();
+			this.addRoot(-1);
+		}
+
+		/**
+		 * Builds the structure.
+		 *
+		 * <p>The builder cannot be used anymore after this method has
+		 * been called.</p>
+		 *
+		 * @return
+		 *      The structure.
+		 *
+		 * @since 0.1
+		 */
+		@Nonnull
+		public CompactStructure build() {
+			this.checkNotBuilt();
+			Preconditions.checkState(this.current < 0, "Some tags are still open");
+			this.built = true;
+			return new CompactStructure(this);
+		}
+
+		private void addRoot(final int node) {
+			if (this.rootCount == this.roots.length) {
+				this.roots = Arrays.copyOf(this.roots, this.rootCount * 2);
+			}
+			this.roots[this.rootCount++] = node;
+		}
+
+		private void appendToPool(@Nonnull final String string) {
+			this.ensurePool(string.length());
+			string.getChars(0, string.length(), this.pool, this.poolSize);
+			this.poolSize += string.length();
+		}
+
+		private void appendToPool(@Nonnull final char[] chars, final int start, final int length) {
+			this.ensurePool(length);
+			System.arraycopy(chars, start, this.pool, this.poolSize, length);
+			this.poolSize += length;
+		}
+
+		private void appendToPool(final char c) {
+			this.ensurePool(1);
+			this.pool[this.poolSize++] = c;
+		}
+
+		private void ensurePool(final int length) {
+			if (this.poolSize + length > this.pool.length) {
+				this.pool = Arrays.copyOf(this.pool,
+						Math.max(this.pool.length * 2, this.poolSize + length));
+			}
+		}
+
+		private int symbol(@Nonnull final String name) {
+			final int id = Symbols.intern(name);
+
+			if (id != Symbols.NONE) {
+				return id;
+			}
+
+			final Integer local = this.locals.get(name);
+
+			if (local != null) {
+				return local;
+			}
+
+			final int created = LOCAL - this.locals.size();
+			this.locals.put(name, created);
+			return created;
+		}
+
+		private void growNodes() {
+			final int size = this.name.length * 2;
+			this.parent = Arrays.copyOf(this.parent, size);
+			this.firstChild = Arrays.copyOf(this.firstChild, size);
+			this.lastChild = Arrays.copyOf(this.lastChild, size);
+			this.nextSibling = Arrays.copyOf(this.nextSibling, size);
+			this.name = Arrays.copyOf(this.name, size);
+			this.propStart = Arrays.copyOf(this.propStart, size + 1);
+			this.contentStart = Arrays.copyOf(this.contentStart, size);
+			this.contentEnd = Arrays.copyOf(this.contentEnd, size);
+			this.flags = Arrays.copyOf(this.flags, size);
+		}
+
+		private void checkOpen() {
+			this.checkNotBuilt();
+			Preconditions.checkState(this.current >= 0, "No open tag found");
+		}
+
+		private void checkNotBuilt() {
+			Preconditions.checkState(!this.built, "Structure already built");
+		}
+	}
+
+	/**
+	 * A view over a node of the structure.
+	 */
+	private static final class TagView implements ISkdTag {
+
+		private final CompactStructure structure;
+		private final int node;
+
+		private TagView(@Nonnull final CompactStructure structure, final int node) {
+			this.structure = structure;
+			this.node = node;
+		}
+
+		@Nonnull
+		@Override
+		public String getName() {
+			return this.structure.name(this.structure.name[this.node]);
+		}
+
+		@Nonnull
+		@Override
+		public Optional<String> getContent() {
+			return Optional.ofNullable(this.structure.content(this.node));
+		}
+
+		@Override
+		public boolean isVoidElement() {
+			return (this.structure.flags[this.node] & Builder.VOID) != 0;
+		}
+
+		@Nonnull
+		@Override
+		public List<ISkdTag> getChildren() {
+			final ImmutableList.Builder<ISkdTag> children = ImmutableList.builder();
+
+			for (int child = this.structure.firstChild[this.node];
+			     child >= 0;
+			     child = this.structure.nextSibling[child]) {
+				children.add(this.structure.tag(child));
+			}
+
+			return children.build();
+		}
+
+		@Nonnull
+		@Override
+		public List<ISkdProperty> getProperties() {
+			final int start = this.structure.propStart[this.node];
+			final int end = this.structure.propStart[this.node + 1];
+			final ImmutableList.Builder<ISkdProperty> properties = ImmutableList.builder();
+
+			for (int property = start; property < end; ++property) {
+				properties.add(new PropertyView(this.structure, property));
+			}
+
+			return properties.build();
+		}
+
+		@Nullable
+		@Override
+		public ISkdProperty getProperty(@Nonnull final String name) {
+			final int property = this.find(name);
+			return property < 0 ? null : new PropertyView(this.structure, property);
+		}
+
+		@Nullable
+		@Override
+		public String getPropertyValue(@Nonnull final String name) {
+			final int property = this.find(name);
+			return property < 0 ? null : this.structure.value(property);
+		}
+
+		private int find(@Nonnull final String name) {
+			// A name which is not known can not belong to any property
+			final int nameId = this.structure.symbol(name);
+
+			if (nameId != Symbols.NONE) {
+				final int start = this.structure.propStart[this.node];
+				final int end = this.structure.propStart[this.node + 1];
+				for (int property = start; property < end; ++property) {
+					if (this.structure.propName[property] == nameId) {
+						return property;
+					}
+				}
+			}
+
+			return -1;
+		}
+
+		@Override
+		public void addChildTag(@Nonnull final ISkdTag tag) {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public void setAsChild(@Nonnull final ISkdTag parent) {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public void removeChildTag(@Nonnull final ISkdTag tag) {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public void setVoidElement() {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public void setContent(@Nonnull final String content) {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public void removeContent() {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public boolean addProperty(@Nonnull final ISkdProperty property) {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public boolean removeProperty(@Nonnull final ISkdProperty property) {
+			throw new UnsupportedOperationException("Compact tags are read-only");
+		}
+
+		@Override
+		public boolean hasProperty(@Nonnull final ISkdProperty property) {
+			return this.getProperties().contains(Preconditions.checkNotNull(property));
+		}
+
+		@Override
+		public void close() {
+			// Always closed
+		}
+
+		@Override
+		public boolean closed() {
+			return true;
+		}
+
+		@Override
+		public void write(@Nonnull final SkdWriter writer) {
+			this.structure.write(writer, this.node);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			return o instanceof TagView
+					&& ((TagView) o).structure == this.structure
+					&& ((TagView) o).node == this.node;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(this.structure) + this.node;
+		}
+
+		@Nonnull
+		@Override
+		public String toString() {
+			final StringWriter out = new StringWriter();
+			final SkdWriter writer = SkdWriter.of(out);
+			this.write(writer);
+			writer.flush();
+			return out.toString();
+		}
+	}
+
+	/**
+	 * A view over a property of the structure.
+	 */
+	private static final class PropertyView implements ISkdProperty {
+
+		private final CompactStructure structure;
+		private final int property;
+
+		private PropertyView(@Nonnull final CompactStructure structure, final int property) {
+			this.structure = structure;
+			this.property = property;
+		}
+
+		@Nonnull
+		@Override
+		public String getName() {
+			return this.structure.name(this.structure.propName[this.property]);
+		}
+
+		@Nonnull
+		@Override
+		public Optional<String> getValue() {
+			return Optional.ofNullable(this.structure.value(this.property));
+		}
+
+		@Nullable
+		@Override
+		public String peekValue() {
+			return this.structure.value(this.property);
+		}
+
+		@Override
+		public void setValue(@Nonnull final String value) {
+			throw new UnsupportedOperationException("Compact properties are read-only");
+		}
+
+		@Override
+		public void removeValue() {
+			throw new UnsupportedOperationException("Compact properties are read-only");
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			return o instanceof PropertyView
+					&& ((PropertyView) o).structure == this.structure
+					&& ((PropertyView) o).property == this.property;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(this.structure) + this.property;
+		}
+
+		@Nonnull
+		@Override
+		public String toString() {
+			final String value = this.structure.value(this.property);
+			return this.getName() + "=\"" + (value == null ? "" : value) + "\"";
+		}
+	}
+
+	private final int[] parent;
+	private final int[] firstChild;
+	private final int[] nextSibling;
+	private final int[] name;
+	private final int[] propStart;
+	private final int[] contentStart;
+	private final int[] contentEnd;
+	private final byte[] flags;
+	private final int nodes;
+	private final int[] propName;
+	private final int[] valueStart;
+	private final int[] valueEnd;
+	private final char[] pool;
+	private final int[] roots;
+	private final String[] locals;
+	private final Map<String, Integer> localIds;
+
+	private CompactStructure(@Nonnull final Builder builder) {
+		// Trim everything: the structure is never going to grow again
+		this.nodes = builder.nodes;
+		this.parent = Arrays.copyOf(builder.parent, this.nodes);
+		this.firstChild = Arrays.copyOf(builder.firstChild, this.nodes);
+		this.nextSibling = Arrays.copyOf(builder.nextSibling, this.nodes);
+		this.name = Arrays.copyOf(builder.name, this.nodes);
+		this.propStart = Arrays.copyOf(builder.propStart, this.nodes + 1);
+		this.contentStart = Arrays.copyOf(builder.contentStart, this.nodes);
+		this.contentEnd = Arrays.copyOf(builder.contentEnd, this.nodes);
+		this.flags = Arrays.copyOf(builder.flags, this.nodes);
+		this.propName = Arrays.copyOf(builder.propName, builder.properties);
+		this.valueStart = Arrays.copyOf(builder.valueStart, builder.properties);
+		this.valueEnd = Arrays.copyOf(builder.valueEnd, builder.properties);
+		this.pool = Arrays.copyOf(builder.pool, builder.poolSize);
+		this.roots = Arrays.copyOf(builder.roots, builder.rootCount);
+		this.locals = new String[builder.locals.size()];
+		this.localIds = Maps.newHashMap(builder.locals);
+		builder.locals.forEach((name, id) -> this.locals[Builder.LOCAL - id] = name);
+	}
+
+	/**
+	 * Gets a new, empty, {@link Builder}.
+	 *
+	 * @return
+	 *      A new builder.
+	 *
+	 * @since 0.1
+	 */
+	@Contract(pure = true)
+	@Nonnull
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Builds a compact structure out of the given main tags.
+	 *
+	 * <p>{@code null} tags are kept as empty lines.</p>
+	 *
+	 * @param main
+	 *      The main tags.
+	 * @return
+	 *      A new compact structure holding the same tree.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static CompactStructure of(@Nonnull final List<ISkdTag> main) {
+		final Builder builder = builder();
+
+		for (final ISkdTag tag : main) {
+			if (tag == null) {
+				builder.blankLine();
+				continue;
+			}
+			copy(builder, tag);
+		}
+
+		return builder.build();
+	}
+
+	private static void copy(@Nonnull final Builder builder, @Nonnull final ISkdTag tag) {
+		builder.open(tag.getName());
+
+		for (final ISkdProperty property : AbstractTag.propertiesOf(tag)) {
+			builder.property(property.getName(),
+					AbstractProperty.valueOf(property).orElse(null));
+		}
+
+		if (tag.isVoidElement()) {
+			builder.markVoid();
+		} else {
+			for (final ISkdTag child : tag.getChildren()) {
+				copy(builder, child);
+			}
+			AbstractTag.contentOf(tag).ifPresent(builder::content);
+		}
+
+		builder.close();
+	}
+
+	/**
+	 * Gets the amount of tags stored in this structure.
+	 *
+	 * @return
+	 *      The amount of tags.
+	 *
+	 * @since 0.1
+	 */
+	public int size() {
+		return this.nodes;
+	}
+
+	/**
+	 * Gets a view over the tag with the given index.
+	 *
+	 * @param node
+	 *      The index of the tag.
+	 * @return
+	 *      A view over the tag.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public ISkdTag tag(final int node) {
+		Preconditions.checkElementIndex(node, this.nodes);
+		return new TagView(this, node);
+	}
+
+	/**
+	 * Gets the index of the parent of the given tag.
+	 *
+	 * @param node
+	 *      The index of the tag.
+	 * @return
+	 *      The index of the parent, or {@code -1} for main tags.
+	 *
+	 * @since 0.1
+	 */
+	public int parent(final int node) {
+		return this.parent[node];
+	}
+
+	/**
+	 * Gets the index of the first child of the given tag.
+	 *
+	 * @param node
+	 *      The index of the tag.
+	 * @return
+	 *      The index of the first child, or {@code -1} if there is
+	 *      none.
+	 *
+	 * @since 0.1
+	 */
+	public int firstChild(final int node) {
+		return this.firstChild[node];
+	}
+
+	/**
+	 * Gets the index of the next sibling of the given tag.
+	 *
+	 * @param node
+	 *      The index of the tag.
+	 * @return
+	 *      The index of the next sibling, or {@code -1} if there is
+	 *      none.
+	 *
+	 * @since 0.1
+	 */
+	public int nextSibling(final int node) {
+		return this.nextSibling[node];
+	}
+
+	/**
+	 * Gets the {@link Symbols symbol} id of the name of the given
+	 * tag.
+	 *
+	 * @param node
+	 *      The index of the tag.
+	 * @return
+	 *      The symbol id of the tag's name, or {@link Symbols#NONE}
+	 *      if the name did not fit in the symbol table.
+	 *
+	 * @since 0.1
+	 */
+	public int nameId(final int node) {
+		return Math.max(this.name[node], Symbols.NONE);
+	}
+
+	@Nonnull
+	private String name(final int id) {
+		return id >= 0 ? Symbols.name(id) : this.locals[Builder.LOCAL - id];
+	}
+
+	private int symbol(@Nonnull final String name) {
+		final int id = Symbols.find(name);
+
+		if (id != Symbols.NONE) {
+			return id;
+		}
+
+		final Integer local = this.localIds.get(name);
+		return local == null ? Symbols.NONE : local;
+	}
+
+	@Nonnull
+	@Override
+	public List<ISkdTag> mainTags() {
+		return new AbstractList<ISkdTag>() {
+			@Override
+			public ISkdTag get(final int index) {
+				final int node = CompactStructure.this.roots[index];
+				return node < 0 ? null : CompactStructure.this.tag(node);
+			}
+
+			@Override
+			public int size() {
+				return CompactStructure.this.roots.length;
+			}
+		};
+	}
+
+	@Override
+	public void mainTags(@Nonnull final List<ISkdTag> tags) {
+		throw new UnsupportedOperationException("Compact structures are read-only");
+	}
+
+	@Override
+	public boolean canApply(@Nonnull final IDocTypeDeclaration declaration) {
+		return true;
+	}
+
+	@Override
+	public void apply(@Nonnull final IDocTypeDeclaration declaration) {
+		// TODO
+	}
+
+	@Nonnull
+	@Override
+	public Optional<ISkdTag> getIndexTagNonNull(final int index) {
+		int idx = 0;
+		for (final int node : this.roots) {
+			if (node < 0) {
+				continue;
+			}
+			if (index == idx) {
+				return Optional.of(this.tag(node));
+			}
+			++idx;
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public int nonNullSize() {
+		int size = 0;
+		for (final int node : this.roots) {
+			if (node >= 0) {
+				++size;
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void write(@Nonnull final SkdWriter writer) {
+		boolean first = true;
+
+		for (final int node : this.roots) {
+			if (node < 0) {
+				if (first) {
+					first = false;
+					continue;
+				}
+				writer.newLine();
+				continue;
+			}
+			this.write(writer, node);
+			writer.newLine();
+		}
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		final StringWriter out = new StringWriter();
+		final SkdWriter writer = SkdWriter.of(out);
+		this.write(writer);
+		writer.flush();
+		return out.toString();
+	}
+
+	private void write(@Nonnull final SkdWriter writer, final int node) {
+		final String tagName = this.name(this.name[node]);
+		writer.append('<').append(tagName);
+
+		for (int property = this.propStart[node]; property < this.propStart[node + 1]; ++property) {
+			final String value = this.value(property);
+			writer.append(' ').append(this.name(this.propName[property]))
+					.append("=\"").append(value == null ? "" : value).append('"');
+		}
+
+		if ((this.flags[node] & Builder.VOID) != 0) {
+			writer.append(" />");
+			return;
+		}
+
+		writer.append('>');
+		writer.indent();
+
+		for (int child = this.firstChild[node]; child >= 0; child = this.nextSibling[child]) {
+			writer.newLine();
+			this.write(writer, child);
+		}
+
+		writer.dedent();
+
+		final boolean children = this.firstChild[node] >= 0;
+		final String content = this.content(node);
+
+		if (children) {
+			writer.newLine();
+		}
+
+		if (content != null) {
+			writer.indent().lines(content).dedent().newLine();
+		}
+
+		if (!children && content == null) {
+			writer.newLine();
+		}
+
+		writer.append("</").append(tagName).append('>');
+	}
+
+	@Nullable
+	private String content(final int node) {
+		final int start = this.contentStart[node];
+		return start < 0 ? null : new String(this.pool, start, this.contentEnd[node] - start);
+	}
+
+	@Nullable
+	private String value(final int property) {
+		final int start = this.valueStart[property];
+		return start < 0 ? null : new String(this.pool, start, this.valueEnd[property] - start);
+	}
+}
@@ -3,10 +3,10 @@ package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.struct
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
 import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
 import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.IDocTypeDeclaration;
@@ -16,6 +16,9 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -40,11 +43,14 @@ public abstract class AbstractDatabase implements IDatabase {
 		T accept(@Nonnull final T type);
 	}
 
-	private static final Collection<Class<?>> REGISTERED_DBS = Lists.newArrayList();
-	private static final Map<Class<? extends AbstractDatabase>,
-				Pair<CanAcceptHandler<? super IDatabase>,
-						AcceptHandler<? super IDatabase>>> PAIRS =
-			Maps.newHashMap();
+	private static final Set<Class<?>> REGISTERED_DBS = ConcurrentHashMap.newKeySet();
+	// Copy-on-write: registrations are rare, lookups happen for every token
+	private static volatile Map<Class<? extends AbstractDatabase>,
+			Pair<CanAcceptHandler<? super IDatabase>,
+					AcceptHandler<? super IDatabase>>> pairs = ImmutableMap.of();
+	private static volatile Map<Class<? extends AbstractDatabase>,
+			Predicate<? super DatabaseShape>> shapes = ImmutableMap.of();
+	private static volatile int revision;
 
 	private IDocTypeDeclaration declaration;
 	private IDatabaseVersionDeclaration version;
@@ -61,7 +67,54 @@ public abstract class AbstractDatabase implements IDatabase {
 	public static void register(@Nonnull final Class<? extends AbstractDatabase> clazz,
 	                            @Nonnull final CanAcceptHandler<? super IDatabase> cah,
 	                            @Nonnull final AcceptHandler<? super IDatabase> ah) {
-		PAIRS.put(clazz, Pair.of(cah, ah));
+		register(clazz, shape -> true, cah, ah);
+	}
+
+	/**
+	 * Registers the acceptance handlers of the given class, which
+	 * will only be run on databases with a matching {@link DatabaseShape shape}.
+	 *
+	 * <p>The shape predicate must be cheap and must match every
+	 * database the {@link CanAcceptHandler} may accept: databases with any
+	 * other shape are never handed to the handlers.</p>
+	 *
+	 * @param clazz
+	 *      The class of the databases created by the handlers.
+	 * @param shape
+	 *      The predicate the shape of a database must match.
+	 * @param cah
+	 *      The handler which checks whether a database can be accepted.
+	 * @param ah
+	 *      The handler which accepts a database.
+	 *
+	 * @since 0.1
+	 */
+	public static void register(@Nonnull final Class<? extends AbstractDatabase> clazz,
+	                            @Nonnull final Predicate<? super DatabaseShape> shape,
+	                            @Nonnull final CanAcceptHandler<? super IDatabase> cah,
+	                            @Nonnull final AcceptHandler<? super IDatabase> ah) {
+		Preconditions.checkNotNull(clazz);
+		Preconditions.checkNotNull(shape);
+		Preconditions.checkNotNull(cah);
+		Preconditions.checkNotNull(ah);
+
+		synchronized (AbstractDatabase.class) {
+			// Shapes are published first, so that readers never see handlers without them
+			final Map<Class<? extends AbstractDatabase>,
+					Predicate<? super DatabaseShape>> newShapes =
+					Maps.newLinkedHashMap(shapes);
+			newShapes.put(clazz, shape);
+			shapes = ImmutableMap.copyOf(newShapes);
+
+			final Map<Class<? extends AbstractDatabase>,
+					Pair<CanAcceptHandler<? super IDatabase>,
+							AcceptHandler<? super IDatabase>>> newPairs =
+					Maps.newLinkedHashMap(pairs);
+			newPairs.put(clazz, Pair.of(cah, ah));
+			pairs = ImmutableMap.copyOf(newPairs);
+
+			++revision;
+		}
 	}
 
 	public static Collection<Class<?>> getDatabases() {
@@ -71,7 +124,39 @@ public abstract class AbstractDatabase implements IDatabase {
 	public static Map<Class<? extends AbstractDatabase>,
 			Pair<CanAcceptHandler<? super IDatabase>,
 					AcceptHandler<? super IDatabase>>> getPairs() {
-		return ImmutableMap.copyOf(PAIRS);
+		return pairs;
+	}
+
+	/**
+	 * Gets the predicate the {@link DatabaseShape shape} of a database must
+	 * match for the handlers of the given class to be run.
+	 *
+	 * @param clazz
+	 *      The class the handlers were registered for.
+	 * @return
+	 *      The shape predicate, which matches every shape if the
+	 *      handlers were registered without one or not at all.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static Predicate<? super DatabaseShape> getShape(@Nonnull final Class<?> clazz) {
+		final Predicate<? super DatabaseShape> shape = shapes.get(clazz);
+		return shape == null ? any -> true : shape;
+	}
+
+	/**
+	 * Gets a number which changes every time some handlers are
+	 * {@link #register(Class, Predicate, CanAcceptHandler, AcceptHandler)
+	 * registered}.
+	 *
+	 * @return
+	 *      The current revision of the handlers.
+	 *
+	 * @since 0.1
+	 */
+	public static int revision() {
+		return revision;
 	}
 
 	@Nonnull
@@ -133,6 +218,17 @@ public abstract class AbstractDatabase implements IDatabase {
 		this.structure = Preconditions.checkNotNull(structure);
 	}
 
+	@Override
+	public void write(@Nonnull final SkdWriter writer) {
+		writer.raw(this.docType().toString())
+				.newLine()
+				.raw(this.version().toString())
+				.newLine()
+				.newLine();
+		// Not through structure(): subclasses like SingletonDatabase hide it
+		this.structure.write(writer);
+	}
+
 	@Nonnull
 	@Override
 	public String toString() {
@@ -0,0 +1,74 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.database;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IStructure;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag.TagShape;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Summarizes the parts of a database that acceptance handlers
+ * usually look at, so that databases can be routed to the handlers
+ * which may accept them without running all of them.
+ *
+ * <p>There is a shape for every {@link TagShape.Count amount} of
+ * main tags, so shapes are never created more than once and can be
+ * compared by identity.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @see AbstractDatabase#register(Class, java.util.function.Predicate,
+ *      AbstractDatabase.CanAcceptHandler, AbstractDatabase.AcceptHandler)
+ *
+ * @since 0.1
+ */
+public final class DatabaseShape {
+
+	private static final DatabaseShape[] SHAPES = {
+			new DatabaseShape(TagShape.Count.NONE),
+			new DatabaseShape(TagShape.Count.ONE),
+			new DatabaseShape(TagShape.Count.MANY)
+	};
+
+	private final TagShape.Count mainTags;
+
+	private DatabaseShape(@Nonnull final TagShape.Count mainTags) {
+		this.mainTags = mainTags;
+	}
+
+	/**
+	 * Gets the shape of the given database.
+	 *
+	 * @param database
+	 *      The database.
+	 * @return
+	 *      The shape of the database.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static DatabaseShape of(@Nonnull final IDatabase database) {
+		final IStructure structure = database.structure();
+		final int size = structure == null ? 0 : structure.nonNullSize();
+		return SHAPES[TagShape.Count.of(size).ordinal()];
+	}
+
+	/**
+	 * Gets the amount of non-{@code null} main tags of the database.
+	 *
+	 * @return
+	 *      The amount of main tags.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public TagShape.Count mainTags() {
+		return this.mainTags;
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		return "DatabaseShape{mainTags=" + this.mainTags + "}";
+	}
+}
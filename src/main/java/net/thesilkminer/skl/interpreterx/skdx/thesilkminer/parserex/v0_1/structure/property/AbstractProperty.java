@@ -3,16 +3,19 @@ package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.struct
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
 
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -37,17 +40,22 @@ public abstract class AbstractProperty implements ISkdProperty {
 		T accept(@Nonnull final T type);
 	}
 
-	private static final Collection<Class<?>> REGISTERED_PROPS = Lists.newArrayList();
-	private static final Map<Class<? extends AbstractProperty>,
+	private static final Set<Class<?>> REGISTERED_PROPS = ConcurrentHashMap.newKeySet();
+	// Copy-on-write: registrations are rare, lookups happen for every token
+	private static volatile Map<Class<? extends AbstractProperty>,
 			Pair<CanAcceptHandler<? super ISkdProperty>,
-						AcceptHandler<? super ISkdProperty>>> PAIRS =
-			Maps.newHashMap();
+					AcceptHandler<? super ISkdProperty>>> pairs = ImmutableMap.of();
+	private static volatile Map<Class<? extends AbstractProperty>,
+			Predicate<? super PropertyShape>> shapes = ImmutableMap.of();
+	private static volatile int revision;
 
 	private final String key;
+	private final int keyId;
 	private String value;
 
 	protected AbstractProperty(@Nonnull final String name) {
-		this.key = Preconditions.checkNotNull(name);
+		this.keyId = Symbols.intern(Preconditions.checkNotNull(name));
+		this.key = this.keyId == Symbols.NONE ? name : Symbols.name(this.keyId);
 		this.value = null;
 
 		REGISTERED_PROPS.add(this.getClass());
@@ -56,7 +64,54 @@ public abstract class AbstractProperty implements ISkdProperty {
 	public static void register(@Nonnull final Class<? extends AbstractProperty> clazz,
 	                            @Nonnull final CanAcceptHandler<? super ISkdProperty> cah,
 	                            @Nonnull final AcceptHandler<? super ISkdProperty> ah) {
-		PAIRS.put(clazz, Pair.of(cah, ah));
+		register(clazz, shape -> true, cah, ah);
+	}
+
+	/**
+	 * Registers the acceptance handlers of the given class, which
+	 * will only be run on properties with a matching {@link PropertyShape shape}.
+	 *
+	 * <p>The shape predicate must be cheap and must match every
+	 * property the {@link CanAcceptHandler} may accept: properties with any
+	 * other shape are never handed to the handlers.</p>
+	 *
+	 * @param clazz
+	 *      The class of the properties created by the handlers.
+	 * @param shape
+	 *      The predicate the shape of a property must match.
+	 * @param cah
+	 *      The handler which checks whether a property can be accepted.
+	 * @param ah
+	 *      The handler which accepts a property.
+	 *
+	 * @since 0.1
+	 */
+	public static void register(@Nonnull final Class<? extends AbstractProperty> clazz,
+	                            @Nonnull final Predicate<? super PropertyShape> shape,
+	                            @Nonnull final CanAcceptHandler<? super ISkdProperty> cah,
+	                            @Nonnull final AcceptHandler<? super ISkdProperty> ah) {
+		Preconditions.checkNotNull(clazz);
+		Preconditions.checkNotNull(shape);
+		Preconditions.checkNotNull(cah);
+		Preconditions.checkNotNull(ah);
+
+		synchronized (AbstractProperty.class) {
+			// Shapes are published first, so that readers never see handlers without them
+			final Map<Class<? extends AbstractProperty>,
+					Predicate<? super PropertyShape>> newShapes =
+					Maps.newLinkedHashMap(shapes);
+			newShapes.put(clazz, shape);
+			shapes = ImmutableMap.copyOf(newShapes);
+
+			final Map<Class<? extends AbstractProperty>,
+					Pair<CanAcceptHandler<? super ISkdProperty>,
+							AcceptHandler<? super ISkdProperty>>> newPairs =
+					Maps.newLinkedHashMap(pairs);
+			newPairs.put(clazz, Pair.of(cah, ah));
+			pairs = ImmutableMap.copyOf(newPairs);
+
+			++revision;
+		}
 	}
 
 	public static Collection<Class<?>> getProperties() {
@@ -66,7 +121,82 @@ public abstract class AbstractProperty implements ISkdProperty {
 	public static Map<Class<? extends AbstractProperty>,
 			Pair<CanAcceptHandler<? super ISkdProperty>,
 					AcceptHandler<? super ISkdProperty>>> getPairs() {
-		return ImmutableMap.copyOf(PAIRS);
+		return pairs;
+	}
+
+	/**
+	 * Gets the predicate the {@link PropertyShape shape} of a property must
+	 * match for the handlers of the given class to be run.
+	 *
+	 * @param clazz
+	 *      The class the handlers were registered for.
+	 * @return
+	 *      The shape predicate, which matches every shape if the
+	 *      handlers were registered without one or not at all.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static Predicate<? super PropertyShape> getShape(@Nonnull final Class<?> clazz) {
+		final Predicate<? super PropertyShape> shape = shapes.get(clazz);
+		return shape == null ? any -> true : shape;
+	}
+
+	/**
+	 * Gets a number which changes every time some handlers are
+	 * {@link #register(Class, Predicate, CanAcceptHandler, AcceptHandler)
+	 * registered}.
+	 *
+	 * @return
+	 *      The current revision of the handlers.
+	 *
+	 * @since 0.1
+	 */
+	public static int revision() {
+		return revision;
+	}
+
+	/**
+	 * Gets the {@link Symbols symbol} id of the given property's name.
+	 *
+	 * <p>Properties extending this class already know their id: other
+	 * properties have their name interned.</p>
+	 *
+	 * @param property
+	 *      The property.
+	 * @return
+	 *      The symbol id of the property's name, or
+	 *      {@link Symbols#NONE} if the name was not interned.
+	 *
+	 * @since 0.1
+	 */
+	public static int nameId(@Nonnull final ISkdProperty property) {
+		if (property instanceof AbstractProperty) {
+			return ((AbstractProperty) property).keyId;
+		}
+		return Symbols.intern(property.getName());
+	}
+
+	/**
+	 * Gets the value of the given property, as it is stored.
+	 *
+	 * <p>Some properties (e.g. {@link MarkerProperty}s) refuse to
+	 * expose their value: this method bypasses them, so that the
+	 * value of every property can be inspected the same way.</p>
+	 *
+	 * @param property
+	 *      The property.
+	 * @return
+	 *      The property's value, if any.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static Optional<String> valueOf(@Nonnull final ISkdProperty property) {
+		if (property instanceof AbstractProperty) {
+			return Optional.ofNullable(((AbstractProperty) property).value);
+		}
+		return property.getValue();
 	}
 
 	@Nonnull
@@ -75,12 +205,30 @@ public abstract class AbstractProperty implements ISkdProperty {
 		return this.key;
 	}
 
+	/**
+	 * Gets the {@link Symbols symbol} id of this property's name.
+	 *
+	 * @return
+	 *      The symbol id of the name.
+	 *
+	 * @since 0.1
+	 */
+	public int getNameId() {
+		return this.keyId;
+	}
+
 	@Nonnull
 	@Override
 	public Optional<String> getValue() {
 		return Optional.ofNullable(this.value);
 	}
 
+	@Nullable
+	@Override
+	public String peekValue() {
+		return this.value;
+	}
+
 	@Override
 	public void setValue(@Nonnull final String value) {
 		Preconditions.checkNotNull(value, "Use #removeValue() instead");
@@ -0,0 +1,89 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Summarizes the parts of a property that acceptance handlers
+ * usually look at, so that properties can be routed to the handlers
+ * which may accept them without running all of them.
+ *
+ * <p>There are only four shapes, so they are never created more
+ * than once and can be compared by identity.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @see AbstractProperty#register(Class, java.util.function.Predicate,
+ *      AbstractProperty.CanAcceptHandler, AbstractProperty.AcceptHandler)
+ *
+ * @since 0.1
+ */
+public final class PropertyShape {
+
+	private static final PropertyShape[] SHAPES = {
+			new PropertyShape(false, false),
+			new PropertyShape(false, true),
+			new PropertyShape(true, false),
+			new PropertyShape(true, true)
+	};
+
+	private final boolean emptyName;
+	private final boolean value;
+
+	private PropertyShape(final boolean emptyName, final boolean value) {
+		this.emptyName = emptyName;
+		this.value = value;
+	}
+
+	/**
+	 * Gets the shape of the given property.
+	 *
+	 * <p>The value is inspected {@link AbstractProperty#valueOf(ISkdProperty)
+	 * as it is stored}, so that properties which refuse to expose it
+	 * have a shape too.</p>
+	 *
+	 * @param property
+	 *      The property.
+	 * @return
+	 *      The shape of the property.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static PropertyShape of(@Nonnull final ISkdProperty property) {
+		final boolean emptyName = property.getName().isEmpty();
+		final boolean value = AbstractProperty.valueOf(property).isPresent();
+		return SHAPES[(emptyName ? 2 : 0) + (value ? 1 : 0)];
+	}
+
+	/**
+	 * Gets whether the property has an empty name.
+	 *
+	 * @return
+	 *      If the name of the property is empty.
+	 *
+	 * @since 0.1
+	 */
+	public boolean hasEmptyName() {
+		return this.emptyName;
+	}
+
+	/**
+	 * Gets whether the property has a value.
+	 *
+	 * @return
+	 *      If the property has a value.
+	 *
+	 * @since 0.1
+	 */
+	public boolean hasValue() {
+		return this.value;
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		return "PropertyShape{emptyName=" + this.emptyName + ", value=" + this.value + "}";
+	}
+}
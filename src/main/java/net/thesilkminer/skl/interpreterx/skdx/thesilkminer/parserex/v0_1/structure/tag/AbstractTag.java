@@ -6,15 +6,22 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.implementation.skd.structure.PropertyStore;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
 
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -39,25 +46,32 @@ public abstract class AbstractTag implements ISkdTag {
 		T accept(@Nonnull final T type);
 	}
 
-	private static final Collection<Class<?>> REGISTERED_TAGS = Lists.newArrayList();
-	private static final Map<Class<? extends AbstractTag>,
+	private static final Set<Class<?>> REGISTERED_TAGS = ConcurrentHashMap.newKeySet();
+	// Copy-on-write: registrations are rare, lookups happen for every token
+	private static volatile Map<Class<? extends AbstractTag>,
 			Pair<CanAcceptHandler<? super ISkdTag>,
-					AcceptHandler<? super ISkdTag>>> PAIRS =
-			Maps.newHashMap();
+					AcceptHandler<? super ISkdTag>>> pairs = ImmutableMap.of();
+	private static volatile Map<Class<? extends AbstractTag>, Predicate<? super TagShape>> shapes =
+			ImmutableMap.of();
+	private static volatile int revision;
 
 	private final String name;
+	private final int nameId;
 	private String content;
+	private LazyContent lazyContent;
 	private boolean voidElement;
 	private List<ISkdTag> children;
-	private List<ISkdProperty> properties;
+	private final PropertyStore properties;
 	private boolean closed;
 
 	protected AbstractTag(@Nonnull final String name) {
-		this.name = Preconditions.checkNotNull(name);
+		this.nameId = Symbols.intern(Preconditions.checkNotNull(name));
+		this.name = this.nameId == Symbols.NONE ? name : Symbols.name(this.nameId);
 		this.content = null;
+		this.lazyContent = null;
 		this.voidElement = false;
 		this.children = Lists.newArrayList();
-		this.properties = Lists.newArrayList();
+		this.properties = new PropertyStore();
 		this.closed = false;
 
 		REGISTERED_TAGS.add(this.getClass());
@@ -66,7 +80,54 @@ public abstract class AbstractTag implements ISkdTag {
 	public static void register(@Nonnull final Class<? extends AbstractTag> clazz,
 	                            @Nonnull final CanAcceptHandler<? super ISkdTag> cah,
 	                            @Nonnull final AcceptHandler<? super ISkdTag> ah) {
-		PAIRS.put(clazz, Pair.of(cah, ah));
+		register(clazz, shape -> true, cah, ah);
+	}
+
+	/**
+	 * Registers the acceptance handlers of the given class, which
+	 * will only be run on tags with a matching {@link TagShape shape}.
+	 *
+	 * <p>The shape predicate must be cheap and must match every tag
+	 * the {@link CanAcceptHandler} may accept: tags with any other
+	 * shape are never handed to the handlers.</p>
+	 *
+	 * @param clazz
+	 *      The class of the tags created by the handlers.
+	 * @param shape
+	 *      The predicate the shape of a tag must match.
+	 * @param cah
+	 *      The handler which checks whether a tag can be accepted.
+	 * @param ah
+	 *      The handler which accepts a tag.
+	 *
+	 * @since 0.1
+	 */
+	public static void register(@Nonnull final Class<? extends AbstractTag> clazz,
+	                            @Nonnull final Predicate<? super TagShape> shape,
+	                            @Nonnull final CanAcceptHandler<? super ISkdTag> cah,
+	                            @Nonnull final AcceptHandler<? super ISkdTag> ah) {
+		Preconditions.checkNotNull(clazz);
+		Preconditions.checkNotNull(shape);
+		Preconditions.checkNotNull(cah);
+		Preconditions.checkNotNull(ah);
+
+		synchronized (AbstractTag.class) {
+			// Shapes are published first, so that readers never see handlers without them
+			final Map<Class<? extends AbstractTag>,
+					Predicate<? super TagShape>> newShapes =
+					Maps.newLinkedHashMap(shapes);
+			newShapes.put(clazz, shape);
+			shapes = ImmutableMap.copyOf(newShapes);
+
+			final Map<Class<? extends AbstractTag>,
+					Pair<CanAcceptHandler<? super ISkdTag>,
+							AcceptHandler<? super ISkdTag>>> newPairs =
+					Maps.newLinkedHashMap(pairs);
+			newPairs.put(clazz, Pair.of(cah, ah));
+			pairs = ImmutableMap.copyOf(newPairs);
+
+			++revision;
+		}
 	}
 
 	public static Collection<Class<?>> getTags() {
@@ -76,7 +137,225 @@ public abstract class AbstractTag implements ISkdTag {
 	public static Map<Class<? extends AbstractTag>,
 			Pair<CanAcceptHandler<? super ISkdTag>,
 					AcceptHandler<? super ISkdTag>>> getPairs() {
-		return ImmutableMap.copyOf(PAIRS);
+		return pairs;
+	}
+
+	/**
+	 * Gets the predicate the {@link TagShape shape} of a tag must
+	 * match for the handlers of the given class to be run.
+	 *
+	 * @param clazz
+	 *      The class the handlers were registered for.
+	 * @return
+	 *      The shape predicate, which matches every shape if the
+	 *      handlers were registered without one or not at all.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static Predicate<? super TagShape> getShape(@Nonnull final Class<?> clazz) {
+		final Predicate<? super TagShape> shape = shapes.get(clazz);
+		return shape == null ? any -> true : shape;
+	}
+
+	/**
+	 * Gets a number which changes every time some handlers are
+	 * {@link #register(Class, Predicate, CanAcceptHandler, AcceptHandler)
+	 * registered}.
+	 *
+	 * @return
+	 *      The current revision of the handlers.
+	 *
+	 * @since 0.1
+	 */
+	public static int revision() {
+		return revision;
+	}
+
+	/**
+	 * Gets the {@link Symbols symbol} id of the given tag's name.
+	 *
+	 * <p>Tags extending this class already know their id: other
+	 * tags have their name interned.</p>
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      The symbol id of the tag's name, or {@link Symbols#NONE}
+	 *      if the name was not interned.
+	 *
+	 * @since 0.1
+	 */
+	public static int nameId(@Nonnull final ISkdTag tag) {
+		if (tag instanceof AbstractTag) {
+			return ((AbstractTag) tag).nameId;
+		}
+		if (tag instanceof LazyTag) {
+			return ((LazyTag) tag).getNameId();
+		}
+		return Symbols.intern(tag.getName());
+	}
+
+	/**
+	 * Gets the children of the given tag, without copying them.
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      An unmodifiable view of the tag's children.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static List<ISkdTag> childrenOf(@Nonnull final ISkdTag tag) {
+		if (tag instanceof AbstractTag) {
+			return Collections.unmodifiableList(((AbstractTag) tag).children);
+		}
+		if (tag instanceof LazyTag) {
+			return childrenOf(((LazyTag) tag).get());
+		}
+		return tag.getChildren();
+	}
+
+	/**
+	 * Replaces the child of the given tag at the given index, even if
+	 * the tag has already been closed.
+	 *
+	 * <p>This is meant for passes which accept a finished tree in
+	 * place: different children of the same tag can be replaced by
+	 * different threads at once.</p>
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @param index
+	 *      The index of the child.
+	 * @param child
+	 *      The new child.
+	 *
+	 * @throws UnsupportedOperationException
+	 *      If the tag does not extend this class.
+	 *
+	 * @since 0.1
+	 */
+	public static void replaceChild(@Nonnull final ISkdTag tag, final int index,
+	                                @Nonnull final ISkdTag child) {
+		Preconditions.checkNotNull(child);
+		if (tag instanceof AbstractTag) {
+			((AbstractTag) tag).children.set(index, child);
+			return;
+		}
+		if (tag instanceof LazyTag) {
+			replaceChild(((LazyTag) tag).get(), index, child);
+			return;
+		}
+		throw new UnsupportedOperationException("Unable to replace children of " + tag.getClass());
+	}
+
+	/**
+	 * Replaces the property of the given tag at the given index, even
+	 * if the tag has already been closed.
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @param index
+	 *      The index of the property.
+	 * @param property
+	 *      The new property.
+	 *
+	 * @throws UnsupportedOperationException
+	 *      If the tag does not extend this class.
+	 *
+	 * @see #replaceChild(ISkdTag, int, ISkdTag)
+	 *
+	 * @since 0.1
+	 */
+	public static void replaceProperty(@Nonnull final ISkdTag tag, final int index,
+	                                   @Nonnull final ISkdProperty property) {
+		Preconditions.checkNotNull(property);
+		if (tag instanceof AbstractTag) {
+			((AbstractTag) tag).properties.set(index, property);
+			return;
+		}
+		if (tag instanceof LazyTag) {
+			replaceProperty(((LazyTag) tag).get(), index, property);
+			return;
+		}
+		throw new UnsupportedOperationException("Unable to replace properties of "
+				+ tag.getClass());
+	}
+
+	/**
+	 * Gets the properties of the given tag, as they are stored.
+	 *
+	 * <p>Some tags (e.g. {@link PairTag}s) hide their properties
+	 * behind typed accessors: this method bypasses them, so that
+	 * the properties of every tag can be inspected the same way.</p>
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      An unmodifiable view of the tag's properties.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static List<ISkdProperty> propertiesOf(@Nonnull final ISkdTag tag) {
+		if (tag instanceof AbstractTag) {
+			return Collections.unmodifiableList(((AbstractTag) tag).properties);
+		}
+		if (tag instanceof LazyTag) {
+			return propertiesOf(((LazyTag) tag).get());
+		}
+		return tag.getProperties();
+	}
+
+	/**
+	 * Gets whether the given tag has some content, without building
+	 * it if it is {@link #setLazyContent(LazyContent) lazy}.
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      If the tag has some content.
+	 *
+	 * @since 0.1
+	 */
+	public static boolean hasContent(@Nonnull final ISkdTag tag) {
+		if (tag instanceof AbstractTag) {
+			final AbstractTag abstractTag = (AbstractTag) tag;
+			return abstractTag.content != null || abstractTag.lazyContent != null;
+		}
+		if (tag instanceof LazyTag) {
+			return hasContent(((LazyTag) tag).get());
+		}
+		return tag.getContent().isPresent();
+	}
+
+	/**
+	 * Gets the content of the given tag.
+	 *
+	 * <p>Differently from {@link ISkdTag#getContent()}, a
+	 * {@link #setLazyContent(LazyContent) lazy} content is built
+	 * without being kept by the tag, so that the whole database can
+	 * be walked (e.g. to write it) without holding all its contents
+	 * in memory at once.</p>
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      The content of the tag, if any.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static Optional<String> contentOf(@Nonnull final ISkdTag tag) {
+		if (tag instanceof AbstractTag) {
+			return Optional.ofNullable(((AbstractTag) tag).peekContent());
+		}
+		if (tag instanceof LazyTag) {
+			return contentOf(((LazyTag) tag).get());
+		}
+		return tag.getContent();
 	}
 
 	@Nonnull
@@ -85,12 +364,75 @@ public abstract class AbstractTag implements ISkdTag {
 		return this.name;
 	}
 
+	/**
+	 * Gets the {@link Symbols symbol} id of this tag's name.
+	 *
+	 * @return
+	 *      The symbol id of the name, or {@link Symbols#NONE} if the
+	 *      name was not interned.
+	 *
+	 * @since 0.1
+	 */
+	public int getNameId() {
+		return this.nameId;
+	}
+
 	@Nonnull
 	@Override
 	public Optional<String> getContent() {
+		if (this.content == null && this.lazyContent != null) {
+			this.content = this.lazyContent.toString();
+		}
 		return Optional.ofNullable(this.content);
 	}
 
+	@Nullable
+	private String peekContent() {
+		if (this.content == null && this.lazyContent != null) {
+			return this.lazyContent.toString();
+		}
+		return this.content;
+	}
+
+	/**
+	 * Sets the content of this tag, which will be built out of its
+	 * source only when it is first requested.
+	 *
+	 * @param content
+	 *      The lazy content.
+	 *
+	 * @see #releaseContent()
+	 *
+	 * @since 0.1
+	 */
+	public void setLazyContent(@Nonnull final LazyContent content) {
+		Preconditions.checkNotNull(content, "Use #removeContent() instead");
+		Preconditions.checkState(!this.closed(), "Tag closed");
+		this.content = null;
+		this.lazyContent = content;
+	}
+
+	/**
+	 * Drops the content string built out of the
+	 * {@link #setLazyContent(LazyContent) lazy content} of this tag,
+	 * if any.
+	 *
+	 * <p>The content is still available and is built again the next
+	 * time it is requested. This can be done on closed tags too.</p>
+	 *
+	 * @return
+	 *      If the content is lazy, thus if a string could be dropped.
+	 *
+	 * @since 0.1
+	 */
+	public boolean releaseContent() {
+		if (this.lazyContent == null) {
+			return false;
+		}
+		this.content = null;
+		return true;
+	}
+
 	@Override
 	public boolean isVoidElement() {
 		return this.voidElement;
@@ -108,6 +450,12 @@ public abstract class AbstractTag implements ISkdTag {
 		return ImmutableList.copyOf(this.properties);
 	}
 
+	@Nullable
+	@Override
+	public ISkdProperty getProperty(@Nonnull final String name) {
+		return this.properties.get(name);
+	}
+
 	@Override
 	public void addChildTag(@Nonnull final ISkdTag tag) {
 		Preconditions.checkNotNull(tag);
@@ -153,7 +501,7 @@ public abstract class AbstractTag implements ISkdTag {
 	@Override
 	public void setVoidElement() {
 		Preconditions.checkState(!this.closed(), "Tag closed");
-		Preconditions.checkState(!this.getContent().isPresent(),
+		Preconditions.checkState(!hasContent(this),
 				"There is already some content");
 		this.voidElement = true;
 	}
@@ -163,6 +511,7 @@ public abstract class AbstractTag implements ISkdTag {
 		Preconditions.checkNotNull(content, "Use #removeContent() instead");
 		Preconditions.checkState(!this.closed(), "Tag closed");
 		this.content = content;
+		this.lazyContent = null;
 	}
 
 	/**
@@ -186,10 +535,13 @@ public abstract class AbstractTag implements ISkdTag {
 		Preconditions.checkState(!this.closed(), "Tag closed");
 
 		if (this.shouldFailIfNoContentIsPresentOnAppending()) {
-			Preconditions.checkState(this.getContent().isPresent(),
+			Preconditions.checkState(hasContent(this),
 					"Impossible to append on unavailable content");
 		}
 
+		this.content = this.peekContent();
+		this.lazyContent = null;
+
 		if (this.content == null) {
 			// Reachable only if the previous check isn't triggered.
 			this.content = "";
@@ -217,6 +569,7 @@ public abstract class AbstractTag implements ISkdTag {
 	public void removeContent() {
 		Preconditions.checkState(!this.closed(), "Tag closed");
 		this.content = null;
+		this.lazyContent = null;
 	}
 
 	@Override
@@ -268,70 +621,88 @@ public abstract class AbstractTag implements ISkdTag {
 		return this.closed;
 	}
 
-	@Nonnull
 	@Override
-	public String toString() {
-		String builder = "";
-
-		builder += "<";
-		builder += this.name;
-		builder += " ";
+	public void write(@Nonnull final SkdWriter writer) {
+		writer.append('<').append(this.name);
 
-		for (ISkdProperty prop : this.properties) {
-
-			builder += prop.toString();
-			builder += " ";
+		for (final ISkdProperty prop : this.properties) {
+			writer.append(' ').append(prop.toString());
 		}
 
-		builder = builder.substring(0, builder.length() - 1);
-
 		if (this.voidElement) {
-
-			builder += " />";
-
-			return builder;
+			writer.append(" />");
+			return;
 		}
 
-		builder += ">";
+		writer.append('>');
+		writer.indent();
 
 		for (final ISkdTag tag : this.children) {
+			writer.newLine();
+			tag.write(writer);
+		}
 
-			final String[] lines = tag.toString().split("\\n");
+		writer.dedent();
 
-			for (final String line : lines) {
-				builder += "\n\t";
-				builder += line;
-			}
+		if (!this.children.isEmpty()) {
+			writer.newLine();
 		}
 
-		if (!this.children.isEmpty()) {
+		final String content = this.peekContent();
+
+		if (content != null) {
+			writer.indent().lines(content).dedent().newLine();
+		}
 
-			builder += "\n";
+		if (this.children.isEmpty() && content == null) {
+			writer.newLine();
 		}
 
-		if (this.content != null) {
+		writer.append("</").append(this.name).append('>');
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+
+		builder.append('<').append(this.name);
+
+		for (final ISkdProperty prop : this.properties) {
+			builder.append(' ').append(prop.toString());
+		}
 
-			final String[] lines = this.content.split("\\n");
+		if (this.voidElement) {
+			return builder.append(" />").toString();
+		}
 
-			for (final String line : lines) {
+		builder.append('>');
 
-				builder += "\n\t";
-				builder += line;
+		for (final ISkdTag tag : this.children) {
+			for (final String line : tag.toString().split("\\n")) {
+				builder.append("\n\t").append(line);
 			}
+		}
 
-			builder += "\n";
+		if (!this.children.isEmpty()) {
+			builder.append('\n');
 		}
 
-		if (this.children.isEmpty() && this.content == null) {
+		final String content = this.peekContent();
 
-			builder += "\n";
+		if (content != null) {
+			for (final String line : content.split("\\n")) {
+				builder.append("\n\t").append(line);
+			}
+
+			builder.append('\n');
 		}
 
-		builder += "</";
-		builder += this.name;
-		builder += ">";
+		if (this.children.isEmpty() && content == null) {
+			builder.append('\n');
+		}
 
-		return builder;
+		return builder.append("</").append(this.name).append('>').toString();
 	}
 
 	/**
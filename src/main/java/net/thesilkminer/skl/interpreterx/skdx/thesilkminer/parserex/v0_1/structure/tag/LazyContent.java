@@ -0,0 +1,182 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The content of a tag, still stored in the source it was read from.
+ *
+ * <p>Only the offsets of every line of content are recorded: the
+ * content string is built when it is {@link #toString() requested},
+ * by joining the lines with a {@code \n}.</p>
+ *
+ * <p>The source is kept alive as long as one of its lazy contents
+ * is reachable, so this representation pays off only when most of
+ * the contents of a database are never read.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class LazyContent {
+
+	private final char[] source;
+	private final int[] ranges;
+	private final int length;
+
+	private LazyContent(@Nonnull final char[] source, @Nonnull final int[] ranges,
+	                    final int length) {
+		this.source = source;
+		this.ranges = ranges;
+		this.length = length;
+	}
+
+	/**
+	 * Creates a new builder, to which lines of content are added
+	 * as they are read.
+	 *
+	 * @return
+	 *      A new builder.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Gets the length of the content, in characters.
+	 *
+	 * @return
+	 *      The length of the content.
+	 *
+	 * @since 0.1
+	 */
+	public int length() {
+		return this.length;
+	}
+
+	/**
+	 * Builds the content out of the source.
+	 *
+	 * <p>A new string is built on every call: callers should keep
+	 * it if they need it more than once.</p>
+	 *
+	 * @return
+	 *      The content.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	@Override
+	public String toString() {
+		final char[] content = new char[this.length];
+		int position = 0;
+
+		for (int i = 0; i < this.ranges.length; i += 2) {
+			if (i > 0) {
+				content[position++] = '\n';
+			}
+			final int lineLength = this.ranges[i + 1] - this.ranges[i];
+			System.arraycopy(this.source, this.ranges[i], content, position, lineLength);
+			position += lineLength;
+		}
+
+		return new String(content);
+	}
+
+	/**
+	 * Records the lines of a lazy content.
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.1
+	 */
+	public static final class Builder {
+
+		private char[] source;
+		private int[] ranges;
+		private int size;
+		private int length;
+
+		private Builder() {
+			this.source = null;
+			this.ranges = new int[4];
+			this.size = 0;
+			this.length = 0;
+		}
+
+		/**
+		 * Adds a line of content.
+		 *
+		 * <p>All lines must come from the same source, which must not
+		 * be modified afterwards. Leading tabs of the first line are
+		 * stripped and leading empty lines are skipped, just like when
+		 * content is set eagerly.</p>
+		 *
+		 * @param chars
+		 *      The source.
+		 * @param start
+		 *      The start of the line in the source.
+		 * @param length
+		 *      The length of the line.
+		 * @return
+		 *      This builder, for chaining.
+		 *
+		 * @throws IllegalArgumentException
+		 *      If the line does not come from the same source as the
+		 *      previous ones.
+		 *
+		 * @since 0.1
+		 */
+		@Nonnull
+		public Builder line(@Nonnull final char[] chars, final int start, final int length) {
+			Preconditions.checkNotNull(chars);
+			Preconditions.checkArgument(this.source == null || this.source == chars,
+					"Lines of lazy content must come from the same source");
+			int first = start;
+
+			if (this.size == 0) {
+				while (first < start + length && chars[first] == '\t') {
+					++first;
+				}
+				if (first == start + length) {
+					return this;
+				}
+				this.source = chars;
+			} else {
+				++this.length; // The new line character
+			}
+
+			if (this.size == this.ranges.length) {
+				this.ranges = Arrays.copyOf(this.ranges, this.size * 2);
+			}
+
+			this.ranges[this.size++] = first;
+			this.ranges[this.size++] = start + length;
+			this.length += start + length - first;
+			return this;
+		}
+
+		/**
+		 * Builds the lazy content.
+		 *
+		 * @return
+		 *      The content, or {@code null} if no line (but empty
+		 *      ones) has been added.
+		 *
+		 * @since 0.1
+		 */
+		@Nullable
+		public LazyContent build() {
+			if (this.size == 0) {
+				return null;
+			}
+			return new LazyContent(this.source, Arrays.copyOf(this.ranges, this.size), this.length);
+		}
+	}
+}
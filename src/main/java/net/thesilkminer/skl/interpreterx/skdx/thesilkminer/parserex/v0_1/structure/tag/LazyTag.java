@@ -0,0 +1,232 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag;
+
+import com.google.common.base.Preconditions;
+
+import net.thesilkminer.skl.interpreter.api.skd.parser.SkdWriter;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A tag whose subtree has not been parsed yet.
+ *
+ * <p>Only the name of the tag is known upfront: the first call to
+ * any other method {@link #get() loads} the actual tag, accepted
+ * just like any other tag (so it may end up being e.g. a
+ * {@link ListTag}), and all calls are then forwarded to it.</p>
+ *
+ * <p>Code that needs to know the actual class of a tag should
+ * {@link #resolve(ISkdTag) resolve} it first.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class LazyTag implements ISkdTag {
+
+	private final String name;
+	private final int nameId;
+	private volatile Supplier<ISkdTag> loader;
+	private volatile ISkdTag tag;
+
+	/**
+	 * Creates a new lazy tag.
+	 *
+	 * @param name
+	 *      The name of the tag.
+	 * @param loader
+	 *      The function that loads the actual tag. It is called at
+	 *      most once, even if multiple threads access the tag.
+	 *
+	 * @since 0.1
+	 */
+	public LazyTag(@Nonnull final String name, @Nonnull final Supplier<ISkdTag> loader) {
+		this.nameId = Symbols.intern(Preconditions.checkNotNull(name));
+		this.name = this.nameId == Symbols.NONE ? name : Symbols.name(this.nameId);
+		this.loader = Preconditions.checkNotNull(loader);
+		this.tag = null;
+	}
+
+	/**
+	 * Gets the actual tag behind the given one, loading it if the
+	 * given tag is {@link LazyTag lazy}.
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      The actual tag.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static ISkdTag resolve(@Nonnull final ISkdTag tag) {
+		if (tag instanceof LazyTag) {
+			return ((LazyTag) tag).get();
+		}
+		return tag;
+	}
+
+	/**
+	 * Gets whether the actual tag has already been loaded.
+	 *
+	 * @return
+	 *      If the tag has been loaded.
+	 *
+	 * @since 0.1
+	 */
+	public boolean isLoaded() {
+		return this.tag != null;
+	}
+
+	/**
+	 * Gets the actual tag, loading it if needed.
+	 *
+	 * @return
+	 *      The actual tag.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public ISkdTag get() {
+		ISkdTag tag = this.tag;
+
+		if (tag == null) {
+			synchronized (this) {
+				tag = this.tag;
+				if (tag == null) {
+					tag = Preconditions.checkNotNull(this.loader.get(), "Loaded tag");
+					this.tag = tag;
+					this.loader = null; // Let the source go
+				}
+			}
+		}
+
+		return tag;
+	}
+
+	/**
+	 * Gets the {@link Symbols symbol} id of this tag's name.
+	 *
+	 * @return
+	 *      The symbol id of the name, or {@link Symbols#NONE} if the
+	 *      name was not interned.
+	 *
+	 * @since 0.1
+	 */
+	public int getNameId() {
+		return this.nameId;
+	}
+
+	@Nonnull
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Nonnull
+	@Override
+	public Optional<String> getContent() {
+		return this.get().getContent();
+	}
+
+	@Override
+	public boolean isVoidElement() {
+		return this.get().isVoidElement();
+	}
+
+	@Nonnull
+	@Override
+	public List<ISkdTag> getChildren() {
+		return this.get().getChildren();
+	}
+
+	@Nonnull
+	@Override
+	public List<ISkdProperty> getProperties() {
+		return this.get().getProperties();
+	}
+
+	@Nullable
+	@Override
+	public ISkdProperty getProperty(@Nonnull final String name) {
+		return this.get().getProperty(name);
+	}
+
+	@Nullable
+	@Override
+	public String getPropertyValue(@Nonnull final String name) {
+		return this.get().getPropertyValue(name);
+	}
+
+	@Override
+	public void addChildTag(@Nonnull final ISkdTag tag) {
+		this.get().addChildTag(tag);
+	}
+
+	@Override
+	public void setAsChild(@Nonnull final ISkdTag parent) {
+		this.get().setAsChild(parent);
+	}
+
+	@Override
+	public void removeChildTag(@Nonnull final ISkdTag tag) {
+		this.get().removeChildTag(tag);
+	}
+
+	@Override
+	public void setVoidElement() {
+		this.get().setVoidElement();
+	}
+
+	@Override
+	public void setContent(@Nonnull final String content) {
+		this.get().setContent(content);
+	}
+
+	@Override
+	public void removeContent() {
+		this.get().removeContent();
+	}
+
+	@Override
+	public boolean addProperty(@Nonnull final ISkdProperty property) {
+		return this.get().addProperty(property);
+	}
+
+	@Override
+	public boolean removeProperty(@Nonnull final ISkdProperty property) {
+		return this.get().removeProperty(property);
+	}
+
+	@Override
+	public boolean hasProperty(@Nonnull final ISkdProperty property) {
+		return this.get().hasProperty(property);
+	}
+
+	@Override
+	public void close() {
+		// Loaded tags are always closed
+	}
+
+	@Override
+	public boolean closed() {
+		return true;
+	}
+
+	@Override
+	public void write(@Nonnull final SkdWriter writer) {
+		this.get().write(writer);
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		return this.get().toString();
+	}
+}
@@ -3,6 +3,7 @@ package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.struct
 import com.google.common.base.Preconditions;
 
 import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
 
 import javax.annotation.Nonnull;
 
@@ -30,6 +31,7 @@ import javax.annotation.Nonnull;
 public class ListTag extends AbstractTag {
 
 	private final String childTagsName;
+	private final int childTagsId;
 
 	/**
 	 * Constructs a list tag with the specified {@code name} and
@@ -67,14 +69,30 @@ public class ListTag extends AbstractTag {
 	 */
 	public ListTag(@Nonnull final String name, @Nonnull final String childTagsName) {
 		super(name);
-		this.childTagsName = childTagsName;
+		this.childTagsId = Symbols.intern(childTagsName);
+		this.childTagsName = this.childTagsId == Symbols.NONE
+				? childTagsName : Symbols.name(this.childTagsId);
 		super.removeContent();
 	}
 
+	/**
+	 * Gets the name child tags must have to be accepted.
+	 *
+	 * @return
+	 *      The name of the child tags.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public String getChildTagsName() {
+		return this.childTagsName;
+	}
+
 	@Override
 	public void addChildTag(@Nonnull final ISkdTag tag) {
 		Preconditions.checkNotNull(tag);
-		Preconditions.checkArgument(tag.getName().equals(this.childTagsName),
+		Preconditions.checkArgument(Symbols.same(AbstractTag.nameId(tag), tag.getName(),
+				this.childTagsId, this.childTagsName),
 				"The child tag must have %s name to be accepted",
 				this.childTagsName);
 		super.addChildTag(tag);
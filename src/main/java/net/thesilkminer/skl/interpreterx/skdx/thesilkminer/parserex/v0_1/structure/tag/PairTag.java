@@ -77,6 +77,13 @@ public class PairTag extends AbstractTag {
 		throw new UnsupportedOperationException("Use #getLeft() or #getRight() instead");
 	}
 
+	@Contract("_ -> fail")
+	@Nullable
+	@Override
+	public ISkdProperty getProperty(@Nonnull final String name) {
+		throw new UnsupportedOperationException("Use #getLeft() or #getRight() instead");
+	}
+
 	@Contract("_ -> fail")
 	@Override
 	public boolean addProperty(@Nonnull final ISkdProperty property) {
@@ -0,0 +1,262 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.tag;
+
+import com.google.common.base.Preconditions;
+
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.Symbols;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.structure.property.AbstractProperty;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Summarizes the parts of a tag that acceptance handlers usually
+ * look at, so that tags can be routed to the handlers which may
+ * accept them without running all of them.
+ *
+ * <p>Two tags have equal shapes if both or none of them have some
+ * content, they have the same {@link Count amount} of children, both
+ * or none of them have children with the same name and they have
+ * properties with the same names, in the same order.</p>
+ *
+ * <p>Property names which were not {@link Symbols interned} are
+ * all recorded as {@link Symbols#NONE}, so they match any name in
+ * {@link #hasProperties(int...)}: shapes only narrow down the
+ * handlers to run, and the handlers still check the actual
+ * names.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @see AbstractTag#register(Class, java.util.function.Predicate,
+ *      AbstractTag.CanAcceptHandler, AbstractTag.AcceptHandler)
+ *
+ * @since 0.1
+ */
+public final class TagShape {
+
+	/**
+	 * A rough amount of elements.
+	 *
+	 * @author TheSilkMiner
+	 *
+	 * @since 0.1
+	 */
+	public enum Count {
+		/**
+		 * No elements.
+		 *
+		 * @since 0.1
+		 */
+		NONE,
+		/**
+		 * A single element.
+		 *
+		 * @since 0.1
+		 */
+		ONE,
+		/**
+		 * Two or more elements.
+		 *
+		 * @since 0.1
+		 */
+		MANY;
+
+		/**
+		 * Gets the count corresponding to the given amount.
+		 *
+		 * @param amount
+		 *      The amount.
+		 * @return
+		 *      The count.
+		 *
+		 * @since 0.1
+		 */
+		@Contract(pure = true)
+		@Nonnull
+		public static Count of(final int amount) {
+			return amount <= 0 ? NONE : amount == 1 ? ONE : MANY;
+		}
+	}
+
+	private final boolean content;
+	private final Count children;
+	private final boolean sameChildNames;
+	private final int[] properties;
+	private final int hash;
+
+	private TagShape(final boolean content, @Nonnull final Count children,
+	                 final boolean sameChildNames, @Nonnull final int[] properties) {
+		this.content = content;
+		this.children = children;
+		this.sameChildNames = sameChildNames;
+		this.properties = properties;
+		this.hash = 31 * (31 * (31 * Boolean.hashCode(content) + children.hashCode())
+				+ Boolean.hashCode(sameChildNames)) + Arrays.hashCode(properties);
+	}
+
+	/**
+	 * Gets the shape of the given tag.
+	 *
+	 * <p>Neither the children nor the properties of the tag are
+	 * copied, and a {@link AbstractTag#setLazyContent(LazyContent)
+	 * lazy content} is not built.</p>
+	 *
+	 * @param tag
+	 *      The tag.
+	 * @return
+	 *      The shape of the tag.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public static TagShape of(@Nonnull final ISkdTag tag) {
+		final List<ISkdTag> children = AbstractTag.childrenOf(tag);
+		boolean sameChildNames = !children.isEmpty();
+
+		if (children.size() > 1) {
+			final ISkdTag first = children.get(0);
+			final int firstId = AbstractTag.nameId(first);
+			for (int i = 1; i < children.size() && sameChildNames; ++i) {
+				final ISkdTag child = children.get(i);
+				sameChildNames = Symbols.same(AbstractTag.nameId(child), child.getName(),
+						firstId, first.getName());
+			}
+		}
+
+		final List<ISkdProperty> properties = AbstractTag.propertiesOf(tag);
+		final int[] names = new int[properties.size()];
+
+		for (int i = 0; i < names.length; ++i) {
+			final ISkdProperty property = properties.get(i);
+			names[i] = property == null ? Symbols.NONE : AbstractProperty.nameId(property);
+		}
+
+		return new TagShape(AbstractTag.hasContent(tag), Count.of(children.size()),
+				sameChildNames, names);
+	}
+
+	/**
+	 * Gets whether the tag has some content.
+	 *
+	 * @return
+	 *      If the tag has some content.
+	 *
+	 * @since 0.1
+	 */
+	public boolean hasContent() {
+		return this.content;
+	}
+
+	/**
+	 * Gets the amount of children of the tag.
+	 *
+	 * @return
+	 *      The amount of children.
+	 *
+	 * @since 0.1
+	 */
+	@Nonnull
+	public Count children() {
+		return this.children;
+	}
+
+	/**
+	 * Gets whether the tag has at least one child and all its
+	 * children have the same name.
+	 *
+	 * @return
+	 *      If all the children have the same name.
+	 *
+	 * @since 0.1
+	 */
+	public boolean hasSameChildNames() {
+		return this.sameChildNames;
+	}
+
+	/**
+	 * Gets the amount of properties of the tag.
+	 *
+	 * @return
+	 *      The amount of properties.
+	 *
+	 * @since 0.1
+	 */
+	public int propertyCount() {
+		return this.properties.length;
+	}
+
+	/**
+	 * Gets whether the tag has exactly the given properties, in the
+	 * given order.
+	 *
+	 * <p>{@link Symbols#NONE}, either in the shape or in the given
+	 * {@code names}, matches any name.</p>
+	 *
+	 * @param names
+	 *      The {@link Symbols symbol} ids of the properties' names.
+	 * @return
+	 *      If the tag has exactly the given properties.
+	 *
+	 * @since 0.1
+	 */
+	public boolean hasProperties(@Nonnull final int... names) {
+		Preconditions.checkNotNull(names);
+
+		if (names.length != this.properties.length) {
+			return false;
+		}
+
+		for (int i = 0; i < names.length; ++i) {
+			if (names[i] != this.properties[i] && names[i] != Symbols.NONE
+					&& this.properties[i] != Symbols.NONE) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TagShape)) {
+			return false;
+		}
+		final TagShape other = (TagShape) obj;
+		return this.hash == other.hash
+				&& this.content == other.content
+				&& this.children == other.children
+				&& this.sameChildNames == other.sameChildNames
+				&& Arrays.equals(this.properties, other.properties);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.hash;
+	}
+
+	@Nonnull
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("TagShape{content=").append(this.content)
+				.append(", children=").append(this.children)
+				.append(", sameChildNames=").append(this.sameChildNames)
+				.append(", properties=[");
+
+		for (int i = 0; i < this.properties.length; ++i) {
+			if (i != 0) {
+				builder.append(", ");
+			}
+			builder.append(this.properties[i] == Symbols.NONE
+					? "?" : Symbols.name(this.properties[i]));
+		}
+
+		return builder.append("]}").toString();
+	}
+}
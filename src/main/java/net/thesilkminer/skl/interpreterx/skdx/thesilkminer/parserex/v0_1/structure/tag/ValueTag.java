@@ -54,6 +54,12 @@ public class ValueTag extends AbstractTag {
 		throw new UnsupportedOperationException();
 	}
 
+	@Nullable
+	@Override
+	public ISkdProperty getProperty(@Nonnull final String name) {
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public boolean addProperty(@Nonnull final ISkdProperty property) {
 		throw new UnsupportedOperationException();
@@ -0,0 +1,142 @@
+package net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1;
+
+import com.google.common.collect.Lists;
+
+import net.thesilkminer.skl.interpreter.api.skd.SkdApi;
+import net.thesilkminer.skl.interpreter.api.skd.holder.IDatabaseHolder;
+import net.thesilkminer.skl.interpreter.api.skd.parser.ISkdParser;
+import net.thesilkminer.skl.interpreter.api.skd.structure.IDatabase;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdProperty;
+import net.thesilkminer.skl.interpreter.api.skd.structure.ISkdTag;
+import net.thesilkminer.skl.interpreter.api.skd.structure.declarations.doctype.DocTypes;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance.DatabaseAcceptanceService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance.PropertiesAcceptanceService;
+import net.thesilkminer.skl.interpreterx.skdx.thesilkminer.parserex.v0_1.service.acceptance.TagAcceptanceService;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Stress test for the thread safety of the SKD API.
+ *
+ * <p>Many threads parse the same database at once, with every
+ * parser being created, configured and read on a different thread,
+ * while another thread keeps registering acceptance handlers and
+ * providing acceptance services. Every parse must produce the same
+ * database a single-threaded parse does, whichever of the
+ * {@link #FEATURES features} is enabled, and every thread asking for
+ * the cached parser of a holder must get the same instance.</p>
+ *
+ * @author TheSilkMiner
+ *
+ * @since 0.1
+ */
+public final class ConcurrencyStressTest {
+
+	private static final int THREADS = 8;
+	private static final int ITERATIONS = 200;
+	private static final NewSkdParser.Feature[] FEATURES = {
+			null,
+			NewSkdParser.Feature.DEFERRED_ACCEPTANCE,
+			NewSkdParser.Feature.DEFERRED_SUBTREES
+	};
+
+	/**
+	 * Parses the test database from many threads at once.
+	 *
+	 * @throws InterruptedException
+	 *      If the test is interrupted.
+	 * @throws ExecutionException
+	 *      If one of the threads fails.
+	 *
+	 * @since 0.1
+	 */
+	@Test
+	public void concurrentParsesMatchSequentialOnes()
+			throws InterruptedException, ExecutionException {
+		new ParserExV01().init();
+
+		final File file = new File(ConcurrencyStressTest.class.getResource(
+				"/assets/interpreterx/skdx/thesilkminer/parserex/v0_1/databases/Test.skd")
+				.getFile());
+		final String expected = parse(file, null);
+		final IDatabaseHolder shared = SkdApi.get().api().databaseHolder(file);
+		final ISkdParser cached = NewSkdParser.get(shared, true);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger mismatches = new AtomicInteger();
+		final AtomicInteger replaced = new AtomicInteger();
+		final List<Future<?>> futures = Lists.newArrayList();
+
+		for (int thread = 0; thread < THREADS; ++thread) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < ITERATIONS; ++i) {
+					if (!expected.equals(parse(file, FEATURES[i % FEATURES.length]))) {
+						mismatches.incrementAndGet();
+					}
+					if (NewSkdParser.get(shared, true) != cached) {
+						replaced.incrementAndGet();
+					}
+					DocTypes.get();
+				}
+				return null;
+			}));
+		}
+
+		futures.add(executor.submit(() -> {
+			start.await();
+			for (int i = 0; i < ITERATIONS; ++i) {
+				new TagAcceptanceService().init();
+				new PropertiesAcceptanceService().init();
+				new DatabaseAcceptanceService().init();
+				SkdApi.get().serviceManager().provide(ISkdTag.class, new TagAcceptanceService());
+				SkdApi.get().serviceManager().provide(ISkdProperty.class,
+						new PropertiesAcceptanceService());
+				SkdApi.get().serviceManager().provide(IDatabase.class,
+						new DatabaseAcceptanceService());
+			}
+			return null;
+		}));
+
+		start.countDown();
+
+		try {
+			for (final Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Assert.assertEquals("Concurrent parses differ from sequential ones",
+				0, mismatches.get());
+		Assert.assertEquals("Cached parser replaced", 0, replaced.get());
+		Assert.assertSame(cached, NewSkdParser.get(shared, true));
+	}
+
+	@Nonnull
+	private static String parse(@Nonnull final File file,
+	                            @Nullable final NewSkdParser.Feature feature) {
+		final NewSkdParser parser = (NewSkdParser) NewSkdParser.get(
+				SkdApi.get().api().databaseHolder(file));
+
+		if (feature != null) {
+			parser.enable(feature);
+		}
+
+		return parser.read().toString();
+	}
+}